@@ -1,25 +1,83 @@
 package battleship;
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.util.Scanner;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Console-based controller for the Battleship game. This class handles user input,
  * updates the view based on the state of the model, and facilitates the flow of the game.
+ * Games can optionally be played against a {@link MoveClock}; guesses forfeited by running out of
+ * time are applied before the next guess is processed.
+ *
+ * <p>A line may hold several guesses, such as {@code A1 B2 C3}, or ranges such as {@code A1-A5}
+ * (see {@link GuessBatch}). Such a line is checked as a whole, then its guesses are made in order
+ * with a compact message per shot, followed by one guess count and one grid for the whole line.
  */
 public class BattleshipConsoleController implements BattleshipController {
   private final Readable input; // Input source for user commands
+  private final Closeable source; // What to close to stop reading, or null if nothing can be
   private final BattleshipView view; // View interface for displaying game output
+  private final MoveClock clock; // Time limits, or null if games are not timed
 
   /**
    * Constructs a new {@code BattleshipConsoleController}.
    *
-   * @param input the input source for user commands (e.g., {@link StringReader} or {@link Scanner})
+   * @param input the input source for user commands (e.g., {@link java.io.StringReader})
    * @param view  the view interface used to display game messages and grid states
    */
   public BattleshipConsoleController(Readable input, BattleshipView view) {
+    this(input, view, null);
+  }
+
+  /**
+   * Constructs a new {@code BattleshipConsoleController} that enforces time limits. A game that
+   * runs out of time while waiting for input can only be ended if the input is {@link Closeable}
+   * and closing it unblocks a pending read; prefer the channel constructor for remote players.
+   *
+   * @param input the input source for user commands (e.g., {@link java.io.StringReader})
+   * @param view  the view interface used to display game messages and grid states
+   * @param clock the time limits of each game, or null for untimed games
+   */
+  public BattleshipConsoleController(Readable input, BattleshipView view, MoveClock clock) {
+    this(input, input instanceof Closeable ? (Closeable) input : null, view, clock);
+  }
+
+  /**
+   * Constructs a new {@code BattleshipConsoleController} reading UTF-8 encoded commands from a
+   * channel, such as a pipe or a socket.
+   *
+   * @param input the channel supplying user commands
+   * @param view  the view interface used to display game messages and grid states
+   */
+  public BattleshipConsoleController(ReadableByteChannel input, BattleshipView view) {
+    this(input, view, null);
+  }
+
+  /**
+   * Constructs a new {@code BattleshipConsoleController} reading UTF-8 encoded commands from a
+   * channel and enforcing time limits. A game that runs out of time closes the channel, which
+   * unblocks a pending read.
+   *
+   * @param input the channel supplying user commands
+   * @param view  the view interface used to display game messages and grid states
+   * @param clock the time limits of each game, or null for untimed games
+   */
+  public BattleshipConsoleController(ReadableByteChannel input, BattleshipView view,
+                                     MoveClock clock) {
+    // Close the channel itself: closing the reader would wait for the pending read to finish
+    this(Channels.newReader(input, StandardCharsets.UTF_8), input, view, clock);
+  }
+
+  private BattleshipConsoleController(Readable input, Closeable source, BattleshipView view,
+                                      MoveClock clock) {
     this.input = input;
+    this.source = source;
     this.view = view;
+    this.clock = clock;
   }
 
   /**
@@ -42,30 +100,76 @@ public class BattleshipConsoleController implements BattleshipController {
       throw new RuntimeException("Failed to display the welcome message.", e);
     }
 
-    try (Scanner scanner = new Scanner(input)) {
+    GuessReader reader = new GuessReader(input);
+    GuessBatch batch = new GuessBatch();
+    boolean rendersGrids = view.rendersGrids(); // skip copying grids the view won't read
+    Deadlines deadlines = clock == null ? null : new Deadlines();
+    try {
       while (!model.isGameOver()) {
         try {
           view.displayPromptMessage();
-          if (!scanner.hasNextLine()) {
-            throw new IllegalArgumentException("Input ended unexpectedly.");
+          boolean hasLine;
+          if (deadlines == null) {
+            hasLine = readLine(reader);
+          } else {
+            deadlines.startTurn(maxCount - guessCount);
+            hasLine = readLine(reader, deadlines);
+            int forfeits = deadlines.endTurn();
+            if (deadlines.isExpired()) {
+              // Out of time: forfeit every remaining guess, which ends the game
+              for (forfeits = 0; !model.isGameOver(); forfeits++) {
+                model.forfeitGuess();
+              }
+            } else {
+              for (int i = 0; i < forfeits; i++) {
+                model.forfeitGuess();
+              }
+            }
+            if (forfeits > 0) {
+              guessCount += forfeits;
+              view.displayTimeoutMessage(forfeits);
+              view.displayGuessCount(guessCount);
+              if (model.isGameOver()) {
+                view.displayGameOver(model.areAllShipsSunk());
+                view.displayShipGrid(rendersGrids ? model.getShipGrid() : null);
+                continue;
+              }
+            }
+          }
+          if (!hasLine) {
+            throw new IllegalStateException("Input ended unexpectedly.");
+          }
+          batch.parse(reader.buffer(), reader.lineStart(), reader.lineEnd());
+          boolean isBatch = batch.size() > 1;
+          if (isBatch) {
+            checkBatch(model, batch);
           }
-          String userGuess = scanner.nextLine().trim();
-          int[] answer = parseGuess(userGuess);
 
-          boolean isHit = model.makeGuess(answer[0], answer[1]);
-          guessCount++;
+          for (int i = 0; i < batch.size() && !model.isGameOver(); i++) {
+            int row = GuessParser.rowOf(batch.get(i));
+            int col = GuessParser.colOf(batch.get(i));
+            boolean isHit = model.makeGuess(row, col);
+            guessCount++;
 
-          view.displayGuessCount(guessCount);
-          if (isHit) {
-            view.displayHitMessage();
-          } else {
-            view.displayMissMessage();
+            if (isBatch) {
+              view.displayShotResult(row, col, isHit);
+            } else {
+              view.displayGuessCount(guessCount);
+              if (isHit) {
+                view.displayHitMessage();
+              } else {
+                view.displayMissMessage();
+              }
+            }
+          }
+          if (isBatch) {
+            view.displayGuessCount(guessCount);
           }
-          view.displayCellGrid(model.getCellGrid());
+          view.displayCellGrid(rendersGrids ? model.getCellGrid() : null);
 
           if (model.isGameOver()) {
             view.displayGameOver(model.areAllShipsSunk());
-            view.displayShipGrid(model.getShipGrid());
+            view.displayShipGrid(rendersGrids ? model.getShipGrid() : null);
           }
 
         } catch (IllegalArgumentException e) {
@@ -78,32 +182,207 @@ public class BattleshipConsoleController implements BattleshipController {
       }
     } catch (IOException e) {
       throw new RuntimeException("An error occurred while updating the view.", e);
+    } finally {
+      if (deadlines != null) {
+        deadlines.stop();
+      }
+      closeInput();
     }
   }
 
   /**
-   * Parses a user's guess and converts it into a row and column index.
+   * Checks every guess of a multi-guess line before any is made, so a line is either applied in
+   * full or rejected without changing the game. Shots left over when the game ends are dropped.
    *
-   * @param userGuess the string input by the user, e.g., "A5"
-   * @return an array of integers where the first element is the row and the second is the column.
-   * @throws IllegalArgumentException if the input format is invalid or out of bounds
+   * @param model the model of the game
+   * @param batch the guesses of the line
+   * @throws IllegalArgumentException if a guess is out of bounds, has already been guessed or is
+   *                                  repeated on the line
    */
-  private int[] parseGuess(String userGuess) {
-    userGuess = userGuess.toUpperCase();
+  private static void checkBatch(BattleshipModel model, GuessBatch batch) {
+    CellState[][] grid = model.getCellGrid();
+    for (int i = 0; i < batch.size(); i++) {
+      int row = GuessParser.rowOf(batch.get(i));
+      int col = GuessParser.colOf(batch.get(i));
+      if (row >= grid.length || col >= grid[row].length) {
+        throw new IllegalArgumentException("Coordinates out of bounds");
+      }
+      if (grid[row][col] != CellState.UNKNOWN) {
+        throw new IllegalArgumentException("Cell has already been guessed");
+      }
+      grid[row][col] = CellState.MISS; // the copy only tracks which cells this line takes
+    }
+  }
 
-    if (userGuess.length() != 2) {
-      throw new IllegalArgumentException("User guess must be exactly 2 characters (e.g., A5).");
+  /**
+   * Reads the next line of user input.
+   *
+   * @param reader the reader over the input source
+   * @return true if a line was read, false if the input has ended
+   * @throws RuntimeException if reading the input fails
+   */
+  private boolean readLine(GuessReader reader) {
+    try {
+      return reader.nextLine();
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to read user input.", e);
     }
-    if (userGuess.charAt(0) < 'A' || userGuess.charAt(0) > 'J') {
-      throw new IllegalArgumentException("Row must be a letter between A and J.");
+  }
+
+  /**
+   * Reads the next line of user input while the game is timed. A read that fails because the
+   * clock closed the input counts as the end of the input.
+   *
+   * @param reader    the reader over the input source
+   * @param deadlines the deadlines of the current game
+   * @return true if a line was read, false if the input has ended
+   * @throws RuntimeException if reading the input fails for another reason
+   */
+  private boolean readLine(GuessReader reader, Deadlines deadlines) {
+    try {
+      return reader.nextLine();
+    } catch (IOException e) {
+      if (deadlines.isExpired()) {
+        return false;
+      }
+      throw new RuntimeException("Failed to read user input.", e);
     }
-    if (userGuess.charAt(1) < '0' || userGuess.charAt(1) > '9') {
-      throw new IllegalArgumentException("Column must be a digit between 0 and 9.");
+  }
+
+  /**
+   * Closes the input source once the game is over, if it can be closed.
+   */
+  private void closeInput() {
+    if (source != null) {
+      try {
+        source.close();
+      } catch (IOException e) {
+        // Nothing more will be read, so a failure to close is not worth reporting
+      }
     }
+  }
 
-    int row = userGuess.charAt(0) - 'A';
-    int col = userGuess.charAt(1) - '0';
+  /**
+   * The turn and game deadlines of one timed game. The timeouts expire on the wheel's driver
+   * thread while the controller's thread may be blocked reading input, so all state is guarded by
+   * this object's lock. Expiry never blocks: it only counts forfeits, re-arms the turn, or marks
+   * the game as expired and closes the input from another thread.
+   *
+   * <p>A turn timeout that the wheel has already taken off to expire can't be cancelled, so its
+   * expiry may run after the next turn has started. Each turn therefore gets its own timeout,
+   * numbered by turn, and the expiry of any other turn than the current one is ignored.
+   */
+  private final class Deadlines {
+    private final TimingWheel wheel = clock.getWheel();
+    private final TimingWheel.Timeout game = new TimingWheel.Timeout() {
+      @Override
+      protected void expire() {
+        gameExpired();
+      }
+    };
+    private TurnTimeout turn; // the timeout of the current turn, or null if turns are not timed
+    private long turnNumber;
+    private boolean waiting; // the controller is waiting for the player's guess
+    private int remainingGuesses;
+    private int forfeits;
+    private boolean expired;
+
+    private Deadlines() {
+      if (clock.getGameLimitNanos() > 0) {
+        wheel.schedule(game, clock.getGameLimitNanos(), TimeUnit.NANOSECONDS);
+      }
+    }
+
+    /**
+     * Starts the clock for the player's next guess.
+     *
+     * @param remainingGuesses the number of guesses the player has left
+     */
+    synchronized void startTurn(int remainingGuesses) {
+      this.waiting = true;
+      this.remainingGuesses = remainingGuesses;
+      turnNumber++;
+      if (clock.getTurnLimitNanos() > 0 && !expired) {
+        turn = new TurnTimeout(turnNumber);
+        wheel.schedule(turn, clock.getTurnLimitNanos(), TimeUnit.NANOSECONDS);
+      }
+    }
 
-    return new int[]{row, col};
+    /**
+     * Stops the turn clock once input has been read.
+     *
+     * @return the number of guesses forfeited while waiting for the input
+     */
+    synchronized int endTurn() {
+      waiting = false;
+      cancelTurn();
+      int forfeited = forfeits;
+      forfeits = 0;
+      return forfeited;
+    }
+
+    /**
+     * Checks whether the game has run out of time.
+     *
+     * @return true if the game must end, false otherwise
+     */
+    synchronized boolean isExpired() {
+      return expired;
+    }
+
+    /**
+     * Cancels both deadlines once the game is over.
+     */
+    synchronized void stop() {
+      waiting = false;
+      cancelTurn();
+      wheel.cancel(game);
+    }
+
+    private void cancelTurn() {
+      if (turn != null) {
+        wheel.cancel(turn);
+      }
+    }
+
+    private synchronized void turnExpired(TurnTimeout timeout) {
+      if (timeout.number != turnNumber || !waiting || expired) {
+        return; // the guess arrived just before the deadline
+      }
+      if (clock.getPolicy() == MoveClock.Policy.FORFEIT && ++forfeits < remainingGuesses) {
+        wheel.schedule(turn, clock.getTurnLimitNanos(), TimeUnit.NANOSECONDS);
+      } else {
+        expire();
+      }
+    }
+
+    private synchronized void gameExpired() {
+      if (!expired) {
+        expire();
+      }
+    }
+
+    private void expire() {
+      expired = true;
+      cancelTurn();
+      // Closing may block until a pending read gives up, so keep it off the driver thread
+      Thread.startVirtualThread(BattleshipConsoleController.this::closeInput);
+    }
+
+    /**
+     * The timeout of one turn.
+     */
+    private final class TurnTimeout extends TimingWheel.Timeout {
+      private final long number;
+
+      private TurnTimeout(long number) {
+        this.number = number;
+      }
+
+      @Override
+      protected void expire() {
+        turnExpired(this);
+      }
+    }
   }
 }
@@ -6,10 +6,12 @@ import java.util.Objects;
 /**
  * The BattleshipConsoleView class implements the BattleshipView interface and provides a text-based
  * user interface for the Battleship game. It displays game state information and messages to the
- * user.
+ * user. Grid rows are appended from a shared {@link RowRenderCache}, so rendering a grid takes a
+ * few appends per row instead of two per cell. Every display method is recorded as a
+ * {@link FlightEvents.Render} flight event with the number of characters it wrote.
  */
 public class BattleshipConsoleView implements BattleshipView {
-  private final Appendable out;
+  private final CountingAppendable out;
 
   /**
    * Constructor for the BattleshipConsoleView class.
@@ -18,85 +20,174 @@ public class BattleshipConsoleView implements BattleshipView {
    * @throws NullPointerException if the Appendable is null
    */
   public BattleshipConsoleView(Appendable out) {
-    this.out = Objects.requireNonNull(out, "Appendable can't be null");
+    this.out = new CountingAppendable(Objects.requireNonNull(out, "Appendable can't be null"));
   }
 
   @Override
   public void displayGameOver(boolean win) throws IOException {
+    FlightEvents.Render event = beginRender();
     if (win) {
       out.append("Congratulations! You have sunk all the ships!\n");
     } else {
       out.append("Game Over! You have reached the maximum number of guesses.\n");
     }
+    commitRender(event, "gameOver");
   }
 
   @Override
   public void displayMissMessage() throws IOException {
+    FlightEvents.Render event = beginRender();
     out.append("It's a MISS!\n");
+    commitRender(event, "miss");
+  }
+
+  @Override
+  public void displayTimeoutMessage(int forfeitedGuesses) throws IOException {
+    FlightEvents.Render event = beginRender();
+    out.append("Time's up! Guesses forfeited: ").append(String.valueOf(forfeitedGuesses))
+        .append("\n");
+    commitRender(event, "timeout");
+  }
+
+  @Override
+  public void displayShotResult(int row, int col, boolean isHit) throws IOException {
+    FlightEvents.Render event = beginRender();
+    out.append((char) ('A' + row)).append(String.valueOf(col))
+        .append(isHit ? ": HIT\n" : ": MISS\n");
+    commitRender(event, "shotResult");
   }
 
   @Override
   public void displayHitMessage() throws IOException {
+    FlightEvents.Render event = beginRender();
     out.append("It's a HIT!\n");
+    commitRender(event, "hit");
   }
 
 
   @Override
   public void displayPromptMessage() throws IOException {
+    FlightEvents.Render event = beginRender();
     out.append("Enter your guess (row and column, e.g., A5): ");
+    commitRender(event, "prompt");
   }
 
   @Override
   public void displayWelcomeMessage() throws IOException {
+    FlightEvents.Render event = beginRender();
     out.append("Welcome to Battleship!\n");
+    commitRender(event, "welcome");
   }
 
   @Override
   public void displayCellGrid(CellState[][] cellGrid) throws IOException {
+    FlightEvents.Render event = beginRender();
     out.append("Current Game Grid:\n");
-    out.append("  ");
-    for (int i = 0; i < cellGrid[0].length; i++) {
-      out.append(i + " ");
-    }
-    out.append("\n");
+    out.append(RowRenderCache.header(cellGrid[0].length));
     for (int i = 0; i < cellGrid.length; i++) {
-      out.append((char) ('A' + i) + " ");
-      for (int j = 0; j < cellGrid[i].length; j++) {
-        out.append(cellGrid[i][j].getSymbol() + " ");
-      }
-      out.append("\n");
+      out.append((char) ('A' + i)).append(' ').append(RowRenderCache.cellRow(cellGrid[i]));
     }
+    commitRender(event, "cellGrid");
   }
 
   @Override
   public void displayShipGrid(ShipType[][] shipGrid) throws IOException {
+    FlightEvents.Render event = beginRender();
     out.append("Final Ship Positions:\n");
-    out.append("  ");
-    for (int i = 0; i < shipGrid[0].length; i++) {
-      out.append(i + " ");
-    }
-    out.append("\n");
+    out.append(RowRenderCache.header(shipGrid[0].length));
     for (int i = 0; i < shipGrid.length; i++) {
-      out.append((char) ('A' + i) + " ");
-      for (int j = 0; j < shipGrid[i].length; j++) {
-        out.append(shipGrid[i][j] == null ? "- " : shipGrid[i][j].getSymbol() + " ");
-      }
-      out.append("\n");
+      out.append((char) ('A' + i)).append(' ').append(RowRenderCache.shipRow(shipGrid[i]));
     }
+    commitRender(event, "shipGrid");
   }
 
   @Override
   public void displayGuessCount(int currentGuesses) throws IOException {
+    FlightEvents.Render event = beginRender();
     out.append("Guesses Made: ").append(String.valueOf(currentGuesses)).append("\n");
+    commitRender(event, "guessCount");
   }
 
   @Override
   public void displayMaxGuesses(int maxGuesses) throws IOException {
+    FlightEvents.Render event = beginRender();
     out.append("Maximum Guesses Allowed: ").append(String.valueOf(maxGuesses)).append("\n");
+    commitRender(event, "maxGuesses");
   }
 
   @Override
   public void displayErrorMessage(String message) throws IOException {
+    FlightEvents.Render event = beginRender();
     out.append("Error: ").append(message).append("\n");
+    commitRender(event, "error");
+  }
+
+  /**
+   * Starts the flight event of one render.
+   *
+   * @return the started event
+   */
+  FlightEvents.Render beginRender() {
+    FlightEvents.Render event = new FlightEvents.Render();
+    event.begin();
+    event.startCount = out.count;
+    return event;
+  }
+
+  /**
+   * Commits the flight event of one render if a recording has it enabled.
+   *
+   * @param event   the event returned by {@link #beginRender()}
+   * @param element what was rendered
+   */
+  void commitRender(FlightEvents.Render event, String element) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.element = element;
+      event.bytes = out.count - event.startCount;
+      event.commit();
+    }
+  }
+
+  /**
+   * Returns the output destination, for subclasses rendering their own messages.
+   *
+   * @return the output destination, counting the characters written to it
+   */
+  Appendable output() {
+    return out;
+  }
+
+  /**
+   * Appendable that counts the characters passed through to the output.
+   */
+  private static final class CountingAppendable implements Appendable {
+    private final Appendable out;
+    private long count;
+
+    CountingAppendable(Appendable out) {
+      this.out = out;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) throws IOException {
+      out.append(csq);
+      count += csq == null ? 4 : csq.length(); // null is appended as "null"
+      return this;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) throws IOException {
+      out.append(csq, start, end);
+      count += end - start;
+      return this;
+    }
+
+    @Override
+    public Appendable append(char c) throws IOException {
+      out.append(c);
+      count++;
+      return this;
+    }
   }
 }
@@ -24,6 +24,24 @@ public interface BattleshipModel {
    */
   boolean makeGuess(int row, int col);
 
+  /**
+   * Uses up one guess without revealing any cell, e.g. when the player runs out of time for a
+   * turn. Ends the game like any other guess once the maximum number of guesses is reached.
+   *
+   * @throws IllegalStateException if the game is already over
+   */
+  void forfeitGuess();
+
+  /**
+   * Gets the type of the ship sunk by the most recent guess.
+   *
+   * @return the type of the ship sunk by the last guess, or null if the last guess sank no ship or
+   *         the model doesn't track sinkings
+   */
+  default ShipType getLastSunkShip() {
+    return null;
+  }
+
   /**
    * Checks if the game is over.
    *
@@ -1,6 +1,8 @@
 package battleship;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 /**
@@ -10,23 +12,36 @@ import java.util.Random;
  * It provides methods to start the game, make guesses, check game status,
  * and retrieve game grid states.
  * The game board is represented by two grids:
- * <code>boardGrid</code>: Tracks the actual placement of ships.
+ * <code>boardGrid</code>: Tracks the actual placement of ships, pointing each occupied cell at
+ * the ship occupying it.
  * <code>userGrid</code>: Tracks the player's guesses and the state of each cell
  * (hit, miss, unknown).
+ * Every guess is also appended to a move journal of packed cells, so guesses can be undone and
+ * redone in O(1) without copying the grids.
  * The class supports seeding for random placements,
  * making it useful for testing. Once the game is over,
  * the ship placements are revealed.
  */
 
-public class BattleshipModelImpl implements BattleshipModel {
-  private ShipType[][] boardGrid;
+public class BattleshipModelImpl implements UndoableBattleshipModel {
+  // Upper bound on random placement attempts per ship before giving up on a crowded board
+  private static final int MAX_PLACEMENT_ATTEMPTS = 1_000_000;
+
+  private Ship[][] boardGrid;
   private CellState[][] userGrid;
   private int guessCounts;
   private int maxCounts;
   private boolean isGameOver;
   private boolean areAllShipsDestroyed;
   private List<Ship> ships;
+  private int sunkShips;
+  private ShipType lastSunkShip;
   private Random random; //test with seed
+  private final Fleet fleet;
+  private static final long FORFEIT = -1L; // journal entry of a forfeited guess
+  private long[] journal; // packed cells (row * cols + col) of the guesses, in order
+  private int journalCursor; // number of journal entries currently applied
+  private int journalLength; // number of journal entries, including undone ones
 
   /**
    * Constructor to initialize a new Battleship game model with a maximum number of allowed guesses.
@@ -34,20 +49,7 @@ public class BattleshipModelImpl implements BattleshipModel {
    * @param maxCounts the maximum number of guesses allowed in the game.
    */
   public BattleshipModelImpl(int maxCounts) {
-    this.maxCounts = maxCounts;
-    this.boardGrid = new ShipType[10][10];
-    this.userGrid = new CellState[10][10];
-    this.isGameOver = false;
-    this.areAllShipsDestroyed = false;
-    this.guessCounts = 0;
-    this.ships = new ArrayList<>();
-    this.random = new Random();
-
-    for (int i = 0; i < userGrid.length; i++) {
-      for (int j = 0; j < userGrid[0].length; j++) {
-        userGrid[i][j] = CellState.UNKNOWN;
-      }
-    }
+    this(maxCounts, new Random(), Fleet.standard(), 10, 10);
   }
 
   /**
@@ -58,14 +60,55 @@ public class BattleshipModelImpl implements BattleshipModel {
    * @param seed the seed for random placement of ships.
    */
   public BattleshipModelImpl(int maxCounts, long seed) {
+    this(maxCounts, new Random(seed), Fleet.standard(), 10, 10);
+  }
+
+  /**
+   * Constructor to initialize a new Battleship game model with a custom fleet and board size.
+   *
+   * @param maxCounts the maximum number of guesses allowed in the game.
+   * @param fleet the ships to place at the start of the game.
+   * @param rows the number of rows of the board.
+   * @param cols the number of columns of the board.
+   * @throws IllegalArgumentException if the board is empty or too small to hold the fleet
+   */
+  public BattleshipModelImpl(int maxCounts, Fleet fleet, int rows, int cols) {
+    this(maxCounts, new Random(), fleet, rows, cols);
+  }
+
+  /**
+   * Constructor to initialize a new Battleship game model with a custom fleet and board size and
+   * a specific seed for random placement.
+   *
+   * @param maxCounts the maximum number of guesses allowed in the game.
+   * @param seed the seed for random placement of ships.
+   * @param fleet the ships to place at the start of the game.
+   * @param rows the number of rows of the board.
+   * @param cols the number of columns of the board.
+   * @throws IllegalArgumentException if the board is empty or too small to hold the fleet
+   */
+  public BattleshipModelImpl(int maxCounts, long seed, Fleet fleet, int rows, int cols) {
+    this(maxCounts, new Random(seed), fleet, rows, cols);
+  }
+
+  private BattleshipModelImpl(int maxCounts, Random random, Fleet fleet, int rows, int cols) {
+    if (rows <= 0 || cols <= 0) {
+      throw new IllegalArgumentException("Board dimensions must be positive.");
+    }
+    // Ships are never placed in the first row or column, see isCellOccupied
+    if ((long) (rows - 1) * (cols - 1) < fleet.getTotalCells()) {
+      throw new IllegalArgumentException("The board is too small for the fleet.");
+    }
     this.maxCounts = maxCounts;
-    this.boardGrid = new ShipType[10][10];
-    this.userGrid = new CellState[10][10];
+    this.boardGrid = new Ship[rows][cols];
+    this.userGrid = new CellState[rows][cols];
     this.isGameOver = false;
     this.areAllShipsDestroyed = false;
     this.guessCounts = 0;
     this.ships = new ArrayList<>();
-    this.random = new Random(seed);
+    this.random = random;
+    this.fleet = fleet;
+    this.journal = new long[16];
 
     for (int i = 0; i < userGrid.length; i++) {
       for (int j = 0; j < userGrid[0].length; j++) {
@@ -76,6 +119,8 @@ public class BattleshipModelImpl implements BattleshipModel {
 
   /**
    * Initializes the game by setting up the grids and randomly placing ships.
+   *
+   * @throws IllegalStateException if a ship of the fleet can't be placed on the board
    */
   @Override
   public void startGame() {
@@ -83,33 +128,44 @@ public class BattleshipModelImpl implements BattleshipModel {
     isGameOver = false;
     guessCounts = 0;
     areAllShipsDestroyed = false;
+    sunkShips = 0;
+    lastSunkShip = null;
+    journalCursor = 0;
+    journalLength = 0;
     ships.clear();  // Clear any previously placed shipss
 
-    // Define ships
-    ShipType[] ships = {
-        ShipType.AIRCRAFT_CARRIER,
-        ShipType.BATTLESHIP,
-        ShipType.SUBMARINE,
-        ShipType.DESTROYER,
-        ShipType.PATROL_BOAT
-    };
-
-    // Place each ship
-    for (ShipType ship : ships) {
+    FlightEvents.GameStart event = new FlightEvents.GameStart();
+    event.begin();
+    long retries = 0;
+    // Place each ship of the fleet
+    for (ShipType ship : fleet.getShips()) {
       boolean placed = false;
 
       // Keep trying to place the ship until a valid position is found
-      while (!placed) {
-        int row = random.nextInt(10);        // Random row between 0 and 9
-        int col = random.nextInt(10);        // Random column between 0 and 9
+      for (int attempt = 0; !placed; attempt++) {
+        if (attempt == MAX_PLACEMENT_ATTEMPTS) {
+          throw new IllegalStateException("Unable to place " + ship + " on the board.");
+        }
+        int row = random.nextInt(boardGrid.length);    // Random row on the board
+        int col = random.nextInt(boardGrid[0].length); // Random column on the board
         boolean isVertical = random.nextBoolean(); // Random orientation
 
         if (canGenerateShip(row, col, ship, isVertical)) {
           generateShip(row, col, ship, isVertical);
           placed = true; // Ship placed successfully, exit loop
+        } else {
+          retries++;
         }
       }
     }
+    event.end();
+    if (event.shouldCommit()) {
+      event.rows = boardGrid.length;
+      event.cols = boardGrid[0].length;
+      event.ships = ships.size();
+      event.retries = retries;
+      event.commit();
+    }
   }
   /**
    * Attempts to place a ship on the board at the specified row, column, and orientation.
@@ -121,19 +177,12 @@ public class BattleshipModelImpl implements BattleshipModel {
    */
 
   private void generateShip(int row, int col, ShipType shipType, boolean isVertical) {
-    int shipSize = shipType.getSize();
-    List<int[]> coordinates = new ArrayList<>();
+    Ship ship = new Ship(shipType, row, col, isVertical);
 
-    for (int i = 0; i < shipSize; i++) {
-      if (isVertical) {
-        boardGrid[row + i][col] = shipType; // Place symbol vertically
-        coordinates.add(new int[]{row + i, col});
-      } else {
-        boardGrid[row][col + i] = shipType; // Place symbol horizontally
-        coordinates.add(new int[]{row, col + i});
-      }
+    for (int i = 0; i < ship.getSize(); i++) {
+      boardGrid[ship.getCellRow(i)][ship.getCellCol(i)] = ship; // Place ship along its shape
     }
-    ships.add(new Ship(shipType, coordinates));
+    ships.add(ship);
   }
 
   /**
@@ -148,27 +197,15 @@ public class BattleshipModelImpl implements BattleshipModel {
   private boolean canGenerateShip(int row, int col, ShipType shipType, boolean isVertical) {
     int shipSize = shipType.getSize();
 
-    // Boundary check based on orientation
-    if (isVertical) {
-      if (row + shipSize > boardGrid.length) {
-        return false; // Out of bounds vertically
-      }
-    } else {
-      if (col + shipSize > boardGrid[0].length) {
-        return false; // Out of bounds horizontally
-      }
-    }
-
-    // Check each cell along the ship's path
+    // Check each cell along the ship's shape
     for (int i = 0; i < shipSize; i++) {
-      if (isVertical) {
-        if (isCellOccupied(row + i, col)) {
-          return false; // Cell is occupied or out of bounds
-        }
-      } else {
-        if (isCellOccupied(row, col + i)) {
-          return false; // Cell is occupied or out of bounds
-        }
+      int r = row + shipType.getRowOffset(i, isVertical);
+      int c = col + shipType.getColOffset(i, isVertical);
+      if (r >= boardGrid.length || c >= boardGrid[0].length) {
+        return false; // Out of bounds
+      }
+      if (isCellOccupied(r, c)) {
+        return false; // Cell is occupied or out of bounds
       }
     }
     return true; // All checks passed; ship can be placed
@@ -183,13 +220,25 @@ public class BattleshipModelImpl implements BattleshipModel {
    */
   // Helper method to check if a cell is occupied or out of bounds
   private boolean isCellOccupied(int row, int col) {
-    return row <= 0
-        || row >= boardGrid.length
-        || col <= 0
-        || col >= boardGrid[0].length
+    return !isPlaceable(row, col, boardGrid.length, boardGrid[0].length)
         || boardGrid[row][col] != null;
   }
 
+  /**
+   * Checks if a ship may cover the specified cell of an empty board. Ships are never placed in the
+   * first row or column. Shared with the other models and the strategy tools so they all follow
+   * the same placement rules.
+   *
+   * @param row the row index of the cell.
+   * @param col the column index of the cell.
+   * @param rows the number of rows of the board.
+   * @param cols the number of columns of the board.
+   * @return true if a ship may cover the cell, false otherwise.
+   */
+  static boolean isPlaceable(int row, int col, int rows, int cols) {
+    return row > 0 && row < rows && col > 0 && col < cols;
+  }
+
 
 
   /**
@@ -214,8 +263,48 @@ public class BattleshipModelImpl implements BattleshipModel {
       throw new IllegalArgumentException("Cell has already been guessed");
     }
 
+    FlightEvents.Guess event = new FlightEvents.Guess();
+    event.begin();
+    record((long) row * userGrid[0].length + col);
+
+    boolean isHit = applyGuess(row, col);
+    if (event.shouldCommit()) {
+      event.row = row;
+      event.col = col;
+      event.hit = isHit;
+      event.commit();
+    }
+    commitOutcomeEvents();
+    return isHit;
+  }
+
+  /**
+   * Commits the flight events of a ship sunk or a game ended by the latest guess.
+   */
+  private void commitOutcomeEvents() {
+    if (lastSunkShip != null) {
+      FlightEvents.shipSunk(lastSunkShip, guessCounts);
+      if (sunkShips == ships.size()) {
+        FlightEvents.gameOver(true, guessCounts, maxCounts);
+        return;
+      }
+    }
+    if (guessCounts == maxCounts) {
+      FlightEvents.gameOver(false, guessCounts, maxCounts);
+    }
+  }
+
+  /**
+   * Updates the grids and ships for a valid guess.
+   *
+   * @param row the row index (0-based)
+   * @param col the column index (0-based)
+   * @return true if the guess was a hit, false otherwise
+   */
+  private boolean applyGuess(int row, int col) {
     final CellState missingSymbol = CellState.MISS;
     final CellState hitSymbol = CellState.HIT;
+    lastSunkShip = null;
 
     if (boardGrid[row][col] == null) {
       guessCounts++;
@@ -225,6 +314,14 @@ public class BattleshipModelImpl implements BattleshipModel {
       guessCounts++;
       userGrid[row][col] = hitSymbol;
 
+      Ship ship = boardGrid[row][col];
+      boolean wasSunk = ship.isSunk();
+      ship.markHit(ship.indexOf(row, col));
+      if (!wasSunk && ship.isSunk()) {
+        sunkShips++;
+        lastSunkShip = ship.getType();
+      }
+
       if (areAllShipsSunk()) {
         isGameOver = true;  // Mark game as over if all ships are sunk
       }
@@ -232,6 +329,96 @@ public class BattleshipModelImpl implements BattleshipModel {
     }
   }
 
+  /**
+   * Reverts the most recent guess that has not been undone yet, including one that ended the
+   * game. Costs O(1) and copies nothing.
+   *
+   * @return true if a guess was undone, false if there was no guess to undo
+   */
+  @Override
+  public boolean undo() {
+    if (journalCursor == 0) {
+      return false;
+    }
+    long cell = journal[--journalCursor];
+    if (cell != FORFEIT) {
+      int row = (int) (cell / userGrid[0].length);
+      int col = (int) (cell % userGrid[0].length);
+      if (userGrid[row][col] == CellState.HIT) {
+        Ship ship = boardGrid[row][col];
+        ship.clearHit(ship.indexOf(row, col));
+        if (!ship.isSunk()) {
+          sunkShips--;
+        }
+      }
+      userGrid[row][col] = CellState.UNKNOWN;
+    }
+    guessCounts--;
+    lastSunkShip = null;
+    isGameOver = false; // the game was still running when the undone guess was made
+    return true;
+  }
+
+  /**
+   * Re-applies the most recently undone guess.
+   *
+   * @return true if a guess was redone, false if there was no undone guess to redo
+   */
+  @Override
+  public boolean redo() {
+    if (journalCursor == journalLength) {
+      return false;
+    }
+    long cell = journal[journalCursor++];
+    if (cell == FORFEIT) {
+      guessCounts++;
+      lastSunkShip = null;
+    } else {
+      applyGuess((int) (cell / userGrid[0].length), (int) (cell % userGrid[0].length));
+    }
+    return true;
+  }
+
+  /**
+   * Uses up one guess without revealing any cell. The forfeit is journaled like a guess, so it can
+   * be undone and redone.
+   *
+   * @throws IllegalStateException if the game is already over
+   */
+  @Override
+  public void forfeitGuess() {
+    if (isGameOver) {
+      throw new IllegalStateException("The game is already over");
+    }
+    record(FORFEIT);
+    guessCounts++;
+    lastSunkShip = null;
+    commitOutcomeEvents();
+  }
+
+  /**
+   * Appends an entry to the move journal, discarding any undone entries.
+   *
+   * @param entry the packed cell of a guess, or {@link #FORFEIT}
+   */
+  private void record(long entry) {
+    if (journalCursor == journal.length) {
+      journal = Arrays.copyOf(journal, journal.length * 2);
+    }
+    journal[journalCursor++] = entry;
+    journalLength = journalCursor;
+  }
+
+  /**
+   * Gets the type of the ship sunk by the most recent guess.
+   *
+   * @return the type of the ship sunk by the last guess, or null if the last guess sank no ship
+   */
+  @Override
+  public ShipType getLastSunkShip() {
+    return lastSunkShip;
+  }
+
   /**
    * Checks if a given coordinate is within the bounds of the game grid.
    *
@@ -271,18 +458,9 @@ public class BattleshipModelImpl implements BattleshipModel {
    */
   @Override
   public boolean areAllShipsSunk() {
-    for (Ship ship : ships) {
-      for (int[] coordinate : ship.getCoordinates()) {
-        if (userGrid[coordinate[0]][coordinate[1]] == CellState.HIT) {
-          ship.markHits();
-        }
-      }
-    }
-
-    for (Ship ship : ships) {
-      if (!ship.isSunk()) {
-        return false;
-      }
+    // Hits are recorded on the ships as guesses are made, so only the tally needs checking
+    if (sunkShips < ships.size()) {
+      return false;
     }
     isGameOver = true;
     return true;
@@ -342,12 +520,21 @@ public class BattleshipModelImpl implements BattleshipModel {
     ShipType[][] copy = new ShipType[boardGrid.length][boardGrid[0].length];
     for (int i = 0; i < boardGrid.length; i++) {
       for (int j = 0; j < boardGrid[i].length; j++) {
-        copy[i][j] = boardGrid[i][j];
+        copy[i][j] = boardGrid[i][j] == null ? null : boardGrid[i][j].getType();
       }
     }
     return copy;
   }
 
+  /**
+   * Returns the ships placed for the current game, in placement order.
+   *
+   * @return an unmodifiable view of the placed ships
+   */
+  List<Ship> getShips() {
+    return Collections.unmodifiableList(ships);
+  }
+
   /**
    * Returns a string representation of the user grid, showing the player's view of the game.
    * If the game is over, it also displays the ship grid.
@@ -381,7 +568,7 @@ public class BattleshipModelImpl implements BattleshipModel {
           if (boardGrid[i][j] == null) {
             sb.append("_ "); // Empty cells
           } else {
-            sb.append(boardGrid[i][j].getSymbol() + " "); // Display ship symbols
+            sb.append(boardGrid[i][j].getType().getSymbol() + " "); // Display ship symbols
           }
         }
         sb.append("\n");
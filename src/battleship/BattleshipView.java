@@ -26,7 +26,8 @@ public interface BattleshipView {
   /**
    * Displays the current state of the player's grid, showing hits, misses, and unknown cells.
    *
-   * @param cellGrid a 2D array representing the cell grid state
+   * @param cellGrid a 2D array representing the cell grid state, or null if
+   *                 {@link #rendersGrids()} is false
    * @throws IOException if an I/O error occurs
    */
   void displayCellGrid(CellState[][] cellGrid) throws IOException;
@@ -34,11 +35,23 @@ public interface BattleshipView {
   /**
    * Displays the ship grid after the game has ended, revealing the positions of all ships.
    *
-   * @param shipGrid a 2D array representing the ship grid state
+   * @param shipGrid a 2D array representing the ship grid state, or null if
+   *                 {@link #rendersGrids()} is false
    * @throws IOException if an I/O error occurs
    */
   void displayShipGrid(ShipType[][] shipGrid) throws IOException;
 
+  /**
+   * Checks whether this view reads the grids passed to {@link #displayCellGrid} and
+   * {@link #displayShipGrid}. Controllers pass null instead of copying the model's grids to views
+   * that don't.
+   *
+   * @return true if the view renders grid contents, false otherwise
+   */
+  default boolean rendersGrids() {
+    return true;
+  }
+
   /**
    * Displays the current number of guesses the player has made.
    *
@@ -71,6 +84,16 @@ public interface BattleshipView {
    */
   void displayGameOver(boolean win) throws IOException;
 
+  /**
+   * Displays a message indicating that the player ran out of time and forfeited guesses. Views
+   * that don't report timeouts can ignore it.
+   *
+   * @param forfeitedGuesses the number of guesses forfeited since the last message
+   * @throws IOException if an I/O error occurs
+   */
+  default void displayTimeoutMessage(int forfeitedGuesses) throws IOException {
+  }
+
   /**
    * Displays a message indicating that the player made a hit.
    *
@@ -84,4 +107,22 @@ public interface BattleshipView {
    * @throws IOException if an I/O error occurs
    */
   void displayMissMessage() throws IOException;
+
+  /**
+   * Displays the outcome of one shot of a line with several guesses, such as {@code A1 B2 C3}.
+   * Such a line gets one compact message per shot, followed by a single guess count and grid.
+   * Views that don't override this show the usual hit or miss message for each shot.
+   *
+   * @param row   the row index of the shot (0-based)
+   * @param col   the column index of the shot (0-based)
+   * @param isHit whether the shot hit a ship
+   * @throws IOException if an I/O error occurs
+   */
+  default void displayShotResult(int row, int col, boolean isHit) throws IOException {
+    if (isHit) {
+      displayHitMessage();
+    } else {
+      displayMissMessage();
+    }
+  }
 }
@@ -0,0 +1,281 @@
+package battleship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Canonical forms of hit/miss states under the symmetries of a board, for caches keyed on board
+ * states. Mirroring or rotating a state, together with the answer found for it, gives another
+ * state and its answer, so a cache only needs to hold one of them.
+ *
+ * <p>Ships may only cover the inner {@code (rows - 1) x (cols - 1)} rectangle of the board (see
+ * {@link BattleshipModelImpl#isPlaceable(int, int, int, int)}), so the symmetries are those of
+ * that rectangle, with the first row and column mapped onto themselves: up to 8 on square boards
+ * and up to 4 otherwise. A symmetry is only used if it maps the placements of every ship of the
+ * fleet onto placements of the same ship. Straight ships allow all of them; a shaped ship that
+ * isn't its own mirror image rules out the mirrorings that would turn it into one.
+ *
+ * <p>{@link #canonicalize(byte[], long)} picks the symmetric state whose cell codes are smallest in
+ * row-major order and returns it as a {@link Key}, together with the symmetry that produced it.
+ * Cells found on the canonical board are mapped back with {@link #fromCanonical(int, int)}.
+ */
+public final class BoardSymmetry {
+  /**
+   * The symmetry that leaves every cell in place.
+   */
+  public static final int IDENTITY = 0;
+
+  private static final int FLIP_ROWS = 1;
+  private static final int FLIP_COLS = 2;
+  private static final int TRANSPOSE = 4;
+
+  private final int length;
+  private final int[] transforms; // the usable symmetries, as FLIP_ROWS | FLIP_COLS | TRANSPOSE
+  private final int[][] toCanonical; // indexed by transform, then by original cell
+  private final int[][] fromCanonical; // indexed by transform, then by canonical cell
+  private final long[] shipGroups; // ships of the same type, as masks of fleet indices
+
+  /**
+   * A canonical board state, usable as a hash key. Cell codes are packed two bits per cell.
+   */
+  public static final class Key {
+    private final long[] words;
+    private final long remaining;
+    private final int hash;
+
+    private Key(long[] words, long remaining) {
+      this.words = words;
+      this.remaining = remaining;
+      this.hash = 31 * Arrays.hashCode(words) + Long.hashCode(remaining);
+    }
+
+    /**
+     * Returns the cell code of one cell of the canonical board.
+     *
+     * @param cell the index of the cell on the canonical board
+     * @return the cell code, see {@link PlacementHeatmap}
+     */
+    public byte getCell(int cell) {
+      return (byte) (words[cell >>> 5] >>> ((cell & 31) << 1) & 3);
+    }
+
+    /**
+     * Returns the ships that remain to be sunk, with ships of the same type renumbered to the
+     * lowest fleet indices of that type.
+     *
+     * @return a mask of fleet indices
+     */
+    public long getRemaining() {
+      return remaining;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key other && hash == other.hash && remaining == other.remaining
+          && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * A canonical state and the symmetry that maps the original state onto it.
+   *
+   * @param key       the canonical state
+   * @param transform the symmetry, for {@link #toCanonical(int, int)} and
+   *                  {@link #fromCanonical(int, int)}
+   */
+  public record Canonical(Key key, int transform) {
+  }
+
+  private BoardSymmetry(int rows, int cols, List<ShipType> ships) {
+    this.length = rows * cols;
+    List<Integer> usable = new ArrayList<>();
+    for (int transform = 0; transform < 8; transform++) {
+      if ((transform & TRANSPOSE) != 0 && rows != cols) {
+        continue;
+      }
+      boolean preservesShips = true;
+      for (ShipType ship : ships) {
+        preservesShips &= preserves(ship, transform);
+      }
+      if (preservesShips) {
+        usable.add(transform);
+      }
+    }
+    this.transforms = usable.stream().mapToInt(Integer::intValue).toArray();
+
+    this.toCanonical = new int[8][];
+    this.fromCanonical = new int[8][];
+    for (int transform : transforms) {
+      int[] to = new int[length];
+      int[] from = new int[length];
+      for (int row = 0; row < rows; row++) {
+        for (int col = 0; col < cols; col++) {
+          int r = (transform & FLIP_ROWS) != 0 && row > 0 ? rows - row : row;
+          int c = (transform & FLIP_COLS) != 0 && col > 0 ? cols - col : col;
+          int mapped = (transform & TRANSPOSE) != 0 ? c * cols + r : r * cols + c;
+          to[row * cols + col] = mapped;
+          from[mapped] = row * cols + col;
+        }
+      }
+      toCanonical[transform] = to;
+      fromCanonical[transform] = from;
+    }
+
+    long[] groups = new long[ships.size()];
+    int groupCount = 0;
+    boolean[] grouped = new boolean[ships.size()];
+    for (int i = 0; i < ships.size(); i++) {
+      if (!grouped[i]) {
+        for (int j = i; j < ships.size(); j++) {
+          if (ships.get(j) == ships.get(i)) {
+            groups[groupCount] |= 1L << j;
+            grouped[j] = true;
+          }
+        }
+        groupCount++;
+      }
+    }
+    this.shipGroups = Arrays.copyOf(groups, groupCount);
+  }
+
+  /**
+   * Returns the symmetries of a board size and fleet.
+   *
+   * @param rows  the number of rows of the board
+   * @param cols  the number of columns of the board
+   * @param fleet the fleet
+   * @return the symmetries
+   * @throws IllegalArgumentException if the fleet has more than 64 ships
+   */
+  public static BoardSymmetry of(int rows, int cols, Fleet fleet) {
+    if (fleet.size() > Long.SIZE) {
+      throw new IllegalArgumentException("Fleets of more than 64 ships are not supported.");
+    }
+    return new BoardSymmetry(rows, cols, fleet.getShips());
+  }
+
+  /**
+   * Returns the number of symmetries used, including the identity.
+   *
+   * @return 1, 2, 4 or 8
+   */
+  public int getTransformCount() {
+    return transforms.length;
+  }
+
+  /**
+   * Computes the canonical form of a state.
+   *
+   * @param cells     the row-major cell codes of the board, see {@link PlacementHeatmap}
+   * @param remaining the ships that remain to be sunk, as a mask of fleet indices
+   * @return the canonical state and the symmetry that maps the given state onto it
+   */
+  public Canonical canonicalize(byte[] cells, long remaining) {
+    // The canonical state is smallest at its first differing cell; compare the candidates in
+    // place and only pack the winner
+    int best = IDENTITY;
+    int[] bestFrom = fromCanonical[IDENTITY];
+    for (int t = 1; t < transforms.length; t++) {
+      int[] from = fromCanonical[transforms[t]];
+      for (int cell = 0; cell < length; cell++) {
+        int diff = cells[from[cell]] - cells[bestFrom[cell]];
+        if (diff != 0) {
+          if (diff < 0) {
+            best = transforms[t];
+            bestFrom = from;
+          }
+          break;
+        }
+      }
+    }
+
+    long[] words = new long[(length + 31) >>> 5];
+    for (int cell = 0; cell < length; cell++) {
+      words[cell >>> 5] |= (long) cells[bestFrom[cell]] << ((cell & 31) << 1);
+    }
+    return new Canonical(new Key(words, canonicalRemaining(remaining)), best);
+  }
+
+  /**
+   * Maps a cell of the original board to the canonical board.
+   *
+   * @param transform the symmetry returned with the canonical state
+   * @param cell      the index of the cell on the original board
+   * @return the index of the cell on the canonical board
+   */
+  public int toCanonical(int transform, int cell) {
+    return toCanonical[transform][cell];
+  }
+
+  /**
+   * Maps a cell of the canonical board back to the original board, e.g. the best shot found for
+   * the canonical state.
+   *
+   * @param transform the symmetry returned with the canonical state
+   * @param cell      the index of the cell on the canonical board
+   * @return the index of the cell on the original board
+   */
+  public int fromCanonical(int transform, int cell) {
+    return fromCanonical[transform][cell];
+  }
+
+  private long canonicalRemaining(long remaining) {
+    long canonical = 0;
+    for (long group : shipGroups) {
+      int count = Long.bitCount(remaining & group);
+      for (long left = group; count > 0; count--) {
+        canonical |= Long.lowestOneBit(left);
+        left &= left - 1;
+      }
+    }
+    return canonical;
+  }
+
+  /**
+   * Checks that a symmetry maps the shapes of both orientations of a ship onto shapes of either
+   * orientation, so that it maps the ship's placements onto placements.
+   */
+  private static boolean preserves(ShipType ship, int transform) {
+    List<long[]> shapes = List.of(shape(ship, false, IDENTITY), shape(ship, true, IDENTITY));
+    for (boolean isVertical : new boolean[] {false, true}) {
+      long[] mapped = shape(ship, isVertical, transform);
+      if (!Arrays.equals(mapped, shapes.get(0)) && !Arrays.equals(mapped, shapes.get(1))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the cells of a ship after a symmetry, moved to the top-left corner and sorted.
+   */
+  private static long[] shape(ShipType ship, boolean isVertical, int transform) {
+    int size = ship.getSize();
+    int[] rows = new int[size];
+    int[] cols = new int[size];
+    int minRow = Integer.MAX_VALUE;
+    int minCol = Integer.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      int r = ship.getRowOffset(i, isVertical);
+      int c = ship.getColOffset(i, isVertical);
+      r = (transform & FLIP_ROWS) != 0 ? -r : r;
+      c = (transform & FLIP_COLS) != 0 ? -c : c;
+      rows[i] = (transform & TRANSPOSE) != 0 ? c : r;
+      cols[i] = (transform & TRANSPOSE) != 0 ? r : c;
+      minRow = Math.min(minRow, rows[i]);
+      minCol = Math.min(minCol, cols[i]);
+    }
+    long[] cells = new long[size];
+    for (int i = 0; i < size; i++) {
+      cells[i] = (long) (rows[i] - minRow) << 32 | (cols[i] - minCol);
+    }
+    Arrays.sort(cells);
+    return cells;
+  }
+}
@@ -0,0 +1,268 @@
+package battleship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link BattleshipView} that forwards everything to the player's view and also streams the game
+ * to any number of spectators. The game is rendered once, as by {@link BattleshipConsoleView}, no
+ * matter how many spectators are attached.
+ *
+ * <p>The rendered text is cut into frames. A frame ends with each prompt and with the final ship
+ * grid, so every frame after a guess holds the complete cell grid. A finished frame is encoded
+ * into a read-only {@link ByteBuffer} that all spectators share. Publishing it only replaces a
+ * volatile reference and wakes the spectators, so the player's controller never waits for them.
+ *
+ * <p>Each spectator writes frames to its own channel on its own virtual thread. A spectator
+ * always sends the latest frame, so one that falls behind skips the frames it missed instead of
+ * queueing them. Every frame also keeps the latest cell grid, so a spectator that skipped the
+ * frame holding it, e.g. landing on a frame with only an error message, is sent the grid first.
+ * A spectator is dropped when writing to its channel fails. Methods of the
+ * {@link BattleshipView} interface must be called from a single thread, as by a controller;
+ * {@link #attach(WritableByteChannel)} may be called from any thread.
+ */
+public class BroadcastBattleshipView implements BattleshipView, Closeable {
+  private final BattleshipView delegate;
+  private final StringBuilder pending;
+  private final BattleshipView renderer;
+  private final List<Spectator> spectators;
+  private byte[] pendingGrid; // the cell grid rendered since the last frame, if any
+  private volatile Frame latest;
+  private volatile boolean closed;
+
+  /**
+   * Constructs a broadcasting view around the player's view.
+   *
+   * @param delegate the view that displays the game to the player
+   * @throws NullPointerException if the view is null
+   */
+  public BroadcastBattleshipView(BattleshipView delegate) {
+    this.delegate = Objects.requireNonNull(delegate, "View can't be null");
+    this.pending = new StringBuilder();
+    this.renderer = new BattleshipConsoleView(pending);
+    this.spectators = new CopyOnWriteArrayList<>();
+    ByteBuffer empty = ByteBuffer.allocate(0).asReadOnlyBuffer();
+    this.latest = new Frame(0, empty, 0, empty);
+  }
+
+  /**
+   * Attaches a spectator that receives the latest frame, if any, and every later frame it keeps
+   * up with. The channel should be in blocking mode; it is closed when the broadcast ends or
+   * writing to it fails.
+   *
+   * @param channel the channel to write frames to
+   * @throws IllegalStateException if the broadcast has ended
+   */
+  public void attach(WritableByteChannel channel) {
+    if (closed) {
+      throw new IllegalStateException("The broadcast has ended.");
+    }
+    Spectator spectator = new Spectator(Objects.requireNonNull(channel, "Channel can't be null"));
+    // Create the thread before the spectator becomes visible to publish() so no wake-up is lost
+    spectator.thread = Thread.ofVirtual().name("spectator").unstarted(spectator);
+    spectators.add(spectator);
+    spectator.thread.start();
+  }
+
+  /**
+   * Returns the number of spectators currently attached.
+   *
+   * @return the number of spectators
+   */
+  public int getSpectatorCount() {
+    return spectators.size();
+  }
+
+  /**
+   * Returns the number of frames published so far.
+   *
+   * @return the sequence number of the latest frame
+   */
+  public long getFrameCount() {
+    return latest.sequence;
+  }
+
+  /**
+   * Ends the broadcast. Spectators send the latest frame if they haven't yet, close their channels
+   * and stop. Does not wait for them and does not close the player's view.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    for (Spectator spectator : spectators) {
+      LockSupport.unpark(spectator.thread);
+    }
+  }
+
+  @Override
+  public void displayWelcomeMessage() throws IOException {
+    delegate.displayWelcomeMessage();
+    renderer.displayWelcomeMessage();
+  }
+
+  @Override
+  public void displayPromptMessage() throws IOException {
+    delegate.displayPromptMessage();
+    renderer.displayPromptMessage();
+    publish();
+  }
+
+  @Override
+  public void displayCellGrid(CellState[][] cellGrid) throws IOException {
+    delegate.displayCellGrid(cellGrid);
+    int start = pending.length();
+    renderer.displayCellGrid(cellGrid);
+    pendingGrid = pending.substring(start).getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void displayShipGrid(ShipType[][] shipGrid) throws IOException {
+    delegate.displayShipGrid(shipGrid);
+    renderer.displayShipGrid(shipGrid);
+    publish();
+  }
+
+  @Override
+  public void displayGuessCount(int currentGuesses) throws IOException {
+    delegate.displayGuessCount(currentGuesses);
+    renderer.displayGuessCount(currentGuesses);
+  }
+
+  @Override
+  public void displayMaxGuesses(int maxGuesses) throws IOException {
+    delegate.displayMaxGuesses(maxGuesses);
+    renderer.displayMaxGuesses(maxGuesses);
+  }
+
+  @Override
+  public void displayErrorMessage(String message) throws IOException {
+    delegate.displayErrorMessage(message);
+    renderer.displayErrorMessage(message);
+  }
+
+  @Override
+  public void displayGameOver(boolean win) throws IOException {
+    delegate.displayGameOver(win);
+    renderer.displayGameOver(win);
+  }
+
+  @Override
+  public void displayTimeoutMessage(int forfeitedGuesses) throws IOException {
+    delegate.displayTimeoutMessage(forfeitedGuesses);
+    renderer.displayTimeoutMessage(forfeitedGuesses);
+  }
+
+  @Override
+  public void displayShotResult(int row, int col, boolean isHit) throws IOException {
+    delegate.displayShotResult(row, col, isHit);
+    renderer.displayShotResult(row, col, isHit);
+  }
+
+  @Override
+  public void displayHitMessage() throws IOException {
+    delegate.displayHitMessage();
+    renderer.displayHitMessage();
+  }
+
+  @Override
+  public void displayMissMessage() throws IOException {
+    delegate.displayMissMessage();
+    renderer.displayMissMessage();
+  }
+
+  /**
+   * Turns the text rendered since the last frame into a new frame and wakes the spectators.
+   */
+  private void publish() {
+    byte[] bytes = pending.toString().getBytes(StandardCharsets.UTF_8);
+    pending.setLength(0);
+    Frame previous = latest;
+    long sequence = previous.sequence + 1;
+    if (pendingGrid == null) {
+      latest = new Frame(sequence, ByteBuffer.wrap(bytes).asReadOnlyBuffer(),
+          previous.gridSequence, previous.grid);
+    } else {
+      latest = new Frame(sequence, ByteBuffer.wrap(bytes).asReadOnlyBuffer(), sequence,
+          ByteBuffer.wrap(pendingGrid).asReadOnlyBuffer());
+      pendingGrid = null;
+    }
+    for (Spectator spectator : spectators) {
+      LockSupport.unpark(spectator.thread);
+    }
+  }
+
+  /**
+   * An immutable rendered frame, with the latest cell grid rendered up to it.
+   */
+  private static final class Frame {
+    private final long sequence;
+    private final ByteBuffer data; // read-only; spectators write duplicates of it
+    private final long gridSequence; // the frame holding the grid, 0 if none yet
+    private final ByteBuffer grid; // read-only, like data
+
+    private Frame(long sequence, ByteBuffer data, long gridSequence, ByteBuffer grid) {
+      this.sequence = sequence;
+      this.data = data;
+      this.gridSequence = gridSequence;
+      this.grid = grid;
+    }
+  }
+
+  /**
+   * Sends frames to one channel until the broadcast ends or the channel fails.
+   */
+  private final class Spectator implements Runnable {
+    private final WritableByteChannel channel;
+    private Thread thread;
+
+    private Spectator(WritableByteChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public void run() {
+      long sent = 0;
+      try {
+        while (true) {
+          Frame frame = latest;
+          if (frame.sequence == sent) {
+            // Check the frame again after seeing the end, a last frame may have been published
+            if (closed && latest.sequence == sent) {
+              break;
+            }
+            LockSupport.park(this);
+            continue;
+          }
+          if (frame.gridSequence > sent && frame.gridSequence != frame.sequence) {
+            write(frame.grid); // the frame holding the grid was skipped
+          }
+          write(frame.data);
+          sent = frame.sequence;
+        }
+      } catch (IOException e) {
+        // The spectator went away; drop it without disturbing the game
+      } finally {
+        spectators.remove(this);
+        try {
+          channel.close();
+        } catch (IOException e) {
+          // Nothing more to send to this spectator
+        }
+      }
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+      ByteBuffer data = buffer.duplicate();
+      while (data.hasRemaining()) {
+        channel.write(data);
+      }
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package battleship;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A person entering shots such as {@code A5} on a console, one per line. Two people sharing a
+ * keyboard should share one instance, since each instance buffers its own input.
+ */
+public final class ConsolePlayer implements Player {
+  private final GuessReader reader;
+
+  /**
+   * Constructs a console player.
+   *
+   * @param input the input source for the player's shots
+   */
+  public ConsolePlayer(Readable input) {
+    this.reader = new GuessReader(Objects.requireNonNull(input, "Input can't be null"));
+  }
+
+  /**
+   * Reads the next shot from the input.
+   *
+   * @throws IllegalStateException if the input has ended
+   */
+  @Override
+  public int nextGuess(int rows, int cols) throws IOException {
+    if (!reader.nextLine()) {
+      throw new IllegalStateException("Input ended unexpectedly.");
+    }
+    int guess = GuessParser.parseGuess(reader.buffer(), reader.lineStart(), reader.lineEnd());
+    int row = GuessParser.rowOf(guess);
+    int col = GuessParser.colOf(guess);
+    if (row >= rows || col >= cols) {
+      throw new IllegalArgumentException("Coordinates out of bounds");
+    }
+    return row * cols + col;
+  }
+
+  @Override
+  public boolean isInteractive() {
+    return true;
+  }
+}
@@ -0,0 +1,190 @@
+package battleship;
+
+/**
+ * A {@link BattleshipView} that records what it is asked to display as primitive counters instead
+ * of rendering text. It doesn't render grids, so controllers skip copying the model's state for it.
+ * Useful for checking game flow in headless load tests and benchmarks. Not thread-safe; use one
+ * instance per game.
+ */
+public class CountingBattleshipView implements BattleshipView {
+  private int welcomeMessages;
+  private int prompts;
+  private int cellGrids;
+  private int shipGrids;
+  private int guessCounts;
+  private int lastGuessCount;
+  private int maxGuesses;
+  private int errors;
+  private int hits;
+  private int misses;
+  private int wins;
+  private int losses;
+
+  @Override
+  public void displayWelcomeMessage() {
+    welcomeMessages++;
+  }
+
+  @Override
+  public void displayPromptMessage() {
+    prompts++;
+  }
+
+  @Override
+  public void displayCellGrid(CellState[][] cellGrid) {
+    cellGrids++;
+  }
+
+  @Override
+  public void displayShipGrid(ShipType[][] shipGrid) {
+    shipGrids++;
+  }
+
+  @Override
+  public boolean rendersGrids() {
+    return false;
+  }
+
+  @Override
+  public void displayGuessCount(int currentGuesses) {
+    guessCounts++;
+    lastGuessCount = currentGuesses;
+  }
+
+  @Override
+  public void displayMaxGuesses(int maxGuesses) {
+    this.maxGuesses = maxGuesses;
+  }
+
+  @Override
+  public void displayErrorMessage(String message) {
+    errors++;
+  }
+
+  @Override
+  public void displayGameOver(boolean win) {
+    if (win) {
+      wins++;
+    } else {
+      losses++;
+    }
+  }
+
+  @Override
+  public void displayHitMessage() {
+    hits++;
+  }
+
+  @Override
+  public void displayMissMessage() {
+    misses++;
+  }
+
+  /**
+   * Gets the number of welcome messages displayed.
+   *
+   * @return the number of welcome messages
+   */
+  public int getWelcomeMessages() {
+    return welcomeMessages;
+  }
+
+  /**
+   * Gets the number of prompts displayed.
+   *
+   * @return the number of prompts
+   */
+  public int getPrompts() {
+    return prompts;
+  }
+
+  /**
+   * Gets the number of times the cell grid was displayed.
+   *
+   * @return the number of cell grid renders
+   */
+  public int getCellGrids() {
+    return cellGrids;
+  }
+
+  /**
+   * Gets the number of times the ship grid was displayed.
+   *
+   * @return the number of ship grid renders
+   */
+  public int getShipGrids() {
+    return shipGrids;
+  }
+
+  /**
+   * Gets the number of guess count updates displayed.
+   *
+   * @return the number of guess count updates
+   */
+  public int getGuessCounts() {
+    return guessCounts;
+  }
+
+  /**
+   * Gets the most recent guess count displayed.
+   *
+   * @return the last guess count, or 0 if none was displayed
+   */
+  public int getLastGuessCount() {
+    return lastGuessCount;
+  }
+
+  /**
+   * Gets the maximum number of guesses displayed.
+   *
+   * @return the maximum number of guesses, or 0 if none was displayed
+   */
+  public int getMaxGuesses() {
+    return maxGuesses;
+  }
+
+  /**
+   * Gets the number of error messages displayed.
+   *
+   * @return the number of errors
+   */
+  public int getErrors() {
+    return errors;
+  }
+
+  /**
+   * Gets the number of hit messages displayed.
+   *
+   * @return the number of hits
+   */
+  public int getHits() {
+    return hits;
+  }
+
+  /**
+   * Gets the number of miss messages displayed.
+   *
+   * @return the number of misses
+   */
+  public int getMisses() {
+    return misses;
+  }
+
+  /**
+   * Gets the number of games displayed as won.
+   *
+   * @return the number of wins
+   */
+  public int getWins() {
+    return wins;
+  }
+
+  /**
+   * Gets the number of games displayed as lost.
+   *
+   * @return the number of losses
+   */
+  public int getLosses() {
+    return losses;
+  }
+}
@@ -0,0 +1,172 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Scanner;
+import java.util.Set;
+
+/**
+ * An ordered collection of ships to be placed on the board at the start of a game. Ships are
+ * placed in the order they appear in the fleet.
+ *
+ * <p>Fleets can be loaded from a plain-text configuration, one ship type per line:
+ * <pre>
+ * # name            symbol  count  length-or-shape
+ * AIRCRAFT_CARRIER  A       1      5
+ * CRUISER           C       3      4
+ * T_BOAT            T       2      XXX/.X.
+ * </pre>
+ * The last column is either a length for a straight ship or a shape pattern as accepted by
+ * {@link ShipType#ofShape(String, String, String)}. Each name may appear on one line only. Blank
+ * lines and lines starting with {@code '#'} are ignored.
+ */
+public final class Fleet {
+  private static final Fleet STANDARD = new Fleet(List.of(ShipType.values()));
+
+  private final List<ShipType> ships;
+  private final int totalCells;
+
+  /**
+   * Constructs a fleet from the given ships.
+   *
+   * @param ships the ships in placement order
+   * @throws IllegalArgumentException if the list is empty or contains null
+   */
+  public Fleet(List<ShipType> ships) {
+    if (ships.isEmpty()) {
+      throw new IllegalArgumentException("A fleet must contain at least one ship.");
+    }
+    int cells = 0;
+    for (ShipType ship : ships) {
+      if (ship == null) {
+        throw new IllegalArgumentException("A fleet can't contain null ships.");
+      }
+      cells += ship.getSize();
+    }
+    this.ships = Collections.unmodifiableList(new ArrayList<>(ships));
+    this.totalCells = cells;
+  }
+
+  /**
+   * Returns the classic fleet of five ships.
+   *
+   * @return the standard fleet
+   */
+  public static Fleet standard() {
+    return STANDARD;
+  }
+
+  /**
+   * Loads a fleet configuration from a file.
+   *
+   * @param path the path of the configuration file
+   * @return the loaded fleet
+   * @throws IOException              if the file can't be read
+   * @throws IllegalArgumentException if the configuration is malformed
+   */
+  public static Fleet load(Path path) throws IOException {
+    return parse(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Parses a fleet configuration.
+   *
+   * @param input the configuration source
+   * @return the parsed fleet
+   * @throws IllegalArgumentException if the configuration is malformed
+   */
+  public static Fleet parse(Readable input) {
+    List<ShipType> ships = new ArrayList<>();
+    Set<String> names = new HashSet<>();
+    try (Scanner scanner = new Scanner(input)) {
+      int lineNumber = 0;
+      while (scanner.hasNextLine()) {
+        lineNumber++;
+        String line = scanner.nextLine().trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        String[] fields = line.split("\\s+");
+        if (fields.length != 4) {
+          throw new IllegalArgumentException("Line " + lineNumber
+              + ": expected name, symbol, count and length or shape.");
+        }
+        try {
+          if (!names.add(fields[0])) {
+            throw new IllegalArgumentException("Ship " + fields[0] + " is already defined.");
+          }
+          int count = Integer.parseInt(fields[2]);
+          if (count <= 0) {
+            throw new IllegalArgumentException("Ship count must be positive.");
+          }
+          ShipType type = Character.isDigit(fields[3].charAt(0))
+              ? new ShipType(fields[0], Integer.parseInt(fields[3]), fields[1])
+              : ShipType.ofShape(fields[0], fields[1], fields[3]);
+          for (int i = 0; i < count; i++) {
+            ships.add(type);
+          }
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+        }
+      }
+    }
+    return new Fleet(ships);
+  }
+
+  /**
+   * Returns the ships of this fleet in placement order.
+   *
+   * @return an unmodifiable list of ship types
+   */
+  public List<ShipType> getShips() {
+    return ships;
+  }
+
+  /**
+   * Returns the number of ships in this fleet.
+   *
+   * @return the number of ships
+   */
+  public int size() {
+    return ships.size();
+  }
+
+  /**
+   * Returns the total number of cells occupied by all ships of this fleet.
+   *
+   * @return the total number of cells
+   */
+  public int getTotalCells() {
+    return totalCells;
+  }
+
+  /**
+   * Returns a 64-bit fingerprint of the shapes of this fleet's ships in placement order. Names and
+   * symbols are ignored, so fleets with equal fingerprints play identically and can share
+   * precomputed strategy data such as an {@link OpeningBook}.
+   *
+   * @return the fingerprint
+   */
+  public long fingerprint() {
+    long hash = 0xcbf29ce484222325L; // FNV-1a
+    for (ShipType ship : ships) {
+      hash = (hash ^ ship.getSize()) * 0x100000001b3L;
+      for (int i = 0; i < ship.getSize(); i++) {
+        hash = (hash ^ ship.getRowOffset(i, false)) * 0x100000001b3L;
+        hash = (hash ^ ship.getColOffset(i, false)) * 0x100000001b3L;
+      }
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return "Fleet" + ships;
+  }
+}
@@ -0,0 +1,160 @@
+package battleship;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events of the game, recorded next to the JVM's own events. The lifecycle
+ * events are enabled by default. The per-guess and per-render events are disabled by default
+ * because they fire on every turn; {@code res/battleship.jfc} enables all of them:
+ *
+ * <pre>
+ * java -XX:StartFlightRecording:settings=default,settings=res/battleship.jfc,filename=game.jfr ...
+ * </pre>
+ *
+ * <p>Events are created and committed in place by the code they describe. When no recording has
+ * an event enabled, {@link Event#shouldCommit()} is false, nothing is filled in, and the JIT
+ * removes the unused event object, so instrumented code costs nothing while recording is off.
+ * Stack traces are off for every event to keep recordings small.
+ */
+final class FlightEvents {
+
+  private FlightEvents() {
+  }
+
+  /**
+   * A game started and its fleet was placed. The duration is the time spent placing ships.
+   */
+  @Name("battleship.GameStart")
+  @Label("Game Start")
+  @Category("Battleship")
+  @Description("A game started and its fleet was placed")
+  @StackTrace(false)
+  static final class GameStart extends Event {
+    @Label("Rows")
+    int rows;
+
+    @Label("Columns")
+    int cols;
+
+    @Label("Ships")
+    int ships;
+
+    @Label("Placement Retries")
+    @Description("Random positions rejected before every ship was placed")
+    long retries;
+  }
+
+  /**
+   * A guess was made.
+   */
+  @Name("battleship.Guess")
+  @Label("Guess")
+  @Category("Battleship")
+  @Description("A guess was applied to a game")
+  @Enabled(false)
+  @StackTrace(false)
+  static final class Guess extends Event {
+    @Label("Row")
+    int row;
+
+    @Label("Column")
+    int col;
+
+    @Label("Hit")
+    boolean hit;
+  }
+
+  /**
+   * A guess sank a ship.
+   */
+  @Name("battleship.ShipSunk")
+  @Label("Ship Sunk")
+  @Category("Battleship")
+  @StackTrace(false)
+  static final class ShipSunk extends Event {
+    @Label("Ship")
+    String ship;
+
+    @Label("Guess Count")
+    int guessCount;
+  }
+
+  /**
+   * A game ended, by sinking every ship or by using up the guesses.
+   */
+  @Name("battleship.GameOver")
+  @Label("Game Over")
+  @Category("Battleship")
+  @StackTrace(false)
+  static final class GameOver extends Event {
+    @Label("Won")
+    boolean won;
+
+    @Label("Guess Count")
+    int guessCount;
+
+    @Label("Maximum Guesses")
+    int maxGuesses;
+  }
+
+  /**
+   * A view rendered one message or grid.
+   */
+  @Name("battleship.Render")
+  @Label("Render")
+  @Category("Battleship")
+  @Description("A view rendered one message or grid")
+  @Enabled(false)
+  @StackTrace(false)
+  static final class Render extends Event {
+    @Label("Element")
+    @Description("What was rendered, e.g. cellGrid or hit")
+    String element;
+
+    @Label("Bytes Written")
+    @Description("Characters of rendered text; the console output is ASCII")
+    @DataAmount
+    long bytes;
+
+    transient long startCount; // characters written before the render, not recorded
+  }
+
+  /**
+   * Commits the end of a game if a recording has it enabled.
+   *
+   * @param won        whether every ship was sunk
+   * @param guessCount the number of guesses made
+   * @param maxGuesses the maximum number of guesses
+   */
+  static void gameOver(boolean won, int guessCount, int maxGuesses) {
+    GameOver event = new GameOver();
+    if (event.shouldCommit()) {
+      event.won = won;
+      event.guessCount = guessCount;
+      event.maxGuesses = maxGuesses;
+      event.commit();
+    }
+  }
+
+  /**
+   * Commits a sunk ship if a recording has it enabled.
+   *
+   * @param ship       the ship that was sunk
+   * @param guessCount the number of guesses made, including the one that sank it
+   */
+  static void shipSunk(ShipType ship, int guessCount) {
+    ShipSunk event = new ShipSunk();
+    if (event.shouldCommit()) {
+      event.ship = ship.name();
+      event.guessCount = guessCount;
+      event.commit();
+    }
+  }
+}
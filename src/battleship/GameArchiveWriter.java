@@ -0,0 +1,110 @@
+package battleship;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes recorded games of the standard 10x10 game to an archive that {@link ReplayVerifier} can
+ * replay. Each game is stored as its seed and guess limit, so the model can rebuild the same ship
+ * placement, followed by every shot and its recorded outcome.
+ *
+ * <p>Record layout (big-endian): {@code long} seed, {@code int} maximum guesses, {@code short}
+ * number of shots, then two bytes per shot: the cell ({@code row * 10 + col}) and the outcome bits
+ * {@link #OUTCOME_HIT} and {@link #OUTCOME_GAME_OVER}. Records follow each other with no padding.
+ *
+ * <p>Not thread-safe; give each recording thread its own archive.
+ */
+public class GameArchiveWriter implements Closeable {
+  /**
+   * Outcome bit set when the shot was a hit.
+   */
+  public static final int OUTCOME_HIT = 1;
+  /**
+   * Outcome bit set when the game was over after the shot.
+   */
+  public static final int OUTCOME_GAME_OVER = 2;
+
+  static final int HEADER_BYTES = Long.BYTES + Integer.BYTES + Short.BYTES;
+  static final int SHOT_BYTES = 2;
+  static final int MAX_SHOTS = 0xFFFF;
+
+  private final DataOutputStream out;
+  private final byte[] shots = new byte[MAX_SHOTS * SHOT_BYTES];
+  private long seed;
+  private int maxGuesses;
+  private int shotCount = -1;
+
+  /**
+   * Opens an archive for writing, replacing any existing file.
+   *
+   * @param path the path of the archive
+   * @throws IOException if the file can't be created
+   */
+  public GameArchiveWriter(Path path) throws IOException {
+    this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+  }
+
+  /**
+   * Begins recording a game.
+   *
+   * @param seed       the seed the game's model was created with
+   * @param maxGuesses the maximum number of guesses of the game
+   * @throws IllegalStateException if the previous game was not ended
+   */
+  public void startGame(long seed, int maxGuesses) {
+    if (shotCount >= 0) {
+      throw new IllegalStateException("The previous game has not been ended.");
+    }
+    this.seed = seed;
+    this.maxGuesses = maxGuesses;
+    this.shotCount = 0;
+  }
+
+  /**
+   * Records a shot of the current game.
+   *
+   * @param row      the row of the shot (0-based)
+   * @param col      the column of the shot (0-based)
+   * @param hit      true if the shot was a hit
+   * @param gameOver true if the game was over after the shot
+   * @throws IllegalStateException if no game was started or the game has too many shots
+   */
+  public void recordShot(int row, int col, boolean hit, boolean gameOver) {
+    if (shotCount < 0) {
+      throw new IllegalStateException("No game has been started.");
+    }
+    if (shotCount == MAX_SHOTS) {
+      throw new IllegalStateException("A recorded game can't exceed " + MAX_SHOTS + " shots.");
+    }
+    shots[shotCount * SHOT_BYTES] = (byte) (row * 10 + col);
+    shots[shotCount * SHOT_BYTES + 1] =
+        (byte) ((hit ? OUTCOME_HIT : 0) | (gameOver ? OUTCOME_GAME_OVER : 0));
+    shotCount++;
+  }
+
+  /**
+   * Ends the current game and appends its record to the archive.
+   *
+   * @throws IOException           if the record can't be written
+   * @throws IllegalStateException if no game was started
+   */
+  public void endGame() throws IOException {
+    if (shotCount < 0) {
+      throw new IllegalStateException("No game has been started.");
+    }
+    out.writeLong(seed);
+    out.writeInt(maxGuesses);
+    out.writeShort(shotCount);
+    out.write(shots, 0, shotCount * SHOT_BYTES);
+    shotCount = -1;
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+}
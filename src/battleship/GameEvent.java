@@ -0,0 +1,93 @@
+package battleship;
+
+/**
+ * Something that happened in a game, as published by {@link PublishingBattleshipModel}. Events of
+ * one game arrive in order: {@link Started}, then a {@link Shot} or {@link Forfeited} for every
+ * guess used, each shot that sank a ship followed by {@link Sunk}, and finally {@link Ended}.
+ * Subscribers can tell the types apart with a pattern-matching {@code switch}.
+ *
+ * <p>Events of a game are numbered in the order they were published, so a subscriber can tell
+ * when it missed some, e.g. because its buffer was full. {@link Ended} carries the final cell
+ * grid, which a subscriber that missed shots can show instead of the grid it rebuilt.
+ */
+public sealed interface GameEvent {
+
+  /**
+   * Returns the position of the event in its game: 0 for {@link Started}, then one more for each
+   * event published after it.
+   *
+   * @return the sequence number of the event
+   */
+  int sequence();
+
+  /**
+   * Returns the number of guesses used when the event happened.
+   *
+   * @return the guess count
+   */
+  int guessCount();
+
+  /**
+   * A game started on an empty board.
+   *
+   * @param rows       the number of rows of the board
+   * @param cols       the number of columns of the board
+   * @param maxGuesses the maximum number of guesses
+   */
+  record Started(int rows, int cols, int maxGuesses) implements GameEvent {
+    @Override
+    public int guessCount() {
+      return 0;
+    }
+
+    @Override
+    public int sequence() {
+      return 0;
+    }
+  }
+
+  /**
+   * A guess was made.
+   *
+   * @param row        the row guessed, 0-based
+   * @param col        the column guessed, 0-based
+   * @param hit        true if the guess hit a ship, false if it missed
+   * @param guessCount the number of guesses used, including this one
+   * @param sequence   the position of the event in its game
+   */
+  record Shot(int row, int col, boolean hit, int guessCount, int sequence) implements GameEvent {
+  }
+
+  /**
+   * A guess was forfeited, e.g. because the player ran out of time.
+   *
+   * @param guessCount the number of guesses used, including this one
+   * @param sequence   the position of the event in its game
+   */
+  record Forfeited(int guessCount, int sequence) implements GameEvent {
+  }
+
+  /**
+   * The previous shot sank a ship.
+   *
+   * @param ship       the type of the ship
+   * @param guessCount the number of guesses used
+   * @param sequence   the position of the event in its game
+   */
+  record Sunk(ShipType ship, int guessCount, int sequence) implements GameEvent {
+  }
+
+  /**
+   * The game ended and the ships were revealed.
+   *
+   * @param won        true if every ship was sunk, false if the guesses ran out
+   * @param guessCount the number of guesses used
+   * @param cellGrid   the final cell grid, as returned by {@link BattleshipModel#getCellGrid()}
+   * @param shipGrid   the ship grid of the board, as returned by
+   *                   {@link BattleshipModel#getShipGrid()}
+   * @param sequence   the position of the event in its game
+   */
+  record Ended(boolean won, int guessCount, CellState[][] cellGrid, ShipType[][] shipGrid,
+               int sequence) implements GameEvent {
+  }
+}
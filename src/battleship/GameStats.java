@@ -0,0 +1,118 @@
+package battleship;
+
+/**
+ * Metrics of one finished game, as exported by {@link GameStatsExporter}.
+ */
+public final class GameStats {
+  private final long seed;
+  private final int guesses;
+  private final int hits;
+  private final int misses;
+  private final int firstHitTurn;
+  private final String sunkOrder;
+  private final boolean win;
+  private final long wallTimeNanos;
+
+  /**
+   * Constructs the metrics of a finished game.
+   *
+   * @param seed          the seed the game's model was created with
+   * @param guesses       the number of guesses made
+   * @param hits          the number of guesses that hit a ship
+   * @param misses        the number of guesses that missed
+   * @param firstHitTurn  the 1-based turn of the first hit, or 0 if there was none
+   * @param sunkOrder     the symbols of the sunk ships, in the order they were sunk
+   * @param win           true if all ships were sunk
+   * @param wallTimeNanos the time from the start to the end of the game, in nanoseconds
+   */
+  public GameStats(long seed, int guesses, int hits, int misses, int firstHitTurn,
+                   String sunkOrder, boolean win, long wallTimeNanos) {
+    this.seed = seed;
+    this.guesses = guesses;
+    this.hits = hits;
+    this.misses = misses;
+    this.firstHitTurn = firstHitTurn;
+    this.sunkOrder = sunkOrder;
+    this.win = win;
+    this.wallTimeNanos = wallTimeNanos;
+  }
+
+  /**
+   * Gets the seed the game's model was created with.
+   *
+   * @return the seed
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Gets the number of guesses made.
+   *
+   * @return the number of guesses
+   */
+  public int getGuesses() {
+    return guesses;
+  }
+
+  /**
+   * Gets the number of guesses that hit a ship.
+   *
+   * @return the number of hits
+   */
+  public int getHits() {
+    return hits;
+  }
+
+  /**
+   * Gets the number of guesses that missed.
+   *
+   * @return the number of misses
+   */
+  public int getMisses() {
+    return misses;
+  }
+
+  /**
+   * Gets the 1-based turn of the first hit.
+   *
+   * @return the turn of the first hit, or 0 if no guess hit
+   */
+  public int getFirstHitTurn() {
+    return firstHitTurn;
+  }
+
+  /**
+   * Gets the symbols of the sunk ships, in the order they were sunk.
+   *
+   * @return the sunk order, e.g. "PSDAB"
+   */
+  public String getSunkOrder() {
+    return sunkOrder;
+  }
+
+  /**
+   * Checks whether the game was won.
+   *
+   * @return true if all ships were sunk, false otherwise
+   */
+  public boolean isWin() {
+    return win;
+  }
+
+  /**
+   * Gets the time from the start to the end of the game.
+   *
+   * @return the wall time in nanoseconds
+   */
+  public long getWallTimeNanos() {
+    return wallTimeNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "GameStats[seed=" + seed + ", guesses=" + guesses + ", hits=" + hits
+        + ", misses=" + misses + ", firstHitTurn=" + firstHitTurn + ", sunkOrder=" + sunkOrder
+        + ", win=" + win + ", wallTimeNanos=" + wallTimeNanos + "]";
+  }
+}
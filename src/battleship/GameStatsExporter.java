@@ -0,0 +1,294 @@
+package battleship;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Exports per-game metrics ({@link GameStats}) to a compressed columnar file. Rows are buffered in
+ * memory and flushed in row groups; within a row group each column is stored as a separate chunk,
+ * so a query reads only the columns it needs.
+ *
+ * <p>Each column chunk is encoded with whichever of the encodings suited to its type is smallest,
+ * then compressed with DEFLATE:
+ * <ul>
+ *   <li>{@code seed}: plain 8-byte values.</li>
+ *   <li>{@code guesses}, {@code hits}, {@code misses}, {@code firstHitTurn}, {@code win},
+ *   {@code wallTimeNanos}: unsigned varints, or run-length encoded (value, run length) varint
+ *   pairs.</li>
+ *   <li>{@code sunkOrder}: a dictionary of the distinct values in the row group followed by
+ *   run-length encoded dictionary indexes.</li>
+ * </ul>
+ *
+ * <p>File layout (big-endian): magic, then the column chunks of every row group, then a footer
+ * holding the column names and, for each row group, its row count and the offset of each of its
+ * column chunks, and finally the offset of the footer and the magic again. A column chunk is its
+ * encoding, its encoded length, its compressed length and its compressed bytes.
+ *
+ * <p>{@link #append(GameStats)} is thread-safe, so many sessions can share one exporter.
+ */
+public class GameStatsExporter implements Closeable {
+  /**
+   * The default number of rows per row group.
+   */
+  public static final int DEFAULT_ROW_GROUP_SIZE = 1 << 16;
+
+  static final int MAGIC = 0x42534753; // "BSGS"
+  static final String[] COLUMNS = {
+      "seed", "guesses", "hits", "misses", "firstHitTurn", "sunkOrder", "win", "wallTimeNanos"
+  };
+  static final byte PLAIN = 0;
+  static final byte VARINT = 1;
+  static final byte RUN_LENGTH = 2;
+  static final byte DICTIONARY = 3;
+
+  private final DataOutputStream out;
+  private final int rowGroupSize;
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+  private final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+  private final List<long[]> rowGroupIndex = new ArrayList<>(); // rows, then chunk offsets
+  private long position;
+
+  // Column buffers of the current row group
+  private final long[] seeds;
+  private final long[][] numbers; // guesses, hits, misses, firstHitTurn, win, wallTimeNanos
+  private final String[] sunkOrders;
+  private int rows;
+
+  /**
+   * Opens an export file with the default row group size, replacing any existing file.
+   *
+   * @param path the path of the export file
+   * @throws IOException if the file can't be created
+   */
+  public GameStatsExporter(Path path) throws IOException {
+    this(path, DEFAULT_ROW_GROUP_SIZE);
+  }
+
+  /**
+   * Opens an export file, replacing any existing file.
+   *
+   * @param path         the path of the export file
+   * @param rowGroupSize the number of rows buffered before a row group is flushed
+   * @throws IOException              if the file can't be created
+   * @throws IllegalArgumentException if the row group size is not positive
+   */
+  public GameStatsExporter(Path path, int rowGroupSize) throws IOException {
+    if (rowGroupSize <= 0) {
+      throw new IllegalArgumentException("Row group size must be positive.");
+    }
+    this.rowGroupSize = rowGroupSize;
+    this.seeds = new long[rowGroupSize];
+    this.numbers = new long[6][rowGroupSize];
+    this.sunkOrders = new String[rowGroupSize];
+    this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+    out.writeInt(MAGIC);
+    position = Integer.BYTES;
+  }
+
+  /**
+   * Appends the metrics of one game, flushing a row group when it is full.
+   *
+   * @param stats the metrics of the game
+   * @throws IOException if a row group can't be written
+   */
+  public synchronized void append(GameStats stats) throws IOException {
+    seeds[rows] = stats.getSeed();
+    numbers[0][rows] = stats.getGuesses();
+    numbers[1][rows] = stats.getHits();
+    numbers[2][rows] = stats.getMisses();
+    numbers[3][rows] = stats.getFirstHitTurn();
+    numbers[4][rows] = stats.isWin() ? 1 : 0;
+    numbers[5][rows] = stats.getWallTimeNanos();
+    sunkOrders[rows] = stats.getSunkOrder();
+    if (++rows == rowGroupSize) {
+      flushRowGroup();
+    }
+  }
+
+  /**
+   * Flushes the buffered rows, then writes the footer and closes the file.
+   *
+   * @throws IOException if the file can't be written
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      flushRowGroup();
+      long footerOffset = position;
+      out.writeInt(COLUMNS.length);
+      for (String column : COLUMNS) {
+        out.writeUTF(column);
+      }
+      out.writeInt(rowGroupIndex.size());
+      for (long[] rowGroup : rowGroupIndex) {
+        out.writeInt((int) rowGroup[0]);
+        for (int i = 1; i < rowGroup.length; i++) {
+          out.writeLong(rowGroup[i]);
+        }
+      }
+      out.writeLong(footerOffset);
+      out.writeInt(MAGIC);
+    } finally {
+      deflater.end();
+      out.close();
+    }
+  }
+
+  private void flushRowGroup() throws IOException {
+    if (rows == 0) {
+      return;
+    }
+    long[] index = new long[1 + COLUMNS.length];
+    index[0] = rows;
+    int column = 1;
+
+    index[column++] = position;
+    encoded.reset();
+    for (int i = 0; i < rows; i++) {
+      writeLong(encoded, seeds[i]);
+    }
+    writeChunk(PLAIN);
+
+    for (int n = 0; n < numbers.length; n++) {
+      if (n == 4) {
+        index[column++] = position;
+        writeDictionaryChunk();
+      }
+      index[column++] = position;
+      writeNumberChunk(numbers[n]);
+    }
+
+    rowGroupIndex.add(index);
+    Arrays.fill(sunkOrders, 0, rows, null);
+    rows = 0;
+  }
+
+  private void writeNumberChunk(long[] values) throws IOException {
+    if (runLengthSize(values, rows) < varintSize(values, rows)) {
+      encoded.reset();
+      writeRuns(values, rows);
+      writeChunk(RUN_LENGTH);
+    } else {
+      encoded.reset();
+      for (int i = 0; i < rows; i++) {
+        writeVarint(encoded, values[i]);
+      }
+      writeChunk(VARINT);
+    }
+  }
+
+  private void writeDictionaryChunk() throws IOException {
+    Map<String, Integer> dictionary = new HashMap<>();
+    List<String> entries = new ArrayList<>();
+    long[] indexes = new long[rows];
+    for (int i = 0; i < rows; i++) {
+      Integer id = dictionary.get(sunkOrders[i]);
+      if (id == null) {
+        id = entries.size();
+        dictionary.put(sunkOrders[i], id);
+        entries.add(sunkOrders[i]);
+      }
+      indexes[i] = id;
+    }
+
+    encoded.reset();
+    writeVarint(encoded, entries.size());
+    for (String entry : entries) {
+      byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+      writeVarint(encoded, bytes.length);
+      encoded.write(bytes, 0, bytes.length);
+    }
+    writeRuns(indexes, rows);
+    writeChunk(DICTIONARY);
+  }
+
+  /**
+   * Compresses the encoded bytes and writes them as a column chunk.
+   */
+  private void writeChunk(byte encoding) throws IOException {
+    byte[] raw = encoded.toByteArray();
+    deflater.reset();
+    deflater.setInput(raw);
+    deflater.finish();
+    byte[] compressed = new byte[Math.max(64, raw.length + raw.length / 1000 + 64)];
+    int length = 0;
+    while (!deflater.finished()) {
+      if (length == compressed.length) {
+        compressed = Arrays.copyOf(compressed, compressed.length * 2);
+      }
+      length += deflater.deflate(compressed, length, compressed.length - length);
+    }
+    out.writeByte(encoding);
+    out.writeInt(raw.length);
+    out.writeInt(length);
+    out.write(compressed, 0, length);
+    position += 1 + Integer.BYTES * 2 + length;
+  }
+
+  /**
+   * Returns the number of bytes {@link #writeRuns(long[], int)} would encode the values in.
+   */
+  private static long runLengthSize(long[] values, int count) {
+    long size = 0;
+    int start = 0;
+    for (int i = 1; i <= count; i++) {
+      if (i == count || values[i] != values[start]) {
+        size += varintLength(values[start]) + varintLength(i - start);
+        start = i;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Returns the number of bytes the values take as plain varints.
+   */
+  private static long varintSize(long[] values, int count) {
+    long size = 0;
+    for (int i = 0; i < count; i++) {
+      size += varintLength(values[i]);
+    }
+    return size;
+  }
+
+  private static int varintLength(long value) {
+    return Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(value) + 6) / 7);
+  }
+
+  private void writeRuns(long[] values, int count) {
+    int start = 0;
+    for (int i = 1; i <= count; i++) {
+      if (i == count || values[i] != values[start]) {
+        writeVarint(encoded, values[start]);
+        writeVarint(encoded, i - start);
+        start = i;
+      }
+    }
+  }
+
+  private static void writeVarint(ByteArrayOutputStream target, long value) {
+    while ((value & ~0x7FL) != 0) {
+      target.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    target.write((int) value);
+  }
+
+  private static void writeLong(ByteArrayOutputStream target, long value) {
+    for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+      target.write((int) (value >>> shift));
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package battleship;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A {@link BattleshipModel} decorator that collects the metrics of the game played on it and
+ * appends them to a {@link GameStatsExporter} once the game is over. All calls are forwarded to
+ * the wrapped model, so it can be passed to any controller in place of the model it wraps.
+ */
+public class GameStatsRecorder implements BattleshipModel {
+  private final BattleshipModel delegate;
+  private final long seed;
+  private final GameStatsExporter exporter;
+  private final StringBuilder sunkOrder = new StringBuilder();
+  private int hits;
+  private int misses;
+  private int firstHitTurn;
+  private long startNanos;
+  private boolean exported;
+
+  /**
+   * Constructs a recorder for one game.
+   *
+   * @param delegate the model to play the game on
+   * @param seed     the seed the model was created with, exported with the metrics
+   * @param exporter the exporter receiving the metrics when the game is over
+   */
+  public GameStatsRecorder(BattleshipModel delegate, long seed, GameStatsExporter exporter) {
+    this.delegate = delegate;
+    this.seed = seed;
+    this.exporter = exporter;
+  }
+
+  @Override
+  public void startGame() {
+    delegate.startGame();
+    sunkOrder.setLength(0);
+    hits = 0;
+    misses = 0;
+    firstHitTurn = 0;
+    exported = false;
+    startNanos = System.nanoTime();
+  }
+
+  /**
+   * Processes the guess on the wrapped model and records its outcome. Exports the metrics if the
+   * guess ended the game.
+   *
+   * @throws UncheckedIOException if the metrics can't be exported
+   */
+  @Override
+  public boolean makeGuess(int row, int col) {
+    boolean isHit = delegate.makeGuess(row, col);
+    if (isHit) {
+      hits++;
+      if (firstHitTurn == 0) {
+        firstHitTurn = delegate.getGuessCount();
+      }
+      ShipType sunk = delegate.getLastSunkShip();
+      if (sunk != null) {
+        sunkOrder.append(sunk.getSymbol());
+      }
+    } else {
+      misses++;
+    }
+    if (delegate.isGameOver()) {
+      export();
+    }
+    return isHit;
+  }
+
+  /**
+   * Forfeits a guess on the wrapped model. Exports the metrics if the forfeit ended the game.
+   *
+   * @throws UncheckedIOException if the metrics can't be exported
+   */
+  @Override
+  public void forfeitGuess() {
+    delegate.forfeitGuess();
+    if (delegate.isGameOver()) {
+      export();
+    }
+  }
+
+  private void export() {
+    if (exported) {
+      return;
+    }
+    exported = true;
+    try {
+      exporter.append(new GameStats(seed, delegate.getGuessCount(), hits, misses, firstHitTurn,
+          sunkOrder.toString(), delegate.areAllShipsSunk(), System.nanoTime() - startNanos));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to export game statistics.", e);
+    }
+  }
+
+  @Override
+  public ShipType getLastSunkShip() {
+    return delegate.getLastSunkShip();
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return delegate.isGameOver();
+  }
+
+  @Override
+  public boolean areAllShipsSunk() {
+    return delegate.areAllShipsSunk();
+  }
+
+  @Override
+  public int getGuessCount() {
+    return delegate.getGuessCount();
+  }
+
+  @Override
+  public int getMaxGuesses() {
+    return delegate.getMaxGuesses();
+  }
+
+  @Override
+  public CellState[][] getCellGrid() {
+    return delegate.getCellGrid();
+  }
+
+  @Override
+  public ShipType[][] getShipGrid() {
+    return delegate.getShipGrid();
+  }
+}
@@ -0,0 +1,103 @@
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * The guesses entered on one input line. A line holds one or more coordinates separated by
+ * whitespace, such as {@code "A1 B2 C3"}, and each coordinate may instead be an inclusive range
+ * along a row or a column, such as {@code "A1-A5"} or {@code "B3-F3"}. Guesses are kept in the
+ * order they were entered, packed as by {@link GuessParser}. A batch is reused line after line, so
+ * parsing allocates nothing once its buffer has grown to the longest line.
+ */
+final class GuessBatch {
+  private int[] guesses = new int[16];
+  private int size;
+
+  /**
+   * Replaces the batch with the guesses of a line. The whole line is parsed before anything is
+   * returned, so a line with a malformed coordinate yields no guesses at all.
+   *
+   * @param chars the characters holding the line
+   * @param start the index of the first character of the line, inclusive
+   * @param end   the index just past the last character of the line, exclusive
+   * @throws IllegalArgumentException if a coordinate or range is invalid, or the line is empty
+   */
+  void parse(char[] chars, int start, int end) {
+    size = 0;
+    try {
+      int i = start;
+      while (i < end) {
+        if (chars[i] <= ' ') {
+          i++;
+          continue;
+        }
+        int tokenStart = i;
+        while (i < end && chars[i] > ' ') {
+          i++;
+        }
+        addToken(chars, tokenStart, i);
+      }
+      if (size == 0) {
+        GuessParser.parseGuess(chars, start, end); // reports the empty line like a single guess
+      }
+    } catch (IllegalArgumentException e) {
+      size = 0;
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the number of guesses in the batch.
+   *
+   * @return the number of guesses
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns a guess of the batch.
+   *
+   * @param index the position of the guess on its line
+   * @return the packed row and column
+   */
+  int get(int index) {
+    return guesses[index];
+  }
+
+  private void addToken(char[] chars, int start, int end) {
+    int dash = start;
+    while (dash < end && chars[dash] != '-') {
+      dash++;
+    }
+    if (dash == end) {
+      add(GuessParser.parseGuess(chars, start, end));
+      return;
+    }
+    int from = GuessParser.parseGuess(chars, start, dash);
+    int to = GuessParser.parseGuess(chars, dash + 1, end);
+    int fromRow = GuessParser.rowOf(from);
+    int fromCol = GuessParser.colOf(from);
+    int toRow = GuessParser.rowOf(to);
+    int toCol = GuessParser.colOf(to);
+    if (fromRow != toRow && fromCol != toCol) {
+      throw new IllegalArgumentException(
+          "A range must lie in one row or one column (e.g., A1-A5).");
+    }
+    int rowStep = Integer.signum(toRow - fromRow);
+    int colStep = Integer.signum(toCol - fromCol);
+    for (int row = fromRow, col = fromCol; ; row += rowStep, col += colStep) {
+      add(GuessParser.pack(row, col));
+      if (row == toRow && col == toCol) {
+        return;
+      }
+    }
+  }
+
+  private void add(int guess) {
+    if (size == guesses.length) {
+      guesses = Arrays.copyOf(guesses, size * 2);
+    }
+    guesses[size++] = guess;
+  }
+}
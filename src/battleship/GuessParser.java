@@ -0,0 +1,84 @@
+package battleship;
+
+/**
+ * Parses player guesses such as {@code "A5"} into a row and column on the 10x10 board. A parsed
+ * guess is returned as a single packed {@code int} so callers on the input path don't allocate;
+ * use {@link #rowOf(int)} and {@link #colOf(int)} to unpack it.
+ */
+final class GuessParser {
+
+  private GuessParser() {
+  }
+
+  /**
+   * Parses a guess held in a character array.
+   *
+   * @param chars the characters holding the guess
+   * @param start the index of the first character of the guess, inclusive
+   * @param end   the index just past the last character of the guess, exclusive
+   * @return the packed row and column
+   * @throws IllegalArgumentException if the input format is invalid or out of bounds
+   */
+  static int parseGuess(char[] chars, int start, int end) {
+    if (end - start != 2) {
+      throw new IllegalArgumentException("User guess must be exactly 2 characters (e.g., A5).");
+    }
+    return parseGuess(chars[start], chars[start + 1]);
+  }
+
+  /**
+   * Parses a guess held in a character sequence.
+   *
+   * @param guess the guess, e.g., "A5"
+   * @return the packed row and column
+   * @throws IllegalArgumentException if the input format is invalid or out of bounds
+   */
+  static int parseGuess(CharSequence guess) {
+    if (guess.length() != 2) {
+      throw new IllegalArgumentException("User guess must be exactly 2 characters (e.g., A5).");
+    }
+    return parseGuess(guess.charAt(0), guess.charAt(1));
+  }
+
+  private static int parseGuess(char rowChar, char colChar) {
+    rowChar = Character.toUpperCase(rowChar);
+    if (rowChar < 'A' || rowChar > 'J') {
+      throw new IllegalArgumentException("Row must be a letter between A and J.");
+    }
+    if (colChar < '0' || colChar > '9') {
+      throw new IllegalArgumentException("Column must be a digit between 0 and 9.");
+    }
+    return pack(rowChar - 'A', colChar - '0');
+  }
+
+  /**
+   * Packs a row and column into a single guess value.
+   *
+   * @param row the row index (0-based)
+   * @param col the column index (0-based)
+   * @return the packed guess
+   */
+  static int pack(int row, int col) {
+    return row << 16 | col;
+  }
+
+  /**
+   * Extracts the row from a packed guess.
+   *
+   * @param guess the packed guess
+   * @return the row index (0-based)
+   */
+  static int rowOf(int guess) {
+    return guess >>> 16;
+  }
+
+  /**
+   * Extracts the column from a packed guess.
+   *
+   * @param guess the packed guess
+   * @return the column index (0-based)
+   */
+  static int colOf(int guess) {
+    return guess & 0xFFFF;
+  }
+}
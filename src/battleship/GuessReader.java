@@ -0,0 +1,153 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * Line reader for player input. Characters are read from a {@link Readable} into a single reusable
+ * {@link CharBuffer} and line boundaries are found by scanning the buffer directly, so reading a
+ * line allocates nothing. After {@link #nextLine()} returns true, the current line (with leading
+ * and trailing whitespace removed, as by {@link String#trim()}) is available through
+ * {@link #buffer()}, {@link #lineStart()} and {@link #lineEnd()} until the next call.
+ *
+ * <p>Lines are terminated the same way as with {@link java.util.Scanner#nextLine()}: by
+ * {@code "\r\n"}, {@code '\n'}, {@code '\r'}, U+2028, U+2029 or U+0085. A final line without a
+ * terminator is still returned.
+ */
+final class GuessReader {
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final Readable source;
+  private CharBuffer buffer;
+  private int scanFrom; // index in the buffer where the unread line starts
+  private int lineStart;
+  private int lineEnd;
+  private boolean skipLineFeed; // last line ended with '\r', a following '\n' belongs to it
+  private boolean endOfInput;
+
+  /**
+   * Constructs a reader over the given input source.
+   *
+   * @param source the input source
+   */
+  GuessReader(Readable source) {
+    this.source = source;
+    this.buffer = CharBuffer.allocate(INITIAL_CAPACITY);
+    this.buffer.limit(0);
+  }
+
+  /**
+   * Advances to the next line of input.
+   *
+   * @return true if a line is available, false if the input has ended
+   * @throws IOException if reading from the source fails
+   */
+  boolean nextLine() throws IOException {
+    char[] chars = buffer.array();
+    int i = scanFrom;
+    while (true) {
+      int limit = buffer.limit();
+      if (skipLineFeed && i < limit) {
+        skipLineFeed = false;
+        if (chars[i] == '\n') {
+          scanFrom = ++i;
+        }
+      }
+      if (!skipLineFeed) {
+        for (; i < limit; i++) {
+          char c = chars[i];
+          if (c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029' || c == '\u0085') {
+            setLine(scanFrom, i);
+            skipLineFeed = c == '\r';
+            scanFrom = i + 1;
+            return true;
+          }
+        }
+      }
+      if (endOfInput) {
+        if (scanFrom == limit) {
+          return false;
+        }
+        setLine(scanFrom, limit);
+        scanFrom = limit;
+        return true;
+      }
+      i -= scanFrom;
+      fill();
+      chars = buffer.array();
+    }
+  }
+
+  /**
+   * Returns the array backing the current line.
+   *
+   * @return the character array holding the current line
+   */
+  char[] buffer() {
+    return buffer.array();
+  }
+
+  /**
+   * Returns the index of the first character of the current line.
+   *
+   * @return the start index, inclusive
+   */
+  int lineStart() {
+    return lineStart;
+  }
+
+  /**
+   * Returns the index just past the last character of the current line.
+   *
+   * @return the end index, exclusive
+   */
+  int lineEnd() {
+    return lineEnd;
+  }
+
+  /**
+   * Returns the current line as a string. Intended for diagnostics; the hot path should read the
+   * buffer directly.
+   *
+   * @return the current line
+   */
+  String line() {
+    return new String(buffer.array(), lineStart, lineEnd - lineStart);
+  }
+
+  private void setLine(int start, int end) {
+    char[] chars = buffer.array();
+    while (start < end && chars[start] <= ' ') {
+      start++;
+    }
+    while (end > start && chars[end - 1] <= ' ') {
+      end--;
+    }
+    lineStart = start;
+    lineEnd = end;
+  }
+
+  /**
+   * Moves the unread part of the buffer to the front and reads more characters after it, growing
+   * the buffer if a single line fills it.
+   */
+  private void fill() throws IOException {
+    buffer.position(scanFrom);
+    buffer.compact();
+    scanFrom = 0;
+    if (!buffer.hasRemaining()) {
+      CharBuffer larger = CharBuffer.allocate(buffer.capacity() * 2);
+      buffer.flip();
+      larger.put(buffer);
+      buffer = larger;
+    }
+    int read;
+    do {
+      read = source.read(buffer);
+    } while (read == 0);
+    if (read < 0) {
+      endOfInput = true;
+    }
+    buffer.flip();
+  }
+}
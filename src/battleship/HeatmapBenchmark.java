@@ -0,0 +1,78 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares {@link VectorPlacementHeatmap} against the scalar {@link PlacementHeatmap} on square
+ * boards of increasing size with the standard fleet. A fifth of each board has been guessed at
+ * random. Both engines must produce identical counts; the benchmark reports the average time per
+ * heatmap of each.
+ *
+ * <p>Usage: {@code HeatmapBenchmark [size...]}, defaulting to boards of 10, 100 and 1000 cells per
+ * side. Run with {@code --add-modules jdk.incubator.vector} to measure the vectorized engine.
+ */
+public final class HeatmapBenchmark {
+  private static final long TARGET_NANOS = 500_000_000L; // per engine and board size
+
+  private HeatmapBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark for the board sizes given on the command line.
+   *
+   * @param args optional board sizes
+   */
+  public static void main(String[] args) {
+    int[] sizes = args.length == 0 ? new int[] {10, 100, 1000}
+        : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+    System.out.println("Vector API: " + (VectorPlacementHeatmap.isVectorized()
+        ? "enabled" : "not available, both engines are scalar"));
+    VectorPlacementHeatmap engine = new VectorPlacementHeatmap();
+    for (int size : sizes) {
+      byte[] cells = randomBoard(size, new Random(size));
+      int[] expected = new int[cells.length];
+      int[] actual = new int[cells.length];
+      long scalarNanos = measure(() -> PlacementHeatmap.compute(size, size, cells,
+          Fleet.standard().getShips(), expected));
+      long vectorNanos = measure(() -> engine.compute(size, size, cells,
+          Fleet.standard().getShips(), actual));
+      if (!Arrays.equals(expected, actual)) {
+        throw new IllegalStateException("The engines disagree on a " + size + "x" + size
+            + " board.");
+      }
+      System.out.printf("%dx%d: scalar %,d ns, vector %,d ns, speedup %.1fx%n", size, size,
+          scalarNanos, vectorNanos, (double) scalarNanos / vectorNanos);
+    }
+  }
+
+  private static byte[] randomBoard(int size, Random random) {
+    byte[] cells = new byte[size * size];
+    for (int i = 0; i < cells.length; i++) {
+      if (random.nextInt(5) == 0) {
+        cells[i] = random.nextInt(4) == 0 ? PlacementHeatmap.HIT : PlacementHeatmap.MISS;
+      }
+    }
+    return cells;
+  }
+
+  /**
+   * Runs a task repeatedly, first to warm up and then for the target time.
+   *
+   * @return the average time of one run in nanoseconds
+   */
+  private static long measure(Runnable task) {
+    for (long start = System.nanoTime(); System.nanoTime() - start < TARGET_NANOS / 2; ) {
+      task.run();
+    }
+    long runs = 0;
+    long start = System.nanoTime();
+    long elapsed;
+    do {
+      task.run();
+      runs++;
+      elapsed = System.nanoTime() - start;
+    } while (elapsed < TARGET_NANOS);
+    return elapsed / runs;
+  }
+}
@@ -0,0 +1,96 @@
+package battleship;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A computer player that fires at the cell covered by the most legal placements of the ships it
+ * hasn't sunk yet, as computed by a {@link VectorPlacementHeatmap}. It tracks its shots itself, so
+ * choosing a shot copies no grids. An instance keeps the state of one game and must not play two
+ * games at once.
+ *
+ * <p>Given an {@link OpeningBook} built for its fleet and board, the player takes its first shots
+ * from the book instead of computing them, and switches to the heatmap once the game leaves the
+ * book.
+ */
+public final class HeatmapPlayer implements Player {
+  private final Fleet fleet;
+  private final List<ShipType> ships;
+  private final OpeningBook book; // or null
+  private long history; // outcomes while the game follows the book, or 0 once it has left it
+  private final List<ShipType> remaining = new ArrayList<>();
+  private final VectorPlacementHeatmap heatmap = new VectorPlacementHeatmap();
+  private byte[] cells; // what this player knows of the opponent's board, or null before a shot
+  private int[] counts;
+
+  /**
+   * Constructs a computer player.
+   *
+   * @param fleet the ships the opponent's board holds
+   */
+  public HeatmapPlayer(Fleet fleet) {
+    this(fleet, null);
+  }
+
+  /**
+   * Constructs a computer player that opens from a book. A book built for another fleet or board
+   * size is ignored.
+   *
+   * @param fleet the ships the opponent's board holds
+   * @param book  the opening book, or null to compute every shot
+   */
+  public HeatmapPlayer(Fleet fleet, OpeningBook book) {
+    this.fleet = Objects.requireNonNull(fleet, "Fleet can't be null");
+    this.ships = fleet.getShips();
+    this.book = book;
+    startGame();
+  }
+
+  @Override
+  public void startGame() {
+    remaining.clear();
+    remaining.addAll(ships);
+    cells = null;
+    history = book == null ? 0L : OpeningBook.EMPTY_HISTORY;
+  }
+
+  /**
+   * Picks the book's shot while the game follows the book, and otherwise the unguessed cell
+   * covered by the most placements.
+   *
+   * @throws IllegalStateException if every cell has already been guessed
+   */
+  @Override
+  public int nextGuess(int rows, int cols) {
+    if (cells == null || cells.length != rows * cols) {
+      cells = new byte[rows * cols];
+      counts = new int[rows * cols];
+    }
+    if (history != 0L) {
+      int shot = book.matches(fleet, rows, cols) ? book.nextShot(history) : -1;
+      if (shot >= 0 && cells[shot] == PlacementHeatmap.UNKNOWN) {
+        return shot;
+      }
+      history = 0L; // out of the book for the rest of the game
+    }
+    heatmap.compute(rows, cols, cells, remaining, counts);
+    int best = PlacementHeatmap.bestShot(cells, counts, cells.length);
+    if (best < 0) {
+      throw new IllegalStateException("Every cell has already been guessed.");
+    }
+    return best;
+  }
+
+  @Override
+  public void recordResult(int cell, boolean isHit, ShipType sunkShip) {
+    if (history != 0L) {
+      history = OpeningBook.append(history, isHit);
+    }
+    // No other ship can cover a sunk ship's cell, so it blocks placements just like a miss
+    cells[cell] = isHit && sunkShip == null ? PlacementHeatmap.HIT : PlacementHeatmap.MISS;
+    if (sunkShip != null) {
+      remaining.remove(sunkShip);
+    }
+  }
+}
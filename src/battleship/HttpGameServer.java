@@ -0,0 +1,492 @@
+package battleship;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP/JSON front end serving standard 10x10 games of {@link BattleshipModelImpl}, built on the
+ * JDK's {@code com.sun.net.httpserver}. Every request runs on a virtual thread of its own, so
+ * clients on slow connections don't tie up platform threads.
+ *
+ * <ul>
+ *   <li>{@code POST /games?seed=S&maxGuesses=N} creates a game; both parameters are optional.
+ *   <li>{@code GET /games/{id}} returns the state of a game.
+ *   <li>{@code POST /games/{id}/guesses} with a body such as {@code A5} fires a guess, parsed by
+ *       the same rules as console input.
+ *   <li>{@code GET /games/{id}/ships} returns the revealed ship grid once the game is over and
+ *       discards the game.
+ *   <li>{@code DELETE /games/{id}} discards a game.
+ * </ul>
+ *
+ * <p>States are returned as {@code {"id":1,"maxGuesses":50,"guessCount":2,"gameOver":false,
+ * "won":false,"grid":["__________","_H_M______",...]}}, with one string per row of cell symbols;
+ * ship grids hold ship symbols and {@code -} for water. A guess returns the state together with
+ * {@code "hit"} and {@code "sunk"}, the type of the ship it sank or null. Errors return
+ * {@code {"error":"..."}} with status 400 for invalid input, 404 for unknown games, 405 for
+ * unsupported methods, 409 for games in the wrong state and 503 when the server is full.
+ *
+ * <p>A game is kept until its ship grid is fetched, it is deleted or no request has touched it for
+ * the idle timeout. Idle games are expired by a {@link TimingWheel}; each game holds one timeout,
+ * which is re-armed lazily when it fires on a game used since, so requests never lock the wheel.
+ * <p>Responses are written by hand into one small byte array per request. Each game keeps its
+ * cell symbols as ASCII bytes, updated as guesses are made, so a state is serialized by copying
+ * rows instead of copying the model's grids. Requests on one game are serialized; requests on
+ * different games run in parallel.
+ */
+public final class HttpGameServer implements AutoCloseable {
+  private static final int BOARD_SIZE = 10; // GuessParser reads guesses on the 10x10 board
+  private static final int DEFAULT_MAX_GUESSES = 50;
+  private static final int MAX_BODY_BYTES = 16;
+  private static final int RESPONSE_BYTES = 512; // fits the largest response
+  private static final String[] ACTIONS = {"", "/", "/guesses", "/ships"};
+  private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final ConcurrentMap<Long, Game> games = new ConcurrentHashMap<>();
+  private final AtomicLong nextId = new AtomicLong(1);
+  private final Semaphore slots; // one permit per game that can still be created
+  private final TimingWheel wheel;
+  private final long idleNanos;
+
+  /**
+   * A game, the cell symbols sent to clients and the timeout that expires it once idle.
+   */
+  private final class Game extends TimingWheel.Timeout {
+    private final long id;
+    private final BattleshipModelImpl model;
+    private final byte[] cells = new byte[BOARD_SIZE * BOARD_SIZE];
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    private Game(long id, BattleshipModelImpl model) {
+      this.id = id;
+      this.model = model;
+      Arrays.fill(cells, (byte) CellState.UNKNOWN.getSymbol().charAt(0));
+    }
+
+    @Override
+    protected void expire() {
+      long idle = System.nanoTime() - lastUsedNanos;
+      if (idle < idleNanos) {
+        wheel.schedule(this, idleNanos - idle, TimeUnit.NANOSECONDS);
+      } else {
+        remove(this);
+      }
+    }
+  }
+
+  /**
+   * Constructs a server bound to an address that discards games left idle for 30 minutes. Call
+   * {@link #start()} to accept requests.
+   *
+   * @param address  the address to listen on; port 0 picks a free port
+   * @param maxGames the maximum number of games kept at once
+   * @throws IOException              if the address can't be bound
+   * @throws IllegalArgumentException if the maximum number of games is not positive
+   */
+  public HttpGameServer(InetSocketAddress address, int maxGames) throws IOException {
+    this(address, maxGames, DEFAULT_IDLE_TIMEOUT);
+  }
+
+  /**
+   * Constructs a server bound to an address. Call {@link #start()} to accept requests.
+   *
+   * @param address     the address to listen on; port 0 picks a free port
+   * @param maxGames    the maximum number of games kept at once
+   * @param idleTimeout how long a game is kept without requests before it is discarded
+   * @throws IOException              if the address can't be bound
+   * @throws IllegalArgumentException if the maximum number of games or the idle timeout is not
+   *                                  positive
+   */
+  public HttpGameServer(InetSocketAddress address, int maxGames, Duration idleTimeout)
+      throws IOException {
+    if (maxGames <= 0) {
+      throw new IllegalArgumentException("The maximum number of games must be positive.");
+    }
+    if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+      throw new IllegalArgumentException("The idle timeout must be positive.");
+    }
+    this.slots = new Semaphore(maxGames);
+    this.idleNanos = idleTimeout.toNanos();
+    // Headers and body are written separately; without TCP_NODELAY, Nagle's algorithm holds the
+    // body back until the client's delayed ACK, capping each connection at a few dozen requests
+    // per second. Only takes effect before the first server of the JVM is created.
+    if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+      System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+    this.server = HttpServer.create(address, 0);
+    this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    server.setExecutor(executor);
+    server.createContext("/games", this::handle);
+    // Idle games may outlive their timeout by up to an eighth of it
+    this.wheel = new TimingWheel(Math.clamp(idleTimeout.toMillis() / 8, 1, 1000),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Runs a server until the process is stopped.
+   *
+   * @param args optional port, maximum number of games and idle timeout in seconds
+   * @throws IOException if the port can't be bound
+   */
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+    int maxGames = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+    Duration idleTimeout = args.length > 2
+        ? Duration.ofSeconds(Long.parseLong(args[2])) : DEFAULT_IDLE_TIMEOUT;
+    HttpGameServer server = new HttpGameServer(new InetSocketAddress(port), maxGames, idleTimeout);
+    server.start();
+    System.out.println("Serving games on port " + server.getPort());
+  }
+
+  /**
+   * Starts accepting requests.
+   */
+  public void start() {
+    server.start();
+  }
+
+  /**
+   * Returns the port the server listens on.
+   *
+   * @return the port
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Returns the number of games currently kept.
+   *
+   * @return the number of games
+   */
+  public int getGameCount() {
+    return games.size();
+  }
+
+  /**
+   * Stops accepting requests and waits for the requests in progress to finish.
+   */
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.close();
+    wheel.close();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    Response response = new Response();
+    try {
+      route(exchange, response);
+    } catch (IllegalArgumentException e) {
+      response.error(400, e.getMessage());
+    } catch (IllegalStateException e) {
+      response.error(409, e.getMessage());
+    }
+    response.send(exchange);
+  }
+
+  private void route(HttpExchange exchange, Response response) throws IOException {
+    String path = exchange.getRequestURI().getRawPath();
+    String method = exchange.getRequestMethod();
+    int prefix = "/games".length();
+    if (path.length() <= prefix + 1) {
+      if (!method.equals("POST")) {
+        response.error(405, "Use POST to create a game.");
+        return;
+      }
+      create(exchange.getRequestURI().getRawQuery(), response);
+      return;
+    }
+
+    int idEnd = path.indexOf('/', prefix + 1);
+    idEnd = idEnd < 0 ? path.length() : idEnd;
+    long id = path.charAt(prefix) == '/' ? parseId(path, prefix + 1, idEnd) : -1;
+    Game game = id < 0 ? null : games.get(id);
+    if (game == null) {
+      response.error(404, "No such game.");
+      return;
+    }
+    game.lastUsedNanos = System.nanoTime();
+    switch (action(path, idEnd)) {
+      case "" -> {
+        if (method.equals("GET")) {
+          synchronized (game) {
+            response.state(game);
+          }
+        } else if (method.equals("DELETE")) {
+          remove(game);
+          response.status(204);
+        } else {
+          response.error(405, "Use GET or DELETE on a game.");
+        }
+      }
+      case "/guesses" -> {
+        if (method.equals("POST")) {
+          guess(game, exchange.getRequestBody(), response);
+        } else {
+          response.error(405, "Use POST to fire a guess.");
+        }
+      }
+      case "/ships" -> {
+        if (method.equals("GET")) {
+          synchronized (game) {
+            response.ships(game.model.getShipGrid());
+          }
+          remove(game); // the game is over and fully revealed
+        } else {
+          response.error(405, "Use GET to fetch the ship grid.");
+        }
+      }
+      default -> response.error(404, "No such resource.");
+    }
+  }
+
+  private void create(String query, Response response) {
+    long seed = queryParameter(query, "seed", ThreadLocalRandom.current().nextLong());
+    long maxGuesses = queryParameter(query, "maxGuesses", DEFAULT_MAX_GUESSES);
+    if (maxGuesses <= 0 || maxGuesses > BOARD_SIZE * BOARD_SIZE) {
+      throw new IllegalArgumentException("maxGuesses must be between 1 and "
+          + BOARD_SIZE * BOARD_SIZE + ".");
+    }
+    if (!slots.tryAcquire()) {
+      response.error(503, "Too many games are in progress.");
+      return;
+    }
+    long id = nextId.getAndIncrement();
+    BattleshipModelImpl model =
+        new BattleshipModelImpl((int) maxGuesses, seed, Fleet.standard(), BOARD_SIZE, BOARD_SIZE);
+    model.startGame();
+    Game game = new Game(id, model);
+    games.put(id, game);
+    wheel.schedule(game, idleNanos, TimeUnit.NANOSECONDS);
+    response.status(201);
+    response.state(game);
+  }
+
+  /**
+   * Discards a game and frees its slot, unless another request or its timeout got there first.
+   */
+  private void remove(Game game) {
+    if (games.remove(game.id, game)) {
+      wheel.cancel(game);
+      slots.release();
+    }
+  }
+
+  private void guess(Game game, InputStream body, Response response) throws IOException {
+    byte[] bytes = new byte[MAX_BODY_BYTES];
+    int length = body.readNBytes(bytes, 0, bytes.length);
+    if (length == bytes.length && body.read() >= 0) {
+      throw new IllegalArgumentException("A guess must be sent alone, e.g. A5.");
+    }
+    char[] chars = new char[length];
+    int start = 0;
+    int end = 0;
+    for (int i = 0; i < length; i++) {
+      chars[i] = (char) (bytes[i] & 0xFF);
+      if (!Character.isWhitespace(chars[i])) {
+        start = end == 0 ? i : start;
+        end = i + 1;
+      }
+    }
+    int guess = GuessParser.parseGuess(chars, start, end);
+    int row = GuessParser.rowOf(guess);
+    int col = GuessParser.colOf(guess);
+
+    synchronized (game) {
+      boolean isHit = game.model.makeGuess(row, col);
+      CellState state = isHit ? CellState.HIT : CellState.MISS;
+      game.cells[row * BOARD_SIZE + col] = (byte) state.getSymbol().charAt(0);
+      response.guess(game, isHit, game.model.getLastSunkShip());
+    }
+  }
+
+  /**
+   * Returns the part of the path after the id of a game, without allocating.
+   */
+  private static String action(String path, int start) {
+    int length = path.length() - start;
+    for (String action : ACTIONS) {
+      if (action.length() == length && path.startsWith(action, start)) {
+        return action.equals("/") ? "" : action;
+      }
+    }
+    return "?";
+  }
+
+  /**
+   * Returns a numeric query parameter, or a default if it is absent.
+   *
+   * @throws NumberFormatException if the parameter is not a number
+   */
+  private static long queryParameter(String query, String name, long defaultValue) {
+    if (query == null) {
+      return defaultValue;
+    }
+    for (int start = 0; start < query.length(); ) {
+      int end = query.indexOf('&', start);
+      end = end < 0 ? query.length() : end;
+      int value = start + name.length() + 1;
+      if (value <= end && query.startsWith(name, start) && query.charAt(value - 1) == '=') {
+        return Long.parseLong(query, value, end, 10);
+      }
+      start = end + 1;
+    }
+    return defaultValue;
+  }
+
+  /**
+   * Parses the id of a game from the request path without allocating.
+   *
+   * @return the id, or -1 if the path doesn't hold one
+   */
+  private static long parseId(String path, int start, int end) {
+    try {
+      return Long.parseLong(path, start, end, 10);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * A JSON response, written as ASCII into a fixed buffer.
+   */
+  private static final class Response {
+    private final byte[] buffer = new byte[RESPONSE_BYTES];
+    private int length;
+    private int status = 200;
+
+    void status(int status) {
+      this.status = status;
+    }
+
+    void error(int status, String message) {
+      this.status = status;
+      length = 0;
+      append("{\"error\":");
+      string(message);
+      append('}');
+    }
+
+    void state(Game game) {
+      append('{');
+      fields(game);
+      append('}');
+    }
+
+    void guess(Game game, boolean isHit, ShipType sunk) {
+      append("{\"hit\":");
+      append(isHit ? "true" : "false");
+      append(",\"sunk\":");
+      if (sunk == null) {
+        append("null");
+      } else {
+        string(sunk.name());
+      }
+      append(',');
+      fields(game);
+      append('}');
+    }
+
+    void ships(ShipType[][] grid) {
+      append("{\"ships\":[");
+      for (int row = 0; row < grid.length; row++) {
+        append(row == 0 ? "\"" : ",\"");
+        for (ShipType ship : grid[row]) {
+          append(ship == null ? '-' : ship.getSymbol().charAt(0));
+        }
+        append('"');
+      }
+      append("]}");
+    }
+
+    private void fields(Game game) {
+      BattleshipModelImpl model = game.model;
+      append("\"id\":");
+      number(game.id);
+      append(",\"maxGuesses\":");
+      number(model.getMaxGuesses());
+      append(",\"guessCount\":");
+      number(model.getGuessCount());
+      boolean isOver = model.isGameOver();
+      append(isOver ? ",\"gameOver\":true" : ",\"gameOver\":false");
+      append(isOver && model.areAllShipsSunk() ? ",\"won\":true" : ",\"won\":false");
+      append(",\"grid\":[");
+      for (int row = 0; row < BOARD_SIZE; row++) {
+        append(row == 0 ? "\"" : ",\"");
+        System.arraycopy(game.cells, row * BOARD_SIZE, buffer, length, BOARD_SIZE);
+        length += BOARD_SIZE;
+        append('"');
+      }
+      append(']');
+    }
+
+    private void append(char c) {
+      buffer[length++] = (byte) c;
+    }
+
+    private void append(String ascii) {
+      for (int i = 0; i < ascii.length(); i++) {
+        buffer[length++] = (byte) ascii.charAt(i);
+      }
+    }
+
+    private void string(String s) {
+      append('"');
+      for (int i = 0; i < s.length() && length < buffer.length - 8; i++) {
+        char c = s.charAt(i);
+        if (c == '"' || c == '\\') {
+          append('\\');
+          append(c);
+        } else {
+          append(c < ' ' || c > '~' ? '?' : c);
+        }
+      }
+      append('"');
+    }
+
+    private void number(long value) {
+      if (value < 0) {
+        append('-');
+        value = -value;
+      }
+      int digits = 1;
+      for (long rest = value / 10; rest > 0; rest /= 10) {
+        digits++;
+      }
+      for (int i = length + digits - 1; i >= length; i--) {
+        buffer[i] = (byte) ('0' + value % 10);
+        value /= 10;
+      }
+      length += digits;
+    }
+
+    void send(HttpExchange exchange) throws IOException {
+      if (status == 204) {
+        exchange.sendResponseHeaders(204, -1);
+        exchange.close();
+        return;
+      }
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+      exchange.sendResponseHeaders(status, length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(buffer, 0, length);
+      }
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package battleship;
+
+/**
+ * An {@link UndoableBattleshipModel} decorator that records every change to its game in a
+ * {@link SessionJournal}, so the game can be rebuilt after a crash. A call is forwarded to the
+ * wrapped model first and is only journaled if it succeeds, so replaying the journal repeats
+ * exactly the calls that changed the game. Instances are created by the journal.
+ */
+public class JournaledBattleshipModel implements UndoableBattleshipModel {
+  private final UndoableBattleshipModel delegate;
+  private final SessionJournal journal;
+  private final long sessionId;
+
+  /**
+   * Constructs a journaled model.
+   *
+   * @param delegate  the model playing the game
+   * @param journal   the journal recording the game
+   * @param sessionId the id of the game in the journal
+   */
+  JournaledBattleshipModel(UndoableBattleshipModel delegate, SessionJournal journal,
+                           long sessionId) {
+    this.delegate = delegate;
+    this.journal = journal;
+    this.sessionId = sessionId;
+  }
+
+  /**
+   * Returns the id of the game in the journal.
+   *
+   * @return the session id
+   */
+  public long getSessionId() {
+    return sessionId;
+  }
+
+  @Override
+  public void startGame() {
+    delegate.startGame();
+    journal.append(SessionJournal.START, sessionId, 0, 0);
+  }
+
+  @Override
+  public boolean makeGuess(int row, int col) {
+    boolean isHit = delegate.makeGuess(row, col);
+    journal.append(SessionJournal.GUESS, sessionId, row, col);
+    endIfOver();
+    return isHit;
+  }
+
+  @Override
+  public void forfeitGuess() {
+    delegate.forfeitGuess();
+    journal.append(SessionJournal.FORFEIT, sessionId, 0, 0);
+    endIfOver();
+  }
+
+  @Override
+  public boolean undo() {
+    boolean undone = delegate.undo();
+    if (undone) {
+      journal.append(SessionJournal.UNDO, sessionId, 0, 0);
+    }
+    return undone;
+  }
+
+  @Override
+  public boolean redo() {
+    boolean redone = delegate.redo();
+    if (redone) {
+      journal.append(SessionJournal.REDO, sessionId, 0, 0);
+      endIfOver();
+    }
+    return redone;
+  }
+
+  /**
+   * Marks the game as finished in the journal once it is over, so it is not recovered.
+   */
+  private void endIfOver() {
+    if (delegate.isGameOver()) {
+      journal.append(SessionJournal.END, sessionId, 0, 0);
+    }
+  }
+
+  @Override
+  public ShipType getLastSunkShip() {
+    return delegate.getLastSunkShip();
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return delegate.isGameOver();
+  }
+
+  @Override
+  public boolean areAllShipsSunk() {
+    return delegate.areAllShipsSunk();
+  }
+
+  @Override
+  public int getGuessCount() {
+    return delegate.getGuessCount();
+  }
+
+  @Override
+  public int getMaxGuesses() {
+    return delegate.getMaxGuesses();
+  }
+
+  @Override
+  public CellState[][] getCellGrid() {
+    return delegate.getCellGrid();
+  }
+
+  @Override
+  public ShipType[][] getShipGrid() {
+    return delegate.getShipGrid();
+  }
+}
@@ -0,0 +1,79 @@
+package battleship;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe log-linear histogram of latencies in nanoseconds. Each power of two is split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, so recorded values are kept with a relative error below
+ * 1 / {@value #SUB_BUCKETS} in a fixed amount of memory regardless of how many are recorded.
+ */
+final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(Long.SIZE * SUB_BUCKETS);
+
+  /**
+   * Records a latency.
+   *
+   * @param nanos the latency in nanoseconds; negative values are recorded as 0
+   */
+  void record(long nanos) {
+    counts.incrementAndGet(bucketOf(Math.max(nanos, 0L)));
+  }
+
+  /**
+   * Returns the number of recorded latencies.
+   *
+   * @return the total count
+   */
+  long count() {
+    long total = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      total += counts.get(i);
+    }
+    return total;
+  }
+
+  /**
+   * Returns an upper bound of the latency at the given percentile.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the latency in nanoseconds, or 0 if nothing was recorded
+   */
+  long percentile(double percentile) {
+    long total = count();
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return upperBoundOf(i);
+      }
+    }
+    return upperBoundOf(counts.length() - 1);
+  }
+
+  private static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value); // >= SUB_BUCKET_BITS
+    int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  private static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    long subBucket = bucket % SUB_BUCKETS;
+    int shift = magnitude - SUB_BUCKET_BITS;
+    long lower = (1L << magnitude) + (subBucket << shift);
+    return lower + (1L << shift) - 1;
+  }
+}
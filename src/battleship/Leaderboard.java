@@ -0,0 +1,302 @@
+package battleship;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Leaderboard of finished games, kept separately for each board configuration. For every
+ * configuration it keeps the best {@code k} results of all time and of each recent time window,
+ * and answers "what place would this result take?" approximately. Results rank wins before
+ * losses, then fewer guesses, then less time.
+ *
+ * <p>Memory doesn't grow with the number of games. Each standing, all-time or per window, holds a
+ * bounded heap of its best results and a {@link RankSketch} of the scores of all its results.
+ * Only the most recent {@code windows} windows are kept; a standing is replaced when its slot is
+ * reused by a newer window, and results for windows that have already been dropped only count
+ * towards the all-time standing.
+ *
+ * <p>Games can be recorded from any number of sessions at once. A result that can't make the top
+ * {@code k} is rejected without locking, which is the common case once a standing is full, and the
+ * sketches are updated with atomic increments. Queries read a cached sorted copy of the top
+ * results and at most {@value #SCORE_BITS} sketch ranges, so they take microseconds.
+ */
+public final class Leaderboard {
+  private static final int SCORE_BITS = 17; // one bit for losses, then up to 2^16 - 1 guesses
+  private static final int MAX_SCORED_GUESSES = (1 << 16) - 1;
+  private static final int SKETCH_WIDTH = 256;
+  private static final int SKETCH_DEPTH = 4;
+  private static final Comparator<Result> ORDER = Comparator.comparing((Result r) -> !r.win())
+      .thenComparingInt(Result::guesses)
+      .thenComparingLong(Result::timeNanos);
+
+  private final int k;
+  private final long windowMillis;
+  private final int windows;
+  private final ConcurrentMap<Config, Board> boards = new ConcurrentHashMap<>();
+
+  /**
+   * A board size and fleet. Games are only ranked against games of the same configuration.
+   *
+   * @param rows             the number of rows of the board
+   * @param cols             the number of columns of the board
+   * @param fleetFingerprint the fingerprint of the fleet, see {@link Fleet#fingerprint()}
+   */
+  public record Config(int rows, int cols, long fleetFingerprint) {
+
+    /**
+     * Returns the configuration of a board and fleet.
+     *
+     * @param fleet the fleet
+     * @param rows  the number of rows of the board
+     * @param cols  the number of columns of the board
+     * @return the configuration
+     */
+    public static Config of(Fleet fleet, int rows, int cols) {
+      return new Config(rows, cols, fleet.fingerprint());
+    }
+  }
+
+  /**
+   * A finished game.
+   *
+   * @param player     the name of the player
+   * @param guesses    the number of guesses used
+   * @param timeNanos  the time the game took, in nanoseconds
+   * @param win        true if all ships were sunk
+   * @param finishedAt when the game ended, in milliseconds since the epoch
+   */
+  public record Result(String player, int guesses, long timeNanos, boolean win,
+                       long finishedAt) {
+
+    /**
+     * Constructs a result.
+     *
+     * @throws NullPointerException     if the player is null
+     * @throws IllegalArgumentException if the number of guesses is negative
+     */
+    public Result {
+      Objects.requireNonNull(player, "Player can't be null");
+      if (guesses < 0) {
+        throw new IllegalArgumentException("The number of guesses can't be negative.");
+      }
+    }
+
+    /**
+     * Returns the result of a game whose statistics were collected by a
+     * {@link GameStatsRecorder}.
+     *
+     * @param player     the name of the player
+     * @param stats      the statistics of the game
+     * @param finishedAt when the game ended, in milliseconds since the epoch
+     * @return the result
+     */
+    public static Result of(String player, GameStats stats, long finishedAt) {
+      return new Result(player, stats.getGuesses(), stats.getWallTimeNanos(), stats.isWin(),
+          finishedAt);
+    }
+
+    private long score() {
+      return (win ? 0 : 1L << 16) | Math.min(guesses, MAX_SCORED_GUESSES);
+    }
+  }
+
+  /**
+   * Constructs an empty leaderboard.
+   *
+   * @param k       the number of top results kept per configuration and window
+   * @param window  the length of a time window
+   * @param windows the number of most recent windows kept
+   * @throws IllegalArgumentException if k, the window length or the number of windows is not
+   *                                  positive
+   */
+  public Leaderboard(int k, Duration window, int windows) {
+    if (k <= 0 || windows <= 0 || window.toMillis() <= 0) {
+      throw new IllegalArgumentException("Leaderboard sizes must be positive.");
+    }
+    this.k = k;
+    this.windowMillis = window.toMillis();
+    this.windows = windows;
+  }
+
+  /**
+   * Records a finished game.
+   *
+   * @param config the configuration the game was played on
+   * @param result the result of the game
+   */
+  public void record(Config config, Result result) {
+    Board board = boards.computeIfAbsent(config, c -> new Board());
+    board.games.increment();
+    board.allTime.add(result);
+    Standing window = board.window(Math.floorDiv(result.finishedAt(), windowMillis), true);
+    if (window != null) {
+      window.add(result);
+    }
+  }
+
+  /**
+   * Returns the best results of all time.
+   *
+   * @param config the configuration
+   * @return at most k results, best first
+   */
+  public List<Result> top(Config config) {
+    Board board = boards.get(config);
+    return board == null ? List.of() : board.allTime.top();
+  }
+
+  /**
+   * Returns the best results of the time window containing an instant.
+   *
+   * @param config the configuration
+   * @param time   an instant within the window
+   * @return at most k results, best first, or none if the window is not kept
+   */
+  public List<Result> top(Config config, Instant time) {
+    Standing window = window(config, time);
+    return window == null ? List.of() : window.top();
+  }
+
+  /**
+   * Estimates the place a result takes among all results of a configuration. Places are counted
+   * by wins and guesses only, so results that differ only in time share a place. The estimate
+   * never places a result better than that.
+   *
+   * @param config the configuration
+   * @param result the result to place
+   * @return the estimated 1-based place
+   */
+  public long rank(Config config, Result result) {
+    Board board = boards.get(config);
+    return board == null ? 1 : board.allTime.rank(result);
+  }
+
+  /**
+   * Estimates the place a result takes among the results of the time window containing an
+   * instant, as by {@link #rank(Config, Result)}.
+   *
+   * @param config the configuration
+   * @param result the result to place
+   * @param time   an instant within the window
+   * @return the estimated 1-based place
+   */
+  public long rank(Config config, Result result, Instant time) {
+    Standing window = window(config, time);
+    return window == null ? 1 : window.rank(result);
+  }
+
+  /**
+   * Returns the number of games recorded for a configuration.
+   *
+   * @param config the configuration
+   * @return the number of games
+   */
+  public long getGameCount(Config config) {
+    Board board = boards.get(config);
+    return board == null ? 0 : board.games.sum();
+  }
+
+  private Standing window(Config config, Instant time) {
+    Board board = boards.get(config);
+    return board == null ? null : board.window(Math.floorDiv(time.toEpochMilli(), windowMillis),
+        false);
+  }
+
+  /**
+   * The standings of one configuration.
+   */
+  private final class Board {
+    private final LongAdder games = new LongAdder();
+    private final Standing allTime = new Standing(Long.MIN_VALUE);
+    private final AtomicReferenceArray<Standing> recent = new AtomicReferenceArray<>(windows);
+
+    /**
+     * Finds the standing of a window.
+     *
+     * @param index  the index of the window since the epoch
+     * @param create whether to start the window if its slot holds an older one
+     * @return the standing, or null if the window is not kept
+     */
+    private Standing window(long index, boolean create) {
+      int slot = (int) Math.floorMod(index, (long) windows);
+      while (true) {
+        Standing standing = recent.get(slot);
+        if (standing != null && standing.window == index) {
+          return standing;
+        }
+        if (!create || standing != null && standing.window > index) {
+          return null;
+        }
+        Standing started = new Standing(index);
+        if (recent.compareAndSet(slot, standing, started)) {
+          return started;
+        }
+      }
+    }
+  }
+
+  /**
+   * The best results and the score sketch of one configuration over one period.
+   */
+  private final class Standing {
+    private final long window;
+    private final PriorityQueue<Result> heap = new PriorityQueue<>(ORDER.reversed()); // worst first
+    private final RankSketch scores = new RankSketch(SCORE_BITS, SKETCH_WIDTH, SKETCH_DEPTH);
+    private volatile Result threshold; // the worst kept result once the heap is full
+    private volatile List<Result> sorted = List.of(); // null when the heap has changed
+
+    private Standing(long window) {
+      this.window = window;
+    }
+
+    private void add(Result result) {
+      scores.add(result.score());
+      Result worst = threshold;
+      if (worst != null && ORDER.compare(result, worst) >= 0) {
+        return;
+      }
+      synchronized (this) {
+        if (heap.size() == k) {
+          if (ORDER.compare(result, heap.peek()) >= 0) {
+            return;
+          }
+          heap.poll();
+        }
+        heap.add(result);
+        if (heap.size() == k) {
+          threshold = heap.peek();
+        }
+        sorted = null;
+      }
+    }
+
+    private List<Result> top() {
+      List<Result> top = sorted;
+      if (top == null) {
+        synchronized (this) {
+          top = sorted;
+          if (top == null) {
+            List<Result> copy = new ArrayList<>(heap);
+            copy.sort(ORDER);
+            top = List.copyOf(copy);
+            sorted = top;
+          }
+        }
+      }
+      return top;
+    }
+
+    private long rank(Result result) {
+      return scores.countBelow(result.score()) + 1;
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package battleship;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator for the console controller. It runs thousands of in-process games at once, each
+ * with its own {@link BattleshipConsoleController}, {@link BattleshipModelImpl}, scripted input
+ * ({@link ScriptedGuessInput}) and counting view, with every session on its own virtual thread.
+ * It reports sessions per second, turn latency percentiles and heap growth.
+ *
+ * <p>Usage: {@code LoadTestHarness [sessions] [maxGuesses]}, defaulting to 10000 sessions of 100
+ * guesses.
+ */
+public final class LoadTestHarness {
+  private static final long HEAP_SAMPLE_MILLIS = 10;
+
+  private final int sessions;
+  private final int maxGuesses;
+  private final LatencyHistogram turnLatencies = new LatencyHistogram();
+  private final AtomicInteger failures = new AtomicInteger();
+
+  /**
+   * Constructs a harness for the given number of sessions.
+   *
+   * @param sessions   the number of games to run concurrently
+   * @param maxGuesses the maximum number of guesses of each game
+   * @throws IllegalArgumentException if sessions is not positive
+   */
+  public LoadTestHarness(int sessions, int maxGuesses) {
+    if (sessions <= 0) {
+      throw new IllegalArgumentException("The number of sessions must be positive.");
+    }
+    this.sessions = sessions;
+    this.maxGuesses = maxGuesses;
+  }
+
+  /**
+   * Runs the load test with the sessions and guess limit given on the command line.
+   *
+   * @param args optional number of sessions and maximum guesses per game
+   * @throws InterruptedException if interrupted while waiting for the sessions to finish
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+    int maxGuesses = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+    System.out.print(new LoadTestHarness(sessions, maxGuesses).run());
+  }
+
+  /**
+   * Runs all sessions to completion and summarizes the results.
+   *
+   * @return a human-readable report
+   * @throws InterruptedException if interrupted while waiting for the sessions to finish
+   */
+  public String run() throws InterruptedException {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    memory.gc();
+    long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+    AtomicLong peakHeap = new AtomicLong(baselineHeap);
+    Thread sampler = Thread.ofPlatform().daemon().start(() -> sampleHeap(memory, peakHeap));
+
+    // Keep every model reachable so the retained heap per finished session can be measured
+    BattleshipModel[] models = new BattleshipModel[sessions];
+    long start = System.nanoTime();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < sessions; i++) {
+        int session = i;
+        executor.execute(() -> models[session] = playSession(session));
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+    sampler.interrupt();
+    sampler.join();
+
+    memory.gc();
+    long retainedHeap = memory.getHeapMemoryUsage().getUsed() - baselineHeap;
+    Reference.reachabilityFence(models);
+    long turns = turnLatencies.count();
+    double seconds = elapsed / 1e9;
+
+    StringBuilder report = new StringBuilder();
+    report.append("Sessions: ").append(sessions)
+        .append(" (failed: ").append(failures.get()).append(")\n");
+    report.append(String.format("Elapsed: %.3f s%n", seconds));
+    report.append(String.format("Throughput: %.1f sessions/s, %.1f turns/s%n",
+        sessions / seconds, turns / seconds));
+    report.append(String.format("Turn latency (us): p50=%.1f, p90=%.1f, p99=%.1f, p99.9=%.1f,"
+            + " max=%.1f%n",
+        turnLatencies.percentile(50) / 1e3, turnLatencies.percentile(90) / 1e3,
+        turnLatencies.percentile(99) / 1e3, turnLatencies.percentile(99.9) / 1e3,
+        turnLatencies.percentile(100) / 1e3));
+    report.append(String.format("Heap growth: peak %.1f MB, retained %.1f MB (%d bytes/session)%n",
+        (peakHeap.get() - baselineHeap) / 1e6, retainedHeap / 1e6,
+        retainedHeap / sessions));
+    return report.toString();
+  }
+
+  /**
+   * Plays one game with scripted input.
+   *
+   * @param session the index of the session, used as the seed for ships and shots
+   * @return the model of the finished game
+   */
+  private BattleshipModel playSession(int session) {
+    BattleshipModel model = new BattleshipModelImpl(maxGuesses, session);
+    BattleshipView view = new TimedView(turnLatencies);
+    try {
+      new BattleshipConsoleController(new ScriptedGuessInput(~session), view).playGame(model);
+    } catch (RuntimeException e) {
+      failures.incrementAndGet();
+    }
+    return model;
+  }
+
+  private static void sampleHeap(MemoryMXBean memory, AtomicLong peakHeap) {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        Thread.sleep(HEAP_SAMPLE_MILLIS);
+      }
+    } catch (InterruptedException e) {
+      // Sampling ends with the run
+    }
+  }
+
+  /**
+   * A counting view that also measures each turn, from the prompt to the rendered result or
+   * error.
+   */
+  private static final class TimedView extends CountingBattleshipView {
+    private final LatencyHistogram histogram;
+    private long turnStart;
+
+    TimedView(LatencyHistogram histogram) {
+      this.histogram = histogram;
+    }
+
+    @Override
+    public void displayPromptMessage() {
+      super.displayPromptMessage();
+      turnStart = System.nanoTime();
+    }
+
+    @Override
+    public void displayCellGrid(CellState[][] cellGrid) {
+      super.displayCellGrid(cellGrid);
+      histogram.record(System.nanoTime() - turnStart);
+    }
+
+    @Override
+    public void displayErrorMessage(String message) {
+      super.displayErrorMessage(message);
+      histogram.record(System.nanoTime() - turnStart);
+    }
+  }
+}
@@ -1,20 +1,26 @@
 package battleship;
 
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
 
 /**
  * The Main class contains the main method that runs the Battleship game.
  */
 public class Main {
   /**
-   * The main method that runs the Battleship game.
+   * The main method that runs the Battleship game. An optional first argument names a fleet
+   * configuration file (see {@link Fleet}); the standard fleet is used otherwise.
    *
    * @param args the command-line arguments
+   * @throws IOException if the fleet configuration can't be read
    */
-  public static void main(String[] args) {
+  public static void main(String[] args) throws IOException {
+    Fleet fleet = args.length > 0 ? Fleet.load(Path.of(args[0])) : Fleet.standard();
     Readable input = new InputStreamReader(System.in);
     Appendable output = System.out;
     BattleshipView view = new BattleshipConsoleView(output);
-    new BattleshipConsoleController(input, view).playGame(new BattleshipModelImpl(8));
+    new BattleshipConsoleController(input, view)
+        .playGame(new BattleshipModelImpl(8, fleet, 10, 10));
   }
 }
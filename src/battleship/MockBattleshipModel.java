@@ -1,6 +1,7 @@
 package battleship;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -52,6 +53,14 @@ public class MockBattleshipModel implements BattleshipModel {
     return false; // Miss
   }
 
+  /**
+   * Uses up one guess without recording a cell, as when the player runs out of time.
+   */
+  @Override
+  public void forfeitGuess() {
+    guessCount++;
+  }
+
   /**
    * Determines if the game is over based on the number of guesses made.
    *
@@ -98,15 +107,26 @@ public class MockBattleshipModel implements BattleshipModel {
   }
 
   /**
-   * Gets the cell grid representing the game state.
-   * <p>
-   * This method is not used in the mock implementation and always returns an empty grid.
+   * Gets the cell grid representing the game state on a 10x10 board. Guessed cells are marked as
+   * hits or misses, so the controller can check multi-guess lines against it.
    *
    * @return a 2D array of {@link CellState} representing the cell grid
    */
   @Override
   public CellState[][] getCellGrid() {
-    return new CellState[0][0]; // Not used for this test
+    CellState[][] grid = new CellState[10][10];
+    for (CellState[] row : grid) {
+      Arrays.fill(row, CellState.UNKNOWN);
+    }
+    for (int guess : guesses) {
+      grid[guess / 10][guess % 10] = CellState.MISS;
+      for (int ship : shipGrid) {
+        if (ship == guess) {
+          grid[guess / 10][guess % 10] = CellState.HIT;
+        }
+      }
+    }
+    return grid;
   }
 
   /**
@@ -122,4 +122,28 @@ public class MockBattleshipView implements BattleshipView {
   public void displayMissMessage() throws IOException {
     messages.add("You missed!");
   }
+
+  /**
+   * Displays a message indicating the player ran out of time.
+   *
+   * @param forfeitedGuesses the number of guesses forfeited since the last message
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void displayTimeoutMessage(int forfeitedGuesses) throws IOException {
+    messages.add("Time's up! Guesses forfeited: " + forfeitedGuesses);
+  }
+
+  /**
+   * Displays the compact outcome of one shot of a multi-guess line.
+   *
+   * @param row   the row index of the shot
+   * @param col   the column index of the shot
+   * @param isHit whether the shot hit a ship
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void displayShotResult(int row, int col, boolean isHit) throws IOException {
+    messages.add("Shot " + (char) ('A' + row) + col + (isHit ? ": hit" : ": miss"));
+  }
 }
@@ -0,0 +1,474 @@
+package battleship;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Differential fuzzer for {@link BattleshipModel} implementations. Each case starts the same game,
+ * with the same seed, on every backend, then applies a random sequence of guesses, undos, redos
+ * and forfeits to all of them side by side. Guesses include out-of-bounds and repeated cells.
+ * After every step the fuzzer compares what each backend returned or threw, its guess count,
+ * game-over and sunk-ship state, its cell grid and, once the game is over, its ship grid.
+ *
+ * <p>Cases run on one platform thread per core, and each thread owns its backends, so the threads
+ * share nothing but counters. A case is fully determined by its case seed. When backends disagree,
+ * the case is shrunk by delta debugging to a minimal sequence of steps that still makes them
+ * disagree, and the fuzzer stops and reports it.
+ *
+ * <p>Undo and redo are only generated if every backend creates an
+ * {@link UndoableBattleshipModel}, which is probed on a fresh game.
+ *
+ * <p>Usage: {@code ModelFuzzer [seconds] [threads] [backend...]}, defaulting to 60 seconds on
+ * every core with the {@code dense}, {@code sparse} and {@code stored} backends.
+ */
+public final class ModelFuzzer {
+  private static final int ROWS = 10;
+  private static final int COLS = 10;
+  private static final int MAX_OPS = 160;
+  private static final int MAX_GUESSES = 120;
+
+  private static final int GUESS = 0;
+  private static final int UNDO = 1;
+  private static final int REDO = 2;
+  private static final int FORFEIT = 3;
+
+  private static final Object RETURNED = new Object(); // outcome of a void method
+
+  /**
+   * Creates the models of one implementation. Each fuzzing thread gets its own backend, so a
+   * backend may reuse resources between games without synchronization.
+   */
+  @FunctionalInterface
+  public interface Backend {
+    /**
+     * Creates an unstarted model on the standard 10x10 board with the standard fleet. Models
+     * created earlier by this backend are no longer used.
+     *
+     * @param seed       the seed of the ship placement
+     * @param maxGuesses the maximum number of guesses
+     * @return the new model
+     */
+    BattleshipModel create(long seed, int maxGuesses);
+  }
+
+  private final Map<String, Supplier<Backend>> backends;
+  private final int threads;
+  private final boolean fuzzUndo;
+  private final AtomicLong nextCase;
+  private final long firstCase;
+  private final LongAdder cases = new LongAdder();
+  private final LongAdder steps = new LongAdder();
+  private final AtomicBoolean stopped = new AtomicBoolean();
+  private final AtomicReference<String> failure = new AtomicReference<>();
+
+  /**
+   * Constructs a fuzzer.
+   *
+   * @param backends  the backends to compare by name, each a factory of per-thread backends
+   * @param threads   the number of fuzzing threads
+   * @param firstCase the seed of the first case; later cases use the following seeds
+   * @throws IllegalArgumentException if fewer than two backends or no threads are given
+   */
+  public ModelFuzzer(Map<String, Supplier<Backend>> backends, int threads, long firstCase) {
+    if (backends.size() < 2) {
+      throw new IllegalArgumentException("At least two backends are needed to compare.");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("The number of threads must be positive.");
+    }
+    this.backends = new LinkedHashMap<>(backends);
+    this.threads = threads;
+    this.firstCase = firstCase;
+    this.nextCase = new AtomicLong(firstCase);
+    boolean undo = true;
+    for (Supplier<Backend> backend : backends.values()) {
+      undo &= backend.get().create(0, MAX_GUESSES) instanceof UndoableBattleshipModel;
+    }
+    this.fuzzUndo = undo;
+  }
+
+  /**
+   * Returns the backends shipped with the game: {@code dense} ({@link BattleshipModelImpl}),
+   * {@code sparse} ({@link SparseBattleshipModel}) and {@code stored} (a {@link SessionStore}
+   * slot).
+   *
+   * @return the standard backends by name
+   */
+  public static Map<String, Supplier<Backend>> standardBackends() {
+    Map<String, Supplier<Backend>> backends = new LinkedHashMap<>();
+    backends.put("dense", () -> (seed, maxGuesses) -> new BattleshipModelImpl(maxGuesses, seed));
+    backends.put("sparse", () -> (seed, maxGuesses) ->
+        new SparseBattleshipModel(maxGuesses, seed, Fleet.standard(), ROWS, COLS));
+    backends.put("stored", () -> new Backend() {
+      private final SessionStore store = new SessionStore(1, Fleet.standard(), ROWS, COLS);
+      private int slot = -1;
+
+      @Override
+      public BattleshipModel create(long seed, int maxGuesses) {
+        if (slot >= 0) {
+          store.release(slot);
+        }
+        slot = store.create(seed, maxGuesses);
+        return store.open(slot);
+      }
+    });
+    return backends;
+  }
+
+  /**
+   * Runs the fuzzer with the arguments given on the command line. Exits with status 1 if the
+   * backends disagree.
+   *
+   * @param args optional duration in seconds, number of threads and backend names
+   * @throws InterruptedException if interrupted while waiting for the fuzzing threads
+   */
+  public static void main(String[] args) throws InterruptedException {
+    long seconds = args.length > 0 ? Long.parseLong(args[0]) : 60;
+    int threads = args.length > 1 ? Integer.parseInt(args[1])
+        : Runtime.getRuntime().availableProcessors();
+    Map<String, Supplier<Backend>> standard = standardBackends();
+    Map<String, Supplier<Backend>> selected = new LinkedHashMap<>();
+    for (int i = 2; i < args.length; i++) {
+      Supplier<Backend> backend = standard.get(args[i]);
+      if (backend == null) {
+        throw new IllegalArgumentException("Unknown backend: " + args[i]);
+      }
+      selected.put(args[i], backend);
+    }
+    ModelFuzzer fuzzer = new ModelFuzzer(selected.isEmpty() ? standard : selected, threads,
+        new SplittableRandom().nextLong());
+    System.out.print(fuzzer.run(Duration.ofSeconds(seconds)));
+    if (fuzzer.failure.get() != null) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Fuzzes until the time is up or the backends disagree.
+   *
+   * @param duration how long to fuzz
+   * @return a human-readable report, including the minimal failing case if any
+   * @throws InterruptedException if interrupted while waiting for the fuzzing threads
+   */
+  public String run(Duration duration) throws InterruptedException {
+    long start = System.nanoTime();
+    long deadline = start + duration.toNanos();
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      workers.add(Thread.ofPlatform().name("fuzzer-" + i).start(() -> fuzz(deadline)));
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    StringBuilder report = new StringBuilder();
+    report.append("Backends: ").append(String.join(", ", backends.keySet()))
+        .append(" (operations: guess, forfeit")
+        .append(fuzzUndo ? ", undo, redo" : "").append(")\n");
+    report.append("Cases: ").append(cases.sum()).append(" from seed ").append(firstCase)
+        .append('\n');
+    report.append(String.format("Steps: %d in %.1f s (%.0f steps/s, %.2e steps/h)%n",
+        steps.sum(), seconds, steps.sum() / seconds, steps.sum() / seconds * 3600));
+    String failed = failure.get();
+    report.append(failed == null ? "All backends agreed.\n" : failed);
+    return report.toString();
+  }
+
+  /**
+   * Checks whether all backends agree on one case.
+   *
+   * @param caseSeed the seed of the case
+   * @return null if they agree, otherwise the report of the shrunk case
+   */
+  public String runCase(long caseSeed) {
+    Backend[] instances = instantiate();
+    FuzzCase fuzzCase = generate(caseSeed);
+    if (execute(instances, fuzzCase, null) < 0) {
+      return null;
+    }
+    return describe(instances, shrink(instances, fuzzCase));
+  }
+
+  private void fuzz(long deadline) {
+    Backend[] instances = instantiate();
+    while (!stopped.get() && System.nanoTime() - deadline < 0) {
+      FuzzCase fuzzCase = generate(nextCase.getAndIncrement());
+      int diverged = execute(instances, fuzzCase, null);
+      cases.increment();
+      steps.add(diverged < 0 ? fuzzCase.ops.length + 1 : diverged + 1);
+      if (diverged >= 0 && failure.compareAndSet(null, "")) {
+        stopped.set(true);
+        failure.set(describe(instances, shrink(instances, fuzzCase)));
+      }
+    }
+  }
+
+  private Backend[] instantiate() {
+    Backend[] instances = new Backend[backends.size()];
+    int i = 0;
+    for (Supplier<Backend> backend : backends.values()) {
+      instances[i++] = backend.get();
+    }
+    return instances;
+  }
+
+  /**
+   * A game and the steps applied to it.
+   */
+  private record FuzzCase(long caseSeed, long modelSeed, int maxGuesses, int[] ops) {
+  }
+
+  private FuzzCase generate(long caseSeed) {
+    SplittableRandom random = new SplittableRandom(caseSeed);
+    long modelSeed = random.nextLong();
+    int maxGuesses = 1 + random.nextInt(MAX_GUESSES);
+    int[] ops = new int[random.nextInt(MAX_OPS + 1)];
+    for (int i = 0; i < ops.length; i++) {
+      int roll = random.nextInt(100);
+      if (fuzzUndo && roll < 8) {
+        ops[i] = op(UNDO, 0, 0);
+      } else if (fuzzUndo && roll < 14) {
+        ops[i] = op(REDO, 0, 0);
+      } else if (roll < 18) {
+        ops[i] = op(FORFEIT, 0, 0);
+      } else if (roll < 28 && i > 0) {
+        ops[i] = ops[random.nextInt(i)]; // repeat an earlier step, often a guessed cell
+      } else if (roll < 32) {
+        ops[i] = op(GUESS, random.nextInt(-2, ROWS + 2), random.nextInt(-2, COLS + 2));
+      } else {
+        ops[i] = op(GUESS, random.nextInt(ROWS), random.nextInt(COLS));
+      }
+    }
+    return new FuzzCase(caseSeed, modelSeed, maxGuesses, ops);
+  }
+
+  private static int op(int kind, int row, int col) {
+    return kind << 16 | (row & 0xFF) << 8 | (col & 0xFF);
+  }
+
+  private static int kindOf(int op) {
+    return op >>> 16;
+  }
+
+  private static int rowOf(int op) {
+    return (byte) (op >>> 8);
+  }
+
+  private static int colOf(int op) {
+    return (byte) op;
+  }
+
+  /**
+   * Runs a case on every backend.
+   *
+   * @param instances the backends
+   * @param fuzzCase  the case to run
+   * @param log       receives each step and its outcome, or null
+   * @return -1 if the backends agreed, otherwise the number of steps applied before they
+   *         disagreed, where 0 means they already disagreed after starting the game
+   */
+  private int execute(Backend[] instances, FuzzCase fuzzCase, StringBuilder log) {
+    BattleshipModel[] models = new BattleshipModel[instances.length];
+    Object[] outcomes = new Object[instances.length];
+    for (int i = 0; i < models.length; i++) {
+      models[i] = instances[i].create(fuzzCase.modelSeed, fuzzCase.maxGuesses);
+      outcomes[i] = apply(models[i], -1);
+    }
+    if (compare(models, outcomes, log, "start") != null) {
+      return 0;
+    }
+    for (int step = 0; step < fuzzCase.ops.length; step++) {
+      int op = fuzzCase.ops[step];
+      for (int i = 0; i < models.length; i++) {
+        outcomes[i] = apply(models[i], op);
+      }
+      if (compare(models, outcomes, log, format(op)) != null) {
+        return step + 1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Applies a step to a model.
+   *
+   * @return the returned value, {@link #RETURNED} for void methods, or the class of the thrown
+   *         exception
+   */
+  private static Object apply(BattleshipModel model, int op) {
+    try {
+      if (op < 0) {
+        model.startGame();
+        return RETURNED;
+      }
+      return switch (kindOf(op)) {
+        case GUESS -> model.makeGuess(rowOf(op), colOf(op));
+        case UNDO -> ((UndoableBattleshipModel) model).undo();
+        case REDO -> ((UndoableBattleshipModel) model).redo();
+        default -> {
+          model.forfeitGuess();
+          yield RETURNED;
+        }
+      };
+    } catch (RuntimeException e) {
+      return e.getClass();
+    }
+  }
+
+  /**
+   * Compares the outcomes and states of all models with those of the first.
+   *
+   * @return null if they agree, otherwise a description of the difference
+   */
+  private String compare(BattleshipModel[] models, Object[] outcomes, StringBuilder log,
+                         String step) {
+    if (log != null) {
+      StringBuilder line = new StringBuilder("  ").append(step).append(" ->");
+      int i = 0;
+      for (String name : backends.keySet()) {
+        line.append(i == 0 ? " " : ", ").append(name).append(": ").append(describe(outcomes[i++]));
+      }
+      log.append(line).append('\n');
+    }
+    for (int i = 1; i < models.length; i++) {
+      String difference = !outcomes[0].equals(outcomes[i]) ? "outcome"
+          : compareState(models[0], models[i]);
+      if (difference != null) {
+        if (log != null) {
+          log.append("  ").append(difference).append(" differs between ").append(name(0))
+              .append(" and ").append(name(i)).append('\n');
+        }
+        return difference;
+      }
+    }
+    return null;
+  }
+
+  private static String compareState(BattleshipModel expected, BattleshipModel actual) {
+    if (expected.getGuessCount() != actual.getGuessCount()) {
+      return "guess count";
+    }
+    boolean isGameOver = expected.isGameOver();
+    if (isGameOver != actual.isGameOver()) {
+      return "game over";
+    }
+    if (expected.areAllShipsSunk() != actual.areAllShipsSunk()) {
+      return "all ships sunk";
+    }
+    if (expected.getLastSunkShip() != actual.getLastSunkShip()) {
+      return "last sunk ship";
+    }
+    if (expected.getMaxGuesses() != actual.getMaxGuesses()) {
+      return "maximum guesses";
+    }
+    if (!Arrays.deepEquals(expected.getCellGrid(), actual.getCellGrid())) {
+      return "cell grid";
+    }
+    if (isGameOver && !Arrays.deepEquals(expected.getShipGrid(), actual.getShipGrid())) {
+      return "ship grid";
+    }
+    return null;
+  }
+
+  private String name(int index) {
+    return backends.keySet().toArray(new String[0])[index];
+  }
+
+  /**
+   * Shrinks a failing case to a locally minimal one with delta debugging: chunks of steps are
+   * removed as long as the backends still disagree, halving the chunks when no chunk can go. The
+   * steps after the first disagreement are dropped, and the guess limit is lowered last.
+   */
+  private FuzzCase shrink(Backend[] instances, FuzzCase fuzzCase) {
+    int[] ops = truncate(instances, fuzzCase, fuzzCase.ops);
+    int chunks = 2;
+    while (ops.length > 0) {
+      int chunk = (ops.length + chunks - 1) / chunks;
+      boolean removed = false;
+      for (int start = 0; start < ops.length; start += chunk) {
+        int end = Math.min(start + chunk, ops.length);
+        int[] candidate = new int[ops.length - (end - start)];
+        System.arraycopy(ops, 0, candidate, 0, start);
+        System.arraycopy(ops, end, candidate, start, ops.length - end);
+        int[] failing = truncate(instances, fuzzCase, candidate);
+        if (failing != null) {
+          ops = failing;
+          chunks = Math.max(chunks - 1, 2);
+          removed = true;
+          break;
+        }
+      }
+      if (!removed) {
+        if (chunk == 1) {
+          break;
+        }
+        chunks = Math.min(chunks * 2, ops.length);
+      }
+    }
+    for (int maxGuesses = 1; maxGuesses < fuzzCase.maxGuesses; maxGuesses++) {
+      FuzzCase smaller = new FuzzCase(fuzzCase.caseSeed, fuzzCase.modelSeed, maxGuesses, ops);
+      if (execute(instances, smaller, null) >= 0) {
+        return smaller;
+      }
+    }
+    return new FuzzCase(fuzzCase.caseSeed, fuzzCase.modelSeed, fuzzCase.maxGuesses, ops);
+  }
+
+  /**
+   * Runs a candidate sequence of steps.
+   *
+   * @return the steps up to the first disagreement, or null if the backends agree
+   */
+  private int[] truncate(Backend[] instances, FuzzCase fuzzCase, int[] ops) {
+    FuzzCase candidate = new FuzzCase(fuzzCase.caseSeed, fuzzCase.modelSeed,
+        fuzzCase.maxGuesses, ops);
+    int diverged = execute(instances, candidate, null);
+    return diverged < 0 ? null : Arrays.copyOf(ops, diverged);
+  }
+
+  private String describe(Backend[] instances, FuzzCase fuzzCase) {
+    StringBuilder log = new StringBuilder();
+    log.append("Backends disagree on case ").append(fuzzCase.caseSeed)
+        .append(", shrunk to ").append(fuzzCase.ops.length).append(" steps (placement seed ")
+        .append(fuzzCase.modelSeed).append(", max guesses ").append(fuzzCase.maxGuesses)
+        .append("):\n");
+    execute(instances, fuzzCase, log);
+    return log.toString();
+  }
+
+  private static String describe(Object outcome) {
+    if (outcome == RETURNED) {
+      return "ok";
+    }
+    if (outcome instanceof Class<?> type) {
+      return type.getSimpleName();
+    }
+    return String.valueOf(outcome);
+  }
+
+  private static String format(int op) {
+    return switch (kindOf(op)) {
+      case GUESS -> {
+        int row = rowOf(op);
+        int col = colOf(op);
+        yield row >= 0 && row < 26 && col >= 0 && col < 10
+            ? "guess " + (char) ('A' + row) + col
+            : "guess (" + row + ", " + col + ")";
+      }
+      case UNDO -> "undo";
+      case REDO -> "redo";
+      default -> "forfeit";
+    };
+  }
+}
@@ -0,0 +1,100 @@
+package battleship;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Time limits for games played through a {@link BattleshipConsoleController}. A clock holds a
+ * limit for each turn and a limit for the whole game. Each limit is optional. Both are enforced
+ * by a {@link TimingWheel} that can be shared by every session of a server. No task is scheduled
+ * per session, only a timeout per game and a small one per turn.
+ *
+ * <p>When the player lets a turn run out, the {@link Policy} decides what happens. When the game
+ * limit runs out, the game always ends. A game ends by forfeiting all its remaining guesses, so it
+ * is lost unless every ship was already sunk. The controller can only end a game while it waits
+ * for input if the input can be closed. The channel constructor of the controller supports this.
+ */
+public final class MoveClock {
+
+  /**
+   * What happens when the player doesn't enter a guess before the turn limit.
+   */
+  public enum Policy {
+    /**
+     * The turn's guess is forfeited and a new turn starts. The game ends once all remaining
+     * guesses have been forfeited.
+     */
+    FORFEIT,
+    /**
+     * The game ends immediately.
+     */
+    END_GAME
+  }
+
+  private final TimingWheel wheel;
+  private final long turnLimitNanos;
+  private final long gameLimitNanos;
+  private final Policy policy;
+
+  /**
+   * Constructs a clock.
+   *
+   * @param wheel     the timing wheel enforcing the limits
+   * @param turnLimit the time allowed for each guess, or null for no limit
+   * @param gameLimit the time allowed for the whole game, or null for no limit
+   * @param policy    what happens when a turn runs out of time
+   * @throws IllegalArgumentException if a limit is zero or negative
+   */
+  public MoveClock(TimingWheel wheel, Duration turnLimit, Duration gameLimit, Policy policy) {
+    this.wheel = Objects.requireNonNull(wheel, "Timing wheel can't be null");
+    this.policy = Objects.requireNonNull(policy, "Policy can't be null");
+    this.turnLimitNanos = toNanos(turnLimit);
+    this.gameLimitNanos = toNanos(gameLimit);
+  }
+
+  private static long toNanos(Duration limit) {
+    if (limit == null) {
+      return 0;
+    }
+    if (limit.isNegative() || limit.isZero()) {
+      throw new IllegalArgumentException("Time limits must be positive.");
+    }
+    return limit.toNanos();
+  }
+
+  /**
+   * Returns the timing wheel enforcing the limits.
+   *
+   * @return the timing wheel
+   */
+  public TimingWheel getWheel() {
+    return wheel;
+  }
+
+  /**
+   * Returns the time allowed for each guess.
+   *
+   * @return the turn limit in nanoseconds, or 0 if turns are not limited
+   */
+  public long getTurnLimitNanos() {
+    return turnLimitNanos;
+  }
+
+  /**
+   * Returns the time allowed for the whole game.
+   *
+   * @return the game limit in nanoseconds, or 0 if games are not limited
+   */
+  public long getGameLimitNanos() {
+    return gameLimitNanos;
+  }
+
+  /**
+   * Returns what happens when a turn runs out of time.
+   *
+   * @return the timeout policy
+   */
+  public Policy getPolicy() {
+    return policy;
+  }
+}
@@ -0,0 +1,61 @@
+package battleship;
+
+/**
+ * A {@link BattleshipView} that displays nothing. It doesn't render grids, so controllers skip
+ * copying the model's state for it. Useful for headless throughput runs of the real controller
+ * loop, such as load tests and benchmarks.
+ */
+public final class NullBattleshipView implements BattleshipView {
+  /**
+   * The shared instance; the view has no state.
+   */
+  public static final NullBattleshipView INSTANCE = new NullBattleshipView();
+
+  private NullBattleshipView() {
+  }
+
+  @Override
+  public void displayWelcomeMessage() {
+  }
+
+  @Override
+  public void displayPromptMessage() {
+  }
+
+  @Override
+  public void displayCellGrid(CellState[][] cellGrid) {
+  }
+
+  @Override
+  public void displayShipGrid(ShipType[][] shipGrid) {
+  }
+
+  @Override
+  public boolean rendersGrids() {
+    return false;
+  }
+
+  @Override
+  public void displayGuessCount(int currentGuesses) {
+  }
+
+  @Override
+  public void displayMaxGuesses(int maxGuesses) {
+  }
+
+  @Override
+  public void displayErrorMessage(String message) {
+  }
+
+  @Override
+  public void displayGameOver(boolean win) {
+  }
+
+  @Override
+  public void displayHitMessage() {
+  }
+
+  @Override
+  public void displayMissMessage() {
+  }
+}
@@ -0,0 +1,158 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A precomputed opening book, read through a memory-mapped file. The book maps the hit/miss history
+ * of a game so far to the best next shot for one board size and fleet, as written by
+ * {@link OpeningBookBuilder}. Lookups are binary searches over the mapped entries, so opening a
+ * book of any size is instant and nothing but this object lives on the heap.
+ *
+ * <p>Because the book always prescribes the shot, the cells shot so far follow from the outcomes
+ * alone. A history is therefore just the sequence of outcomes, encoded as a {@code long} holding a
+ * leading 1 bit followed by one bit per shot (1 for a hit). Start from {@link #EMPTY_HISTORY} and
+ * extend it with {@link #append(long, boolean)} after each shot.
+ *
+ * <p>File layout (big-endian): a {@value #HEADER_BYTES}-byte header of magic, version, rows,
+ * columns, fleet fingerprint, depth and entry count, followed by entries of a {@code long} history
+ * and an {@code int} cell index ({@code row * cols + col}), sorted by history.
+ */
+public final class OpeningBook {
+  /**
+   * The history of a game in which no shot has been made.
+   */
+  public static final long EMPTY_HISTORY = 1L;
+
+  static final int MAGIC = 0x4253424B; // "BSBK"
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 32;
+  static final int ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+
+  private final MappedByteBuffer entries;
+  private final int rows;
+  private final int cols;
+  private final long fleetFingerprint;
+  private final int depth;
+  private final int entryCount;
+
+  private OpeningBook(MappedByteBuffer buffer) {
+    if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC
+        || buffer.getInt(4) != VERSION) {
+      throw new IllegalArgumentException("Not an opening book.");
+    }
+    this.rows = buffer.getInt(8);
+    this.cols = buffer.getInt(12);
+    this.fleetFingerprint = buffer.getLong(16);
+    this.depth = buffer.getInt(24);
+    this.entryCount = buffer.getInt(28);
+    if ((long) HEADER_BYTES + (long) entryCount * ENTRY_BYTES != buffer.capacity()) {
+      throw new IllegalArgumentException("Opening book is truncated or corrupt.");
+    }
+    this.entries = buffer;
+  }
+
+  /**
+   * Opens an opening book by mapping its file into memory.
+   *
+   * @param path the path of the book
+   * @return the opened book
+   * @throws IOException              if the file can't be read or mapped
+   * @throws IllegalArgumentException if the file is not a valid opening book
+   */
+  public static OpeningBook open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      // The mapping stays valid after the channel is closed
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      buffer.order(ByteOrder.BIG_ENDIAN);
+      return new OpeningBook(buffer);
+    }
+  }
+
+  /**
+   * Extends a history with the outcome of one more shot.
+   *
+   * @param history the history so far
+   * @param hit     true if the shot was a hit, false if it was a miss
+   * @return the extended history
+   */
+  public static long append(long history, boolean hit) {
+    return history << 1 | (hit ? 1L : 0L);
+  }
+
+  /**
+   * Looks up the best next shot after the given history.
+   *
+   * @param history the outcomes of the shots so far, see {@link #append(long, boolean)}
+   * @return the cell index ({@code row * cols + col}) of the next shot, or -1 if the history is
+   *         beyond the book
+   */
+  public int nextShot(long history) {
+    int low = 0;
+    int high = entryCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long key = entries.getLong(HEADER_BYTES + mid * ENTRY_BYTES);
+      if (key < history) {
+        low = mid + 1;
+      } else if (key > history) {
+        high = mid - 1;
+      } else {
+        return entries.getInt(HEADER_BYTES + mid * ENTRY_BYTES + Long.BYTES);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Checks whether this book was built for the given fleet and board size.
+   *
+   * @param fleet the fleet of the game
+   * @param rows  the number of rows of the board
+   * @param cols  the number of columns of the board
+   * @return true if the book applies to the game, false otherwise
+   */
+  public boolean matches(Fleet fleet, int rows, int cols) {
+    return this.rows == rows && this.cols == cols && fleetFingerprint == fleet.fingerprint();
+  }
+
+  /**
+   * Returns the number of rows of the board the book was built for.
+   *
+   * @return the number of rows
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Returns the number of columns of the board the book was built for.
+   *
+   * @return the number of columns
+   */
+  public int getCols() {
+    return cols;
+  }
+
+  /**
+   * Returns the number of shots covered by the book.
+   *
+   * @return the depth of the book
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Returns the number of entries in the book.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return entryCount;
+  }
+}
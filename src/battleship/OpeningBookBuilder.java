@@ -0,0 +1,142 @@
+package battleship;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tool that precomputes an {@link OpeningBook} for one board size and fleet. Every history of
+ * hits and misses up to the requested depth is explored, and the next shot of each is chosen by
+ * {@link PlacementHeatmap}: the unguessed cell covered by the most legal placements of the fleet.
+ *
+ * <p>Usage: {@code OpeningBookBuilder output [depth] [rows cols] [fleet-file]}, defaulting to a
+ * depth of 12 on the standard 10x10 board and fleet.
+ */
+public final class OpeningBookBuilder {
+  /**
+   * The deepest book that can be built; the book has up to {@code 2^depth - 1} entries.
+   */
+  public static final int MAX_DEPTH = 24;
+
+  private final int rows;
+  private final int cols;
+  private final Fleet fleet;
+  private final int depth;
+  private final int[] shots; // next shot of each history, indexed by history - 1
+  private final byte[] cells;
+  private final int[] counts;
+
+  /**
+   * Constructs a builder for the given board and fleet.
+   *
+   * @param rows  the number of rows of the board
+   * @param cols  the number of columns of the board
+   * @param fleet the fleet placed on the board
+   * @param depth the number of opening shots to cover, between 1 and {@link #MAX_DEPTH}
+   * @throws IllegalArgumentException if the depth is out of range
+   */
+  public OpeningBookBuilder(int rows, int cols, Fleet fleet, int depth) {
+    if (depth < 1 || depth > MAX_DEPTH) {
+      throw new IllegalArgumentException("Depth must be between 1 and " + MAX_DEPTH + ".");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    this.fleet = fleet;
+    this.depth = depth;
+    this.shots = new int[(1 << depth) - 1];
+    this.cells = new byte[rows * cols];
+    this.counts = new int[rows * cols];
+  }
+
+  /**
+   * Builds a book from the command-line arguments.
+   *
+   * @param args the output path, then optionally the depth, the board size and a fleet file
+   * @throws IOException if the fleet can't be read or the book can't be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("Usage: OpeningBookBuilder output [depth] [rows cols] [fleet-file]");
+      return;
+    }
+    int depth = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+    int rows = args.length > 3 ? Integer.parseInt(args[2]) : 10;
+    int cols = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+    Fleet fleet = args.length > 4 ? Fleet.load(Path.of(args[4])) : Fleet.standard();
+    OpeningBookBuilder builder = new OpeningBookBuilder(rows, cols, fleet, depth);
+    int entries = builder.write(Path.of(args[0]));
+    System.out.println("Wrote " + entries + " entries to " + args[0]);
+  }
+
+  /**
+   * Computes the book and writes it to a file.
+   *
+   * @param path the path of the book to write
+   * @return the number of entries written
+   * @throws IOException if the book can't be written
+   */
+  public int write(Path path) throws IOException {
+    int entries = build(OpeningBook.EMPTY_HISTORY, 0);
+
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(path)))) {
+      out.writeInt(OpeningBook.MAGIC);
+      out.writeInt(OpeningBook.VERSION);
+      out.writeInt(rows);
+      out.writeInt(cols);
+      out.writeLong(fleet.fingerprint());
+      out.writeInt(depth);
+      out.writeInt(entries);
+      // Histories index the array directly, so walking it in order writes them sorted
+      for (int i = 0; i < shots.length; i++) {
+        if (shots[i] >= 0) {
+          out.writeLong(i + 1L);
+          out.writeInt(shots[i]);
+        }
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * Chooses the shot after the given history, then explores both of its outcomes.
+   *
+   * @param history the outcomes so far
+   * @param shot    the number of shots in the history
+   * @return the number of entries added
+   */
+  private int build(long history, int shot) {
+    int index = (int) history - 1;
+    PlacementHeatmap.compute(rows, cols, cells, fleet.getShips(), counts);
+    int best = PlacementHeatmap.bestShot(cells, counts, cells.length);
+    shots[index] = best;
+    if (best < 0) {
+      markUnreachable(history, shot);
+      return 0;
+    }
+    int entries = 1;
+    if (shot + 1 < depth) {
+      cells[best] = PlacementHeatmap.MISS;
+      entries += build(OpeningBook.append(history, false), shot + 1);
+      cells[best] = PlacementHeatmap.HIT;
+      entries += build(OpeningBook.append(history, true), shot + 1);
+      cells[best] = PlacementHeatmap.UNKNOWN;
+    }
+    return entries;
+  }
+
+  /**
+   * Marks every history below one that has no shot left as absent from the book.
+   */
+  private void markUnreachable(long history, int shot) {
+    for (int level = shot; level < depth; level++) {
+      int shift = level - shot;
+      long first = history << shift;
+      for (long h = first; h < first + (1L << shift); h++) {
+        shots[(int) h - 1] = -1;
+      }
+    }
+  }
+}
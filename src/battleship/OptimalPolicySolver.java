@@ -0,0 +1,476 @@
+package battleship;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Exact solver for small boards. It finds the shooting policy that minimizes the expected number
+ * of guesses needed to sink every ship, for a player who sees what {@link BattleshipModel} shows:
+ * hits, misses, and the end of the game. It serves as ground truth for tuning heuristic players.
+ *
+ * <p>Fleets are distributed as {@link BattleshipModelImpl#startGame()} places them: each ship in
+ * fleet order, uniformly among the positions and orientations that fit next to the ships placed
+ * before it, under the placement rules of {@link BattleshipModelImpl#isPlaceable}. The solver
+ * enumerates every such placement with its probability, then runs a dynamic program over the
+ * reachable hit/miss states. Each state keeps the placements consistent with it, and its value is
+ * one guess plus the expected value of the states each shot can lead to. Values are memoized by
+ * the canonical form of the state under {@link BoardSymmetry}, so symmetric states are solved
+ * once. Shots that can't change what is known are skipped, the most likely hits are tried
+ * first, and a shot is skipped once its lower bound can't beat the best shot found so far.
+ *
+ * <p>States that keep many placements are split across a {@link ForkJoinPool}, which balances the
+ * uneven subtrees by work stealing. Smaller states are solved by the thread that reaches them.
+ * The memo holds one entry per canonical state, so memory limits the boards that can be solved.
+ *
+ * <p>Usage: {@code OptimalPolicySolver output [rows cols] [fleet-file]}, defaulting to a 5x5 board
+ * with a destroyer and a patrol boat. The policy table is written as a {@value #HEADER_BYTES}-byte
+ * header of magic, version, rows, columns, fleet fingerprint and entry count, followed by entries
+ * of the canonical state (two bits per cell, in {@code ceil(rows * cols / 32)} longs), the best
+ * shot on the canonical board as an {@code int} and the expected number of remaining guesses as a
+ * {@code double}, sorted by state. Everything is big-endian.
+ */
+public final class OptimalPolicySolver {
+  /**
+   * The largest number of cells, including the first row and column, that can be solved.
+   */
+  public static final int MAX_CELLS = Long.SIZE;
+
+  static final int MAGIC = 0x4253504C; // "BSPL"
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 32;
+  private static final int PARALLEL_THRESHOLD = 512; // placements before a state is split
+
+  private final int rows;
+  private final int cols;
+  private final int length;
+  private final Fleet fleet;
+  private final BoardSymmetry symmetry;
+  private final long[] covered; // the cells of each placement
+  private final long[] shipCells; // the cells of each ship of each placement
+  private final double[] weights; // the probability of each placement
+  private final int ships;
+  private final ConcurrentMap<BoardSymmetry.Key, Entry> policy = new ConcurrentHashMap<>();
+
+  /**
+   * The solution of one canonical state.
+   *
+   * @param expected the expected number of guesses left under the optimal policy
+   * @param shot     the best shot, on the canonical board
+   */
+  private record Entry(double expected, int shot) {
+  }
+
+  /**
+   * Constructs a solver and enumerates the fleet placements of a board.
+   *
+   * @param rows  the number of rows of the board
+   * @param cols  the number of columns of the board
+   * @param fleet the fleet placed on the board
+   * @throws IllegalArgumentException if the board has more than {@link #MAX_CELLS} cells, or if
+   *                                  the fleet can't be placed on it
+   */
+  public OptimalPolicySolver(int rows, int cols, Fleet fleet) {
+    if (rows <= 0 || cols <= 0 || rows * cols > MAX_CELLS) {
+      throw new IllegalArgumentException("The solver supports boards of up to " + MAX_CELLS
+          + " cells.");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    this.length = rows * cols;
+    this.fleet = fleet;
+    this.symmetry = BoardSymmetry.of(rows, cols, fleet);
+    this.ships = fleet.size();
+
+    Map<List<Long>, Double> placements = new HashMap<>();
+    enumerate(0, new long[ships], 0L, 1.0, placements);
+    if (placements.isEmpty()) {
+      throw new IllegalArgumentException("The board is too small for the fleet.");
+    }
+    double total = placements.values().stream().mapToDouble(Double::doubleValue).sum();
+    this.covered = new long[placements.size()];
+    this.shipCells = new long[placements.size() * ships];
+    this.weights = new double[placements.size()];
+    int index = 0;
+    for (Map.Entry<List<Long>, Double> placement : placements.entrySet()) {
+      for (int ship = 0; ship < ships; ship++) {
+        long cells = placement.getKey().get(ship);
+        shipCells[index * ships + ship] = cells;
+        covered[index] |= cells;
+      }
+      // Placements that dead-end make startGame() fail rather than retry, so every game played
+      // is one that placed its whole fleet; renormalize to condition on that
+      weights[index++] = placement.getValue() / total;
+    }
+  }
+
+  /**
+   * Solves a board from the command-line arguments and writes its policy table.
+   *
+   * @param args the output path, then optionally the board size and a fleet file
+   * @throws IOException if the fleet can't be read or the table can't be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("Usage: OptimalPolicySolver output [rows cols] [fleet-file]");
+      return;
+    }
+    int rows = args.length > 2 ? Integer.parseInt(args[1]) : 5;
+    int cols = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+    Fleet fleet = args.length > 3 ? Fleet.load(Path.of(args[3]))
+        : new Fleet(List.of(ShipType.DESTROYER, ShipType.PATROL_BOAT));
+    OptimalPolicySolver solver = new OptimalPolicySolver(rows, cols, fleet);
+    long start = System.nanoTime();
+    double expected = solver.solve(ForkJoinPool.commonPool());
+    System.out.printf("Expected guesses: %.4f (%,d states in %.1f s)%n", expected,
+        solver.getStateCount(), (System.nanoTime() - start) / 1e9);
+    int entries = solver.write(Path.of(args[0]));
+    System.out.println("Wrote " + entries + " entries to " + args[0]);
+  }
+
+  /**
+   * Solves the game from the empty board.
+   *
+   * @param pool the pool to solve on
+   * @return the expected number of guesses of the optimal policy
+   */
+  public double solve(ForkJoinPool pool) {
+    int[] all = new int[weights.length];
+    Arrays.setAll(all, i -> i);
+    return pool.invoke(new StateTask(0L, 0L, all)).expected();
+  }
+
+  /**
+   * Returns the best shot of a state that was solved.
+   *
+   * @param cells the row-major cell codes of the board, see {@link PlacementHeatmap}
+   * @return the index of the best cell, or -1 if the state was not solved
+   */
+  public int bestShot(byte[] cells) {
+    BoardSymmetry.Canonical canonical = symmetry.canonicalize(cells, 0L);
+    Entry entry = policy.get(canonical.key());
+    return entry == null ? -1 : symmetry.fromCanonical(canonical.transform(), entry.shot());
+  }
+
+  /**
+   * Returns the expected number of guesses left in a state that was solved, under the optimal
+   * policy.
+   *
+   * @param cells the row-major cell codes of the board, see {@link PlacementHeatmap}
+   * @return the expected number of guesses, or NaN if the state was not solved
+   */
+  public double expectedGuesses(byte[] cells) {
+    Entry entry = policy.get(symmetry.canonicalize(cells, 0L).key());
+    return entry == null ? Double.NaN : entry.expected();
+  }
+
+  /**
+   * Returns the number of canonical states solved so far.
+   *
+   * @return the number of states
+   */
+  public int getStateCount() {
+    return policy.size();
+  }
+
+  /**
+   * Writes the policy table of the states solved so far.
+   *
+   * @param path the path of the table to write
+   * @return the number of entries written
+   * @throws IOException if the table can't be written
+   */
+  public int write(Path path) throws IOException {
+    int words = (length + 31) >>> 5;
+    List<long[]> states = new ArrayList<>(policy.size());
+    List<Entry> entries = new ArrayList<>(policy.size());
+    for (Map.Entry<BoardSymmetry.Key, Entry> state : policy.entrySet()) {
+      long[] packed = new long[words + 1];
+      for (int cell = 0; cell < length; cell++) {
+        packed[cell >>> 5] |= (long) state.getKey().getCell(cell) << ((cell & 31) << 1);
+      }
+      packed[words] = entries.size();
+      states.add(packed);
+      entries.add(state.getValue());
+    }
+    states.sort((a, b) -> Arrays.compareUnsigned(a, 0, words, b, 0, words));
+
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(path)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(rows);
+      out.writeInt(cols);
+      out.writeLong(fleet.fingerprint());
+      out.writeInt(states.size());
+      out.writeInt(0); // reserved
+      for (long[] state : states) {
+        for (int word = 0; word < words; word++) {
+          out.writeLong(state[word]);
+        }
+        Entry entry = entries.get((int) state[words]);
+        out.writeInt(entry.shot());
+        out.writeDouble(entry.expected());
+      }
+    }
+    return states.size();
+  }
+
+  /**
+   * Adds every placement of the ships from {@code ship} on, given the ships placed before it, with
+   * its probability. Placements that differ only in the order of their ships are merged.
+   */
+  private void enumerate(int ship, long[] placed, long occupied, double weight,
+                         Map<List<Long>, Double> placements) {
+    if (ship == ships) {
+      Long[] key = new Long[ships];
+      for (int i = 0; i < ships; i++) {
+        key[i] = placed[i];
+      }
+      Arrays.sort(key);
+      placements.merge(List.of(key), weight, Double::sum);
+      return;
+    }
+    ShipType type = fleet.getShips().get(ship);
+    List<Long> positions = new ArrayList<>();
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        for (boolean isVertical : new boolean[] {false, true}) {
+          long cells = cells(type, row, col, isVertical, occupied);
+          if (cells != 0L) {
+            positions.add(cells);
+          }
+        }
+      }
+    }
+    for (long cells : positions) {
+      placed[ship] = cells;
+      enumerate(ship + 1, placed, occupied | cells, weight / positions.size(), placements);
+    }
+  }
+
+  /**
+   * Returns the cells a ship would cover, or 0 if it can't be placed there.
+   */
+  private long cells(ShipType type, int row, int col, boolean isVertical, long occupied) {
+    long cells = 0L;
+    for (int i = 0; i < type.getSize(); i++) {
+      int r = row + type.getRowOffset(i, isVertical);
+      int c = col + type.getColOffset(i, isVertical);
+      if (!BattleshipModelImpl.isPlaceable(r, c, rows, cols)
+          || (occupied & 1L << (r * cols + c)) != 0L) {
+        return 0L;
+      }
+      cells |= 1L << (r * cols + c);
+    }
+    return cells;
+  }
+
+  /**
+   * Solves the state reached after the given hits and misses.
+   *
+   * @param hits       the cells that were hit
+   * @param misses     the cells that were missed
+   * @param placements the placements consistent with the state, none of them sunk entirely
+   * @return the solution
+   */
+  private Entry solve(long hits, long misses, int[] placements) {
+    byte[] cells = new byte[length];
+    for (int cell = 0; cell < length; cell++) {
+      long bit = 1L << cell;
+      cells[cell] = (hits & bit) != 0L ? PlacementHeatmap.HIT
+          : (misses & bit) != 0L ? PlacementHeatmap.MISS : PlacementHeatmap.UNKNOWN;
+    }
+    // The player can't tell the ships apart, so no ships are recorded as remaining
+    BoardSymmetry.Canonical canonical = symmetry.canonicalize(cells, 0L);
+    Entry known = policy.get(canonical.key());
+    if (known != null) {
+      return known;
+    }
+
+    // Weigh each shot's outcomes: a hit, a hit that sinks the last ship, or a miss
+    double total = 0;
+    double[] hitWeights = new double[length];
+    double[] lastWeights = new double[length];
+    int[] hitCounts = new int[length];
+    int[] lastCounts = new int[length];
+    int[] afloatCounts = new int[length];
+    int fewestAfloat = ships;
+    for (int placement : placements) {
+      double weight = weights[placement];
+      total += weight;
+      for (long open = covered[placement] & ~hits; open != 0L; open &= open - 1) {
+        int cell = Long.numberOfTrailingZeros(open);
+        hitWeights[cell] += weight;
+        hitCounts[cell]++;
+      }
+      long afloat = 0L;
+      int afloatCount = 0;
+      for (int ship = 0; ship < ships; ship++) {
+        long shipMask = shipCells[placement * ships + ship];
+        if ((shipMask & hits) == 0L) {
+          afloat = shipMask;
+          afloatCount++;
+          for (long open = shipMask; open != 0L; open &= open - 1) {
+            afloatCounts[Long.numberOfTrailingZeros(open)]++;
+          }
+        }
+      }
+      fewestAfloat = Math.min(fewestAfloat, afloatCount);
+      for (long last = afloatCount == 1 ? afloat : 0L; last != 0L; last &= last - 1) {
+        int cell = Long.numberOfTrailingZeros(last);
+        lastWeights[cell] += weight;
+        lastCounts[cell]++;
+      }
+    }
+
+    // A certain miss, or a certain hit on a ship that was already hit, only costs a guess
+    List<Integer> shots = new ArrayList<>();
+    for (int cell = 0; cell < length; cell++) {
+      if (hitCounts[cell] > 0
+          && (hitCounts[cell] < placements.length || afloatCounts[cell] > 0)) {
+        shots.add(cell);
+      }
+    }
+    shots.sort((a, b) -> Double.compare(hitWeights[b], hitWeights[a]));
+
+    double best = Double.POSITIVE_INFINITY;
+    int bestShot = -1;
+    if (placements.length >= PARALLEL_THRESHOLD) {
+      List<StateTask> tasks = new ArrayList<>();
+      for (int shot : shots) {
+        tasks.add(missTask(hits, misses, placements, shot, hitCounts[shot]));
+        tasks.add(hitTask(hits, misses, placements, shot, hitCounts[shot] - lastCounts[shot]));
+      }
+      RecursiveTask.invokeAll(tasks.stream().filter(Objects::nonNull).toList());
+      for (int i = 0; i < shots.size(); i++) {
+        int shot = shots.get(i);
+        double expected = expected(total, hitWeights[shot], lastWeights[shot],
+            tasks.get(2 * i), tasks.get(2 * i + 1));
+        if (expected < best) {
+          best = expected;
+          bestShot = shot;
+        }
+      }
+    } else {
+      for (int shot : shots) {
+        // Each ship still afloat needs a guess, and a hit sinks at most one of them
+        double bound = 1 + ((total - hitWeights[shot]) * fewestAfloat
+            + (hitWeights[shot] - lastWeights[shot]) * Math.max(1, fewestAfloat - 1)) / total;
+        if (bound >= best) {
+          continue;
+        }
+        StateTask miss = missTask(hits, misses, placements, shot, hitCounts[shot]);
+        StateTask hit =
+            hitTask(hits, misses, placements, shot, hitCounts[shot] - lastCounts[shot]);
+        double expected = expected(total, hitWeights[shot], lastWeights[shot], miss, hit);
+        if (expected < best) {
+          best = expected;
+          bestShot = shot;
+        }
+      }
+    }
+
+    Entry entry = new Entry(best, symmetry.toCanonical(canonical.transform(), bestShot));
+    Entry raced = policy.putIfAbsent(canonical.key(), entry);
+    return raced == null ? entry : raced;
+  }
+
+  /**
+   * Returns the expected number of guesses of a shot, solving the states it leads to if they
+   * haven't been solved yet.
+   */
+  private static double expected(double total, double hitWeight, double lastWeight,
+                                 StateTask miss, StateTask hit) {
+    double expected = 1;
+    if (miss != null) {
+      expected += (total - hitWeight) / total * miss.solution().expected();
+    }
+    if (hit != null) {
+      expected += (hitWeight - lastWeight) / total * hit.solution().expected();
+    }
+    return expected;
+  }
+
+  private StateTask missTask(long hits, long misses, int[] placements, int shot, int hitCount) {
+    int[] next = new int[placements.length - hitCount];
+    if (next.length == 0) {
+      return null;
+    }
+    int n = 0;
+    for (int placement : placements) {
+      if ((covered[placement] & 1L << shot) == 0L) {
+        next[n++] = placement;
+      }
+    }
+    return new StateTask(hits, misses | 1L << shot, next);
+  }
+
+  private StateTask hitTask(long hits, long misses, int[] placements, int shot, int count) {
+    if (count == 0) {
+      return null;
+    }
+    long nextHits = hits | 1L << shot;
+    int[] next = new int[count];
+    int n = 0;
+    for (int placement : placements) {
+      if ((covered[placement] & 1L << shot) != 0L && !isSunk(placement, nextHits)) {
+        next[n++] = placement;
+      }
+    }
+    return new StateTask(nextHits, misses, next);
+  }
+
+  private boolean isSunk(int placement, long hits) {
+    for (int ship = 0; ship < ships; ship++) {
+      if ((shipCells[placement * ships + ship] & hits) == 0L) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Solves one state, either forked on the pool or on demand by the thread that needs it.
+   */
+  @SuppressWarnings("serial") // tasks are never serialized
+  private final class StateTask extends RecursiveTask<Entry> {
+    private final long hits;
+    private final long misses;
+    private final int[] placements;
+    private Entry solution;
+
+    StateTask(long hits, long misses, int[] placements) {
+      this.hits = hits;
+      this.misses = misses;
+      this.placements = placements;
+    }
+
+    @Override
+    protected Entry compute() {
+      return solve(hits, misses, placements);
+    }
+
+    /**
+     * Returns the solution, solving the state on this thread unless the task was run.
+     */
+    Entry solution() {
+      if (solution == null) {
+        solution = isDone() ? join() : solve(hits, misses, placements);
+      }
+      return solution;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressed hash map from packed cells ({@code row * cols + col}) to non-negative
+ * {@code int} values. Keys and values live in parallel primitive arrays with linear probing, so
+ * lookups allocate nothing and memory grows only with the number of entries.
+ */
+final class PackedCellMap {
+  private static final long EMPTY = -1L;
+
+  private long[] keys;
+  private int[] values;
+  private int size;
+  private int mask;
+
+  /**
+   * Constructs an empty map sized for the expected number of entries.
+   *
+   * @param expectedSize the number of entries expected to be added
+   */
+  PackedCellMap(int expectedSize) {
+    allocate(PackedCellSet.tableSizeFor(expectedSize));
+  }
+
+  /**
+   * Associates a value with a cell, replacing any previous value.
+   *
+   * @param cell  the packed cell, must not be negative
+   * @param value the value, must not be negative
+   */
+  void put(long cell, int value) {
+    int slot = slotOf(cell);
+    while (keys[slot] != EMPTY) {
+      if (keys[slot] == cell) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = cell;
+    values[slot] = value;
+    if (++size * 2 > keys.length) {
+      rehash(PackedCellSet.grownSize(keys.length));
+    }
+  }
+
+  /**
+   * Returns the value associated with a cell.
+   *
+   * @param cell the packed cell
+   * @return the value, or -1 if the cell has no entry
+   */
+  int get(long cell) {
+    int slot = slotOf(cell);
+    while (keys[slot] != EMPTY) {
+      if (keys[slot] == cell) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Checks whether a cell has an entry.
+   *
+   * @param cell the packed cell
+   * @return true if the cell has an entry, false otherwise
+   */
+  boolean containsKey(long cell) {
+    return get(cell) >= 0;
+  }
+
+  /**
+   * Returns the number of entries in the map.
+   *
+   * @return the number of entries
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Removes all entries from the map, keeping its capacity.
+   */
+  void clear() {
+    Arrays.fill(keys, EMPTY);
+    size = 0;
+  }
+
+  private int slotOf(long cell) {
+    return (int) PackedCellSet.mix(cell) & mask;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        int slot = slotOf(oldKeys[i]);
+        while (keys[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new int[capacity];
+    Arrays.fill(keys, EMPTY);
+    mask = capacity - 1;
+  }
+}
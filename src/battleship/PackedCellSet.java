@@ -0,0 +1,178 @@
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressed hash set of packed cells ({@code row * cols + col}). Keys are stored in a
+ * single {@code long[]} with linear probing, so membership tests allocate nothing and memory grows
+ * only with the number of cells added.
+ */
+final class PackedCellSet {
+  private static final long EMPTY = -1L;
+  private static final int MIN_CAPACITY = 16;
+  private static final int MAX_CAPACITY = 1 << 30; // largest power-of-two array length
+
+  private long[] keys;
+  private int size;
+  private int mask;
+
+  /**
+   * Constructs an empty set sized for the expected number of cells.
+   *
+   * @param expectedSize the number of cells expected to be added
+   */
+  PackedCellSet(int expectedSize) {
+    allocate(tableSizeFor(expectedSize));
+  }
+
+  /**
+   * Adds a cell to the set.
+   *
+   * @param cell the packed cell, must not be negative
+   * @return true if the cell was added, false if it was already present
+   */
+  boolean add(long cell) {
+    int slot = slotOf(cell);
+    while (keys[slot] != EMPTY) {
+      if (keys[slot] == cell) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = cell;
+    if (++size * 2 > keys.length) {
+      rehash(grownSize(keys.length));
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether a cell is in the set.
+   *
+   * @param cell the packed cell
+   * @return true if the cell is present, false otherwise
+   */
+  boolean contains(long cell) {
+    int slot = slotOf(cell);
+    while (keys[slot] != EMPTY) {
+      if (keys[slot] == cell) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  /**
+   * Removes a cell from the set. The following entries of its probe run are shifted back into the
+   * freed slot, so the table never holds tombstones and lookups stay as short as before.
+   *
+   * @param cell the packed cell
+   * @return true if the cell was removed, false if it was not present
+   */
+  boolean remove(long cell) {
+    int slot = slotOf(cell);
+    while (keys[slot] != cell) {
+      if (keys[slot] == EMPTY) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    int hole = slot;
+    for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+      // Move the key back if its home slot is not in the cyclic range (hole, next]
+      int home = slotOf(keys[next]);
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        keys[hole] = keys[next];
+        hole = next;
+      }
+    }
+    keys[hole] = EMPTY;
+    size--;
+    return true;
+  }
+
+  /**
+   * Returns the number of cells in the set.
+   *
+   * @return the number of cells
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Removes all cells from the set, keeping its capacity.
+   */
+  void clear() {
+    Arrays.fill(keys, EMPTY);
+    size = 0;
+  }
+
+  private int slotOf(long cell) {
+    return (int) mix(cell) & mask;
+  }
+
+  private void rehash(int capacity) {
+    long[] old = keys;
+    allocate(capacity);
+    for (long key : old) {
+      if (key != EMPTY) {
+        int slot = slotOf(key);
+        while (keys[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    Arrays.fill(keys, EMPTY);
+    mask = capacity - 1;
+  }
+
+  /**
+   * Spreads the bits of a packed cell so neighbouring cells land in distant slots.
+   *
+   * @param cell the packed cell
+   * @return the mixed hash
+   */
+  static long mix(long cell) {
+    long h = cell * 0x9E3779B97F4A7C15L;
+    return h ^ (h >>> 32);
+  }
+
+  /**
+   * Returns the power-of-two table size that keeps the load factor at or below one half.
+   *
+   * @param expectedSize the expected number of keys
+   * @return the table size
+   * @throws IllegalArgumentException if the keys would need a table larger than 2^30 slots
+   */
+  static int tableSizeFor(int expectedSize) {
+    if (expectedSize > MAX_CAPACITY / 2) {
+      throw new IllegalArgumentException("Too many cells for one table: " + expectedSize);
+    }
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedSize * 2L) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  /**
+   * Returns the size to rehash a full table into.
+   *
+   * @param capacity the current table size
+   * @return twice the current size
+   * @throws IllegalStateException if the table already has 2^30 slots
+   */
+  static int grownSize(int capacity) {
+    if (capacity >= MAX_CAPACITY) {
+      throw new IllegalStateException("Too many cells for one table.");
+    }
+    return capacity * 2;
+  }
+}
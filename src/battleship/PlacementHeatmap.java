@@ -0,0 +1,115 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Computes placement heatmaps for probability-based shot selection. For every cell of the board,
+ * the heatmap counts how many legal placements of the remaining ships cover it, where a placement
+ * is legal if it follows the placement rules of {@link BattleshipModelImpl} and covers no missed
+ * cell. Cells that could hold more ships are more likely to hold one.
+ *
+ * <p>Boards are passed as row-major {@code byte[]} arrays of cell codes, one per cell, matching the
+ * ordinals of {@link CellState}. This is the scalar reference implementation; see
+ * {@link VectorPlacementHeatmap} for a faster engine on large boards.
+ */
+public final class PlacementHeatmap {
+  /**
+   * Cell code of a cell that has not been guessed.
+   */
+  public static final byte UNKNOWN = (byte) CellState.UNKNOWN.ordinal();
+  /**
+   * Cell code of a guessed cell that contained a ship.
+   */
+  public static final byte HIT = (byte) CellState.HIT.ordinal();
+  /**
+   * Cell code of a guessed cell that did not contain a ship.
+   */
+  public static final byte MISS = (byte) CellState.MISS.ordinal();
+
+  private PlacementHeatmap() {
+  }
+
+  /**
+   * Encodes a cell grid as row-major cell codes.
+   *
+   * @param grid the cell grid, as returned by {@link BattleshipModel#getCellGrid()}
+   * @return the cell codes
+   */
+  public static byte[] encode(CellState[][] grid) {
+    int cols = grid[0].length;
+    byte[] cells = new byte[grid.length * cols];
+    for (int i = 0; i < grid.length; i++) {
+      for (int j = 0; j < cols; j++) {
+        cells[i * cols + j] = (byte) grid[i][j].ordinal();
+      }
+    }
+    return cells;
+  }
+
+  /**
+   * Computes the placement counts of the given ships, in both orientations.
+   *
+   * @param rows   the number of rows of the board
+   * @param cols   the number of columns of the board
+   * @param cells  the row-major cell codes of the board
+   * @param ships  the ships that remain to be found
+   * @param counts receives the number of legal placements covering each cell
+   */
+  public static void compute(int rows, int cols, byte[] cells, List<ShipType> ships,
+                             int[] counts) {
+    Arrays.fill(counts, 0, rows * cols, 0);
+    for (ShipType ship : ships) {
+      addPlacements(rows, cols, cells, ship, false, counts);
+      addPlacements(rows, cols, cells, ship, true, counts);
+    }
+  }
+
+  /**
+   * Adds the legal placements of one ship in one orientation to the counts.
+   */
+  static void addPlacements(int rows, int cols, byte[] cells, ShipType ship, boolean isVertical,
+                            int[] counts) {
+    int size = ship.getSize();
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        if (isLegal(rows, cols, cells, ship, isVertical, row, col)) {
+          for (int i = 0; i < size; i++) {
+            counts[(row + ship.getRowOffset(i, isVertical)) * cols
+                + col + ship.getColOffset(i, isVertical)]++;
+          }
+        }
+      }
+    }
+  }
+
+  private static boolean isLegal(int rows, int cols, byte[] cells, ShipType ship,
+                                 boolean isVertical, int row, int col) {
+    for (int i = 0; i < ship.getSize(); i++) {
+      int r = row + ship.getRowOffset(i, isVertical);
+      int c = col + ship.getColOffset(i, isVertical);
+      if (!BattleshipModelImpl.isPlaceable(r, c, rows, cols) || cells[r * cols + c] == MISS) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Picks the unguessed cell covered by the most placements, preferring the lowest index on ties.
+   *
+   * @param cells  the row-major cell codes of the board
+   * @param counts the placement counts of the board
+   * @param length the number of cells of the board
+   * @return the index of the best cell, or -1 if every cell has been guessed
+   */
+  public static int bestShot(byte[] cells, int[] counts, int length) {
+    int best = -1;
+    for (int i = 0; i < length; i++) {
+      if (cells[i] == UNKNOWN && (best < 0 || counts[i] > counts[best])) {
+        best = i;
+      }
+    }
+    return best;
+  }
+}
@@ -0,0 +1,50 @@
+package battleship;
+
+import java.io.IOException;
+
+/**
+ * A participant in a {@link TwoPlayerBattleshipModel} game, asked for a shot on each of their
+ * turns by a {@link TwoPlayerConsoleController}. Shots are identified by their cell index,
+ * {@code row * cols + col}, on the opponent's board. Players learn the outcome of their own shots
+ * through {@link #recordResult}, so computer players can keep their own state instead of reading
+ * the model's grids every turn.
+ */
+public interface Player {
+
+  /**
+   * Called before the first turn of each game so the player can forget the previous one.
+   */
+  default void startGame() {
+  }
+
+  /**
+   * Chooses the player's next shot.
+   *
+   * @param rows the number of rows of the opponent's board
+   * @param cols the number of columns of the opponent's board
+   * @return the cell index of the shot
+   * @throws IOException              if reading the player's input fails
+   * @throws IllegalArgumentException if the player entered an invalid shot
+   */
+  int nextGuess(int rows, int cols) throws IOException;
+
+  /**
+   * Called after each valid shot of this player.
+   *
+   * @param cell     the cell index of the shot
+   * @param isHit    whether the shot hit a ship
+   * @param sunkShip the ship the shot sank, or null if it sank none
+   */
+  default void recordResult(int cell, boolean isHit, ShipType sunkShip) {
+  }
+
+  /**
+   * Checks whether this player is a person who must see the game before each shot. Games between
+   * players that are not interactive are rendered in the background while they play on.
+   *
+   * @return true if the player is interactive, false otherwise
+   */
+  default boolean isInteractive() {
+    return false;
+  }
+}
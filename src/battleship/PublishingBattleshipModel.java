@@ -0,0 +1,176 @@
+package battleship;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link BattleshipModel} decorator that publishes the game played on it as a stream of
+ * {@link GameEvent}s. All calls are forwarded to the wrapped model, so it can be passed to any
+ * controller in place of the model it wraps, and loggers, metrics or spectators subscribe to it
+ * instead of being wired into the controller's view.
+ *
+ * <p>Events are delivered by a {@link SubmissionPublisher}: each subscriber gets its own buffer
+ * and its own delivery task on the executor, and receives events as it requests them. The game
+ * never waits for a subscriber. When a subscriber has let its buffer fill up, further events are
+ * dropped for that subscriber alone and counted by {@link #getDroppedCount()}; a subscriber that
+ * needs every event should request ahead and keep its buffer from filling; others can spot the
+ * gap from the events' {@linkplain GameEvent#sequence() sequence numbers}. While nobody is
+ * subscribed, no events are created.
+ *
+ * <p>This is not an {@link UndoableBattleshipModel}, since events can't be taken back.
+ */
+public class PublishingBattleshipModel implements BattleshipModel, Flow.Publisher<GameEvent>,
+    AutoCloseable {
+  private final BattleshipModel delegate;
+  private final SubmissionPublisher<GameEvent> publisher;
+  private final LongAdder dropped = new LongAdder();
+  private int sequence; // of the next event of the current game
+
+  /**
+   * Constructs a publishing model that delivers events on the common pool, buffering up to
+   * {@link Flow#defaultBufferSize()} events per subscriber.
+   *
+   * @param delegate the model to play the game on
+   */
+  public PublishingBattleshipModel(BattleshipModel delegate) {
+    this(delegate, new SubmissionPublisher<>());
+  }
+
+  /**
+   * Constructs a publishing model.
+   *
+   * @param delegate       the model to play the game on
+   * @param executor       the executor delivering events to subscribers
+   * @param bufferCapacity the number of events buffered per subscriber, rounded up to a power of
+   *                       two
+   * @throws IllegalArgumentException if the buffer capacity is not positive
+   */
+  public PublishingBattleshipModel(BattleshipModel delegate, Executor executor,
+                                   int bufferCapacity) {
+    this(delegate, new SubmissionPublisher<>(executor, bufferCapacity));
+  }
+
+  private PublishingBattleshipModel(BattleshipModel delegate,
+                                    SubmissionPublisher<GameEvent> publisher) {
+    this.delegate = delegate;
+    this.publisher = publisher;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+    publisher.subscribe(subscriber);
+  }
+
+  /**
+   * Returns the number of events dropped because a subscriber's buffer was full, counted once
+   * per subscriber that missed them.
+   *
+   * @return the number of dropped events
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * Stops publishing. Subscribers receive the events already buffered, then
+   * {@link Flow.Subscriber#onComplete()}. The game can go on without being published.
+   */
+  @Override
+  public void close() {
+    publisher.close();
+  }
+
+  @Override
+  public void startGame() {
+    delegate.startGame();
+    if (isPublishing()) {
+      CellState[][] grid = delegate.getCellGrid();
+      sequence = 0;
+      publish(new GameEvent.Started(grid.length, grid[0].length, delegate.getMaxGuesses()));
+    }
+  }
+
+  @Override
+  public boolean makeGuess(int row, int col) {
+    boolean isHit = delegate.makeGuess(row, col);
+    if (isPublishing()) {
+      int guessCount = delegate.getGuessCount();
+      publish(new GameEvent.Shot(row, col, isHit, guessCount, sequence));
+      ShipType sunk = delegate.getLastSunkShip();
+      if (sunk != null) {
+        publish(new GameEvent.Sunk(sunk, guessCount, sequence));
+      }
+      publishEnd();
+    }
+    return isHit;
+  }
+
+  @Override
+  public void forfeitGuess() {
+    delegate.forfeitGuess();
+    if (isPublishing()) {
+      publish(new GameEvent.Forfeited(delegate.getGuessCount(), sequence));
+      publishEnd();
+    }
+  }
+
+  private boolean isPublishing() {
+    return publisher.hasSubscribers() && !publisher.isClosed();
+  }
+
+  private void publishEnd() {
+    if (delegate.isGameOver()) {
+      publish(new GameEvent.Ended(delegate.areAllShipsSunk(), delegate.getGuessCount(),
+          delegate.getCellGrid(), delegate.getShipGrid(), sequence));
+    }
+  }
+
+  private void publish(GameEvent event) {
+    sequence++; // also counts events dropped for a subscriber or lost to a close
+    try {
+      publisher.offer(event, (subscriber, unused) -> {
+        dropped.increment();
+        return false; // don't wait for a slow subscriber
+      });
+    } catch (IllegalStateException e) {
+      // Closed by another thread since isPublishing(); the game goes on unpublished
+    }
+  }
+
+  @Override
+  public ShipType getLastSunkShip() {
+    return delegate.getLastSunkShip();
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return delegate.isGameOver();
+  }
+
+  @Override
+  public boolean areAllShipsSunk() {
+    return delegate.areAllShipsSunk();
+  }
+
+  @Override
+  public int getGuessCount() {
+    return delegate.getGuessCount();
+  }
+
+  @Override
+  public int getMaxGuesses() {
+    return delegate.getMaxGuesses();
+  }
+
+  @Override
+  public CellState[][] getCellGrid() {
+    return delegate.getCellGrid();
+  }
+
+  @Override
+  public ShipType[][] getShipGrid() {
+    return delegate.getShipGrid();
+  }
+}
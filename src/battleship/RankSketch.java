@@ -0,0 +1,110 @@
+package battleship;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate rank counter over scores in {@code [0, 2^bits)}, built from count-min sketches over
+ * dyadic ranges. Level {@code l} counts the scores in each aligned range of {@code 2^l} scores, so
+ * the number of scores below any bound is the sum of at most {@code bits} range counts, one per
+ * level. Levels with no more ranges than the sketch width are counted exactly; the others are
+ * count-min sketches, which never undercount and overcount by about {@code e / width} of all
+ * recorded scores per row, with the minimum over {@code depth} hashed rows taken.
+ *
+ * <p>The memory used is fixed by the number of bits, the width and the depth, however many
+ * scores are recorded. Counters are atomic, so scores can be added and ranked from any thread
+ * without locking.
+ */
+final class RankSketch {
+  private static final long[] SEEDS = {
+      0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+      0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L};
+
+  private final int bits;
+  private final int widthMask;
+  private final int depth;
+  private final AtomicLongArray[] levels; // exact counts, or depth rows of width counters
+
+  /**
+   * Constructs an empty sketch.
+   *
+   * @param bits  the number of bits of the scores
+   * @param width the number of counters per hashed row, a power of two
+   * @param depth the number of hashed rows, at most 8
+   * @throws IllegalArgumentException if the width is not a power of two or the depth is out of
+   *                                  range
+   */
+  RankSketch(int bits, int width, int depth) {
+    if (Integer.bitCount(width) != 1 || depth < 1 || depth > SEEDS.length) {
+      throw new IllegalArgumentException("Invalid sketch dimensions.");
+    }
+    this.bits = bits;
+    this.widthMask = width - 1;
+    this.depth = depth;
+    this.levels = new AtomicLongArray[bits + 1];
+    for (int level = 0; level <= bits; level++) {
+      long ranges = 1L << (bits - level);
+      levels[level] = new AtomicLongArray(isExact(level) ? (int) ranges : depth * width);
+    }
+  }
+
+  /**
+   * Records a score.
+   *
+   * @param score the score, in {@code [0, 2^bits)}
+   */
+  void add(long score) {
+    for (int level = 0; level <= bits; level++) {
+      long range = score >>> level;
+      AtomicLongArray counters = levels[level];
+      if (isExact(level)) {
+        counters.incrementAndGet((int) range);
+      } else {
+        for (int row = 0; row < depth; row++) {
+          counters.incrementAndGet(index(range, row));
+        }
+      }
+    }
+  }
+
+  /**
+   * Estimates how many recorded scores are lower than a bound. The estimate is never lower than
+   * the true count.
+   *
+   * @param bound the exclusive upper bound, in {@code [0, 2^bits]}
+   * @return the estimated number of scores below the bound
+   */
+  long countBelow(long bound) {
+    long count = 0;
+    // Each set bit of the bound contributes the aligned range just below the bound's prefix
+    for (int level = bits; level >= 0; level--) {
+      if ((bound >>> level & 1) != 0) {
+        count += estimate(level, (bound >>> level) - 1);
+      }
+    }
+    return count;
+  }
+
+  private long estimate(int level, long range) {
+    AtomicLongArray counters = levels[level];
+    if (isExact(level)) {
+      return counters.get((int) range);
+    }
+    long min = Long.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      min = Math.min(min, counters.get(index(range, row)));
+    }
+    return min;
+  }
+
+  private boolean isExact(int level) {
+    return bits - level <= Integer.numberOfTrailingZeros(widthMask + 1);
+  }
+
+  private int index(long range, int row) {
+    long h = (range + 1) * SEEDS[row];
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    return row * (widthMask + 1) + ((int) h & widthMask);
+  }
+}
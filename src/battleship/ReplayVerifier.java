@@ -0,0 +1,292 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays an archive of recorded games (see {@link GameArchiveWriter}) into
+ * {@link BattleshipModelImpl} and checks every recorded hit, miss and game-over outcome against
+ * the model. The archive is streamed in chunks of whole records that are verified in parallel;
+ * only a bounded number of chunks is in memory at once, whatever the size of the archive.
+ *
+ * <p>Usage: {@code ReplayVerifier archive [workers]}, defaulting to one worker per processor.
+ */
+public final class ReplayVerifier {
+  private static final int CHUNK_BYTES = 4 << 20;
+  private static final int MAX_REPORTED = 20;
+
+  private final int workers;
+
+  /**
+   * Constructs a verifier using the given number of worker threads.
+   *
+   * @param workers the number of games verified in parallel
+   * @throws IllegalArgumentException if workers is not positive
+   */
+  public ReplayVerifier(int workers) {
+    if (workers <= 0) {
+      throw new IllegalArgumentException("The number of workers must be positive.");
+    }
+    this.workers = workers;
+  }
+
+  /**
+   * Verifies the archive given on the command line and prints any divergence.
+   *
+   * @param args the archive path, then optionally the number of workers
+   * @throws IOException          if the archive can't be read
+   * @throws InterruptedException if interrupted while waiting for the workers
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    if (args.length < 1) {
+      System.err.println("Usage: ReplayVerifier archive [workers]");
+      return;
+    }
+    int workers = args.length > 1
+        ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+    long start = System.nanoTime();
+    Result result = new ReplayVerifier(workers).verify(Path.of(args[0]));
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    System.out.printf("Verified %d games in %.3f s (%.0f games/s), %d divergent%n",
+        result.getGames(), seconds, result.getGames() / seconds, result.getDivergences().size());
+    List<Divergence> divergences = result.getDivergences();
+    for (int i = 0; i < Math.min(divergences.size(), MAX_REPORTED); i++) {
+      System.out.println(divergences.get(i));
+    }
+    if (divergences.size() > MAX_REPORTED) {
+      System.out.println("... and " + (divergences.size() - MAX_REPORTED) + " more");
+    }
+  }
+
+  /**
+   * Replays every game of an archive and collects the divergences.
+   *
+   * @param archive the path of the archive
+   * @return the number of games verified and the divergences, ordered by offset
+   * @throws IOException          if the archive can't be read
+   * @throws InterruptedException if interrupted while waiting for the workers
+   */
+  public Result verify(Path archive) throws IOException, InterruptedException {
+    AtomicLong games = new AtomicLong();
+    ConcurrentLinkedQueue<Divergence> divergences = new ConcurrentLinkedQueue<>();
+    Semaphore inFlight = new Semaphore(workers * 2); // bounds the chunks held in memory
+    ExecutorService pool = Executors.newFixedThreadPool(workers);
+
+    try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+      long bufferOffset = 0; // archive offset of the start of the buffer
+      boolean endOfArchive = false;
+      while (!endOfArchive) {
+        endOfArchive = channel.read(buffer) < 0;
+        buffer.flip();
+        int end = completeRecords(buffer);
+        if (end > 0) {
+          byte[] chunk = new byte[end];
+          buffer.get(0, chunk);
+          long chunkOffset = bufferOffset;
+          inFlight.acquire();
+          pool.execute(() -> {
+            try {
+              games.addAndGet(verifyChunk(chunk, chunkOffset, divergences));
+            } finally {
+              inFlight.release();
+            }
+          });
+        }
+        buffer.position(end);
+        buffer.compact();
+        bufferOffset += end;
+      }
+      if (buffer.position() > 0) {
+        divergences.add(new Divergence(bufferOffset, -1, "truncated record at end of archive"));
+      }
+    } finally {
+      pool.shutdown();
+      pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    List<Divergence> sorted = new ArrayList<>(divergences);
+    sorted.sort(Comparator.comparingLong(Divergence::getOffset));
+    return new Result(games.get(), sorted);
+  }
+
+  /**
+   * Finds the end of the last complete record in the buffer.
+   *
+   * @param buffer the buffer, positioned at the start of a record
+   * @return the number of bytes taken by complete records
+   */
+  private static int completeRecords(ByteBuffer buffer) {
+    int offset = 0;
+    while (buffer.limit() - offset >= GameArchiveWriter.HEADER_BYTES) {
+      int shots = buffer.getShort(offset + Long.BYTES + Integer.BYTES) & 0xFFFF;
+      int length = GameArchiveWriter.HEADER_BYTES + shots * GameArchiveWriter.SHOT_BYTES;
+      if (buffer.limit() - offset < length) {
+        break;
+      }
+      offset += length;
+    }
+    return offset;
+  }
+
+  /**
+   * Replays every record of a chunk.
+   *
+   * @param chunk       the bytes of whole records
+   * @param chunkOffset the archive offset of the chunk
+   * @param divergences receives the divergences found
+   * @return the number of games replayed
+   */
+  private static int verifyChunk(byte[] chunk, long chunkOffset,
+                                 ConcurrentLinkedQueue<Divergence> divergences) {
+    ByteBuffer records = ByteBuffer.wrap(chunk);
+    int games = 0;
+    while (records.hasRemaining()) {
+      long offset = chunkOffset + records.position();
+      long seed = records.getLong();
+      int maxGuesses = records.getInt();
+      int shots = records.getShort() & 0xFFFF;
+      int next = records.position() + shots * GameArchiveWriter.SHOT_BYTES;
+
+      String divergence = null;
+      int shot = -1;
+      try {
+        BattleshipModel model = new BattleshipModelImpl(maxGuesses, seed);
+        model.startGame();
+        for (shot = 0; shot < shots; shot++) {
+          divergence = replayShot(model, records.get() & 0xFF, records.get());
+          if (divergence != null) {
+            break;
+          }
+        }
+      } catch (RuntimeException e) {
+        divergence = "model threw " + e;
+      }
+      if (divergence != null) {
+        divergences.add(new Divergence(offset, shot, divergence));
+      }
+      records.position(next);
+      games++;
+    }
+    return games;
+  }
+
+  /**
+   * Replays one shot and compares the model's outcome with the recorded one.
+   *
+   * @return a description of the divergence, or null if the outcomes match
+   */
+  private static String replayShot(BattleshipModel model, int cell, int outcome) {
+    if (model.isGameOver()) {
+      return "shot recorded after the game was over";
+    }
+    boolean recordedHit = (outcome & GameArchiveWriter.OUTCOME_HIT) != 0;
+    boolean recordedOver = (outcome & GameArchiveWriter.OUTCOME_GAME_OVER) != 0;
+    boolean hit;
+    try {
+      hit = model.makeGuess(cell / 10, cell % 10);
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      return "model rejected shot " + cell + ": " + e.getMessage();
+    }
+    if (hit != recordedHit) {
+      return "shot " + cell + " recorded as " + (recordedHit ? "hit" : "miss")
+          + " but model says " + (hit ? "hit" : "miss");
+    }
+    if (model.isGameOver() != recordedOver) {
+      return "after shot " + cell + " game over recorded as " + recordedOver
+          + " but model says " + !recordedOver;
+    }
+    return null;
+  }
+
+  /**
+   * A recorded game whose replay diverged from the model.
+   */
+  public static final class Divergence {
+    private final long offset;
+    private final int shot;
+    private final String message;
+
+    Divergence(long offset, int shot, String message) {
+      this.offset = offset;
+      this.shot = shot;
+      this.message = message;
+    }
+
+    /**
+     * Gets the byte offset of the game's record in the archive.
+     *
+     * @return the offset of the game
+     */
+    public long getOffset() {
+      return offset;
+    }
+
+    /**
+     * Gets the index of the first shot that diverged.
+     *
+     * @return the shot index, or -1 if the game couldn't be replayed at all
+     */
+    public int getShot() {
+      return shot;
+    }
+
+    /**
+     * Gets a description of the divergence.
+     *
+     * @return the description
+     */
+    public String getMessage() {
+      return message;
+    }
+
+    @Override
+    public String toString() {
+      return "game at offset " + offset + ", shot " + shot + ": " + message;
+    }
+  }
+
+  /**
+   * The outcome of verifying an archive.
+   */
+  public static final class Result {
+    private final long games;
+    private final List<Divergence> divergences;
+
+    Result(long games, List<Divergence> divergences) {
+      this.games = games;
+      this.divergences = divergences;
+    }
+
+    /**
+     * Gets the number of games replayed.
+     *
+     * @return the number of games
+     */
+    public long getGames() {
+      return games;
+    }
+
+    /**
+     * Gets the divergences found, ordered by offset.
+     *
+     * @return the divergences
+     */
+    public List<Divergence> getDivergences() {
+      return divergences;
+    }
+  }
+}
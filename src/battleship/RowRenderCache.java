@@ -0,0 +1,227 @@
+package battleship;
+
+/**
+ * Cache of rendered grid rows for {@link BattleshipConsoleView}. A row of the console grid can
+ * only be rendered in a bounded number of ways, so each distinct row is rendered once and then
+ * appended as a single string. The row label is not part of the cached text, so a row body is
+ * shared by every row, grid and view with the same cell contents.
+ *
+ * <p>Rows of cell states up to {@value #MAX_DIRECT_WIDTH} cells wide, which covers the standard
+ * board, are encoded in base 3 and looked up in a table indexed directly by their code; column
+ * headers are kept per width. Wider rows of cell states and rows of ship types share a bounded
+ * 4-way set-associative table. A row is hashed in place, and a hit is confirmed by comparing the
+ * cached text with the row, so lookups allocate nothing. Each set evicts with CLOCK, an
+ * approximation of LRU: a hit marks its entry, and a miss replaces the first unmarked entry of
+ * the set, clearing the marks it passes. Rows seen once are inserted unmarked and are evicted
+ * before the rows every render hits. Rows wider than {@value #MAX_CACHED_WIDTH} cells are rendered
+ * without caching.
+ *
+ * <p>The cache is shared by all threads and takes no locks. Entries are immutable, so racing
+ * threads can at worst evict each other's rows or a mark, which only costs a render.
+ */
+final class RowRenderCache {
+  private static final int MAX_DIRECT_WIDTH = 10; // 3^10 = 59049 entries
+  private static final int MAX_CACHED_WIDTH = 64;
+  private static final int WAYS = 4;
+  private static final int SETS = 1024; // a power of two
+  private static final int CELLS = 0;
+  private static final int SHIPS = 1;
+
+  private static final String[][] DIRECT = new String[MAX_DIRECT_WIDTH + 1][];
+  private static final String[] HEADERS = new String[MAX_CACHED_WIDTH + 1];
+  private static final Entry[] SHARED = new Entry[SETS * WAYS];
+  private static final byte[] HANDS = new byte[SETS]; // next way to consider for eviction
+
+  /**
+   * A cached row body and the hash of the row it renders.
+   */
+  private static final class Entry {
+    private final long hash;
+    private final int kind;
+    private final String body;
+    private boolean marked; // hit since the clock hand last passed; racy by design
+
+    private Entry(long hash, int kind, String body) {
+      this.hash = hash;
+      this.kind = kind;
+      this.body = body;
+    }
+  }
+
+  private RowRenderCache() {
+  }
+
+  /**
+   * Returns the column header of a grid, e.g. {@code "  0 1 2 \n"} for three columns.
+   *
+   * @param width the number of columns
+   * @return the rendered header, including the line terminator
+   */
+  static String header(int width) {
+    String header = width <= MAX_CACHED_WIDTH ? HEADERS[width] : null;
+    if (header == null) {
+      StringBuilder sb = new StringBuilder(2 + width * 3 + 1).append("  ");
+      for (int i = 0; i < width; i++) {
+        sb.append(i).append(' ');
+      }
+      header = sb.append('\n').toString();
+      if (width <= MAX_CACHED_WIDTH) {
+        HEADERS[width] = header;
+      }
+    }
+    return header;
+  }
+
+  /**
+   * Returns the body of a row of the cell grid, e.g. {@code "_ H M \n"}.
+   *
+   * @param row the cell states of the row
+   * @return the rendered row without its label, including the line terminator
+   */
+  static String cellRow(CellState[] row) {
+    if (row.length <= MAX_DIRECT_WIDTH) {
+      int code = 0;
+      for (CellState cell : row) {
+        code = code * 3 + cell.ordinal();
+      }
+      String[] table = DIRECT[row.length];
+      if (table == null) {
+        table = new String[pow3(row.length)];
+        DIRECT[row.length] = table; // a racing allocation only loses some cached rows
+      }
+      String body = table[code];
+      if (body == null) {
+        body = renderCells(row);
+        table[code] = body;
+      }
+      return body;
+    }
+    if (row.length > MAX_CACHED_WIDTH) {
+      return renderCells(row);
+    }
+    long hash = 0xcbf29ce484222325L; // FNV-1a
+    for (CellState cell : row) {
+      hash = (hash ^ cell.ordinal()) * 0x100000001b3L;
+    }
+    int set = setOf(hash);
+    for (int i = set * WAYS; i < (set + 1) * WAYS; i++) {
+      Entry entry = SHARED[i];
+      if (entry != null && entry.hash == hash && entry.kind == CELLS && rendersCells(entry, row)) {
+        return hit(entry);
+      }
+    }
+    String body = renderCells(row);
+    insert(set, new Entry(hash, CELLS, body));
+    return body;
+  }
+
+  /**
+   * Returns the body of a row of the ship grid, e.g. {@code "- A A - \n"}.
+   *
+   * @param row the ship types of the row, null for empty cells
+   * @return the rendered row without its label, including the line terminator
+   */
+  static String shipRow(ShipType[] row) {
+    if (row.length > MAX_CACHED_WIDTH) {
+      return renderShips(row);
+    }
+    long hash = 0xcbf29ce484222325L; // FNV-1a
+    for (ShipType ship : row) {
+      hash = (hash ^ symbolOf(ship)) * 0x100000001b3L;
+    }
+    int set = setOf(hash);
+    for (int i = set * WAYS; i < (set + 1) * WAYS; i++) {
+      Entry entry = SHARED[i];
+      if (entry != null && entry.hash == hash && entry.kind == SHIPS && rendersShips(entry, row)) {
+        return hit(entry);
+      }
+    }
+    String body = renderShips(row);
+    insert(set, new Entry(hash, SHIPS, body));
+    return body;
+  }
+
+  private static String hit(Entry entry) {
+    if (!entry.marked) {
+      entry.marked = true; // skip the write when already marked, keeping hot lines shared
+    }
+    return entry.body;
+  }
+
+  /**
+   * Puts an entry into a set in place of the first unmarked entry after the clock hand. Marks
+   * passed on the way are cleared, so a full turn always finds a victim.
+   */
+  private static void insert(int set, Entry entry) {
+    int hand = HANDS[set];
+    for (int step = 0; step <= WAYS; step++) {
+      int slot = set * WAYS + hand;
+      hand = (hand + 1) & (WAYS - 1);
+      Entry old = SHARED[slot];
+      if (old == null || !old.marked) {
+        SHARED[slot] = entry;
+        break;
+      }
+      old.marked = false;
+    }
+    HANDS[set] = (byte) hand;
+  }
+
+  private static int setOf(long hash) {
+    return (int) PackedCellSet.mix(hash) & (SETS - 1);
+  }
+
+  private static boolean rendersCells(Entry entry, CellState[] row) {
+    String body = entry.body;
+    if (body.length() != row.length * 2 + 1) {
+      return false;
+    }
+    for (int i = 0; i < row.length; i++) {
+      if (body.charAt(i * 2) != row[i].getSymbol().charAt(0)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean rendersShips(Entry entry, ShipType[] row) {
+    String body = entry.body;
+    if (body.length() != row.length * 2 + 1) {
+      return false;
+    }
+    for (int i = 0; i < row.length; i++) {
+      if (body.charAt(i * 2) != symbolOf(row[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static char symbolOf(ShipType ship) {
+    return ship == null ? '-' : ship.getSymbol().charAt(0);
+  }
+
+  private static String renderCells(CellState[] row) {
+    StringBuilder sb = new StringBuilder(row.length * 2 + 1);
+    for (CellState cell : row) {
+      sb.append(cell.getSymbol()).append(' ');
+    }
+    return sb.append('\n').toString();
+  }
+
+  private static String renderShips(ShipType[] row) {
+    StringBuilder sb = new StringBuilder(row.length * 2 + 1);
+    for (ShipType ship : row) {
+      sb.append(symbolOf(ship)).append(' ');
+    }
+    return sb.append('\n').toString();
+  }
+
+  private static int pow3(int exponent) {
+    int result = 1;
+    for (int i = 0; i < exponent; i++) {
+      result *= 3;
+    }
+    return result;
+  }
+}
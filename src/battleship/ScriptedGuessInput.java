@@ -0,0 +1,54 @@
+package battleship;
+
+import java.nio.CharBuffer;
+import java.util.Random;
+
+/**
+ * A {@link Readable} that supplies a scripted sequence of guesses, one per line, such as
+ * {@code "C7\n"}. The script visits every cell of the 10x10 board once in an order shuffled from a
+ * seed, so a game driven by it always ends. Lines are written straight into the reader's buffer;
+ * no strings are built.
+ */
+public class ScriptedGuessInput implements Readable {
+  private static final int CELLS = 100;
+
+  private final byte[] cells;
+  private int position; // index of the next character of the whole script, 3 per line
+
+  /**
+   * Constructs a script of all cells in an order shuffled from the given seed.
+   *
+   * @param seed the seed for the shot order
+   */
+  public ScriptedGuessInput(long seed) {
+    this.cells = new byte[CELLS];
+    for (int i = 0; i < CELLS; i++) {
+      cells[i] = (byte) i;
+    }
+    Random random = new Random(seed);
+    for (int i = CELLS - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      byte swap = cells[i];
+      cells[i] = cells[j];
+      cells[j] = swap;
+    }
+  }
+
+  @Override
+  public int read(CharBuffer cb) {
+    int end = CELLS * 3;
+    if (position == end) {
+      return -1;
+    }
+    int written = Math.min(cb.remaining(), end - position);
+    for (int i = 0; i < written; i++, position++) {
+      int cell = cells[position / 3];
+      switch (position % 3) {
+        case 0 -> cb.put((char) ('A' + cell / 10));
+        case 1 -> cb.put((char) ('0' + cell % 10));
+        default -> cb.put('\n');
+      }
+    }
+    return written;
+  }
+}
@@ -0,0 +1,537 @@
+package battleship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead journal that lets live games survive a crash. Every call that changes a
+ * {@link JournaledBattleshipModel} is appended as one fixed-width entry to a memory-mapped
+ * segment file. Appending reserves a position with a single atomic add and writes 32 bytes into
+ * the mapping. Once written, an entry survives a crash of the process, because the mapped pages
+ * belong to the operating system.
+ *
+ * <p>To also survive a crash of the machine, a commit thread forces the written range of all
+ * sessions to disk once per commit interval, so many sessions share one sync. Callers that need
+ * that guarantee before going on can wait with {@link #awaitCommit()}; turns don't wait. Each
+ * segment has a bitmap of the entries written so far. A position can be reserved before the
+ * entries below it are written, so a commit only counts up to the first entry that is not
+ * written yet, and waits for the appenders still writing below the position it set out to reach.
+ * If a segment can't be created or forced, the journal fails. Appends and
+ * {@link #awaitCommit()} then throw.
+ *
+ * <p>Entry layout (little-endian): {@code int} CRC32C of the remaining 28 bytes, {@code byte}
+ * type, 3 bytes padding, {@code long} session id, then two {@code long} arguments. The first
+ * entry of each segment is a header that identifies the fleet and board. An entry with a bad
+ * checksum was torn by a crash and is skipped.
+ *
+ * <p>Opening a journal on a directory that already holds segments recovers every game that was
+ * not over, or that was resumed by an undo or a restart after it ended. Their entries are replayed
+ * onto new models, available from {@link #getRecoveredSessions()}. The entries are then copied to
+ * fresh segments between a {@link #COPY} and a {@link #COPIED} marker, and the old segments are
+ * deleted once the copy has been committed, so the journal only ever holds the history of live
+ * games plus whatever was written since it was opened. A copy that a crash left without its
+ * closing marker is ignored on the next recovery, which falls back to the old segments.
+ */
+public final class SessionJournal implements Closeable {
+  static final int ENTRY_BYTES = 32;
+  private static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+  private static final long MAGIC = 0x42534A4E4C303031L; // "BSJNL001"
+
+  static final byte HEADER = 1;
+  static final byte CREATE = 2; // seed, maximum guesses
+  static final byte START = 3;
+  static final byte GUESS = 4; // row, column
+  static final byte FORFEIT = 5;
+  static final byte UNDO = 6;
+  static final byte REDO = 7;
+  static final byte END = 8;
+  static final byte COPY = 9; // the following histories are copied forward by a recovery
+  static final byte COPIED = 10; // the copied histories are complete and replace all before
+
+  private final Path directory;
+  private final Fleet fleet;
+  private final int rows;
+  private final int cols;
+  private final int segmentBytes;
+  private final long commitIntervalNanos;
+  private final int firstSegment; // file number of the first segment written by this journal
+  private final AtomicLong reserved = new AtomicLong(); // next position to hand out
+  private final AtomicLong nextSessionId = new AtomicLong(1);
+  private final AtomicLong commitsStarted = new AtomicLong();
+  private volatile long commitsCompleted;
+  private volatile Segment[] segments = new Segment[0];
+  private final Map<Long, BattleshipModel> recovered;
+  private final Set<Thread> waiters = ConcurrentHashMap.newKeySet(); // threads in awaitCommit
+  private final Thread committer;
+  private volatile boolean closed;
+  private volatile RuntimeException failure; // why the journal stopped working, if it did
+  private long committed; // position up to which segments have been forced, commit thread only
+
+  /**
+   * A mapped segment file and the entries written into it.
+   */
+  private static final class Segment {
+    private final MappedByteBuffer buffer;
+    private final AtomicLongArray written; // one bit per entry, set once the entry is written
+
+    private Segment(MappedByteBuffer buffer, int entries) {
+      this.buffer = buffer;
+      this.written = new AtomicLongArray((entries + 63) >>> 6);
+    }
+
+    private void markWritten(int entry) {
+      written.getAndAccumulate(entry >>> 6, 1L << entry, (bits, bit) -> bits | bit);
+    }
+  }
+
+  /**
+   * Opens the journal in a directory with 64 MiB segments and a 2 ms commit interval, recovering
+   * the games it holds.
+   *
+   * @param directory the directory holding the segment files
+   * @param fleet     the ships placed in every game
+   * @param rows      the number of rows of the board
+   * @param cols      the number of columns of the board
+   * @throws IOException              if the segments can't be read or written
+   * @throws IllegalArgumentException if the journal was written for another fleet or board
+   */
+  public SessionJournal(Path directory, Fleet fleet, int rows, int cols) throws IOException {
+    this(directory, fleet, rows, cols, DEFAULT_SEGMENT_BYTES, 2, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Opens the journal in a directory, recovering the games it holds.
+   *
+   * @param directory      the directory holding the segment files
+   * @param fleet          the ships placed in every game
+   * @param rows           the number of rows of the board
+   * @param cols           the number of columns of the board
+   * @param segmentBytes   the size of each segment file, a multiple of 32 bytes
+   * @param commitInterval how often written entries are forced to disk
+   * @param unit           the unit of the commit interval
+   * @throws IOException              if the segments can't be read or written
+   * @throws IllegalArgumentException if the segment size is invalid, or the journal was written
+   *                                  for another fleet or board
+   */
+  public SessionJournal(Path directory, Fleet fleet, int rows, int cols, int segmentBytes,
+                        long commitInterval, TimeUnit unit) throws IOException {
+    if (segmentBytes < 2 * ENTRY_BYTES || segmentBytes % ENTRY_BYTES != 0) {
+      throw new IllegalArgumentException("Segment size must be a multiple of 32 of at least 64.");
+    }
+    this.directory = directory;
+    this.fleet = fleet;
+    this.rows = rows;
+    this.cols = cols;
+    this.segmentBytes = segmentBytes;
+    this.commitIntervalNanos = Math.max(unit.toNanos(commitInterval), 1);
+    Files.createDirectories(directory);
+
+    List<Path> oldSegments = listSegments();
+    this.firstSegment = oldSegments.isEmpty() ? 0 : segmentNumber(
+        oldSegments.get(oldSegments.size() - 1)) + 1;
+    Map<Long, List<long[]>> live = readLiveSessions(oldSegments);
+
+    this.committer = new Thread(this::commitLoop, "session-journal-commit");
+    this.committer.setDaemon(true);
+    this.committer.start();
+
+    // Copy the history of live games forward, then drop the old segments. The copy only counts
+    // once its closing marker has been written; until then the old segments stay authoritative.
+    if (!oldSegments.isEmpty()) {
+      append(COPY, 0, 0, 0);
+      awaitCommit();
+    }
+    Map<Long, BattleshipModel> models = new LinkedHashMap<>();
+    for (Map.Entry<Long, List<long[]>> session : live.entrySet()) {
+      long id = session.getKey();
+      UndoableBattleshipModel model = null;
+      for (long[] entry : session.getValue()) {
+        append((byte) entry[0], id, entry[1], entry[2]);
+        model = replay(model, entry);
+      }
+      if (model != null) {
+        models.put(id, new JournaledBattleshipModel(model, this, id));
+      }
+      nextSessionId.set(Math.max(nextSessionId.get(), id + 1));
+    }
+    if (!oldSegments.isEmpty()) {
+      append(COPIED, 0, 0, 0);
+    }
+    awaitCommit();
+    for (Path segment : oldSegments) {
+      Files.delete(segment);
+    }
+    this.recovered = Collections.unmodifiableMap(models);
+  }
+
+  /**
+   * Creates a journaled game. The game is placed when the returned model's
+   * {@link BattleshipModel#startGame()} is called, as for {@link BattleshipModelImpl}.
+   *
+   * @param seed       the seed for random placement of ships
+   * @param maxGuesses the maximum number of guesses allowed in the game
+   * @return the journaled model of the new game
+   */
+  public JournaledBattleshipModel create(long seed, int maxGuesses) {
+    long id = nextSessionId.getAndIncrement();
+    BattleshipModelImpl model = new BattleshipModelImpl(maxGuesses, seed, fleet, rows, cols);
+    append(CREATE, id, seed, maxGuesses);
+    return new JournaledBattleshipModel(model, this, id);
+  }
+
+  /**
+   * Returns the games recovered when the journal was opened, by session id. The models keep
+   * journaling to this journal.
+   *
+   * @return an unmodifiable map of recovered games
+   */
+  public Map<Long, BattleshipModel> getRecoveredSessions() {
+    return recovered;
+  }
+
+  /**
+   * Waits until every entry appended before the call has been forced to disk.
+   *
+   * @throws IllegalStateException if the journal is closed while waiting, or has failed
+   */
+  public void awaitCommit() {
+    // Only a commit that starts after this point is guaranteed to cover our entries
+    long ticket = commitsStarted.get() + 1;
+    Thread waiter = Thread.currentThread();
+    while (commitsCompleted < ticket) {
+      checkFailed();
+      if (closed) {
+        throw new IllegalStateException("The journal has been closed.");
+      }
+      waiters.add(waiter);
+      LockSupport.unpark(committer);
+      if (commitsCompleted < ticket) {
+        LockSupport.parkNanos(this, commitIntervalNanos);
+      }
+      waiters.remove(waiter);
+    }
+    checkFailed(); // a failed commit thread releases its waiters without committing
+  }
+
+  /**
+   * Forces all written entries to disk and stops the commit thread. Models of this journal can no
+   * longer be changed.
+   *
+   * @throws IllegalStateException if the journal has failed, in which case it is closed anyway
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    try {
+      awaitCommit();
+    } finally {
+      closed = true;
+      LockSupport.unpark(committer);
+    }
+  }
+
+  /**
+   * Appends an entry.
+   *
+   * @param type      the entry type
+   * @param sessionId the session the entry belongs to
+   * @param first     the first argument
+   * @param second    the second argument
+   * @throws IllegalStateException if the journal is closed or has failed, or a segment can't be
+   *                               created
+   */
+  void append(byte type, long sessionId, long first, long second) {
+    if (closed) {
+      throw new IllegalStateException("The journal has been closed.");
+    }
+    checkFailed();
+    long position;
+    do {
+      position = reserved.getAndAdd(ENTRY_BYTES);
+    } while (position % segmentBytes == 0); // the first entry of a segment is its header
+    Segment segment = segment((int) (position / segmentBytes));
+    int offset = (int) (position % segmentBytes);
+    write(segment.buffer, offset, type, sessionId, first, second);
+    segment.markWritten(offset / ENTRY_BYTES);
+  }
+
+  private void checkFailed() {
+    RuntimeException cause = failure;
+    if (cause != null) {
+      throw new IllegalStateException("The journal failed; entries may not be on disk.", cause);
+    }
+  }
+
+  private void write(ByteBuffer segment, int offset, byte type, long sessionId, long first,
+                     long second) {
+    segment.put(offset + 4, type);
+    segment.putLong(offset + 8, sessionId);
+    segment.putLong(offset + 16, first);
+    segment.putLong(offset + 24, second);
+    // The checksum goes last, so an entry torn by a crash never verifies
+    segment.putInt(offset, checksum(segment, offset));
+  }
+
+  private static int checksum(ByteBuffer segment, int offset) {
+    CRC32C crc = new CRC32C();
+    crc.update(segment.slice(offset + 4, ENTRY_BYTES - 4));
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Returns a mapped segment, creating it if this is its first use.
+   */
+  private Segment segment(int index) {
+    Segment[] mapped = segments;
+    if (index < mapped.length) {
+      return mapped[index];
+    }
+    synchronized (this) {
+      while (segments.length <= index) {
+        Segment[] grown = Arrays.copyOf(segments, segments.length + 1);
+        grown[grown.length - 1] = map(firstSegment + grown.length - 1);
+        segments = grown;
+      }
+      return segments[index];
+    }
+  }
+
+  private Segment map(int number) {
+    Path path = directory.resolve(String.format("journal-%08d.wal", number));
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      write(buffer, 0, HEADER, MAGIC, fleet.fingerprint(), (long) rows << 32 | cols);
+      Segment segment = new Segment(buffer, segmentBytes / ENTRY_BYTES);
+      segment.markWritten(0);
+      return segment;
+    } catch (IOException e) {
+      // A position may already be reserved in this segment, so no commit can get past it
+      IllegalStateException failed =
+          new IllegalStateException("Failed to create journal segment " + path + ".", e);
+      failure = failed;
+      throw failed;
+    }
+  }
+
+  private void commitLoop() {
+    try {
+      while (!closed && failure == null) {
+        long started = commitsStarted.incrementAndGet();
+        long target = reserved.get();
+        if (target > committed) {
+          // Map the next segment ahead of time so appends rarely wait for a new file
+          segment((int) (target / segmentBytes) + 1);
+          long written = writtenUpTo(target);
+          Segment[] mapped = segments;
+          for (long from = committed; from < written; ) {
+            int index = (int) (from / segmentBytes);
+            int offset = (int) (from % segmentBytes);
+            int length = (int) Math.min(segmentBytes - offset, written - from);
+            mapped[index].buffer.force(offset, length);
+            from += length;
+          }
+          committed = written;
+          if (written < target) {
+            // Entries below the target are still being written; this commit can't complete until
+            // they are forced too
+            Thread.yield();
+            continue;
+          }
+        }
+        commitsCompleted = started;
+        for (Thread waiter : waiters) {
+          LockSupport.unpark(waiter);
+        }
+        LockSupport.parkNanos(this, commitIntervalNanos);
+      }
+    } catch (RuntimeException e) {
+      failure = e;
+    }
+    commitsCompleted = Long.MAX_VALUE; // release anyone still waiting
+    for (Thread waiter : waiters) {
+      LockSupport.unpark(waiter);
+    }
+  }
+
+  /**
+   * Returns the position up to which every entry from the last commit on has been written.
+   *
+   * @param target the position to look up to
+   * @return the first position below the target whose entry is not written yet, or the target
+   */
+  private long writtenUpTo(long target) {
+    Segment[] mapped = segments;
+    int entriesPerSegment = segmentBytes / ENTRY_BYTES;
+    long position = committed;
+    while (position < target) {
+      int index = (int) (position / segmentBytes);
+      if (index >= mapped.length) {
+        break; // the appender is still creating the segment
+      }
+      int entry = (int) (position % segmentBytes) / ENTRY_BYTES;
+      long bits = mapped[index].written.get(entry >>> 6) >>> entry;
+      int run = Long.numberOfTrailingZeros(~bits); // written entries from this one on
+      int end = Math.min(entry + run, entriesPerSegment);
+      position = (long) index * segmentBytes + (long) end * ENTRY_BYTES;
+      if (end < entriesPerSegment && run < 64 - (entry & 63)) {
+        break;
+      }
+    }
+    return Math.min(position, target);
+  }
+
+  private List<Path> listSegments() throws IOException {
+    List<Path> paths = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "journal-*.wal")) {
+      for (Path path : stream) {
+        paths.add(path);
+      }
+    }
+    paths.sort(null); // zero-padded numbers sort in order
+    return paths;
+  }
+
+  private static int segmentNumber(Path path) {
+    String name = path.getFileName().toString();
+    return Integer.parseInt(name.substring("journal-".length(), name.length() - ".wal".length()));
+  }
+
+  /**
+   * Reads the verified entries of all segments and keeps those of sessions that were not over.
+   * Histories copied forward by an earlier recovery replace everything read before them, but
+   * only once the copy's closing marker has been read.
+   *
+   * @return the entries of each live session as {type, first, second}, in journal order
+   */
+  private Map<Long, List<long[]>> readLiveSessions(List<Path> paths) throws IOException {
+    Map<Long, List<long[]>> sessions = new LinkedHashMap<>();
+    Map<Long, List<long[]>> ended = new HashMap<>(); // may still be revived by an undo or restart
+    Map<Long, List<long[]>> beforeCopy = null; // the live sessions while a copy is being read
+    for (Path path : paths) {
+      ByteBuffer segment;
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+      segment.order(ByteOrder.LITTLE_ENDIAN);
+      if (segment.capacity() < ENTRY_BYTES || !isValid(segment, 0)
+          || segment.get(4) != HEADER || segment.getLong(8) != MAGIC) {
+        throw new IOException("Not a journal segment: " + path);
+      }
+      if (segment.getLong(16) != fleet.fingerprint()
+          || segment.getLong(24) != ((long) rows << 32 | cols)) {
+        throw new IllegalArgumentException(
+            "The journal was written for a different fleet or board: " + path);
+      }
+      for (int offset = ENTRY_BYTES; offset + ENTRY_BYTES <= segment.capacity();
+           offset += ENTRY_BYTES) {
+        if (!isValid(segment, offset)) {
+          continue; // never written, or torn by a crash
+        }
+        byte type = segment.get(offset + 4);
+        long id = segment.getLong(offset + 8);
+        if (type == COPY) {
+          if (beforeCopy == null) {
+            beforeCopy = sessions;
+          } // else an earlier copy was cut short and is dropped
+          sessions = new LinkedHashMap<>();
+          ended = new HashMap<>(); // ended games are not copied forward
+          continue;
+        } else if (type == COPIED) {
+          beforeCopy = null;
+          continue;
+        }
+        if (type == END) {
+          List<long[]> history = sessions.remove(id);
+          if (history != null) {
+            ended.put(id, history);
+          }
+          continue;
+        }
+        List<long[]> history = ended.remove(id);
+        if (history != null) {
+          sessions.put(id, history);
+        } else if (type == CREATE) {
+          history = new ArrayList<>();
+          sessions.put(id, history);
+        } else {
+          history = sessions.get(id);
+        }
+        if (history != null) {
+          history.add(
+              new long[] {type, segment.getLong(offset + 16), segment.getLong(offset + 24)});
+        }
+      }
+    }
+    // A copy without its closing marker was cut short by a crash before the old segments were
+    // deleted, so they still hold the complete histories
+    return beforeCopy != null ? beforeCopy : sessions;
+  }
+
+  private static boolean isValid(ByteBuffer segment, int offset) {
+    byte type = segment.get(offset + 4);
+    return type >= HEADER && type <= COPIED
+        && segment.getInt(offset) == checksum(segment, offset);
+  }
+
+  /**
+   * Applies one recovered entry to a session's model.
+   *
+   * @return the model, created by a {@link #CREATE} entry
+   * @throws IOException if the entry doesn't fit the session's history
+   */
+  private UndoableBattleshipModel replay(UndoableBattleshipModel model, long[] entry)
+      throws IOException {
+    try {
+      switch ((byte) entry[0]) {
+        case CREATE:
+          return new BattleshipModelImpl((int) entry[2], entry[1], fleet, rows, cols);
+        case START:
+          model.startGame();
+          break;
+        case GUESS:
+          model.makeGuess((int) entry[1], (int) entry[2]);
+          break;
+        case FORFEIT:
+          model.forfeitGuess();
+          break;
+        case UNDO:
+          model.undo();
+          break;
+        case REDO:
+          model.redo();
+          break;
+        default:
+          throw new IOException("Unexpected journal entry type " + entry[0] + ".");
+      }
+      return model;
+    } catch (RuntimeException e) {
+      throw new IOException("The journal holds an inconsistent game history.", e);
+    }
+  }
+}
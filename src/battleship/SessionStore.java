@@ -0,0 +1,432 @@
+package battleship;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Off-heap store for a large number of long-lived, mostly idle games. Every game lives in a
+ * fixed-size slot of direct memory, so a resident game costs no heap at all. The slot holds the
+ * placement seed, the counters, the origin and orientation of each ship, and two bits per cell
+ * for the player's guesses. Hits on ships are not stored separately, since they are exactly the
+ * hit cells each ship covers. For the standard fleet on a 10x10 board a slot is 80 bytes.
+ *
+ * <p>{@link #open(int)} returns a small {@link BattleshipModel} facade that reads and writes the
+ * slot in place while the session is active. Nothing is copied onto the heap, and the facade can
+ * be dropped once the session goes idle. Each slot counts its releases, and a facade only works
+ * while the count is the one it was opened with, so a facade kept past {@link #release(int)}
+ * can't touch the slot's next game. Released slots are kept on an intrusive free list and
+ * reused before the store grows. Memory is allocated in segments of at most 1 GiB as slots are
+ * first used, so the capacity can exceed what a single buffer can address.
+ *
+ * <p>Creating and releasing slots is thread-safe. A slot, and any facade opened on it, must only
+ * be used by one thread at a time.
+ */
+public final class SessionStore {
+  private static final int MAX_SEGMENT_BYTES = 1 << 30;
+
+  // Slot header layout
+  private static final int NEXT_FREE = 0; // int: next slot on the free list, while free
+  private static final int FLAGS = 4; // byte
+  private static final int LAST_SUNK = 5; // byte: index of the last sunk ship + 1, or 0
+  private static final int SUNK_SHIPS = 6; // short
+  private static final int MAX_GUESSES = 8; // int
+  private static final int GUESS_COUNT = 12; // int
+  private static final int SEED = 16; // long
+  private static final int GENERATION = 24; // int: number of times the slot was released
+  private static final int SHIPS = 28; // 5 bytes per ship: short row, short col, byte vertical
+  private static final int SHIP_BYTES = 5;
+
+  private static final byte IN_USE = 1;
+  private static final byte GAME_OVER = 2;
+  private static final CellState[] CELL_STATES = CellState.values();
+
+  private final Fleet fleet;
+  private final int rows;
+  private final int cols;
+  private final int capacity;
+  private final int slotSize;
+  private final int cellsOffset;
+  private final int slotsPerSegment;
+  private final ByteBuffer[] segments;
+  private int freeHead = -1; // guarded by this
+  private int highWater; // number of slots ever handed out, guarded by this
+  private int size; // guarded by this
+
+  /**
+   * Constructs a store for games of the given fleet and board size.
+   *
+   * @param capacity the maximum number of resident games
+   * @param fleet    the ships placed in every game
+   * @param rows     the number of rows of the board
+   * @param cols     the number of columns of the board
+   * @throws IllegalArgumentException if the capacity is not positive, or the board is empty, too
+   *                                  small for the fleet or too large to store coordinates
+   */
+  public SessionStore(int capacity, Fleet fleet, int rows, int cols) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive.");
+    }
+    if (rows <= 0 || cols <= 0 || rows > Short.MAX_VALUE || cols > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("Board dimensions must be between 1 and 32767.");
+    }
+    // Ships are never placed in the first row or column, as in BattleshipModelImpl
+    if ((long) (rows - 1) * (cols - 1) < fleet.getTotalCells()) {
+      throw new IllegalArgumentException("The board is too small for the fleet.");
+    }
+    if (fleet.size() >= 255) {
+      throw new IllegalArgumentException("A stored fleet can have at most 254 ships.");
+    }
+    long cellBytes = ((long) rows * cols + 3) / 4;
+    long size = SHIPS + (long) fleet.size() * SHIP_BYTES + cellBytes;
+    size = (size + 7) & ~7L; // keep slots 8-byte aligned
+    if (size > MAX_SEGMENT_BYTES) {
+      throw new IllegalArgumentException("The board is too large for a stored game.");
+    }
+    this.fleet = fleet;
+    this.rows = rows;
+    this.cols = cols;
+    this.capacity = capacity;
+    this.slotSize = (int) size;
+    this.cellsOffset = SHIPS + fleet.size() * SHIP_BYTES;
+    this.slotsPerSegment = MAX_SEGMENT_BYTES / slotSize;
+    this.segments = new ByteBuffer[(capacity - 1) / slotsPerSegment + 1];
+  }
+
+  /**
+   * Creates a new game in a free slot and places its ships. For the same seed the ships are
+   * placed exactly as by {@link BattleshipModelImpl}.
+   *
+   * @param seed       the seed for random placement of ships
+   * @param maxGuesses the maximum number of guesses allowed in the game
+   * @return the slot of the new game
+   * @throws IllegalStateException if the store is full
+   */
+  public int create(long seed, int maxGuesses) {
+    int slot = allocate();
+    ByteBuffer segment = segmentOf(slot);
+    int base = offsetOf(slot);
+    segment.put(base + FLAGS, IN_USE);
+    segment.putLong(base + SEED, seed);
+    segment.putInt(base + MAX_GUESSES, maxGuesses);
+    place(segment, base);
+    return slot;
+  }
+
+  /**
+   * Frees the slot of a game so that it can be reused.
+   *
+   * @param slot the slot of the game
+   * @throws IllegalArgumentException if the slot does not hold a game
+   */
+  public synchronized void release(int slot) {
+    ByteBuffer segment = checkInUse(slot);
+    int base = offsetOf(slot);
+    segment.put(base + FLAGS, (byte) 0);
+    segment.putInt(base + GENERATION, segment.getInt(base + GENERATION) + 1);
+    segment.putInt(base + NEXT_FREE, freeHead);
+    freeHead = slot;
+    size--;
+  }
+
+  /**
+   * Returns a model backed directly by the slot of a game. The facade holds no game state of its
+   * own; every call reads or writes the slot. {@link BattleshipModel#startGame()} restarts the
+   * game with the placement it was created with. Once the slot is released, every call on the
+   * facade throws {@link IllegalStateException}.
+   *
+   * @param slot the slot of the game
+   * @return a model for the stored game
+   * @throws IllegalArgumentException if the slot does not hold a game
+   */
+  public BattleshipModel open(int slot) {
+    ByteBuffer segment = checkInUse(slot);
+    int base = offsetOf(slot);
+    return new SlotModel(segment, base, segment.getInt(base + GENERATION));
+  }
+
+  /**
+   * Returns the number of games currently stored.
+   *
+   * @return the number of games
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of bytes each game occupies.
+   *
+   * @return the slot size in bytes
+   */
+  public int getSlotSize() {
+    return slotSize;
+  }
+
+  private synchronized int allocate() {
+    int slot;
+    if (freeHead >= 0) {
+      slot = freeHead;
+      freeHead = segmentOf(slot).getInt(offsetOf(slot) + NEXT_FREE);
+    } else if (highWater < capacity) {
+      slot = highWater++;
+      int segment = slot / slotsPerSegment;
+      if (segments[segment] == null) {
+        int slots = Math.min(slotsPerSegment, capacity - segment * slotsPerSegment);
+        segments[segment] = ByteBuffer.allocateDirect(slots * slotSize);
+      }
+    } else {
+      throw new IllegalStateException("The session store is full.");
+    }
+    size++;
+    return slot;
+  }
+
+  private ByteBuffer checkInUse(int slot) {
+    ByteBuffer segment;
+    synchronized (this) {
+      if (slot < 0 || slot >= highWater) {
+        throw new IllegalArgumentException("No game is stored in slot " + slot + ".");
+      }
+      segment = segmentOf(slot);
+    }
+    if ((segment.get(offsetOf(slot) + FLAGS) & IN_USE) == 0) {
+      throw new IllegalArgumentException("No game is stored in slot " + slot + ".");
+    }
+    return segment;
+  }
+
+  private ByteBuffer segmentOf(int slot) {
+    return segments[slot / slotsPerSegment];
+  }
+
+  private int offsetOf(int slot) {
+    return (slot % slotsPerSegment) * slotSize;
+  }
+
+  /**
+   * Resets the game in a slot and places its ships from the stored seed.
+   */
+  private void place(ByteBuffer segment, int base) {
+    long seed = segment.getLong(base + SEED);
+    int maxGuesses = segment.getInt(base + MAX_GUESSES);
+    BattleshipModelImpl placement = new BattleshipModelImpl(maxGuesses, seed, fleet, rows, cols);
+    placement.startGame();
+    List<Ship> ships = placement.getShips();
+    for (int i = 0; i < ships.size(); i++) {
+      Ship ship = ships.get(i);
+      int offset = base + SHIPS + i * SHIP_BYTES;
+      segment.putShort(offset, (short) ship.getRow());
+      segment.putShort(offset + 2, (short) ship.getCol());
+      segment.put(offset + 4, (byte) (ship.isVertical() ? 1 : 0));
+    }
+    segment.put(base + FLAGS, IN_USE);
+    segment.put(base + LAST_SUNK, (byte) 0);
+    segment.putShort(base + SUNK_SHIPS, (short) 0);
+    segment.putInt(base + GUESS_COUNT, 0);
+    for (int i = base + cellsOffset; i < base + slotSize; i++) {
+      segment.put(i, (byte) 0);
+    }
+  }
+
+  /**
+   * A {@link BattleshipModel} that operates in place on one slot. Follows the rules of
+   * {@link BattleshipModelImpl}, including its messages.
+   */
+  private final class SlotModel implements BattleshipModel {
+    private final ByteBuffer segment;
+    private final int base;
+    private final int generation; // of the slot when opened
+
+    private SlotModel(ByteBuffer segment, int base, int generation) {
+      this.segment = segment;
+      this.base = base;
+      this.generation = generation;
+    }
+
+    @Override
+    public void startGame() {
+      checkOpen();
+      place(segment, base);
+    }
+
+    @Override
+    public boolean makeGuess(int row, int col) {
+      checkOpen();
+      if (isFlagSet(GAME_OVER)) {
+        throw new IllegalStateException("The game is already over");
+      }
+      if (row < 0 || row >= rows || col < 0 || col >= cols) {
+        throw new IllegalArgumentException("Coordinates out of bounds");
+      }
+      if (cellAt(row, col) != CellState.UNKNOWN) {
+        throw new IllegalArgumentException("Cell has already been guessed");
+      }
+      segment.putInt(base + GUESS_COUNT, segment.getInt(base + GUESS_COUNT) + 1);
+      segment.put(base + LAST_SUNK, (byte) 0);
+
+      int shipIndex = shipAt(row, col);
+      if (shipIndex < 0) {
+        setCell(row, col, CellState.MISS);
+        return false;
+      }
+      boolean wasSunk = isSunk(shipIndex);
+      setCell(row, col, CellState.HIT);
+      if (!wasSunk) {
+        int sunkShips = segment.getShort(base + SUNK_SHIPS) + 1;
+        segment.putShort(base + SUNK_SHIPS, (short) sunkShips);
+        segment.put(base + LAST_SUNK, (byte) (shipIndex + 1));
+      }
+      if (areAllShipsSunk()) {
+        setFlag(GAME_OVER);
+      }
+      return true;
+    }
+
+    @Override
+    public void forfeitGuess() {
+      checkOpen();
+      if (isFlagSet(GAME_OVER)) {
+        throw new IllegalStateException("The game is already over");
+      }
+      segment.putInt(base + GUESS_COUNT, segment.getInt(base + GUESS_COUNT) + 1);
+      segment.put(base + LAST_SUNK, (byte) 0);
+    }
+
+    @Override
+    public ShipType getLastSunkShip() {
+      checkOpen();
+      int lastSunk = segment.get(base + LAST_SUNK) & 0xFF;
+      return lastSunk == 0 ? null : fleet.getShips().get(lastSunk - 1);
+    }
+
+    @Override
+    public boolean isGameOver() {
+      checkOpen();
+      if (!isFlagSet(GAME_OVER) && getGuessCount() >= getMaxGuesses()) {
+        setFlag(GAME_OVER);
+      }
+      return isFlagSet(GAME_OVER);
+    }
+
+    @Override
+    public boolean areAllShipsSunk() {
+      checkOpen();
+      if (segment.getShort(base + SUNK_SHIPS) < fleet.size()) {
+        return false;
+      }
+      setFlag(GAME_OVER);
+      return true;
+    }
+
+    @Override
+    public int getGuessCount() {
+      checkOpen();
+      return segment.getInt(base + GUESS_COUNT);
+    }
+
+    @Override
+    public int getMaxGuesses() {
+      checkOpen();
+      return segment.getInt(base + MAX_GUESSES);
+    }
+
+    @Override
+    public CellState[][] getCellGrid() {
+      checkOpen();
+      CellState[][] grid = new CellState[rows][cols];
+      for (int i = 0; i < rows; i++) {
+        for (int j = 0; j < cols; j++) {
+          grid[i][j] = cellAt(i, j);
+        }
+      }
+      return grid;
+    }
+
+    @Override
+    public ShipType[][] getShipGrid() {
+      checkOpen();
+      if (!isFlagSet(GAME_OVER)) {
+        throw new IllegalStateException(
+            "The ship grid can only be accessed after the game is over.");
+      }
+      ShipType[][] grid = new ShipType[rows][cols];
+      for (int s = 0; s < fleet.size(); s++) {
+        ShipType type = fleet.getShips().get(s);
+        for (int i = 0; i < type.getSize(); i++) {
+          grid[cellRow(s, type, i)][cellCol(s, type, i)] = type;
+        }
+      }
+      return grid;
+    }
+
+    /**
+     * Checks that the slot still holds the game this facade was opened on.
+     *
+     * @throws IllegalStateException if the slot has been released since
+     */
+    private void checkOpen() {
+      if (segment.getInt(base + GENERATION) != generation) {
+        throw new IllegalStateException("The game has been released from the store.");
+      }
+    }
+
+    /**
+     * Finds the ship covering a cell by walking the footprints of the stored ships.
+     *
+     * @return the index of the ship, or -1 if the cell is empty
+     */
+    private int shipAt(int row, int col) {
+      for (int s = 0; s < fleet.size(); s++) {
+        ShipType type = fleet.getShips().get(s);
+        for (int i = 0; i < type.getSize(); i++) {
+          if (cellRow(s, type, i) == row && cellCol(s, type, i) == col) {
+            return s;
+          }
+        }
+      }
+      return -1;
+    }
+
+    private boolean isSunk(int shipIndex) {
+      ShipType type = fleet.getShips().get(shipIndex);
+      for (int i = 0; i < type.getSize(); i++) {
+        if (cellAt(cellRow(shipIndex, type, i), cellCol(shipIndex, type, i)) == CellState.HIT) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private int cellRow(int shipIndex, ShipType type, int i) {
+      int offset = base + SHIPS + shipIndex * SHIP_BYTES;
+      return segment.getShort(offset) + type.getRowOffset(i, segment.get(offset + 4) != 0);
+    }
+
+    private int cellCol(int shipIndex, ShipType type, int i) {
+      int offset = base + SHIPS + shipIndex * SHIP_BYTES;
+      return segment.getShort(offset + 2) + type.getColOffset(i, segment.get(offset + 4) != 0);
+    }
+
+    private CellState cellAt(int row, int col) {
+      int cell = row * cols + col;
+      int bits = segment.get(base + cellsOffset + (cell >>> 2)) >>> ((cell & 3) * 2);
+      return CELL_STATES[bits & 3];
+    }
+
+    private void setCell(int row, int col, CellState state) {
+      int cell = row * cols + col;
+      int index = base + cellsOffset + (cell >>> 2);
+      int shift = (cell & 3) * 2;
+      int bits = segment.get(index) & ~(3 << shift) | state.ordinal() << shift;
+      segment.put(index, (byte) bits);
+    }
+
+    private boolean isFlagSet(byte flag) {
+      return (segment.get(base + FLAGS) & flag) != 0;
+    }
+
+    private void setFlag(byte flag) {
+      segment.put(base + FLAGS, (byte) (segment.get(base + FLAGS) | flag));
+    }
+  }
+}
@@ -1,27 +1,35 @@
 package battleship;
 
-import java.util.List;
-
 /**
  * Represents a ship in the Battleship game.
- * Each ship has a specific type, a list of coordinates on the game board,
- * and tracks the number of hits it has sustained.
+ * Each ship has a specific type, an origin and orientation on the game board,
+ * and tracks which of its cells have been hit.
+ *
+ * <p>The cells of the ship are not stored; they are derived from the origin, the orientation and
+ * the shape of the ship's type, so placing a ship allocates nothing beyond the ship itself. Hits
+ * are kept in a bitmask with one bit per cell, in the order of {@link #getCellRow(int)}.
  */
 public class Ship {
-  private ShipType type;
-  private List<int[]> coordinates;
-  private int hits;
+  private final ShipType type;
+  private final int row;
+  private final int col;
+  private final boolean isVertical;
+  private long hitMask;
 
   /**
-   * Constructs a new Ship instance with a specified type and list of coordinates.
+   * Constructs a new Ship instance with a specified type, origin and orientation.
    *
    * @param type the type of the ship (e.g., Aircraft Carrier, Battleship, etc.).
-   * @param coordinates the list of coordinates occupied by this ship on the game board.
+   * @param row the row of the ship's origin on the game board.
+   * @param col the column of the ship's origin on the game board.
+   * @param isVertical the orientation of the ship; true if vertical, false if horizontal.
    */
-  public Ship(ShipType type, List<int[]> coordinates) {
+  public Ship(ShipType type, int row, int col, boolean isVertical) {
     this.type = type;
-    this.coordinates = coordinates;
-    this.hits = 0;
+    this.row = row;
+    this.col = col;
+    this.isVertical = isVertical;
+    this.hitMask = 0L;
   }
 
   /**
@@ -34,12 +42,75 @@ public class Ship {
   }
 
   /**
-   * Retrieves the list of coordinates occupied by this ship on the game board.
+   * Retrieves the row of the ship's origin.
+   *
+   * @return the origin row.
+   */
+  public int getRow() {
+    return row;
+  }
+
+  /**
+   * Retrieves the column of the ship's origin.
+   *
+   * @return the origin column.
+   */
+  public int getCol() {
+    return col;
+  }
+
+  /**
+   * Retrieves the orientation of the ship.
+   *
+   * @return true if the ship is vertical, false if horizontal.
+   */
+  public boolean isVertical() {
+    return isVertical;
+  }
+
+  /**
+   * Retrieves the number of cells occupied by this ship.
+   *
+   * @return the size of the ship.
+   */
+  public int getSize() {
+    return type.getSize();
+  }
+
+  /**
+   * Retrieves the row of one of the cells occupied by this ship.
    *
-   * @return a list of int arrays representing the coordinates of the ship.
+   * @param index the index of the cell, between 0 and {@code getSize() - 1}.
+   * @return the row of the cell on the game board.
    */
-  public List<int[]> getCoordinates() {
-    return coordinates;
+  public int getCellRow(int index) {
+    return row + type.getRowOffset(index, isVertical);
+  }
+
+  /**
+   * Retrieves the column of one of the cells occupied by this ship.
+   *
+   * @param index the index of the cell, between 0 and {@code getSize() - 1}.
+   * @return the column of the cell on the game board.
+   */
+  public int getCellCol(int index) {
+    return col + type.getColOffset(index, isVertical);
+  }
+
+  /**
+   * Finds the index of the ship's cell at the given board coordinate.
+   *
+   * @param row the row index of the cell.
+   * @param col the column index of the cell.
+   * @return the index of the cell within this ship, or -1 if the ship doesn't occupy it.
+   */
+  public int indexOf(int row, int col) {
+    for (int i = 0; i < type.getSize(); i++) {
+      if (getCellRow(i) == row && getCellCol(i) == col) {
+        return i;
+      }
+    }
+    return -1;
   }
 
   /**
@@ -48,18 +119,57 @@ public class Ship {
    * @return true if the ship is sunk (has sustained one or more hits), false otherwise.
    */
   public boolean isSunk() {
-    if (hits > 0) {
-      return true;
-    }
-    return false;
+    return hitMask != 0L;
   }
 
   /**
-   * Increments the hit count for this ship to record a hit.
+   * Records a hit on one of the ship's cells.
+   *
+   * @param index the index of the cell that was hit.
+   * @return true if the cell had not been hit before, false otherwise.
    */
-  public void markHits() {
-    hits++;
+  public boolean markHit(int index) {
+    long bit = 1L << index;
+    boolean isNew = (hitMask & bit) == 0L;
+    hitMask |= bit;
+    return isNew;
   }
 
-}
+  /**
+   * Removes the hit recorded on one of the ship's cells, e.g. when a guess is undone.
+   *
+   * @param index the index of the cell.
+   */
+  public void clearHit(int index) {
+    hitMask &= ~(1L << index);
+  }
 
+  /**
+   * Checks if one of the ship's cells has been hit.
+   *
+   * @param index the index of the cell.
+   * @return true if the cell has been hit, false otherwise.
+   */
+  public boolean isHit(int index) {
+    return (hitMask & (1L << index)) != 0L;
+  }
+
+  /**
+   * Retrieves the bitmask of hit cells, where bit {@code i} is set if cell {@code i} was hit.
+   *
+   * @return the hit bitmask.
+   */
+  public long getHitMask() {
+    return hitMask;
+  }
+
+  /**
+   * Retrieves the number of distinct cells of this ship that have been hit.
+   *
+   * @return the number of hit cells.
+   */
+  public int getHitCount() {
+    return Long.bitCount(hitMask);
+  }
+
+}
@@ -1,25 +1,142 @@
 package battleship;
 
 /**
- * Enum representing different types of ships in the Battleship game. Each ship has a size and a
- * corresponding symbol.
+ * Represents a type of ship in the Battleship game. Each ship has a name, a size, a one-character
+ * symbol and a shape. The five classic ships are available as constants; custom types with
+ * arbitrary lengths or non-linear shapes can be created for fleets loaded at startup (see
+ * {@link Fleet}).
+ *
+ * <p>A shape is a set of cell offsets relative to the ship's origin, given for the horizontal
+ * orientation. The vertical orientation is the same shape reflected across the main diagonal, so a
+ * straight ship of size n covers (0, 0) .. (0, n - 1) horizontally and (0, 0) .. (n - 1, 0)
+ * vertically.
  */
-public enum ShipType {
-  // Enum values
-  AIRCRAFT_CARRIER(5, "A"), // Aircraft Carrier size 5
-  BATTLESHIP(4, "B"),       // Battleship size 4
-  SUBMARINE(3, "S"),        // Submarine size 3
-  DESTROYER(3, "D"),        // Destroyer size 3
-  PATROL_BOAT(2, "P");      // Patrol Boat size 2
+public final class ShipType {
+  /**
+   * The largest number of cells a ship can occupy, one bit per cell in a {@link Ship}'s hit mask.
+   */
+  public static final int MAX_SIZE = Long.SIZE;
+
+  // Classic ship types
+  public static final ShipType AIRCRAFT_CARRIER = new ShipType("AIRCRAFT_CARRIER", 5, "A");
+  public static final ShipType BATTLESHIP = new ShipType("BATTLESHIP", 4, "B");
+  public static final ShipType SUBMARINE = new ShipType("SUBMARINE", 3, "S");
+  public static final ShipType DESTROYER = new ShipType("DESTROYER", 3, "D");
+  public static final ShipType PATROL_BOAT = new ShipType("PATROL_BOAT", 2, "P");
+
+  private static final ShipType[] CLASSIC = {
+      AIRCRAFT_CARRIER, BATTLESHIP, SUBMARINE, DESTROYER, PATROL_BOAT
+  };
 
   // Instance fields
-  private final int size;
+  private final String name;
   private final String symbol;
+  private final int[] rowOffsets;
+  private final int[] colOffsets;
+  private final boolean linear;
+
+  /**
+   * Constructs a straight ship type of the given size.
+   *
+   * @param name   the name of the ship type
+   * @param size   the number of cells the ship occupies
+   * @param symbol the one-character symbol representing the ship on the grid
+   * @throws IllegalArgumentException if the name is blank, the size is not between 1 and
+   *                                  {@link #MAX_SIZE} or the symbol is not exactly one character
+   */
+  public ShipType(String name, int size, String symbol) {
+    this(name, symbol, straightRows(size), straightCols(size), true);
+  }
 
-  // Constructor
-  ShipType(int size, String symbol) {
-    this.size = size;
+  private ShipType(String name, String symbol, int[] rowOffsets, int[] colOffsets,
+                   boolean linear) {
+    if (name == null || name.isBlank()) {
+      throw new IllegalArgumentException("Ship name can't be blank.");
+    }
+    if (symbol == null || symbol.length() != 1) {
+      throw new IllegalArgumentException("Ship symbol must be exactly 1 character.");
+    }
+    if (rowOffsets.length > MAX_SIZE) {
+      throw new IllegalArgumentException("Ship size can't exceed " + MAX_SIZE + " cells.");
+    }
+    this.name = name;
     this.symbol = symbol;
+    this.rowOffsets = rowOffsets;
+    this.colOffsets = colOffsets;
+    this.linear = linear;
+  }
+
+  /**
+   * Creates a ship type from a shape pattern. Rows of the pattern are separated by {@code '/'};
+   * {@code 'X'} marks a cell occupied by the ship and {@code '.'} an empty cell. For example,
+   * {@code "XXX/.X."} is a T-shaped ship of size 4.
+   *
+   * @param name    the name of the ship type
+   * @param symbol  the one-character symbol representing the ship on the grid
+   * @param pattern the shape pattern in horizontal orientation
+   * @return the new ship type
+   * @throws IllegalArgumentException if the pattern is empty or larger than {@link #MAX_SIZE}
+   *                                  cells, contains other characters, or has an empty first row
+   *                                  or first column
+   */
+  public static ShipType ofShape(String name, String symbol, String pattern) {
+    String[] rows = pattern.split("/");
+    int size = 0;
+    for (String row : rows) {
+      for (int c = 0; c < row.length(); c++) {
+        char ch = Character.toUpperCase(row.charAt(c));
+        if (ch == 'X') {
+          size++;
+        } else if (ch != '.') {
+          throw new IllegalArgumentException("Shape may only contain 'X', '.' and '/'.");
+        }
+      }
+    }
+    if (size == 0) {
+      throw new IllegalArgumentException("Shape must occupy at least one cell.");
+    }
+
+    int[] rowOffsets = new int[size];
+    int[] colOffsets = new int[size];
+    boolean firstColumnUsed = false;
+    int n = 0;
+    for (int r = 0; r < rows.length; r++) {
+      for (int c = 0; c < rows[r].length(); c++) {
+        if (Character.toUpperCase(rows[r].charAt(c)) == 'X') {
+          rowOffsets[n] = r;
+          colOffsets[n] = c;
+          firstColumnUsed |= c == 0;
+          n++;
+        }
+      }
+    }
+    if (rowOffsets[0] != 0 || !firstColumnUsed) {
+      throw new IllegalArgumentException("Shape must not start with an empty row or column.");
+    }
+
+    boolean linear = true;
+    for (int i = 0; i < size; i++) {
+      linear &= rowOffsets[i] == 0 && colOffsets[i] == i;
+    }
+    return new ShipType(name, symbol, rowOffsets, colOffsets, linear);
+  }
+
+  /**
+   * Returns the five classic ship types, in the order they are placed on the board.
+   *
+   * @return a new array holding the classic ship types
+   */
+  public static ShipType[] values() {
+    return CLASSIC.clone();
+  }
+
+  /**
+   * Returns the name of the ship type.
+   *
+   * @return the name of the ship type
+   */
+  public String name() {
+    return name;
   }
 
   /**
@@ -28,7 +145,7 @@ public enum ShipType {
    * @return the size of the ship
    */
   public int getSize() {
-    return size;
+    return rowOffsets.length;
   }
 
   /**
@@ -40,8 +157,54 @@ public enum ShipType {
     return symbol;
   }
 
+  /**
+   * Returns whether the ship is a straight line of cells.
+   *
+   * @return true if the ship is straight, false if it has a non-linear shape
+   */
+  public boolean isLinear() {
+    return linear;
+  }
+
+  /**
+   * Returns the row offset of one of the ship's cells relative to its origin.
+   *
+   * @param index      the index of the cell, between 0 and {@code getSize() - 1}
+   * @param isVertical the orientation of the ship
+   * @return the row offset of the cell
+   */
+  public int getRowOffset(int index, boolean isVertical) {
+    return isVertical ? colOffsets[index] : rowOffsets[index];
+  }
+
+  /**
+   * Returns the column offset of one of the ship's cells relative to its origin.
+   *
+   * @param index      the index of the cell, between 0 and {@code getSize() - 1}
+   * @param isVertical the orientation of the ship
+   * @return the column offset of the cell
+   */
+  public int getColOffset(int index, boolean isVertical) {
+    return isVertical ? rowOffsets[index] : colOffsets[index];
+  }
+
   @Override
   public String toString() {
-    return name() + " (Size: " + size + ")";
+    return name() + " (Size: " + getSize() + ")";
+  }
+
+  private static int[] straightRows(int size) {
+    if (size <= 0 || size > MAX_SIZE) {
+      throw new IllegalArgumentException("Ship size must be between 1 and " + MAX_SIZE + ".");
+    }
+    return new int[size];
+  }
+
+  private static int[] straightCols(int size) {
+    int[] offsets = new int[Math.max(size, 0)];
+    for (int i = 0; i < offsets.length; i++) {
+      offsets[i] = i;
+    }
+    return offsets;
   }
-}
\ No newline at end of file
+}
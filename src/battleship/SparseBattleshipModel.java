@@ -0,0 +1,396 @@
+package battleship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sparse implementation of the Battleship game model for very large boards with few ships.
+ * Instead of dense grids, this model keeps two hash-based indexes of packed cells
+ * ({@code row * cols + col}):
+ * <code>shipCells</code>: maps every cell occupied by a ship to the index of that ship.
+ * <code>guesses</code>: the set of cells the player has guessed.
+ * A guessed cell is a hit exactly when it is also a ship cell, so hit lookup is O(1) expected and
+ * memory scales with the number of occupied and guessed cells rather than with the board area.
+ * Only {@link #getCellGrid()} and {@link #getShipGrid()} build dense grids, on demand.
+ * Guesses are also appended to a move journal of packed cells, so they can be undone and redone
+ * in O(1).
+ *
+ * <p>Ships are placed with the same rules and the same sequence of random draws as
+ * {@link BattleshipModelImpl}, so both models produce identical games for the same seed.
+ */
+public class SparseBattleshipModel implements UndoableBattleshipModel {
+  // Upper bound on random placement attempts per ship before giving up on a crowded board
+  private static final int MAX_PLACEMENT_ATTEMPTS = 1_000_000;
+  // Guesses presized for; the guess set grows past this as guesses are made
+  private static final int INITIAL_GUESSES = 1024;
+
+  private final int rows;
+  private final int cols;
+  private final int maxCounts;
+  private final Fleet fleet;
+  private final Random random;
+  private final PackedCellMap shipCells;
+  private final PackedCellSet guesses;
+  private final List<Ship> ships;
+  private int guessCounts;
+  private int sunkShips;
+  private ShipType lastSunkShip;
+  private boolean isGameOver;
+  private static final long FORFEIT = -1L; // journal entry of a forfeited guess
+  private long[] journal; // packed cells of the guesses, in order
+  private int journalCursor; // number of journal entries currently applied
+  private int journalLength; // number of journal entries, including undone ones
+
+  /**
+   * Constructor to initialize a new sparse game model with a custom fleet and board size.
+   *
+   * @param maxCounts the maximum number of guesses allowed in the game.
+   * @param fleet the ships to place at the start of the game.
+   * @param rows the number of rows of the board.
+   * @param cols the number of columns of the board.
+   * @throws IllegalArgumentException if the board is empty or too small to hold the fleet
+   */
+  public SparseBattleshipModel(int maxCounts, Fleet fleet, int rows, int cols) {
+    this(maxCounts, new Random(), fleet, rows, cols);
+  }
+
+  /**
+   * Constructor to initialize a new sparse game model with a custom fleet and board size and a
+   * specific seed for random placement.
+   *
+   * @param maxCounts the maximum number of guesses allowed in the game.
+   * @param seed the seed for random placement of ships.
+   * @param fleet the ships to place at the start of the game.
+   * @param rows the number of rows of the board.
+   * @param cols the number of columns of the board.
+   * @throws IllegalArgumentException if the board is empty or too small to hold the fleet
+   */
+  public SparseBattleshipModel(int maxCounts, long seed, Fleet fleet, int rows, int cols) {
+    this(maxCounts, new Random(seed), fleet, rows, cols);
+  }
+
+  private SparseBattleshipModel(int maxCounts, Random random, Fleet fleet, int rows, int cols) {
+    if (rows <= 0 || cols <= 0) {
+      throw new IllegalArgumentException("Board dimensions must be positive.");
+    }
+    // Ships are never placed in the first row or column, as in BattleshipModelImpl
+    if ((long) (rows - 1) * (cols - 1) < fleet.getTotalCells()) {
+      throw new IllegalArgumentException("The board is too small for the fleet.");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    this.maxCounts = maxCounts;
+    this.fleet = fleet;
+    this.random = random;
+    this.shipCells = new PackedCellMap(fleet.getTotalCells());
+    this.guesses = new PackedCellSet(
+        (int) Math.max(Math.min(Math.min(maxCounts, (long) rows * cols), INITIAL_GUESSES), 0));
+    this.ships = new ArrayList<>(fleet.size());
+    this.journal = new long[16];
+  }
+
+  /**
+   * Initializes the game by clearing the indexes and randomly placing ships.
+   *
+   * @throws IllegalStateException if a ship of the fleet can't be placed on the board
+   */
+  @Override
+  public void startGame() {
+    isGameOver = false;
+    guessCounts = 0;
+    sunkShips = 0;
+    lastSunkShip = null;
+    journalCursor = 0;
+    journalLength = 0;
+    ships.clear();
+    shipCells.clear();
+    guesses.clear();
+
+    FlightEvents.GameStart event = new FlightEvents.GameStart();
+    event.begin();
+    long retries = 0;
+    for (ShipType ship : fleet.getShips()) {
+      boolean placed = false;
+      for (int attempt = 0; !placed; attempt++) {
+        if (attempt == MAX_PLACEMENT_ATTEMPTS) {
+          throw new IllegalStateException("Unable to place " + ship + " on the board.");
+        }
+        int row = random.nextInt(rows);
+        int col = random.nextInt(cols);
+        boolean isVertical = random.nextBoolean();
+
+        if (canGenerateShip(row, col, ship, isVertical)) {
+          generateShip(row, col, ship, isVertical);
+          placed = true;
+        } else {
+          retries++;
+        }
+      }
+    }
+    event.end();
+    if (event.shouldCommit()) {
+      event.rows = rows;
+      event.cols = cols;
+      event.ships = ships.size();
+      event.retries = retries;
+      event.commit();
+    }
+  }
+
+  /**
+   * Places a ship and indexes each of its cells.
+   *
+   * @param row the starting row for the ship placement.
+   * @param col the starting column for the ship placement.
+   * @param shipType the type of ship to be placed.
+   * @param isVertical the orientation of the ship; true if vertical, false if horizontal.
+   */
+  private void generateShip(int row, int col, ShipType shipType, boolean isVertical) {
+    Ship ship = new Ship(shipType, row, col, isVertical);
+    for (int i = 0; i < ship.getSize(); i++) {
+      shipCells.put(pack(ship.getCellRow(i), ship.getCellCol(i)), ships.size());
+    }
+    ships.add(ship);
+  }
+
+  /**
+   * Checks if a ship can be placed at the specified row, column, and orientation. Follows the
+   * placement rules of {@link BattleshipModelImpl}.
+   *
+   * @param row the starting row for the ship placement.
+   * @param col the starting column for the ship placement.
+   * @param shipType the type of ship to be placed.
+   * @param isVertical the orientation of the ship; true if vertical, false if horizontal.
+   * @return true if the ship can be placed at the specified location, false otherwise.
+   */
+  private boolean canGenerateShip(int row, int col, ShipType shipType, boolean isVertical) {
+    for (int i = 0; i < shipType.getSize(); i++) {
+      int r = row + shipType.getRowOffset(i, isVertical);
+      int c = col + shipType.getColOffset(i, isVertical);
+      if (!BattleshipModelImpl.isPlaceable(r, c, rows, cols)
+          || shipCells.containsKey(pack(r, c))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean makeGuess(int row, int col) {
+    if (isGameOver) {
+      throw new IllegalStateException("The game is already over");
+    }
+    if (row < 0 || row >= rows || col < 0 || col >= cols) {
+      throw new IllegalArgumentException("Coordinates out of bounds");
+    }
+    long cell = pack(row, col);
+    if (!guesses.add(cell)) {
+      throw new IllegalArgumentException("Cell has already been guessed");
+    }
+    FlightEvents.Guess event = new FlightEvents.Guess();
+    event.begin();
+    record(cell);
+    boolean isHit = applyGuess(cell);
+    if (event.shouldCommit()) {
+      event.row = row;
+      event.col = col;
+      event.hit = isHit;
+      event.commit();
+    }
+    commitOutcomeEvents();
+    return isHit;
+  }
+
+  /**
+   * Commits the flight events of a ship sunk or a game ended by the latest guess.
+   */
+  private void commitOutcomeEvents() {
+    if (lastSunkShip != null) {
+      FlightEvents.shipSunk(lastSunkShip, guessCounts);
+      if (sunkShips == ships.size()) {
+        FlightEvents.gameOver(true, guessCounts, maxCounts);
+        return;
+      }
+    }
+    if (guessCounts == maxCounts) {
+      FlightEvents.gameOver(false, guessCounts, maxCounts);
+    }
+  }
+
+  @Override
+  public void forfeitGuess() {
+    if (isGameOver) {
+      throw new IllegalStateException("The game is already over");
+    }
+    record(FORFEIT);
+    guessCounts++;
+    lastSunkShip = null;
+    commitOutcomeEvents();
+  }
+
+  /**
+   * Appends an entry to the move journal, discarding any undone entries.
+   *
+   * @param entry the packed cell of a guess, or {@link #FORFEIT}
+   */
+  private void record(long entry) {
+    if (journalCursor == journal.length) {
+      journal = Arrays.copyOf(journal, journal.length * 2);
+    }
+    journal[journalCursor++] = entry;
+    journalLength = journalCursor;
+  }
+
+  /**
+   * Updates the counters and ships for a guessed cell that has already been added to the guesses.
+   *
+   * @param cell the packed cell
+   * @return true if the guess was a hit, false otherwise
+   */
+  private boolean applyGuess(long cell) {
+    guessCounts++;
+    lastSunkShip = null;
+
+    int shipIndex = shipCells.get(cell);
+    if (shipIndex < 0) {
+      return false;
+    }
+    Ship ship = ships.get(shipIndex);
+    boolean wasSunk = ship.isSunk();
+    ship.markHit(ship.indexOf((int) (cell / cols), (int) (cell % cols)));
+    if (!wasSunk && ship.isSunk()) {
+      sunkShips++;
+      lastSunkShip = ship.getType();
+    }
+    if (areAllShipsSunk()) {
+      isGameOver = true;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean undo() {
+    if (journalCursor == 0) {
+      return false;
+    }
+    long cell = journal[--journalCursor];
+    if (cell != FORFEIT) {
+      guesses.remove(cell);
+      int shipIndex = shipCells.get(cell);
+      if (shipIndex >= 0) {
+        Ship ship = ships.get(shipIndex);
+        ship.clearHit(ship.indexOf((int) (cell / cols), (int) (cell % cols)));
+        if (!ship.isSunk()) {
+          sunkShips--;
+        }
+      }
+    }
+    guessCounts--;
+    lastSunkShip = null;
+    isGameOver = false;
+    return true;
+  }
+
+  @Override
+  public boolean redo() {
+    if (journalCursor == journalLength) {
+      return false;
+    }
+    long cell = journal[journalCursor++];
+    if (cell == FORFEIT) {
+      guessCounts++;
+      lastSunkShip = null;
+    } else {
+      guesses.add(cell);
+      applyGuess(cell);
+    }
+    return true;
+  }
+
+  @Override
+  public ShipType getLastSunkShip() {
+    return lastSunkShip;
+  }
+
+  @Override
+  public boolean isGameOver() {
+    if (!isGameOver && guessCounts >= maxCounts) {
+      isGameOver = true;
+    }
+    return isGameOver;
+  }
+
+  @Override
+  public boolean areAllShipsSunk() {
+    if (sunkShips < ships.size()) {
+      return false;
+    }
+    isGameOver = true;
+    return true;
+  }
+
+  @Override
+  public int getGuessCount() {
+    return guessCounts;
+  }
+
+  @Override
+  public int getMaxGuesses() {
+    return maxCounts;
+  }
+
+  /**
+   * Builds a dense copy of the cell grid for display purposes. This is O(rows * cols) and should
+   * be avoided on very large boards.
+   *
+   * @return a new 2D array representing the cell grid state
+   */
+  @Override
+  public CellState[][] getCellGrid() {
+    CellState[][] grid = new CellState[rows][cols];
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        long cell = pack(i, j);
+        if (!guesses.contains(cell)) {
+          grid[i][j] = CellState.UNKNOWN;
+        } else {
+          grid[i][j] = shipCells.containsKey(cell) ? CellState.HIT : CellState.MISS;
+        }
+      }
+    }
+    return grid;
+  }
+
+  /**
+   * Builds a dense copy of the ship grid after the game is over. This is O(rows * cols) and
+   * should be avoided on very large boards.
+   *
+   * @return a new 2D array representing the ship grid state
+   * @throws IllegalStateException if the game is not over
+   */
+  @Override
+  public ShipType[][] getShipGrid() {
+    if (!isGameOver) {
+      throw new IllegalStateException("The ship grid can only be accessed after the game is over.");
+    }
+    ShipType[][] grid = new ShipType[rows][cols];
+    for (Ship ship : ships) {
+      for (int i = 0; i < ship.getSize(); i++) {
+        grid[ship.getCellRow(i)][ship.getCellCol(i)] = ship.getType();
+      }
+    }
+    return grid;
+  }
+
+  private long pack(int row, int col) {
+    return (long) row * cols + col;
+  }
+
+  @Override
+  public String toString() {
+    return "SparseBattleshipModel[" + rows + "x" + cols + ", ships: " + ships.size()
+        + ", guesses: " + guessCounts + "/" + maxCounts + "]";
+  }
+}
@@ -0,0 +1,231 @@
+package battleship;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hierarchical timing wheel that runs timeouts for any number of sessions on one driver thread.
+ * Time advances in fixed ticks. The wheel has {@value #LEVELS} levels of {@value #SLOTS} buckets,
+ * and each level spans {@value #SLOTS} times the range of the level below. A timeout is kept in
+ * the coarsest bucket that still separates it from the current tick. When the level below wraps
+ * around, the timeouts of that bucket cascade down a level. Scheduling and cancelling are O(1),
+ * and an idle tick costs O(1) no matter how many timeouts are pending.
+ *
+ * <p>Timeouts are intrusive: a {@link Timeout} is itself the node linked into a bucket, so
+ * scheduling allocates nothing. A session can keep one timeout per deadline and re-arm it every
+ * turn. Timeouts can be scheduled and cancelled from any thread. They expire on the driver thread,
+ * which also serves every other session. {@link Timeout#expire()} must therefore be short and must
+ * never block.
+ */
+public final class TimingWheel implements Closeable {
+  private static final int SLOT_BITS = 6;
+  private static final int SLOTS = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+  private static final int LEVELS = 5;
+  // Deadlines further away than this are parked in the top level and cascaded again later
+  private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+  private final long tickNanos;
+  private final long startNanos;
+  private final Timeout[] buckets; // head of the list of each bucket, level by level
+  private final Thread driver;
+  private long currentTick; // guarded by this
+  private int pending; // guarded by this
+  private volatile boolean closed;
+
+  /**
+   * A deadline that can be scheduled on a {@link TimingWheel}. Subclasses define what happens when
+   * it expires and typically carry the state of the session they belong to. A timeout may be
+   * scheduled again, on the same wheel, as soon as it has expired or been cancelled.
+   */
+  public abstract static class Timeout {
+    private Timeout prev;
+    private Timeout next;
+    private Timeout nextExpired; // links a batch of expired timeouts, on the driver thread only
+    private int bucket = -1; // index in the wheel's buckets, or -1 if not scheduled
+    private long deadlineTick;
+
+    /**
+     * Called on the wheel's driver thread when the deadline passes. Must not block.
+     */
+    protected abstract void expire();
+  }
+
+  /**
+   * Constructs a wheel and starts its driver thread.
+   *
+   * @param tick the duration of one tick, which is the resolution of all deadlines
+   * @param unit the unit of the tick duration
+   * @throws IllegalArgumentException if the tick is not positive
+   */
+  public TimingWheel(long tick, TimeUnit unit) {
+    if (tick <= 0) {
+      throw new IllegalArgumentException("The tick duration must be positive.");
+    }
+    this.tickNanos = unit.toNanos(tick);
+    this.startNanos = System.nanoTime();
+    this.buckets = new Timeout[LEVELS * SLOTS];
+    this.driver = new Thread(this::drive, "timing-wheel");
+    this.driver.setDaemon(true);
+    this.driver.start();
+  }
+
+  /**
+   * Schedules a timeout to expire after the given delay, rounded up to whole ticks. A timeout that
+   * is already scheduled is moved to the new deadline.
+   *
+   * @param timeout the timeout to schedule
+   * @param delay   the delay before the timeout expires
+   * @param unit    the unit of the delay
+   * @throws IllegalStateException if the wheel has been closed
+   */
+  public void schedule(Timeout timeout, long delay, TimeUnit unit) {
+    if (closed) {
+      throw new IllegalStateException("The timing wheel has been closed.");
+    }
+    long elapsed = System.nanoTime() - startNanos + Math.max(unit.toNanos(delay), 0);
+    long deadlineTick = (elapsed + tickNanos - 1) / tickNanos;
+    synchronized (this) {
+      if (timeout.bucket >= 0) {
+        unlink(timeout);
+      } else {
+        pending++;
+      }
+      // The current tick has already been processed
+      timeout.deadlineTick = Math.max(deadlineTick, currentTick + 1);
+      link(timeout);
+    }
+  }
+
+  /**
+   * Cancels a scheduled timeout. A timeout that has already been taken off the wheel to expire
+   * can no longer be cancelled, so callers that race with expiry must check their own state in
+   * {@link Timeout#expire()}.
+   *
+   * @param timeout the timeout to cancel
+   * @return true if the timeout was cancelled, false if it was not scheduled
+   */
+  public synchronized boolean cancel(Timeout timeout) {
+    if (timeout.bucket < 0) {
+      return false;
+    }
+    unlink(timeout);
+    pending--;
+    return true;
+  }
+
+  /**
+   * Returns the number of timeouts currently scheduled.
+   *
+   * @return the number of pending timeouts
+   */
+  public synchronized int getPendingCount() {
+    return pending;
+  }
+
+  /**
+   * Stops the driver thread. Pending timeouts never expire.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    LockSupport.unpark(driver);
+  }
+
+  private void drive() {
+    while (!closed) {
+      long now = System.nanoTime() - startNanos;
+      long targetTick = now / tickNanos;
+      Timeout expired = null;
+      synchronized (this) {
+        while (currentTick < targetTick) {
+          expired = advance(expired);
+        }
+      }
+      // Run callbacks outside the lock so they can re-arm timeouts. A timeout re-armed by another
+      // thread in the meantime is linked into a bucket again, which leaves nextExpired alone.
+      while (expired != null) {
+        Timeout timeout = expired;
+        expired = timeout.nextExpired;
+        timeout.nextExpired = null;
+        try {
+          timeout.expire();
+        } catch (RuntimeException e) {
+          // One failing session must not stop the clock for all the others
+        }
+      }
+      LockSupport.parkNanos(this, (targetTick + 1) * tickNanos - now);
+    }
+  }
+
+  /**
+   * Moves the wheel forward by one tick, cascading higher levels as the lower ones wrap around,
+   * and takes the timeouts of the new tick off the wheel.
+   *
+   * @param expired the list of timeouts already taken off, linked by {@code nextExpired}
+   * @return the list of expired timeouts including those of this tick
+   */
+  private Timeout advance(Timeout expired) {
+    currentTick++;
+    for (int level = 1; level < LEVELS; level++) {
+      if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+        break;
+      }
+      int bucket = level * SLOTS + ((int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+      Timeout timeout = buckets[bucket];
+      buckets[bucket] = null;
+      while (timeout != null) {
+        Timeout next = timeout.next;
+        link(timeout);
+        timeout = next;
+      }
+    }
+    int bucket = (int) currentTick & SLOT_MASK;
+    Timeout timeout = buckets[bucket];
+    buckets[bucket] = null;
+    while (timeout != null) {
+      Timeout next = timeout.next;
+      timeout.bucket = -1;
+      timeout.prev = null;
+      timeout.next = null;
+      timeout.nextExpired = expired;
+      expired = timeout;
+      pending--;
+      timeout = next;
+    }
+    return expired;
+  }
+
+  private void link(Timeout timeout) {
+    // A timeout cascading down on its deadline tick goes to the bucket about to be processed
+    long delta = Math.min(timeout.deadlineTick - currentTick, MAX_DELTA);
+    long tick = currentTick + delta;
+    int level = 0;
+    while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+      level++;
+    }
+    int bucket = level * SLOTS + ((int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    timeout.bucket = bucket;
+    timeout.prev = null;
+    timeout.next = buckets[bucket];
+    if (timeout.next != null) {
+      timeout.next.prev = timeout;
+    }
+    buckets[bucket] = timeout;
+  }
+
+  private void unlink(Timeout timeout) {
+    if (timeout.prev != null) {
+      timeout.prev.next = timeout.next;
+    } else {
+      buckets[timeout.bucket] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    timeout.prev = null;
+    timeout.next = null;
+    timeout.bucket = -1;
+  }
+}
@@ -0,0 +1,56 @@
+package battleship;
+
+/**
+ * Interface for a head-to-head Battleship game. Each player has their own fleet and fires at the
+ * opponent's fleet, and the players take turns. The methods inherited from
+ * {@link BattleshipModel} act for the player whose turn it is: {@link #makeGuess(int, int)} fires
+ * at the opponent, and {@link #getCellGrid()} returns that player's shot grid.
+ *
+ * <p>Players are numbered 0 and 1, and player 0 moves first. A player who has used up all their
+ * guesses loses their remaining turns. The game ends when a fleet has been sunk, which wins the
+ * game for the other player, or when both players have run out of guesses, which is a draw.
+ */
+public interface TwoPlayerBattleshipModel extends BattleshipModel {
+
+  /**
+   * Returns the player whose turn it is.
+   *
+   * @return 0 or 1
+   */
+  int getCurrentPlayer();
+
+  /**
+   * Returns the player who sank the opponent's fleet.
+   *
+   * @return 0 or 1, or -1 if no fleet has been sunk
+   */
+  int getWinner();
+
+  /**
+   * Returns the number of guesses a player has made so far.
+   *
+   * @param player the player, 0 or 1
+   * @return the number of guesses made by the player
+   * @throws IllegalArgumentException if the player is not 0 or 1
+   */
+  int getGuessCount(int player);
+
+  /**
+   * Returns a player's shot grid, which is what they know of the opponent's fleet.
+   *
+   * @param player the player, 0 or 1
+   * @return a copy of the player's shot grid
+   * @throws IllegalArgumentException if the player is not 0 or 1
+   */
+  CellState[][] getCellGrid(int player);
+
+  /**
+   * Returns the positions of a player's fleet. Fleets are revealed once the game is over.
+   *
+   * @param player the player, 0 or 1
+   * @return a copy of the player's ship grid
+   * @throws IllegalArgumentException if the player is not 0 or 1
+   * @throws IllegalStateException    if the game is not over
+   */
+  ShipType[][] getShipGrid(int player);
+}
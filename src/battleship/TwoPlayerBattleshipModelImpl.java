@@ -0,0 +1,210 @@
+package battleship;
+
+import java.util.Objects;
+
+/**
+ * Implementation of the two-player game model. Each player's fleet lives on its own
+ * {@link BattleshipModel}, which records the opponent's shots at it, so any single-player model
+ * can serve as a player's board. A board's maximum number of guesses is the number of shots the
+ * opponent may fire at it. When the game ends, the shots left on the boards are forfeited so
+ * that both fleets can be revealed.
+ */
+public class TwoPlayerBattleshipModelImpl implements TwoPlayerBattleshipModel {
+  private final BattleshipModel[] fleets; // fleets[p] holds player p's ships and the shots at them
+  private final int[] guessCounts = new int[2];
+  private int currentPlayer;
+  private int winner;
+  private boolean isGameOver;
+  private ShipType lastSunkShip;
+
+  /**
+   * Constructs a game on two standard boards, with random placements.
+   *
+   * @param maxGuesses the maximum number of guesses allowed for each player
+   */
+  public TwoPlayerBattleshipModelImpl(int maxGuesses) {
+    this(new BattleshipModelImpl(maxGuesses), new BattleshipModelImpl(maxGuesses));
+  }
+
+  /**
+   * Constructs a game on the given boards.
+   *
+   * @param first  the board holding the fleet of player 0, fired at by player 1
+   * @param second the board holding the fleet of player 1, fired at by player 0
+   * @throws IllegalArgumentException if both players are given the same board
+   */
+  public TwoPlayerBattleshipModelImpl(BattleshipModel first, BattleshipModel second) {
+    Objects.requireNonNull(first, "Board can't be null");
+    Objects.requireNonNull(second, "Board can't be null");
+    if (first == second) {
+      throw new IllegalArgumentException("Each player needs their own board.");
+    }
+    this.fleets = new BattleshipModel[] {first, second};
+  }
+
+  /**
+   * Starts a new game on both boards. Player 0 moves first.
+   */
+  @Override
+  public void startGame() {
+    fleets[0].startGame();
+    fleets[1].startGame();
+    guessCounts[0] = 0;
+    guessCounts[1] = 0;
+    currentPlayer = 0;
+    winner = -1;
+    isGameOver = false;
+    lastSunkShip = null;
+  }
+
+  /**
+   * Fires the current player's shot at the opponent's fleet and passes the turn on, unless the
+   * opponent has no guesses left.
+   *
+   * @param row the row index (0-based)
+   * @param col the column index (0-based)
+   * @return true if the shot was a hit, false otherwise
+   * @throws IllegalArgumentException if the coordinates are out of bounds or the cell has already
+   *                                  been guessed; the turn doesn't change
+   * @throws IllegalStateException    if the game is already over
+   */
+  @Override
+  public boolean makeGuess(int row, int col) {
+    if (isGameOver) {
+      throw new IllegalStateException("The game is already over");
+    }
+    BattleshipModel target = fleets[1 - currentPlayer];
+    boolean isHit = target.makeGuess(row, col);
+    guessCounts[currentPlayer]++;
+    lastSunkShip = target.getLastSunkShip();
+
+    if (target.areAllShipsSunk()) {
+      winner = currentPlayer;
+      endGame();
+    } else {
+      passTurn();
+    }
+    return isHit;
+  }
+
+  /**
+   * Uses up the current player's shot without firing it, e.g. when they run out of time, and
+   * passes the turn on as a shot would.
+   *
+   * @throws IllegalStateException if the game is already over
+   */
+  @Override
+  public void forfeitGuess() {
+    if (isGameOver) {
+      throw new IllegalStateException("The game is already over");
+    }
+    fleets[1 - currentPlayer].forfeitGuess();
+    guessCounts[currentPlayer]++;
+    lastSunkShip = null;
+    passTurn();
+  }
+
+  private void passTurn() {
+    if (fleets[0].isGameOver() && fleets[1].isGameOver()) {
+      endGame(); // both players are out of guesses
+    } else if (!fleets[currentPlayer].isGameOver()) {
+      currentPlayer = 1 - currentPlayer;
+    }
+  }
+
+  private void endGame() {
+    isGameOver = true;
+    for (BattleshipModel fleet : fleets) {
+      while (!fleet.isGameOver()) {
+        fleet.forfeitGuess();
+      }
+    }
+  }
+
+  @Override
+  public ShipType getLastSunkShip() {
+    return lastSunkShip;
+  }
+
+  @Override
+  public int getCurrentPlayer() {
+    return currentPlayer;
+  }
+
+  @Override
+  public int getWinner() {
+    return winner;
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return isGameOver;
+  }
+
+  /**
+   * Checks whether a fleet has been sunk.
+   *
+   * @return true if one of the players has won, false otherwise
+   */
+  @Override
+  public boolean areAllShipsSunk() {
+    return winner >= 0;
+  }
+
+  @Override
+  public int getGuessCount() {
+    return guessCounts[currentPlayer];
+  }
+
+  @Override
+  public int getGuessCount(int player) {
+    return guessCounts[checkPlayer(player)];
+  }
+
+  /**
+   * Gets the maximum number of guesses allowed for the current player.
+   *
+   * @return the maximum number of guesses
+   */
+  @Override
+  public int getMaxGuesses() {
+    return fleets[1 - currentPlayer].getMaxGuesses();
+  }
+
+  @Override
+  public CellState[][] getCellGrid() {
+    return getCellGrid(currentPlayer);
+  }
+
+  @Override
+  public CellState[][] getCellGrid(int player) {
+    return fleets[1 - checkPlayer(player)].getCellGrid();
+  }
+
+  /**
+   * Retrieves the fleet of the current player once the game is over.
+   *
+   * @return a copy of the current player's ship grid
+   * @throws IllegalStateException if the game is not over
+   */
+  @Override
+  public ShipType[][] getShipGrid() {
+    return getShipGrid(currentPlayer);
+  }
+
+  @Override
+  public ShipType[][] getShipGrid(int player) {
+    checkPlayer(player);
+    if (!isGameOver) {
+      throw new IllegalStateException("The ship grid can only be accessed after the game is over.");
+    }
+    return fleets[player].getShipGrid();
+  }
+
+  private static int checkPlayer(int player) {
+    if (player != 0 && player != 1) {
+      throw new IllegalArgumentException("Player must be 0 or 1.");
+    }
+    return player;
+  }
+}
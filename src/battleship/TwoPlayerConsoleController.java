@@ -0,0 +1,191 @@
+package battleship;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Controller for head-to-head games between any two {@link Player}s: human against human, human
+ * against computer, or computer against computer. Before an interactive player's shot, the view
+ * shows whose turn it is, that player's shot grid and the prompt. After every valid shot it shows
+ * the guess count, the outcome and the updated shot grid. Invalid input is reported and the same
+ * player is asked again.
+ *
+ * <p>When neither player is interactive, turns are pipelined: each turn's output is rendered from
+ * a snapshot on a background thread while the next shot is already being computed. At most
+ * {@value #MAX_PENDING_FRAMES} turns may wait to be rendered, so a slow view holds the players
+ * back instead of piling up snapshots. Rendering runs on a virtual thread, so many matches of a
+ * league can be played at once without a platform thread each.
+ */
+public class TwoPlayerConsoleController implements BattleshipController {
+  private static final int MAX_PENDING_FRAMES = 4;
+
+  private final Player[] players;
+  private final TwoPlayerView view;
+
+  /**
+   * Constructs a new {@code TwoPlayerConsoleController}. The same interactive player may take
+   * both seats, e.g. two people sharing a console.
+   *
+   * @param first  the player moving first, player 0
+   * @param second the player moving second, player 1
+   * @param view   the view used to display game messages and grid states
+   */
+  public TwoPlayerConsoleController(Player first, Player second, TwoPlayerView view) {
+    this.players = new Player[] {
+        Objects.requireNonNull(first, "Player can't be null"),
+        Objects.requireNonNull(second, "Player can't be null")};
+    this.view = Objects.requireNonNull(view, "View can't be null");
+  }
+
+  /**
+   * Plays a game until a fleet has been sunk or both players are out of guesses.
+   *
+   * @param model the {@link TwoPlayerBattleshipModel} representing the game's state
+   * @throws IllegalArgumentException if the model is not a {@link TwoPlayerBattleshipModel}, or if
+   *                                  a computer player chooses an invalid shot
+   * @throws RuntimeException         if an I/O error occurs or input ends unexpectedly
+   */
+  @Override
+  public void playGame(BattleshipModel model) {
+    if (!(model instanceof TwoPlayerBattleshipModel game)) {
+      throw new IllegalArgumentException("A two-player game needs a TwoPlayerBattleshipModel.");
+    }
+    game.startGame();
+    int[] rows = new int[2];
+    int[] cols = new int[2];
+    for (int player = 0; player < 2; player++) {
+      CellState[][] shots = game.getCellGrid(player);
+      rows[player] = shots.length;
+      cols[player] = shots[0].length;
+      players[player].startGame();
+    }
+
+    try {
+      view.displayWelcomeMessage();
+      view.displayMaxGuesses(game.getMaxGuesses());
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to display the welcome message.", e);
+    }
+
+    boolean rendersGrids = view.rendersGrids(); // skip copying grids the view won't read
+    boolean pipelined = !players[0].isInteractive() && !players[1].isInteractive();
+    try (RenderPipeline pipeline = new RenderPipeline(pipelined)) {
+      while (!game.isGameOver()) {
+        int current = game.getCurrentPlayer();
+        Player player = players[current];
+        int cell;
+        boolean isHit;
+        try {
+          if (player.isInteractive()) {
+            view.displayTurn(current);
+            view.displayCellGrid(rendersGrids ? game.getCellGrid() : null);
+            view.displayPromptMessage();
+          }
+          cell = player.nextGuess(rows[current], cols[current]);
+          isHit = game.makeGuess(cell / cols[current], cell % cols[current]);
+        } catch (IllegalArgumentException e) {
+          if (!player.isInteractive()) {
+            throw e; // a computer player asking again would make the same mistake
+          }
+          view.displayErrorMessage(e.getMessage());
+          continue;
+        }
+        player.recordResult(cell, isHit, game.getLastSunkShip());
+
+        // Snapshot everything the frame shows; the model moves on while it renders
+        boolean announce = !player.isInteractive();
+        boolean hit = isHit;
+        int guessCount = game.getGuessCount(current);
+        CellState[][] shots = rendersGrids ? game.getCellGrid(current) : null;
+        pipeline.submit(() -> {
+          if (announce) {
+            view.displayTurn(current);
+          }
+          view.displayGuessCount(guessCount);
+          if (hit) {
+            view.displayHitMessage();
+          } else {
+            view.displayMissMessage();
+          }
+          view.displayCellGrid(shots);
+        });
+      }
+
+      int winner = game.getWinner();
+      ShipType[][] first = rendersGrids ? game.getShipGrid(0) : null;
+      ShipType[][] second = rendersGrids ? game.getShipGrid(1) : null;
+      pipeline.submit(() -> {
+        view.displayWinner(winner);
+        view.displayFleet(0, first);
+        view.displayFleet(1, second);
+      });
+    } catch (IOException e) {
+      throw new RuntimeException("An error occurred while updating the view.", e);
+    }
+  }
+
+  /**
+   * Output of one turn, rendered from a snapshot of the game.
+   */
+  @FunctionalInterface
+  private interface Frame {
+    void render() throws IOException;
+  }
+
+  /**
+   * Renders frames in order, either right away or on a single background thread. The first
+   * rendering failure stops the pipeline and is rethrown to the controller on its next submission
+   * or when the pipeline is closed.
+   */
+  private static final class RenderPipeline implements AutoCloseable {
+    private final ExecutorService executor; // null if frames are rendered right away
+    private final Semaphore slots = new Semaphore(MAX_PENDING_FRAMES);
+    private volatile IOException failure;
+
+    RenderPipeline(boolean isPipelined) {
+      this.executor = isPipelined
+          ? Executors.newSingleThreadExecutor(Thread.ofVirtual().name("render").factory())
+          : null;
+    }
+
+    void submit(Frame frame) throws IOException {
+      if (executor == null) {
+        frame.render();
+        return;
+      }
+      checkFailure();
+      slots.acquireUninterruptibly();
+      executor.execute(() -> {
+        try {
+          if (failure == null) {
+            frame.render();
+          }
+        } catch (IOException e) {
+          failure = e;
+        } finally {
+          slots.release();
+        }
+      });
+    }
+
+    /**
+     * Waits for all submitted frames to be rendered.
+     */
+    @Override
+    public void close() throws IOException {
+      if (executor != null) {
+        executor.close();
+        checkFailure();
+      }
+    }
+
+    private void checkFailure() throws IOException {
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+}
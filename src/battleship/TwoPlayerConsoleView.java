@@ -0,0 +1,50 @@
+package battleship;
+
+import java.io.IOException;
+
+/**
+ * Text-based view for head-to-head games. Players are shown as Player 1 and Player 2.
+ */
+public class TwoPlayerConsoleView extends BattleshipConsoleView implements TwoPlayerView {
+
+  /**
+   * Constructor for the TwoPlayerConsoleView class.
+   *
+   * @param out the output destination for game state and messages
+   * @throws NullPointerException if the Appendable is null
+   */
+  public TwoPlayerConsoleView(Appendable out) {
+    super(out);
+  }
+
+  @Override
+  public void displayTurn(int player) throws IOException {
+    FlightEvents.Render event = beginRender();
+    output().append("Player ").append(String.valueOf(player + 1)).append("'s turn.\n");
+    commitRender(event, "turn");
+  }
+
+  @Override
+  public void displayWinner(int player) throws IOException {
+    FlightEvents.Render event = beginRender();
+    if (player < 0) {
+      output().append("It's a draw! Both players have reached the maximum number of guesses.\n");
+    } else {
+      output().append("Player ").append(String.valueOf(player + 1))
+          .append(" wins! All enemy ships have been sunk!\n");
+    }
+    commitRender(event, "winner");
+  }
+
+  @Override
+  public void displayFleet(int player, ShipType[][] shipGrid) throws IOException {
+    FlightEvents.Render event = beginRender();
+    Appendable out = output();
+    out.append("Player ").append(String.valueOf(player + 1)).append("'s fleet:\n");
+    out.append(RowRenderCache.header(shipGrid[0].length));
+    for (int i = 0; i < shipGrid.length; i++) {
+      out.append((char) ('A' + i)).append(' ').append(RowRenderCache.shipRow(shipGrid[i]));
+    }
+    commitRender(event, "fleet");
+  }
+}
@@ -0,0 +1,36 @@
+package battleship;
+
+import java.io.IOException;
+
+/**
+ * View for head-to-head games. The single-player methods show the shots of the player whose turn
+ * it is: {@link #displayCellGrid} shows their shot grid and {@link #displayGuessCount} their
+ * guesses. Players are numbered 0 and 1, as in {@link TwoPlayerBattleshipModel}.
+ */
+public interface TwoPlayerView extends BattleshipView {
+
+  /**
+   * Announces whose turn it is.
+   *
+   * @param player the player about to fire
+   * @throws IOException if an I/O error occurs
+   */
+  void displayTurn(int player) throws IOException;
+
+  /**
+   * Displays the outcome of the game.
+   *
+   * @param player the winner, or -1 for a draw
+   * @throws IOException if an I/O error occurs
+   */
+  void displayWinner(int player) throws IOException;
+
+  /**
+   * Reveals a player's fleet at the end of the game.
+   *
+   * @param player   the owner of the fleet
+   * @param shipGrid the positions of the fleet, or null if the view doesn't render grids
+   * @throws IOException if an I/O error occurs
+   */
+  void displayFleet(int player, ShipType[][] shipGrid) throws IOException;
+}
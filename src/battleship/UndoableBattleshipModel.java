@@ -0,0 +1,24 @@
+package battleship;
+
+/**
+ * A {@link BattleshipModel} that keeps a history of its guesses, so they can be taken back and
+ * replayed. Models that can't take a guess back, such as decorators that have already passed it
+ * on, implement {@link BattleshipModel} alone.
+ */
+public interface UndoableBattleshipModel extends BattleshipModel {
+
+  /**
+   * Reverts the most recent guess that has not been undone yet, restoring the state before it was
+   * made. A game that the guess ended is resumed.
+   *
+   * @return true if a guess was undone, false if there was no guess to undo
+   */
+  boolean undo();
+
+  /**
+   * Re-applies the most recently undone guess. Making a new guess discards all undone guesses.
+   *
+   * @return true if a guess was redone, false if there was no undone guess to redo
+   */
+  boolean redo();
+}
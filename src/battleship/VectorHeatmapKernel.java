@@ -0,0 +1,83 @@
+package battleship;
+
+import java.util.Arrays;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD inner loops of {@link VectorPlacementHeatmap}, written with the incubating Vector API.
+ * Kept apart from the engine so that the {@code jdk.incubator.vector} classes are only loaded
+ * when the module is present.
+ *
+ * <p>The kernel counts the vertical placements of a straight ship on a row-major board. Lanes run
+ * across columns while the loops walk down the rows, so both passes are plain element-wise vector
+ * arithmetic. The first pass computes, for every cell, the length of the run
+ * of free cells ending there; a placement ends at every cell whose run is at least the ship's
+ * length. The second pass walks back up with a sliding window over those end flags, which is
+ * the number of placements covering each cell. Horizontal placements use the same kernel on the
+ * transposed board.
+ */
+final class VectorHeatmapKernel {
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+  private VectorHeatmapKernel() {
+  }
+
+  /**
+   * Adds the vertical placements of a straight ship to the counts.
+   *
+   * @param height       the number of rows of the board
+   * @param width        the number of columns of the board
+   * @param free         row-major flags, 1 where a ship may be placed and 0 elsewhere
+   * @param length       the length of the ship
+   * @param multiplicity the number of ships of this length
+   * @param ends         scratch space of at least {@code height * width} elements
+   * @param lane         scratch space of at least {@code width} elements
+   * @param counts       the row-major counts to add to
+   */
+  static void addPlacements(int height, int width, int[] free, int length, int multiplicity,
+                            int[] ends, int[] lane, int[] counts) {
+    int bound = SPECIES.loopBound(width);
+    IntVector zero = IntVector.zero(SPECIES);
+
+    // Pass 1: run of free cells ending at each cell, and whether a placement ends there
+    Arrays.fill(lane, 0, width, 0);
+    for (int row = 0; row < height; row++) {
+      int base = row * width;
+      int col = 0;
+      for (; col < bound; col += SPECIES.length()) {
+        IntVector run = IntVector.fromArray(SPECIES, lane, col).add(1)
+            .mul(IntVector.fromArray(SPECIES, free, base + col));
+        run.intoArray(lane, col);
+        zero.blend(1, run.compare(VectorOperators.GE, length)).intoArray(ends, base + col);
+      }
+      for (; col < width; col++) {
+        lane[col] = (lane[col] + 1) * free[base + col];
+        ends[base + col] = lane[col] >= length ? 1 : 0;
+      }
+    }
+
+    // Pass 2: placements covering each cell, as a sliding sum of the next length end flags
+    Arrays.fill(lane, 0, width, 0);
+    for (int row = height - 1; row >= 0; row--) {
+      int base = row * width;
+      int drop = row + length < height ? (row + length) * width : -1;
+      int col = 0;
+      for (; col < bound; col += SPECIES.length()) {
+        IntVector window = IntVector.fromArray(SPECIES, lane, col)
+            .add(IntVector.fromArray(SPECIES, ends, base + col));
+        if (drop >= 0) {
+          window = window.sub(IntVector.fromArray(SPECIES, ends, drop + col));
+        }
+        window.intoArray(lane, col);
+        IntVector.fromArray(SPECIES, counts, base + col).add(window.mul(multiplicity))
+            .intoArray(counts, base + col);
+      }
+      for (; col < width; col++) {
+        lane[col] += ends[base + col] - (drop >= 0 ? ends[drop + col] : 0);
+        counts[base + col] += lane[col] * multiplicity;
+      }
+    }
+  }
+}
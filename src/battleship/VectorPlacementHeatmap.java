@@ -0,0 +1,124 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Heatmap engine that computes the same counts as {@link PlacementHeatmap#compute} with SIMD
+ * instructions, for shot selection on large boards. The placements of straight ships are counted
+ * with the incubating Vector API by {@link VectorHeatmapKernel}, vertically on the board and
+ * horizontally on its transpose. Ships of equal length are counted once and weighted. Ships with
+ * other shapes are counted by the scalar implementation.
+ *
+ * <p>The Vector API is only used if the {@code jdk.incubator.vector} module has been added to the
+ * runtime with {@code --add-modules jdk.incubator.vector}; otherwise every ship falls back to the
+ * scalar implementation. An engine reuses its scratch buffers between calls, so it is not
+ * thread-safe; give each thread its own.
+ */
+public final class VectorPlacementHeatmap {
+  private static final boolean VECTORIZED =
+      ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+  private final boolean vectorized;
+  private final int[] multiplicities = new int[ShipType.MAX_SIZE + 1];
+  private int[] free = new int[0];
+  private int[] transposedFree = new int[0];
+  private int[] transposedCounts = new int[0];
+  private int[] ends = new int[0];
+  private int[] lane = new int[0];
+
+  /**
+   * Constructs an engine that uses the Vector API if it is available.
+   */
+  public VectorPlacementHeatmap() {
+    this(true);
+  }
+
+  /**
+   * Constructs an engine, optionally forced onto the scalar fallback, e.g. to test that path.
+   *
+   * @param useVectorApi false to count every ship with the scalar implementation
+   */
+  VectorPlacementHeatmap(boolean useVectorApi) {
+    this.vectorized = useVectorApi && VECTORIZED;
+  }
+
+  /**
+   * Checks whether the Vector API is available to this engine.
+   *
+   * @return true if straight ships are counted with SIMD instructions, false otherwise
+   */
+  public static boolean isVectorized() {
+    return VECTORIZED;
+  }
+
+  /**
+   * Computes the placement counts of the given ships, in both orientations. The result is the
+   * same as that of {@link PlacementHeatmap#compute}.
+   *
+   * @param rows   the number of rows of the board
+   * @param cols   the number of columns of the board
+   * @param cells  the row-major cell codes of the board
+   * @param ships  the ships that remain to be found
+   * @param counts receives the number of legal placements covering each cell
+   */
+  public void compute(int rows, int cols, byte[] cells, List<ShipType> ships, int[] counts) {
+    if (!vectorized) {
+      PlacementHeatmap.compute(rows, cols, cells, ships, counts);
+      return;
+    }
+    int length = rows * cols;
+    Arrays.fill(counts, 0, length, 0);
+    Arrays.fill(multiplicities, 0);
+    boolean hasStraightShips = false;
+    for (ShipType ship : ships) {
+      if (ship.isLinear()) {
+        multiplicities[ship.getSize()]++;
+        hasStraightShips = true;
+      } else {
+        PlacementHeatmap.addPlacements(rows, cols, cells, ship, false, counts);
+        PlacementHeatmap.addPlacements(rows, cols, cells, ship, true, counts);
+      }
+    }
+    if (!hasStraightShips) {
+      return;
+    }
+
+    ensureCapacity(length, Math.max(rows, cols));
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        int flag = BattleshipModelImpl.isPlaceable(row, col, rows, cols)
+            && cells[row * cols + col] != PlacementHeatmap.MISS ? 1 : 0;
+        free[row * cols + col] = flag;
+        transposedFree[col * rows + row] = flag;
+      }
+    }
+    Arrays.fill(transposedCounts, 0, length, 0);
+    for (int size = 1; size < multiplicities.length; size++) {
+      int multiplicity = multiplicities[size];
+      if (multiplicity > 0) {
+        VectorHeatmapKernel.addPlacements(rows, cols, free, size, multiplicity, ends, lane,
+            counts);
+        VectorHeatmapKernel.addPlacements(cols, rows, transposedFree, size, multiplicity, ends,
+            lane, transposedCounts);
+      }
+    }
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        counts[row * cols + col] += transposedCounts[col * rows + row];
+      }
+    }
+  }
+
+  private void ensureCapacity(int length, int width) {
+    if (free.length < length) {
+      free = new int[length];
+      transposedFree = new int[length];
+      transposedCounts = new int[length];
+      ends = new int[length];
+    }
+    if (lane.length < width) {
+      lane = new int[width];
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package battleship;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+
+/**
+ * Displays a stream of {@link GameEvent}s on a {@link BattleshipView}, e.g. to show a game to a
+ * spectator on a {@link BattleshipConsoleView} of its own. The view shows what the player's
+ * view shows after each guess: the guess count, the outcome and the cell grid, which the
+ * subscriber rebuilds from the shots alone, then the end of the game and the ship grid. Ships
+ * sunk along the way are not shown, as views have no message for them.
+ *
+ * <p>Events are requested one at a time, so a slow view only fills this subscriber's buffer. Once
+ * the buffer is full, the publisher drops events for this subscriber. A gap in the events'
+ * sequence numbers is shown as an error message and counted by {@link #getMissedCount()}; the
+ * grid misses the dropped shots until the game ends, when the final cell grid carried by
+ * {@link GameEvent.Ended} is shown. A game whose {@link GameEvent.Started} was missed is skipped
+ * until the next one starts. The first failure to display an event cancels the
+ * subscription; {@link #await()} reports it.
+ */
+public class ViewSubscriber implements Flow.Subscriber<GameEvent> {
+  private final BattleshipView view;
+  private final boolean rendersGrids;
+  private final CountDownLatch done = new CountDownLatch(1);
+  private Flow.Subscription subscription;
+  private CellState[][] grid;
+  private int nextSequence; // expected sequence number of the next event of the current game
+  private boolean hasGap; // events of the current game were missed
+  private volatile long missed;
+  private volatile Throwable failure;
+
+  /**
+   * Constructs a subscriber displaying events on a view.
+   *
+   * @param view the view to display the events on
+   */
+  public ViewSubscriber(BattleshipView view) {
+    this.view = Objects.requireNonNull(view, "View can't be null");
+    this.rendersGrids = view.rendersGrids();
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    this.subscription = subscription;
+    subscription.request(1);
+  }
+
+  @Override
+  public void onNext(GameEvent event) {
+    try {
+      display(event);
+    } catch (IOException e) {
+      failure = e;
+      subscription.cancel();
+      done.countDown();
+      return;
+    }
+    subscription.request(1);
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    failure = throwable;
+    done.countDown();
+  }
+
+  @Override
+  public void onComplete() {
+    done.countDown();
+  }
+
+  /**
+   * Returns the number of events this subscriber missed, as told by gaps in their sequence
+   * numbers.
+   *
+   * @return the number of missed events
+   */
+  public long getMissedCount() {
+    return missed;
+  }
+
+  /**
+   * Waits until the publisher completes or the subscription ends with an error.
+   *
+   * @throws IOException          if an event couldn't be displayed or the publisher failed
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public void await() throws IOException, InterruptedException {
+    done.await();
+    Throwable cause = failure;
+    if (cause instanceof IOException e) {
+      throw e;
+    } else if (cause != null) {
+      throw new IOException("The game event stream failed.", cause);
+    }
+  }
+
+  private void display(GameEvent event) throws IOException {
+    if (!(event instanceof GameEvent.Started)) {
+      if (grid == null) {
+        return; // subscribed in the middle of a game or missed its start; wait for the next one
+      }
+      if (event.sequence() < nextSequence) {
+        grid = null; // the start of a new game was missed; wait for the one after it
+        return;
+      }
+      if (event.sequence() > nextSequence) {
+        int count = event.sequence() - nextSequence;
+        missed += count;
+        hasGap = true;
+        view.displayErrorMessage("Missed " + count
+            + " game events; the grid is incomplete until the game ends.");
+      }
+    }
+    nextSequence = event.sequence() + 1;
+    switch (event) {
+      case GameEvent.Started started -> {
+        grid = new CellState[started.rows()][started.cols()];
+        for (CellState[] row : grid) {
+          Arrays.fill(row, CellState.UNKNOWN);
+        }
+        hasGap = false;
+        view.displayWelcomeMessage();
+        view.displayMaxGuesses(started.maxGuesses());
+      }
+      case GameEvent.Shot shot -> {
+        grid[shot.row()][shot.col()] = shot.hit() ? CellState.HIT : CellState.MISS;
+        view.displayGuessCount(shot.guessCount());
+        if (shot.hit()) {
+          view.displayHitMessage();
+        } else {
+          view.displayMissMessage();
+        }
+        view.displayCellGrid(rendersGrids ? grid : null);
+      }
+      case GameEvent.Forfeited forfeited -> {
+        view.displayTimeoutMessage(1);
+        view.displayGuessCount(forfeited.guessCount());
+      }
+      case GameEvent.Sunk sunk -> {
+        // Views have no message for a sunk ship
+      }
+      case GameEvent.Ended ended -> {
+        if (hasGap) {
+          view.displayGuessCount(ended.guessCount());
+          view.displayCellGrid(rendersGrids ? ended.cellGrid() : null);
+        }
+        view.displayGameOver(ended.won());
+        view.displayShipGrid(rendersGrids ? ended.shipGrid() : null);
+        grid = null; // only a Started can begin the next grid
+      }
+    }
+  }
+}
@@ -2,9 +2,17 @@ package battleship;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -14,6 +22,23 @@ import org.junit.Test;
  * invalid inputs, and game-winning scenarios.
  */
 public class BattleshipConsoleControllerTest {
+  /**
+   * The messages of a timed game of the mock model where the player makes one guess and then
+   * lets the clock run out.
+   */
+  private static final List<String> TIMED_OUT_GAME = List.of(
+      "Welcome to Battleship!",
+      "Max guesses allowed: 5",
+      "Enter your guess:",
+      "Guess count: 1",
+      "You hit a ship!",
+      "Displaying the current grid.",
+      "Enter your guess:",
+      "Time's up! Guesses forfeited: 4",
+      "Guess count: 5",
+      "Game over! You lost.",
+      "Displaying the final ship grid.");
+
   private MockBattleshipView view;
 
   /**
@@ -203,10 +228,182 @@ public class BattleshipConsoleControllerTest {
     assertEquals("Displaying the current grid.", view.messages.get(21));
   }
 
-}
+  /**
+   * Tests that input split across Windows, old Mac and Unix line endings, with surrounding
+   * whitespace and lower-case rows, is read one guess per line.
+   */
+  @Test
+  public void testPlayGameWithMixedLineEndings() {
+    // Arrange
+    int[] shipGrid = {3, 5, 4, 18, 9};
+    StringReader input = new StringReader("  a3\r\nA5\rA4\n\tB8 \nA9");
+    BattleshipConsoleController controller = new BattleshipConsoleController(input, view);
+    MockBattleshipModel model = new MockBattleshipModel(shipGrid);
 
+    // Act
+    controller.playGame(model);
 
+    // Assert
+    assertTrue(model.areAllShipsSunk());
+    assertEquals(24, view.messages.size()); // 2 welcome, 5 turns of 4, game over and ships
+    assertEquals("You hit a ship!", view.messages.get(4));
+    assertEquals("You hit a ship!", view.messages.get(20));
+  }
 
+  /**
+   * Tests that the game stops with an exception when the input ends before the game is over.
+   */
+  @Test
+  public void testPlayGameWithInputEndingEarly() {
+    // Arrange
+    int[] shipGrid = {3, 12, 10, 14, 15};
+    StringReader input = new StringReader("A3\nA5\n");
+    BattleshipConsoleController controller = new BattleshipConsoleController(input, view);
+    MockBattleshipModel model = new MockBattleshipModel(shipGrid);
 
+    // Act
+    IllegalStateException e =
+        assertThrows(IllegalStateException.class, () -> controller.playGame(model));
 
+    // Assert
+    assertEquals("Input ended unexpectedly.", e.getMessage());
+    assertEquals(2, model.getGuessCount());
+  }
+
+  /**
+   * Tests that the controller drives a counting view through a full game of the real model,
+   * without copying grids the view doesn't render.
+   */
+  @Test
+  public void testPlayGameWithCountingView() {
+    // Arrange
+    StringBuilder inputSequence = new StringBuilder();
+    for (char row = 'A'; row <= 'J'; row++) {
+      for (char col = '0'; col <= '9'; col++) {
+        inputSequence.append(row).append(col).append('\n');
+      }
+    }
+    CountingBattleshipView countingView = new CountingBattleshipView();
+    BattleshipConsoleController controller =
+        new BattleshipConsoleController(new StringReader(inputSequence.toString()), countingView);
+    BattleshipModelImpl model = new BattleshipModelImpl(100, 42L);
 
+    // Act
+    controller.playGame(model);
+
+    // Assert
+    assertTrue(model.areAllShipsSunk());
+    assertEquals(1, countingView.getWins());
+    assertEquals(0, countingView.getErrors());
+    assertEquals(model.getGuessCount(), countingView.getLastGuessCount());
+    assertEquals(model.getGuessCount(), countingView.getHits() + countingView.getMisses());
+    assertEquals(model.getGuessCount(), countingView.getCellGrids());
+    assertEquals(1, countingView.getShipGrids());
+  }
+
+  /**
+   * Tests that a line with several guesses and a range is applied in order with one compact
+   * message per shot and a single grid, and that a line with a repeated cell is rejected whole.
+   */
+  @Test
+  public void testPlayGameWithMultiGuessLines() {
+    // Arrange
+    int[] shipGrid = {3, 12, 10, 14, 15};
+    String inputSequence = """
+        A3 A5-A7
+        B0 B2 A3
+        B4
+        """;
+    BattleshipConsoleController controller =
+        new BattleshipConsoleController(new StringReader(inputSequence), view);
+    MockBattleshipModel model = new MockBattleshipModel(shipGrid);
+
+    // Act
+    controller.playGame(model);
+
+    // Assert
+    assertEquals(List.of(
+        "Welcome to Battleship!",
+        "Max guesses allowed: 5",
+        "Enter your guess:",
+        "Shot A3: hit",
+        "Shot A5: miss",
+        "Shot A6: miss",
+        "Shot A7: miss",
+        "Guess count: 4",
+        "Displaying the current grid.",
+        "Enter your guess:",
+        "Error: Cell has already been guessed",
+        "Enter your guess:",
+        "Guess count: 5",
+        "You hit a ship!",
+        "Displaying the current grid.",
+        "Game over! You lost.",
+        "Displaying the final ship grid."), view.messages);
+  }
+
+  /**
+   * Tests that with the END_GAME policy a turn that runs out of time forfeits every remaining
+   * guess and ends the game.
+   */
+  @Test
+  public void testTimedGameEndsOnTurnLimit() throws IOException {
+    // Act
+    playTimed(Duration.ofMillis(30), null, MoveClock.Policy.END_GAME);
+
+    // Assert
+    assertEquals(TIMED_OUT_GAME, view.messages);
+  }
+
+  /**
+   * Tests that with the FORFEIT policy each turn that runs out of time costs one guess, and that
+   * the game ends once all remaining guesses have been forfeited.
+   */
+  @Test
+  public void testTimedGameForfeitsEachTurn() throws IOException {
+    // Act
+    long elapsedNanos = playTimed(Duration.ofMillis(30), null, MoveClock.Policy.FORFEIT);
+
+    // Assert
+    assertEquals(TIMED_OUT_GAME, view.messages);
+    assertTrue(elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(4 * 30)); // one turn per guess left
+  }
+
+  /**
+   * Tests that a game that runs out of time forfeits every remaining guess, even without a turn
+   * limit.
+   */
+  @Test
+  public void testTimedGameEndsOnGameLimit() throws IOException {
+    // Act
+    playTimed(null, Duration.ofMillis(50), MoveClock.Policy.FORFEIT);
+
+    // Assert
+    assertEquals(TIMED_OUT_GAME, view.messages);
+  }
+
+  /**
+   * Plays a timed game of the mock model on a pipe that supplies one guess and then stays open.
+   *
+   * @return the duration of the game in nanoseconds
+   */
+  private long playTimed(Duration turnLimit, Duration gameLimit, MoveClock.Policy policy)
+      throws IOException {
+    Pipe pipe = Pipe.open();
+    pipe.sink().write(ByteBuffer.wrap("A3\n".getBytes(StandardCharsets.UTF_8)));
+    MockBattleshipModel model = new MockBattleshipModel(new int[] {3, 12, 10, 14, 15});
+    try (TimingWheel wheel = new TimingWheel(1, TimeUnit.MILLISECONDS)) {
+      MoveClock clock = new MoveClock(wheel, turnLimit, gameLimit, policy);
+      BattleshipConsoleController controller =
+          new BattleshipConsoleController(pipe.source(), view, clock);
+      long start = System.nanoTime();
+      controller.playGame(model);
+      long elapsedNanos = System.nanoTime() - start;
+      assertEquals(5, model.getGuessCount());
+      assertEquals(0, wheel.getPendingCount());
+      return elapsedNanos;
+    } finally {
+      pipe.sink().close();
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/**
+ * Unit tests for the grid rendering of the {@link BattleshipConsoleView} class, which must stay
+ * byte-identical to rendering every cell one by one.
+ */
+public class BattleshipConsoleViewTest {
+
+  /**
+   * Tests that cell and ship grids of every cached width, and of a width too wide to cache,
+   * render exactly as the cell-by-cell baseline, also when rendered again from the cache and
+   * after rows have been evicted from it.
+   */
+  @Test
+  public void testGridsMatchBaselineRendering() throws IOException {
+    // Arrange
+    SplittableRandom random = new SplittableRandom(11);
+    ShipType[] ships = ShipType.values();
+    int[] widths = {1, 2, 5, 10, 11, 12, 39, 40, 64, 65, 90};
+
+    for (int round = 0; round < 600; round++) {
+      int width = widths[round % widths.length];
+      int height = 1 + random.nextInt(26);
+      CellState[][] cells = new CellState[height][width];
+      ShipType[][] shipGrid = new ShipType[height][width];
+      for (int i = 0; i < height; i++) {
+        for (int j = 0; j < width; j++) {
+          cells[i][j] = CellState.values()[random.nextInt(CellState.values().length)];
+          int ship = random.nextInt(ships.length + 1);
+          shipGrid[i][j] = ship == ships.length ? null : ships[ship];
+        }
+      }
+
+      // Act
+      StringBuilder actual = new StringBuilder();
+      BattleshipConsoleView view = new BattleshipConsoleView(actual);
+      view.displayCellGrid(cells);
+      view.displayShipGrid(shipGrid);
+      view.displayCellGrid(cells); // now from the cache
+
+      // Assert
+      String expected = baselineCells(cells) + baselineShips(shipGrid) + baselineCells(cells);
+      assertEquals(expected, actual.toString());
+    }
+  }
+
+  /**
+   * Tests that rows hit on every render stay cached while thousands of rows seen only once pass
+   * through the shared cache.
+   */
+  @Test
+  public void testHotRowsSurviveOneOffRows() {
+    // Arrange
+    SplittableRandom random = new SplittableRandom(5);
+    CellState[] hotCells = randomCells(random, 20);
+    ShipType[] hotShips = new ShipType[30];
+    hotShips[3] = ShipType.SUBMARINE;
+    String cells = RowRenderCache.cellRow(hotCells);
+    String ships = RowRenderCache.shipRow(hotShips);
+
+    for (int i = 0; i < 20_000; i++) {
+      // Act
+      RowRenderCache.cellRow(randomCells(random, 20));
+
+      // Assert
+      assertSame(cells, RowRenderCache.cellRow(hotCells));
+      assertSame(ships, RowRenderCache.shipRow(hotShips));
+    }
+  }
+
+  private static CellState[] randomCells(SplittableRandom random, int width) {
+    CellState[] row = new CellState[width];
+    for (int i = 0; i < width; i++) {
+      row[i] = CellState.values()[random.nextInt(CellState.values().length)];
+    }
+    return row;
+  }
+
+  /**
+   * Renders a cell grid the way the view did before rows were cached.
+   */
+  private static String baselineCells(CellState[][] cellGrid) {
+    StringBuilder out = new StringBuilder("Current Game Grid:\n");
+    out.append("  ");
+    for (int i = 0; i < cellGrid[0].length; i++) {
+      out.append(i + " ");
+    }
+    out.append("\n");
+    for (int i = 0; i < cellGrid.length; i++) {
+      out.append((char) ('A' + i) + " ");
+      for (int j = 0; j < cellGrid[i].length; j++) {
+        out.append(cellGrid[i][j].getSymbol() + " ");
+      }
+      out.append("\n");
+    }
+    return out.toString();
+  }
+
+  /**
+   * Renders a ship grid the way the view did before rows were cached.
+   */
+  private static String baselineShips(ShipType[][] shipGrid) {
+    StringBuilder out = new StringBuilder("Final Ship Positions:\n");
+    out.append("  ");
+    for (int i = 0; i < shipGrid[0].length; i++) {
+      out.append(i + " ");
+    }
+    out.append("\n");
+    for (int i = 0; i < shipGrid.length; i++) {
+      out.append((char) ('A' + i) + " ");
+      for (int j = 0; j < shipGrid[i].length; j++) {
+        out.append(shipGrid[i][j] == null ? "- " : shipGrid[i][j].getSymbol() + " ");
+      }
+      out.append("\n");
+    }
+    return out.toString();
+  }
+}
@@ -0,0 +1,82 @@
+package battleship;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the undo and redo support of the {@link BattleshipModelImpl} class.
+ */
+public class BattleshipModelImplTest {
+
+  /**
+   * Tests that undoing a whole game, forfeits included, restores the empty board, that redoing it
+   * reaches the same final state, and that a new guess discards the undone guesses.
+   */
+  @Test
+  public void testUndoRedoWholeGame() {
+    // Arrange
+    BattleshipModelImpl model = new BattleshipModelImpl(100, 3L, Fleet.standard(), 10, 10);
+    model.startGame();
+    CellState[][] emptyGrid = model.getCellGrid();
+    model.forfeitGuess();
+    for (int cell = 0; !model.isGameOver(); cell++) {
+      model.makeGuess(cell / 10, cell % 10);
+    }
+    CellState[][] finalGrid = model.getCellGrid();
+    int guesses = model.getGuessCount();
+
+    // Act
+    int undone = 0;
+    while (model.undo()) {
+      undone++;
+      assertFalse(model.isGameOver());
+    }
+    CellState[][] undoneGrid = model.getCellGrid();
+    int redone = 0;
+    while (model.redo()) {
+      redone++;
+    }
+
+    // Assert
+    assertEquals(guesses, undone);
+    assertArrayEquals(emptyGrid, undoneGrid);
+    assertEquals(guesses, redone);
+    assertEquals(guesses, model.getGuessCount());
+    assertTrue(model.isGameOver());
+    assertTrue(model.areAllShipsSunk());
+    assertArrayEquals(finalGrid, model.getCellGrid());
+  }
+
+  /**
+   * Tests that undoing the shot that sank a ship floats it again, so guessing the cell again sinks
+   * it again, and that a new guess after an undo leaves nothing to redo.
+   */
+  @Test
+  public void testUndoFloatsSunkShipAndNewGuessClearsRedo() {
+    // Arrange
+    BattleshipModelImpl model = new BattleshipModelImpl(100, 3L, Fleet.standard(), 10, 10);
+    model.startGame();
+    int cell = 0;
+    while (!model.makeGuess(cell / 10, cell % 10) || model.getLastSunkShip() == null) {
+      cell++;
+    }
+    ShipType sunk = model.getLastSunkShip();
+
+    // Act
+    boolean undone = model.undo();
+    CellState undoneCell = model.getCellGrid()[cell / 10][cell % 10];
+    boolean isHit = model.makeGuess(cell / 10, cell % 10);
+
+    // Assert
+    assertTrue(undone);
+    assertEquals(CellState.UNKNOWN, undoneCell);
+    assertTrue(isHit);
+    assertEquals(sunk, model.getLastSunkShip());
+    assertFalse(model.redo());
+    assertEquals(cell + 1, model.getGuessCount());
+  }
+}
@@ -0,0 +1,74 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link BoardSymmetry} class.
+ */
+public class BoardSymmetryTest {
+
+  /**
+   * Tests that every symmetric copy of a state has the same canonical form, and that the
+   * placement heatmap of the canonical board is the original heatmap mapped cell by cell.
+   */
+  @Test
+  public void testSymmetricStatesShareKeyAndHeatmap() {
+    BoardSymmetry symmetry = BoardSymmetry.of(10, 10, Fleet.standard());
+    assertEquals(8, symmetry.getTransformCount());
+    Random random = new Random(3);
+    List<ShipType> ships = Fleet.standard().getShips();
+    for (int game = 0; game < 200; game++) {
+      // Arrange
+      byte[] cells = new byte[100];
+      for (int i = 0; i < cells.length; i++) {
+        cells[i] = (byte) random.nextInt(3);
+      }
+      BoardSymmetry.Canonical canonical = symmetry.canonicalize(cells, 0b10110);
+
+      // Act and assert
+      for (int transform = 0; transform < 8; transform++) {
+        byte[] copy = new byte[100];
+        for (int i = 0; i < cells.length; i++) {
+          copy[symmetry.toCanonical(transform, i)] = cells[i];
+        }
+        assertEquals(canonical.key(), symmetry.canonicalize(copy, 0b10110).key());
+      }
+      byte[] canonicalCells = new byte[100];
+      for (int i = 0; i < canonicalCells.length; i++) {
+        canonicalCells[i] = canonical.key().getCell(i);
+        assertEquals(cells[symmetry.fromCanonical(canonical.transform(), i)], canonicalCells[i]);
+      }
+      int[] counts = new int[100];
+      int[] canonicalCounts = new int[100];
+      PlacementHeatmap.compute(10, 10, cells, ships, counts);
+      PlacementHeatmap.compute(10, 10, canonicalCells, ships, canonicalCounts);
+      for (int i = 0; i < counts.length; i++) {
+        assertEquals(counts[i], canonicalCounts[symmetry.toCanonical(canonical.transform(), i)]);
+      }
+    }
+  }
+
+  /**
+   * Tests that board shapes and asymmetric ships limit the symmetries, and that ships of the same
+   * type are interchangeable in the remaining fleet.
+   */
+  @Test
+  public void testSymmetriesFollowBoardAndFleet() {
+    Fleet lFleet = new Fleet(List.of(ShipType.ofShape("L", "L", "X./X./XX")));
+    ShipType cruiser = new ShipType("CRUISER", 4, "C");
+    Fleet cruisers = new Fleet(List.of(cruiser, ShipType.PATROL_BOAT, cruiser, cruiser));
+    byte[] cells = new byte[100];
+
+    assertEquals(4, BoardSymmetry.of(10, 12, Fleet.standard()).getTransformCount());
+    assertEquals(2, BoardSymmetry.of(10, 10, lFleet).getTransformCount());
+    assertEquals(
+        BoardSymmetry.of(10, 10, cruisers).canonicalize(cells, 0b1010).key(),
+        BoardSymmetry.of(10, 10, cruisers).canonicalize(cells, 0b0011).key());
+    assertEquals(0b0101,
+        BoardSymmetry.of(10, 10, cruisers).canonicalize(cells, 0b1100).key().getRemaining());
+  }
+}
@@ -0,0 +1,94 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link BroadcastBattleshipView} class.
+ */
+public class BroadcastBattleshipViewTest {
+
+  /**
+   * Tests that a spectator that falls behind and skips the frame holding the cell grid is sent
+   * the grid before a later frame that only holds an error message.
+   */
+  @Test
+  public void testLaggingSpectatorGetsSkippedGrid() throws IOException, InterruptedException {
+    // Arrange
+    BroadcastBattleshipView view = new BroadcastBattleshipView(
+        new BattleshipConsoleView(new StringBuilder()));
+    CellState[][] grid = new CellState[10][10];
+    for (CellState[] row : grid) {
+      Arrays.fill(row, CellState.UNKNOWN);
+    }
+    grid[2][3] = CellState.HIT;
+    StringBuilder gridText = new StringBuilder();
+    new BattleshipConsoleView(gridText).displayCellGrid(grid);
+    StalledChannel channel = new StalledChannel();
+    view.attach(channel);
+
+    // Act
+    view.displayWelcomeMessage();
+    view.displayPromptMessage(); // frame 1, which the spectator stalls on
+    assertTrue(channel.firstWrite.await(10, TimeUnit.SECONDS));
+    view.displayCellGrid(grid);
+    view.displayPromptMessage(); // frame 2, skipped
+    view.displayErrorMessage("Invalid input.");
+    view.displayPromptMessage(); // frame 3
+    channel.resume.countDown();
+    view.close();
+    assertTrue(channel.closed.await(10, TimeUnit.SECONDS));
+
+    // Assert
+    String sent = channel.out.toString(StandardCharsets.UTF_8);
+    int gridAt = sent.indexOf(gridText.toString());
+    assertTrue("grid missing from " + sent, gridAt > 0);
+    assertTrue(gridAt < sent.indexOf("Invalid input."));
+    assertEquals(3, view.getFrameCount());
+  }
+
+  /**
+   * A channel whose first write waits until the test lets it go on.
+   */
+  private static final class StalledChannel implements WritableByteChannel {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final CountDownLatch firstWrite = new CountDownLatch(1);
+    private final CountDownLatch resume = new CountDownLatch(1);
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    @Override
+    public synchronized int write(ByteBuffer source) throws IOException {
+      firstWrite.countDown();
+      try {
+        resume.await();
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      }
+      int length = source.remaining();
+      byte[] bytes = new byte[length];
+      source.get(bytes);
+      out.write(bytes, 0, length);
+      return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return closed.getCount() > 0;
+    }
+
+    @Override
+    public void close() {
+      closed.countDown();
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link Fleet} class and the shapes of {@link ShipType}.
+ */
+public class FleetTest {
+
+  /**
+   * Tests that a configuration with comments, straight ships and shaped ships is parsed in order,
+   * and that loading it from a file gives the same fleet.
+   */
+  @Test
+  public void testParsesAndLoadsConfiguration() throws Exception {
+    // Arrange
+    String config = "# name  symbol  count  length-or-shape\n"
+        + "\n"
+        + "  CARRIER  A  1  5  \n"
+        + "CRUISER\tC\t2\t4\n"
+        + "T_BOAT  T  1  xxx/.X.\n";
+    Path file = Files.createTempFile("fleet", ".txt");
+
+    try {
+      Files.writeString(file, config);
+
+      // Act
+      Fleet parsed = Fleet.parse(new StringReader(config));
+      Fleet loaded = Fleet.load(file);
+
+      // Assert
+      List<ShipType> ships = parsed.getShips();
+      assertEquals(4, parsed.size());
+      assertEquals(17, parsed.getTotalCells());
+      assertEquals("CARRIER", ships.get(0).name());
+      assertEquals("A", ships.get(0).getSymbol());
+      assertTrue(ships.get(0).isLinear());
+      assertEquals(ships.get(1), ships.get(2));
+      assertEquals(4, ships.get(3).getSize());
+      assertFalse(ships.get(3).isLinear());
+      assertEquals(parsed.toString(), loaded.toString());
+      assertEquals(parsed.fingerprint(), loaded.fingerprint());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Tests that malformed lines are rejected with the number of the offending line.
+   */
+  @Test
+  public void testRejectsMalformedLines() {
+    String[][] cases = {
+        {"A  X  1\n", "Line 1: expected name, symbol, count and length or shape."},
+        {"# ok\nA  X  1  3  extra\n", "Line 2: expected name, symbol, count and length or shape."},
+        {"A  X  one  3\n", "Line 1: For input string: \"one\""},
+        {"A  X  0  3\n", "Line 1: Ship count must be positive."},
+        {"A  XY  1  3\n", "Line 1: Ship symbol must be exactly 1 character."},
+        {"A  X  1  0\n", "Line 1: Ship size must be between 1 and 64."},
+        {"A  X  1  XQ\n", "Line 1: Shape may only contain 'X', '.' and '/'."},
+        {"A  X  1  ../XX\n", "Line 1: Shape must not start with an empty row or column."},
+        {"A  X  1  3\nB  Y  1  2\nA  Z  1  4\n", "Line 3: Ship A is already defined."},
+        {"# nothing but comments\n\n", "A fleet must contain at least one ship."},
+    };
+    for (String[] c : cases) {
+      // Act
+      IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+          () -> Fleet.parse(new StringReader(c[0])));
+
+      // Assert
+      assertEquals(c[0], c[1], e.getMessage());
+    }
+  }
+
+  /**
+   * Tests that shapes must occupy between 1 and {@link ShipType#MAX_SIZE} cells.
+   */
+  @Test
+  public void testRejectsEmptyAndOversizedShapes() {
+    // Arrange
+    String largest = "X".repeat(ShipType.MAX_SIZE / 2) + "/" + "X".repeat(ShipType.MAX_SIZE / 2);
+
+    // Act and assert
+    assertEquals(ShipType.MAX_SIZE, ShipType.ofShape("BIG", "G", largest).getSize());
+    assertThrows(IllegalArgumentException.class,
+        () -> ShipType.ofShape("HUGE", "H", largest + "X"));
+    assertThrows(IllegalArgumentException.class,
+        () -> new ShipType("LONG", ShipType.MAX_SIZE + 1, "L"));
+    assertThrows(IllegalArgumentException.class, () -> ShipType.ofShape("NONE", "N", "..."));
+    assertThrows(IllegalArgumentException.class, () -> ShipType.ofShape("NONE", "N", "/"));
+  }
+
+  /**
+   * Tests that the vertical orientation of a shaped ship is its horizontal shape reflected across
+   * the main diagonal.
+   */
+  @Test
+  public void testShapedShipOrientations() {
+    // Arrange
+    ShipType tBoat = ShipType.ofShape("T_BOAT", "T", "XXX/.X.");
+    int[][] horizontal = {{0, 0}, {0, 1}, {0, 2}, {1, 1}};
+    int[][] vertical = {{0, 0}, {1, 0}, {2, 0}, {1, 1}};
+
+    // Act and assert
+    assertEquals(horizontal.length, tBoat.getSize());
+    for (int i = 0; i < tBoat.getSize(); i++) {
+      assertEquals(horizontal[i][0], tBoat.getRowOffset(i, false));
+      assertEquals(horizontal[i][1], tBoat.getColOffset(i, false));
+      assertEquals(vertical[i][0], tBoat.getRowOffset(i, true));
+      assertEquals(vertical[i][1], tBoat.getColOffset(i, true));
+    }
+  }
+
+  /**
+   * Tests that fingerprints ignore names and symbols, depend on shapes and placement order, and
+   * don't change between releases, since opening books saved to disk are keyed by them.
+   */
+  @Test
+  public void testFingerprintIsStable() {
+    // Arrange
+    Fleet renamed = Fleet.parse(new StringReader(
+        "A 1 1 5\nB 2 1 4\nC 3 2 3\nD 4 1 2\n"));
+    Fleet reordered = Fleet.parse(new StringReader(
+        "B 2 1 4\nA 1 1 5\nC 3 2 3\nD 4 1 2\n"));
+    Fleet bent = Fleet.parse(new StringReader(
+        "A 1 1 XXXXX\nB 2 1 XXX/X\nC 3 2 3\nD 4 1 2\n"));
+
+    // Act and assert
+    assertEquals(3101793670795444641L, Fleet.standard().fingerprint());
+    assertEquals(Fleet.standard().fingerprint(), renamed.fingerprint());
+    assertNotEquals(Fleet.standard().fingerprint(), reordered.fingerprint());
+    assertNotEquals(Fleet.standard().fingerprint(), bent.fingerprint());
+  }
+}
@@ -0,0 +1,88 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link FlightEvents} emitted by the models and the console view, read back
+ * from a live {@link RecordingStream}.
+ */
+public class FlightEventsTest {
+
+  /**
+   * Tests that a full game on the sparse model and a rendered message emit Guess, ShipSunk,
+   * GameOver and Render events with the fields of what happened.
+   */
+  @Test
+  public void testGameEmitsEvents() throws IOException, InterruptedException {
+    // Arrange
+    List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+    CountDownLatch rendered = new CountDownLatch(1);
+    SparseBattleshipModel model = new SparseBattleshipModel(100, 5L, Fleet.standard(), 10, 10);
+    StringBuilder text = new StringBuilder();
+    BattleshipConsoleView view = new BattleshipConsoleView(text);
+
+    try (RecordingStream stream = new RecordingStream()) {
+      for (String name : List.of("Guess", "ShipSunk", "GameOver", "Render")) {
+        stream.enable("battleship." + name);
+        stream.onEvent("battleship." + name, events::add);
+      }
+      stream.onEvent("battleship.Render", event -> rendered.countDown());
+      stream.startAsync();
+
+      // Act
+      model.startGame();
+      for (int cell = 0; !model.isGameOver(); cell++) {
+        model.makeGuess(cell / 10, cell % 10);
+      }
+      view.displayHitMessage(); // the last event, so all others have arrived once it has
+      assertTrue(rendered.await(30, TimeUnit.SECONDS));
+    }
+
+    // Assert
+    CellState[][] grid = model.getCellGrid();
+    int guesses = 0;
+    Set<String> sunk = new HashSet<>();
+    for (RecordedEvent event : events) {
+      switch (event.getEventType().getName()) {
+        case "battleship.Guess" -> {
+          guesses++;
+          int row = event.getInt("row");
+          int col = event.getInt("col");
+          assertEquals(grid[row][col] == CellState.HIT, event.getBoolean("hit"));
+        }
+        case "battleship.ShipSunk" -> {
+          sunk.add(event.getString("ship"));
+          assertTrue(event.getInt("guessCount") <= model.getGuessCount());
+        }
+        case "battleship.GameOver" -> {
+          assertTrue(event.getBoolean("won"));
+          assertEquals(model.getGuessCount(), event.getInt("guessCount"));
+          assertEquals(100, event.getInt("maxGuesses"));
+        }
+        default -> {
+          assertEquals("hit", event.getString("element"));
+          assertEquals(text.length(), event.getLong("bytes"));
+        }
+      }
+    }
+    assertEquals(model.getGuessCount(), guesses);
+    Set<String> fleet = new HashSet<>();
+    for (ShipType ship : Fleet.standard().getShips()) {
+      fleet.add(ship.name());
+    }
+    assertEquals(fleet, sunk);
+    assertEquals(guesses + fleet.size() + 2, events.size());
+  }
+}
@@ -0,0 +1,167 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link GameStatsExporter} class.
+ */
+public class GameStatsExporterTest {
+
+  /**
+   * Tests that rows exported over several row groups, including a partial last one, decode back
+   * to the same rows, and that both numeric encodings are chosen along the way.
+   */
+  @Test
+  public void testRoundTripOverRowGroups() throws IOException, DataFormatException {
+    // Arrange
+    Path path = Files.createTempFile("stats", ".bsgs");
+    List<String> expected = new ArrayList<>();
+
+    // Act
+    try (GameStatsExporter exporter = new GameStatsExporter(path, 8)) {
+      for (int row = 0; row < 21; row++) {
+        boolean win = row % 3 != 0;
+        GameStats stats = new GameStats(-row * 7_919L, 40 + row % 5, 17, 23 + row % 5,
+            row < 8 ? 1 : row, win ? "CBDSP" : "DP", win, 1_000_000L * row);
+        exporter.append(stats);
+        expected.add(stats.toString());
+      }
+    }
+    Set<Byte> encodings = new HashSet<>();
+    List<GameStats> actual = read(Files.readAllBytes(path), encodings);
+
+    // Assert
+    assertEquals(expected.size(), actual.size());
+    for (int row = 0; row < expected.size(); row++) {
+      assertEquals(expected.get(row), actual.get(row).toString());
+    }
+    assertTrue(encodings.contains(GameStatsExporter.VARINT));
+    assertTrue(encodings.contains(GameStatsExporter.RUN_LENGTH));
+    Files.delete(path);
+  }
+
+  /**
+   * Decodes every row of an export file.
+   */
+  private static List<GameStats> read(byte[] file, Set<Byte> encodings)
+      throws DataFormatException {
+    ByteBuffer buffer = ByteBuffer.wrap(file);
+    assertEquals(GameStatsExporter.MAGIC, buffer.getInt(0));
+    assertEquals(GameStatsExporter.MAGIC, buffer.getInt(file.length - Integer.BYTES));
+    buffer.position((int) buffer.getLong(file.length - Integer.BYTES - Long.BYTES));
+    int columns = buffer.getInt();
+    for (int column = 0; column < columns; column++) {
+      byte[] name = new byte[buffer.getShort()];
+      buffer.get(name);
+      assertEquals(GameStatsExporter.COLUMNS[column], new String(name, StandardCharsets.UTF_8));
+    }
+
+    List<GameStats> rows = new ArrayList<>();
+    int rowGroups = buffer.getInt();
+    for (int group = 0; group < rowGroups; group++) {
+      int count = buffer.getInt();
+      Object[] values = new Object[columns];
+      for (int column = 0; column < columns; column++) {
+        values[column] = readChunk(file, (int) buffer.getLong(), count, encodings);
+      }
+      for (int i = 0; i < count; i++) {
+        long[] numbers = new long[columns];
+        for (int column = 0; column < columns; column++) {
+          if (values[column] instanceof long[] longs) {
+            numbers[column] = longs[i];
+          }
+        }
+        rows.add(new GameStats(numbers[0], (int) numbers[1], (int) numbers[2], (int) numbers[3],
+            (int) numbers[4], ((String[]) values[5])[i], numbers[6] == 1, numbers[7]));
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Inflates and decodes one column chunk into a {@code long[]} or, for a dictionary chunk, a
+   * {@code String[]}.
+   */
+  private static Object readChunk(byte[] file, int offset, int count, Set<Byte> encodings)
+      throws DataFormatException {
+    ByteBuffer chunk = ByteBuffer.wrap(file, offset, file.length - offset);
+    byte encoding = chunk.get();
+    byte[] raw = new byte[chunk.getInt()];
+    int compressed = chunk.getInt();
+    Inflater inflater = new Inflater();
+    inflater.setInput(file, chunk.position(), compressed);
+    assertEquals(raw.length, inflater.inflate(raw));
+    inflater.end();
+    encodings.add(encoding);
+
+    ByteBuffer in = ByteBuffer.wrap(raw);
+    long[] values = new long[count];
+    switch (encoding) {
+      case GameStatsExporter.PLAIN -> {
+        for (int i = 0; i < count; i++) {
+          values[i] = in.getLong();
+        }
+      }
+      case GameStatsExporter.VARINT -> {
+        for (int i = 0; i < count; i++) {
+          values[i] = readVarint(in);
+        }
+      }
+      case GameStatsExporter.RUN_LENGTH -> readRuns(in, values);
+      case GameStatsExporter.DICTIONARY -> {
+        String[] entries = new String[(int) readVarint(in)];
+        for (int i = 0; i < entries.length; i++) {
+          byte[] bytes = new byte[(int) readVarint(in)];
+          in.get(bytes);
+          entries[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        readRuns(in, values);
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+          strings[i] = entries[(int) values[i]];
+        }
+        assertEquals(0, in.remaining());
+        return strings;
+      }
+      default -> throw new AssertionError("Unknown encoding " + encoding);
+    }
+    assertEquals(0, in.remaining());
+    return values;
+  }
+
+  private static void readRuns(ByteBuffer in, long[] values) {
+    int filled = 0;
+    while (filled < values.length) {
+      long value = readVarint(in);
+      int run = (int) readVarint(in);
+      for (int i = 0; i < run; i++) {
+        values[filled++] = value;
+      }
+    }
+  }
+
+  private static long readVarint(ByteBuffer in) {
+    long value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+  }
+}
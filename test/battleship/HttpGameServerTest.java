@@ -0,0 +1,144 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link HttpGameServer} class.
+ */
+public class HttpGameServerTest {
+  private final HttpClient client = HttpClient.newHttpClient();
+
+  /**
+   * Tests a game played over HTTP against the same game played on the model directly.
+   */
+  @Test
+  public void testPlaysGameOverHttp() throws Exception {
+    try (HttpGameServer server = new HttpGameServer(new InetSocketAddress("127.0.0.1", 0), 10)) {
+      // Arrange
+      server.start();
+      String games = "http://127.0.0.1:" + server.getPort() + "/games";
+      BattleshipModelImpl expected = new BattleshipModelImpl(100, 5L, Fleet.standard(), 10, 10);
+      expected.startGame();
+
+      // Act and assert
+      assertEquals("201 {\"id\":1,\"maxGuesses\":100,\"guessCount\":0,\"gameOver\":false,"
+              + "\"won\":false,\"grid\":[" + "\"__________\",".repeat(9) + "\"__________\"]}",
+          send("POST", games + "?seed=5&maxGuesses=100", ""));
+      assertEquals("409 {\"error\":\"The ship grid can only be accessed after the game is over.\"}",
+          send("GET", games + "/1/ships", ""));
+      for (char row = 'A'; row <= 'J' && !expected.isGameOver(); row++) {
+        for (char col = '0'; col <= '9' && !expected.isGameOver(); col++) {
+          boolean isHit = expected.makeGuess(row - 'A', col - '0');
+          String response = send("POST", games + "/1/guesses", " " + row + col + "\n");
+          assertTrue(response, response.startsWith("200 {\"hit\":" + isHit + ","));
+        }
+      }
+      assertEquals("400 {\"error\":\"Row must be a letter between A and J.\"}",
+          send("POST", games + "/1/guesses", "K1"));
+      String state = send("GET", games + "/1", "");
+      assertTrue(state, state.contains("\"guessCount\":" + expected.getGuessCount()
+          + ",\"gameOver\":true,\"won\":true,"));
+      assertTrue(send("GET", games + "/1/ships", "").startsWith("200 {\"ships\":[\"----------\""));
+      assertEquals("405 {\"error\":\"Use POST to create a game.\"}", send("GET", games, ""));
+      assertEquals("404 {\"error\":\"No such game.\"}", send("GET", games + "/1", ""));
+    }
+  }
+
+  /**
+   * Tests that deleted games and games whose ships were fetched free their slots.
+   */
+  @Test
+  public void testFreesSlotsOfDiscardedGames() throws Exception {
+    try (HttpGameServer server = new HttpGameServer(new InetSocketAddress("127.0.0.1", 0), 1)) {
+      // Arrange
+      server.start();
+      String games = "http://127.0.0.1:" + server.getPort() + "/games";
+
+      // Act and assert
+      assertTrue(send("POST", games, "").startsWith("201 "));
+      assertEquals("503 {\"error\":\"Too many games are in progress.\"}",
+          send("POST", games, ""));
+      assertEquals("204 ", send("DELETE", games + "/1", ""));
+      assertTrue(send("POST", games + "?maxGuesses=1", "").startsWith("201 {\"id\":2,"));
+      assertTrue(send("POST", games + "/2/guesses", "A0").contains("\"gameOver\":true"));
+      assertTrue(send("GET", games + "/2/ships", "").startsWith("200 "));
+      assertEquals(0, server.getGameCount());
+      assertTrue(send("POST", games, "").startsWith("201 {\"id\":3,"));
+    }
+  }
+
+  /**
+   * Tests that games left idle are discarded and free their slots, while games in use are kept.
+   */
+  @Test
+  public void testDiscardsIdleGames() throws Exception {
+    try (HttpGameServer server = new HttpGameServer(new InetSocketAddress("127.0.0.1", 0), 2,
+        Duration.ofMillis(400))) {
+      // Arrange
+      server.start();
+      String games = "http://127.0.0.1:" + server.getPort() + "/games";
+      send("POST", games, "");
+      send("POST", games, "");
+
+      // Act
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (server.getGameCount() > 1 && System.nanoTime() < deadline) {
+        assertTrue(send("GET", games + "/2", "").startsWith("200 "));
+        Thread.sleep(50);
+      }
+
+      // Assert
+      assertEquals("404 {\"error\":\"No such game.\"}", send("GET", games + "/1", ""));
+      assertTrue(send("GET", games + "/2", "").startsWith("200 "));
+      assertTrue(send("POST", games, "").startsWith("201 "));
+    }
+  }
+
+  /**
+   * Tests that concurrent creations never exceed the maximum number of games.
+   */
+  @Test
+  public void testLimitsConcurrentCreations() throws Exception {
+    try (HttpGameServer server = new HttpGameServer(new InetSocketAddress("127.0.0.1", 0), 5);
+         ExecutorService clients = Executors.newFixedThreadPool(16)) {
+      // Arrange
+      server.start();
+      String games = "http://127.0.0.1:" + server.getPort() + "/games";
+      List<Callable<String>> requests = Collections.nCopies(32, () -> send("POST", games, ""));
+
+      // Act
+      int created = 0;
+      for (Future<String> response : clients.invokeAll(requests)) {
+        created += response.get().startsWith("201 ") ? 1 : 0;
+      }
+
+      // Assert
+      assertEquals(5, created);
+      assertEquals(5, server.getGameCount());
+    }
+  }
+
+  private String send(String method, String uri, String body) throws Exception {
+    HttpResponse<String> response = client.send(
+        HttpRequest.newBuilder(URI.create(uri))
+            .method(method, HttpRequest.BodyPublishers.ofString(body)).build(),
+        HttpResponse.BodyHandlers.ofString());
+    return response.statusCode() + " " + response.body();
+  }
+}
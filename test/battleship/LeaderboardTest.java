@@ -0,0 +1,92 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link Leaderboard} class.
+ */
+public class LeaderboardTest {
+  private static final Leaderboard.Config STANDARD =
+      Leaderboard.Config.of(Fleet.standard(), 10, 10);
+  private static final long HOUR = Duration.ofHours(1).toMillis();
+
+  /**
+   * Tests that the all-time and windowed standings keep exactly the best k results, in order,
+   * and that windows falling out of the retained range are dropped.
+   */
+  @Test
+  public void testKeepsBestResultsPerWindow() {
+    // Arrange
+    Leaderboard leaderboard = new Leaderboard(5, Duration.ofHours(1), 2);
+    Random random = new Random(7);
+    List<Leaderboard.Result> all = new ArrayList<>();
+    List<Leaderboard.Result> lastHour = new ArrayList<>();
+
+    // Act
+    for (int i = 0; i < 3000; i++) {
+      long finishedAt = i / 1000 * HOUR + random.nextInt((int) HOUR);
+      Leaderboard.Result result = new Leaderboard.Result("p" + i, 17 + random.nextInt(80),
+          random.nextInt(1_000_000), random.nextInt(3) > 0, finishedAt);
+      leaderboard.record(STANDARD, result);
+      all.add(result);
+      if (i >= 2000) {
+        lastHour.add(result);
+      }
+    }
+
+    // Assert
+    Comparator<Leaderboard.Result> order = Comparator.comparing((Leaderboard.Result r) -> !r.win())
+        .thenComparingInt(Leaderboard.Result::guesses)
+        .thenComparingLong(Leaderboard.Result::timeNanos);
+    all.sort(order);
+    lastHour.sort(order);
+    assertEquals(all.subList(0, 5), leaderboard.top(STANDARD));
+    assertEquals(lastHour.subList(0, 5),
+        leaderboard.top(STANDARD, Instant.ofEpochMilli(2 * HOUR + 1)));
+    assertEquals(List.of(), leaderboard.top(STANDARD, Instant.ofEpochMilli(1)));
+    assertEquals(3000, leaderboard.getGameCount(STANDARD));
+  }
+
+  /**
+   * Tests that estimated ranks never beat the true rank and stay close to it.
+   */
+  @Test
+  public void testRankEstimatesAreCloseUpperBounds() {
+    // Arrange
+    Leaderboard leaderboard = new Leaderboard(10, Duration.ofDays(1), 1);
+    Random random = new Random(11);
+    int[] scores = new int[50_000];
+    for (int i = 0; i < scores.length; i++) {
+      boolean win = random.nextBoolean();
+      int guesses = 17 + random.nextInt(2000);
+      scores[i] = (win ? 0 : 1 << 16) | guesses;
+      leaderboard.record(STANDARD, new Leaderboard.Result("p", guesses, 0, win, 0));
+    }
+
+    // Act and assert
+    for (int guesses = 17; guesses < 2100; guesses += 37) {
+      for (boolean win : new boolean[] {true, false}) {
+        int score = (win ? 0 : 1 << 16) | guesses;
+        long exact = 1;
+        for (int other : scores) {
+          if (other < score) {
+            exact++;
+          }
+        }
+        long estimate = leaderboard.rank(STANDARD,
+            new Leaderboard.Result("q", guesses, 0, win, 0));
+        assertTrue(estimate >= exact);
+        assertTrue(estimate - exact <= scores.length / 20);
+      }
+    }
+  }
+}
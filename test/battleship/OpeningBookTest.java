@@ -0,0 +1,79 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link OpeningBook} and {@link OpeningBookBuilder} classes.
+ */
+public class OpeningBookTest {
+
+  /**
+   * Tests that a built book maps back with the heatmap's shots, and that histories beyond it are
+   * not found.
+   */
+  @Test
+  public void testBuildMapAndLookUp() throws IOException {
+    // Arrange
+    Path path = Files.createTempFile("opening", ".book");
+    int entries = new OpeningBookBuilder(10, 10, Fleet.standard(), 4).write(path);
+
+    // Act
+    OpeningBook book = OpeningBook.open(path);
+
+    // Assert
+    assertEquals(15, entries);
+    assertEquals(entries, book.size());
+    assertEquals(4, book.getDepth());
+    assertTrue(book.matches(Fleet.standard(), 10, 10));
+    assertFalse(book.matches(Fleet.standard(), 12, 12));
+    byte[] cells = new byte[100];
+    int[] counts = new int[100];
+    PlacementHeatmap.compute(10, 10, cells, Fleet.standard().getShips(), counts);
+    int first = PlacementHeatmap.bestShot(cells, counts, 100);
+    assertEquals(first, book.nextShot(OpeningBook.EMPTY_HISTORY));
+    cells[first] = PlacementHeatmap.MISS;
+    PlacementHeatmap.compute(10, 10, cells, Fleet.standard().getShips(), counts);
+    assertEquals(PlacementHeatmap.bestShot(cells, counts, 100),
+        book.nextShot(OpeningBook.append(OpeningBook.EMPTY_HISTORY, false)));
+    long deep = OpeningBook.EMPTY_HISTORY;
+    for (int shot = 0; shot < 4; shot++) {
+      deep = OpeningBook.append(deep, true);
+    }
+    assertEquals(-1, book.nextShot(deep));
+    Files.delete(path);
+  }
+
+  /**
+   * Tests that a heatmap player follows the book for its first shots and then goes on alone.
+   */
+  @Test
+  public void testHeatmapPlayerOpensFromBook() throws IOException {
+    // Arrange
+    Path path = Files.createTempFile("opening", ".book");
+    new OpeningBookBuilder(10, 10, Fleet.standard(), 6).write(path);
+    OpeningBook book = OpeningBook.open(path);
+    HeatmapPlayer player = new HeatmapPlayer(Fleet.standard(), book);
+    BattleshipModelImpl model = new BattleshipModelImpl(100, 9L, Fleet.standard(), 10, 10);
+    model.startGame();
+    long history = OpeningBook.EMPTY_HISTORY;
+
+    // Act and assert
+    for (int shot = 0; shot < 10 && !model.isGameOver(); shot++) {
+      int cell = player.nextGuess(10, 10);
+      if (shot < 6) {
+        assertEquals(book.nextShot(history), cell);
+      }
+      boolean isHit = model.makeGuess(cell / 10, cell % 10);
+      player.recordResult(cell, isHit, model.getLastSunkShip());
+      history = OpeningBook.append(history, isHit);
+    }
+    Files.delete(path);
+  }
+}
@@ -0,0 +1,75 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link OptimalPolicySolver} class.
+ */
+public class OptimalPolicySolverTest {
+
+  /**
+   * Tests the solution of a patrol boat on a 3x3 board, whose placeable 2x2 corner holds it in
+   * one of four ways. Any first shot hits with probability 1/2; after a miss, the opposite corner
+   * is a certain hit.
+   */
+  @Test
+  public void testSolvesPatrolBoatByHand() throws IOException {
+    // Arrange
+    OptimalPolicySolver solver =
+        new OptimalPolicySolver(3, 3, new Fleet(List.of(ShipType.PATROL_BOAT)));
+    Path table = Files.createTempFile("policy", ".bin");
+
+    // Act
+    double expected = solver.solve(ForkJoinPool.commonPool());
+    int entries = solver.write(table);
+
+    // Assert
+    assertEquals(1.5, expected, 1e-12);
+    byte[] cells = new byte[9];
+    int first = solver.bestShot(cells);
+    cells[first] = PlacementHeatmap.MISS;
+    assertEquals(12 - first, solver.bestShot(cells)); // cells 4, 5, 7 and 8 hold the corner
+    assertEquals(1.0, solver.expectedGuesses(cells), 1e-12);
+    assertEquals(2, entries);
+    assertEquals(OptimalPolicySolver.HEADER_BYTES + entries * (Long.BYTES + 12),
+        Files.size(table));
+    Files.delete(table);
+  }
+
+  /**
+   * Tests that following the policy on games placed by {@link BattleshipModelImpl} takes the
+   * expected number of guesses on average.
+   */
+  @Test
+  public void testPolicyMatchesModelGames() {
+    // Arrange
+    Fleet fleet = new Fleet(List.of(ShipType.PATROL_BOAT, ShipType.PATROL_BOAT));
+    OptimalPolicySolver solver = new OptimalPolicySolver(4, 4, fleet);
+    double expected = solver.solve(ForkJoinPool.commonPool());
+    int games = 20_000;
+    long guesses = 0;
+
+    // Act
+    for (long seed = 0; seed < games; seed++) {
+      BattleshipModelImpl model = new BattleshipModelImpl(16, seed, fleet, 4, 4);
+      model.startGame();
+      byte[] cells = new byte[16];
+      while (!model.isGameOver()) {
+        int shot = solver.bestShot(cells);
+        cells[shot] = model.makeGuess(shot / 4, shot % 4) ? PlacementHeatmap.HIT
+            : PlacementHeatmap.MISS;
+      }
+      guesses += model.getGuessCount();
+    }
+
+    // Assert
+    assertEquals(expected, (double) guesses / games, 0.03);
+  }
+}
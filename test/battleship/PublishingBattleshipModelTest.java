@@ -0,0 +1,212 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link PublishingBattleshipModel} class.
+ */
+public class PublishingBattleshipModelTest {
+
+  /**
+   * Tests that a full game is published in order and that a view subscriber rebuilds the same
+   * cell grid as the model.
+   */
+  @Test
+  public void testPublishesGameInOrder() throws Exception {
+    // Arrange
+    PublishingBattleshipModel model = new PublishingBattleshipModel(
+        new BattleshipModelImpl(100, 5L, Fleet.standard(), 10, 10), Runnable::run, 1024);
+    List<GameEvent> events = new ArrayList<>();
+    model.subscribe(new Collector(events, Long.MAX_VALUE));
+    StringBuilder spectator = new StringBuilder();
+    ViewSubscriber view = new ViewSubscriber(new BattleshipConsoleView(spectator));
+    model.subscribe(view);
+
+    // Act
+    model.startGame();
+    for (int cell = 0; !model.isGameOver(); cell++) {
+      model.makeGuess(cell / 10, cell % 10);
+    }
+    model.close();
+    view.await();
+
+    // Assert
+    assertEquals(new GameEvent.Started(10, 10, 100), events.get(0));
+    for (int i = 0; i < events.size(); i++) {
+      assertEquals(i, events.get(i).sequence());
+    }
+    int sunk = 0;
+    for (int i = 1; i < events.size() - 1; i++) {
+      GameEvent event = events.get(i);
+      assertTrue(event instanceof GameEvent.Shot || event instanceof GameEvent.Sunk);
+      if (event instanceof GameEvent.Sunk) {
+        sunk++;
+        assertTrue(((GameEvent.Shot) events.get(i - 1)).hit());
+      }
+    }
+    GameEvent.Ended ended = (GameEvent.Ended) events.get(events.size() - 1);
+    assertTrue(ended.won());
+    assertEquals(model.getGuessCount(), ended.guessCount());
+    assertEquals(5, sunk);
+    assertEquals(0, model.getDroppedCount());
+    StringBuilder expected = new StringBuilder();
+    new BattleshipConsoleView(expected).displayCellGrid(model.getCellGrid());
+    assertTrue(spectator.toString().contains(expected));
+  }
+
+  /**
+   * Tests that a subscriber that stops requesting events misses the rest of the game without
+   * holding it up.
+   */
+  @Test
+  public void testDropsEventsForStalledSubscriber() {
+    // Arrange
+    PublishingBattleshipModel model = new PublishingBattleshipModel(
+        new BattleshipModelImpl(100, 5L, Fleet.standard(), 10, 10), Runnable::run, 4);
+    List<GameEvent> events = new ArrayList<>();
+    model.subscribe(new Collector(events, 2));
+
+    // Act
+    model.startGame();
+    for (int cell = 0; !model.isGameOver(); cell++) {
+      model.makeGuess(cell / 10, cell % 10);
+    }
+
+    // Assert
+    assertEquals(2, events.size());
+    assertTrue(model.getDroppedCount() > 0);
+  }
+
+  /**
+   * Tests that a view subscriber that misses events reports the gap and shows the final grid of
+   * the game when it ends.
+   */
+  @Test
+  public void testViewSubscriberReportsGapAndShowsFinalGrid() throws Exception {
+    // Arrange
+    PublishingBattleshipModel model = new PublishingBattleshipModel(
+        new BattleshipModelImpl(100, 5L, Fleet.standard(), 10, 10), Runnable::run, 1024);
+    List<GameEvent> events = new ArrayList<>();
+    model.subscribe(new Collector(events, Long.MAX_VALUE));
+    model.startGame();
+    for (int cell = 0; !model.isGameOver(); cell++) {
+      model.makeGuess(cell / 10, cell % 10);
+    }
+    StringBuilder spectator = new StringBuilder();
+    ViewSubscriber view = new ViewSubscriber(new BattleshipConsoleView(spectator));
+    view.onSubscribe(new Flow.Subscription() {
+      @Override
+      public void request(long n) {
+      }
+
+      @Override
+      public void cancel() {
+      }
+    });
+
+    // Act
+    for (GameEvent event : events) {
+      if (event.sequence() < 3 || event.sequence() > 5) { // drop three events
+        view.onNext(event);
+      }
+    }
+    view.onComplete();
+    view.await();
+
+    // Assert
+    assertEquals(3, view.getMissedCount());
+    assertTrue(spectator.toString().contains("Missed 3 game events"));
+    StringBuilder finalGrid = new StringBuilder();
+    new BattleshipConsoleView(finalGrid).displayCellGrid(model.getCellGrid());
+    assertTrue(spectator.toString().contains(finalGrid));
+  }
+
+  /**
+   * Tests that when the start of a game is dropped after a finished game, the surviving events of
+   * the new game are ignored rather than drawn on the finished game's grid as a gap.
+   */
+  @Test
+  public void testViewSubscriberIgnoresGameWithDroppedStart() throws Exception {
+    // Arrange
+    List<GameEvent> events = new ArrayList<>();
+    PublishingBattleshipModel first = new PublishingBattleshipModel(
+        new BattleshipModelImpl(2, 5L, Fleet.standard(), 10, 10), Runnable::run, 1024);
+    first.subscribe(new Collector(events, Long.MAX_VALUE));
+    first.startGame();
+    first.makeGuess(0, 0);
+    first.makeGuess(0, 1);
+    PublishingBattleshipModel second = new PublishingBattleshipModel(
+        new BattleshipModelImpl(100, 6L, Fleet.standard(), 10, 10), Runnable::run, 1024);
+    List<GameEvent> next = new ArrayList<>();
+    second.subscribe(new Collector(next, Long.MAX_VALUE));
+    second.startGame();
+    for (int col = 0; col < 8; col++) {
+      second.makeGuess(0, col);
+    }
+    StringBuilder spectator = new StringBuilder();
+    ViewSubscriber view = new ViewSubscriber(new BattleshipConsoleView(spectator));
+    view.onSubscribe(new Flow.Subscription() {
+      @Override
+      public void request(long n) {
+      }
+
+      @Override
+      public void cancel() {
+      }
+    });
+    for (GameEvent event : events) {
+      view.onNext(event);
+    }
+    int shown = spectator.length();
+
+    // Act
+    for (GameEvent event : next.subList(5, next.size())) { // drop Started and four shots
+      view.onNext(event);
+    }
+    view.onComplete();
+    view.await();
+
+    // Assert
+    assertTrue(events.get(events.size() - 1) instanceof GameEvent.Ended);
+    assertTrue(next.get(5).sequence() >= events.size()); // past the finished game's sequence
+    assertEquals(shown, spectator.length());
+    assertEquals(0, view.getMissedCount());
+  }
+
+  /**
+   * Collects events, requesting a fixed number of them up front.
+   */
+  private static final class Collector implements Flow.Subscriber<GameEvent> {
+    private final List<GameEvent> events;
+    private final long demand;
+
+    Collector(List<GameEvent> events, long demand) {
+      this.events = events;
+      this.demand = demand;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.request(demand);
+    }
+
+    @Override
+    public void onNext(GameEvent item) {
+      events.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+    }
+
+    @Override
+    public void onComplete() {
+    }
+  }
+}
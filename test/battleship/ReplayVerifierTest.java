@@ -0,0 +1,62 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link GameArchiveWriter} and {@link ReplayVerifier} classes.
+ */
+public class ReplayVerifierTest {
+
+  /**
+   * Tests that recorded games replay cleanly, and that a corrupted shot outcome is reported at the
+   * record and shot it was found in.
+   */
+  @Test
+  public void testVerifyReportsCorruptedGame() throws IOException, InterruptedException {
+    // Arrange
+    Path archive = Files.createTempFile("games", ".archive");
+    int[] shotCounts = new int[3];
+    try (GameArchiveWriter writer = new GameArchiveWriter(archive)) {
+      for (int game = 0; game < shotCounts.length; game++) {
+        BattleshipModel model = new BattleshipModelImpl(40, game);
+        model.startGame();
+        writer.startGame(game, 40);
+        for (int cell = 0; !model.isGameOver(); cell++) {
+          boolean hit = model.makeGuess(cell / 10, cell % 10);
+          writer.recordShot(cell / 10, cell % 10, hit, model.isGameOver());
+          shotCounts[game]++;
+        }
+        writer.endGame();
+      }
+    }
+    ReplayVerifier verifier = new ReplayVerifier(2);
+
+    // Act
+    ReplayVerifier.Result clean = verifier.verify(archive);
+    byte[] bytes = Files.readAllBytes(archive);
+    long second = GameArchiveWriter.HEADER_BYTES
+        + (long) shotCounts[0] * GameArchiveWriter.SHOT_BYTES;
+    int fourthShot = (int) second + GameArchiveWriter.HEADER_BYTES
+        + 3 * GameArchiveWriter.SHOT_BYTES;
+    bytes[fourthShot + 1] ^= GameArchiveWriter.OUTCOME_HIT; // flip the recorded outcome
+    Files.write(archive, bytes);
+    ReplayVerifier.Result corrupted = verifier.verify(archive);
+
+    // Assert
+    assertEquals(3, clean.getGames());
+    assertTrue(clean.getDivergences().isEmpty());
+    assertEquals(3, corrupted.getGames());
+    List<ReplayVerifier.Divergence> divergences = corrupted.getDivergences();
+    assertEquals(1, divergences.size());
+    assertEquals(second, divergences.get(0).getOffset());
+    assertEquals(3, divergences.get(0).getShot());
+    Files.delete(archive);
+  }
+}
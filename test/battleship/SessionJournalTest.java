@@ -0,0 +1,266 @@
+package battleship;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link SessionJournal} class. Journals use small segments and a short commit
+ * interval; a journal that is reopened without being closed stands in for a crashed process.
+ */
+public class SessionJournalTest {
+  private static final int SEGMENT_BYTES = 4096;
+
+  /**
+   * Tests that a game of a journal that was never closed is recovered with all its guesses, and
+   * that a finished game is not.
+   */
+  @Test
+  public void testReopenWithoutCloseRecoversLiveGame() throws IOException {
+    // Arrange
+    Path directory = Files.createTempDirectory("journal");
+    SessionJournal crashed = open(directory);
+    JournaledBattleshipModel live = crashed.create(7L, 100);
+    live.startGame();
+    for (int cell = 0; cell < 12; cell++) {
+      live.makeGuess(cell / 10, cell % 10);
+    }
+    live.forfeitGuess();
+    JournaledBattleshipModel finished = crashed.create(8L, 3);
+    finished.startGame();
+    for (int cell = 0; cell < 3; cell++) {
+      finished.makeGuess(cell / 10, cell % 10);
+    }
+    crashed.awaitCommit();
+
+    // Act
+    SessionJournal reopened = open(directory);
+    Map<Long, BattleshipModel> recovered = reopened.getRecoveredSessions();
+
+    // Assert
+    assertEquals(1, recovered.size());
+    BattleshipModel model = recovered.get(live.getSessionId());
+    assertEquals(13, model.getGuessCount());
+    assertArrayEquals(live.getCellGrid(), model.getCellGrid());
+    reopened.close();
+    delete(directory);
+  }
+
+  /**
+   * Tests that an entry torn by a crash is skipped, so the game is recovered as it was before the
+   * torn guess.
+   */
+  @Test
+  public void testTornEntryIsSkipped() throws IOException {
+    // Arrange
+    Path directory = Files.createTempDirectory("journal");
+    SessionJournal journal = open(directory);
+    JournaledBattleshipModel model = journal.create(7L, 100);
+    model.startGame();
+    model.makeGuess(0, 0);
+    CellState[][] beforeTear = model.getCellGrid();
+    model.makeGuess(0, 1);
+    journal.close();
+    // Entries: header, CREATE, START, GUESS, GUESS; flip a byte of the last one
+    corrupt(segments(directory).get(0), 4 * SessionJournal.ENTRY_BYTES + 20);
+
+    // Act
+    SessionJournal reopened = open(directory);
+    BattleshipModel recovered = reopened.getRecoveredSessions().get(model.getSessionId());
+
+    // Assert
+    assertEquals(1, recovered.getGuessCount());
+    assertArrayEquals(beforeTear, recovered.getCellGrid());
+    reopened.close();
+    delete(directory);
+  }
+
+  /**
+   * Tests that a game revived by undoing the guess that ended it is recovered, and that its
+   * history still replays after it has been copied forward once.
+   */
+  @Test
+  public void testUndoPastEndIsRecovered() throws IOException {
+    // Arrange
+    Path directory = Files.createTempDirectory("journal");
+    SessionJournal journal = open(directory);
+    JournaledBattleshipModel model = journal.create(7L, 3);
+    model.startGame();
+    for (int cell = 0; cell < 3; cell++) {
+      model.makeGuess(cell / 10, cell % 10);
+    }
+    assertTrue(model.isGameOver());
+    model.undo();
+    journal.close();
+
+    // Act
+    SessionJournal first = open(directory);
+    first.close();
+    SessionJournal second = open(directory);
+    UndoableBattleshipModel recovered =
+        (UndoableBattleshipModel) second.getRecoveredSessions().get(model.getSessionId());
+
+    // Assert
+    assertEquals(2, recovered.getGuessCount());
+    assertFalse(recovered.isGameOver());
+    assertTrue(recovered.redo());
+    assertTrue(recovered.isGameOver());
+    second.close();
+    delete(directory);
+  }
+
+  /**
+   * Tests that a recovery cut short by a crash while copying histories forward loses nothing: the
+   * next recovery ignores the incomplete copy and reads the old segments it left behind.
+   */
+  @Test
+  public void testCrashDuringCopyForwardKeepsHistory() throws IOException {
+    // Arrange
+    Path directory = Files.createTempDirectory("journal");
+    SessionJournal journal = open(directory);
+    JournaledBattleshipModel model = journal.create(7L, 100);
+    model.startGame();
+    for (int cell = 0; cell < 5; cell++) {
+      model.makeGuess(cell / 10, cell % 10);
+    }
+    journal.close();
+    Map<Path, byte[]> oldSegments = new LinkedHashMap<>();
+    for (Path segment : segments(directory)) {
+      oldSegments.put(segment, Files.readAllBytes(segment));
+    }
+    open(directory).close(); // copies forward and deletes the old segments
+    // Put the old segments back and cut the copy short after its CREATE entry
+    for (Map.Entry<Path, byte[]> segment : oldSegments.entrySet()) {
+      Files.write(segment.getKey(), segment.getValue());
+    }
+    Path copy = segments(directory).get(oldSegments.size());
+    try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.WRITE)) {
+      int keep = 3 * SessionJournal.ENTRY_BYTES; // header, COPY, CREATE
+      channel.write(ByteBuffer.allocate(SEGMENT_BYTES - keep), keep);
+    }
+
+    // Act
+    SessionJournal reopened = open(directory);
+    BattleshipModel recovered = reopened.getRecoveredSessions().get(model.getSessionId());
+
+    // Assert
+    assertEquals(5, recovered.getGuessCount());
+    assertArrayEquals(model.getCellGrid(), recovered.getCellGrid());
+    reopened.close();
+    delete(directory);
+  }
+
+  /**
+   * Tests that games appended from several threads, each waiting for its guesses to be committed,
+   * are all recovered across many segments.
+   */
+  @Test
+  public void testConcurrentCommitsAcrossSegments() throws Exception {
+    // Arrange
+    Path directory = Files.createTempDirectory("journal");
+    SessionJournal crashed = open(directory);
+    List<JournaledBattleshipModel> games = new ArrayList<>();
+    List<Thread> players = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      JournaledBattleshipModel game = crashed.create(i, 100);
+      games.add(game);
+      players.add(new Thread(() -> {
+        game.startGame();
+        for (int cell = 0; cell < 40; cell++) {
+          game.makeGuess(cell / 10, cell % 10); // the first row and column never hold ships
+          crashed.awaitCommit();
+        }
+      }));
+    }
+
+    // Act
+    for (Thread player : players) {
+      player.start();
+    }
+    for (Thread player : players) {
+      player.join();
+    }
+    SessionJournal reopened = open(directory);
+
+    // Assert
+    assertEquals(games.size(), reopened.getRecoveredSessions().size());
+    for (JournaledBattleshipModel game : games) {
+      BattleshipModel recovered = reopened.getRecoveredSessions().get(game.getSessionId());
+      assertEquals(game.getGuessCount(), recovered.getGuessCount());
+      assertArrayEquals(game.getCellGrid(), recovered.getCellGrid());
+    }
+    reopened.close();
+    delete(directory);
+  }
+
+  /**
+   * Tests that a segment that can't be created fails the journal: waiting for a commit throws
+   * instead of hanging, and so do later appends.
+   */
+  @Test
+  public void testSegmentFailureIsReported() throws IOException {
+    // Arrange
+    Path directory = Files.createTempDirectory("journal");
+    SessionJournal journal = open(directory);
+    // Segments are created with CREATE_NEW, so an existing file blocks the second one
+    Files.createFile(directory.resolve("journal-00000001.wal"));
+    JournaledBattleshipModel model = journal.create(7L, 100);
+
+    // Act
+    IllegalStateException e = assertThrows(IllegalStateException.class, journal::awaitCommit);
+
+    // Assert
+    assertTrue(e.getCause().getMessage().startsWith("Failed to create journal segment"));
+    assertThrows(IllegalStateException.class, model::startGame);
+    assertThrows(IllegalStateException.class, journal::close);
+    delete(directory);
+  }
+
+  private static SessionJournal open(Path directory) throws IOException {
+    return new SessionJournal(directory, Fleet.standard(), 10, 10, SEGMENT_BYTES, 1,
+        TimeUnit.MILLISECONDS);
+  }
+
+  private static List<Path> segments(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      List<Path> segments = new ArrayList<>(files.toList());
+      segments.sort(null);
+      return segments;
+    }
+  }
+
+  private static void corrupt(Path segment, int offset) throws IOException {
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      ByteBuffer bytes = ByteBuffer.allocate(1);
+      channel.read(bytes, offset);
+      bytes.put(0, (byte) (bytes.get(0) ^ 0x5A)).rewind();
+      channel.write(bytes, offset);
+    }
+  }
+
+  private static void delete(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+}
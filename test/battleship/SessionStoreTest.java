@@ -0,0 +1,100 @@
+package battleship;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link SessionStore} class. Stored games must behave exactly like
+ * {@link BattleshipModelImpl} games created with the same seed.
+ */
+public class SessionStoreTest {
+
+  /**
+   * Tests that a stored game reports the same outcome as the dense model for every guess of a
+   * full game, including the revealed ship grid.
+   */
+  @Test
+  public void testMatchesDenseModelForSameSeed() {
+    // Arrange
+    SessionStore store = new SessionStore(64, Fleet.standard(), 10, 10);
+    for (long seed = 0; seed < 50; seed++) {
+      BattleshipModelImpl dense = new BattleshipModelImpl(60, seed, Fleet.standard(), 10, 10);
+      dense.startGame();
+      int slot = store.create(seed, 60);
+      Random shots = new Random(seed);
+
+      // Act and assert
+      while (!dense.isGameOver()) {
+        int row = shots.nextInt(10);
+        int col = shots.nextInt(10);
+        // Reopen the slot on every turn, as a server would for an idle session
+        BattleshipModel stored = store.open(slot);
+        if (dense.getCellGrid()[row][col] != CellState.UNKNOWN) {
+          assertThrows(IllegalArgumentException.class, () -> stored.makeGuess(row, col));
+          continue;
+        }
+        assertEquals(dense.makeGuess(row, col), stored.makeGuess(row, col));
+        assertEquals(dense.getLastSunkShip(), stored.getLastSunkShip());
+        assertEquals(dense.isGameOver(), stored.isGameOver());
+      }
+      BattleshipModel stored = store.open(slot);
+      assertEquals(dense.getGuessCount(), stored.getGuessCount());
+      assertEquals(dense.areAllShipsSunk(), stored.areAllShipsSunk());
+      assertArrayEquals(dense.getCellGrid(), stored.getCellGrid());
+      assertArrayEquals(dense.getShipGrid(), stored.getShipGrid());
+      store.release(slot);
+    }
+  }
+
+  /**
+   * Tests that released slots are reused, can no longer be opened, and that a full store
+   * rejects new games.
+   */
+  @Test
+  public void testReusesReleasedSlots() {
+    // Arrange
+    SessionStore store = new SessionStore(2, Fleet.standard(), 10, 10);
+    int first = store.create(1L, 50);
+    int second = store.create(2L, 50);
+
+    // Act and assert
+    assertThrows(IllegalStateException.class, () -> store.create(3L, 50));
+    store.release(first);
+    assertThrows(IllegalArgumentException.class, () -> store.open(first));
+    assertEquals(first, store.create(4L, 50));
+    assertEquals(2, store.size());
+    assertEquals(0, store.open(second).getGuessCount());
+  }
+
+  /**
+   * Tests that a facade kept past the release of its slot can neither revive the slot nor touch
+   * the game created in it next.
+   */
+  @Test
+  public void testRejectsStaleFacades() {
+    // Arrange
+    SessionStore store = new SessionStore(2, Fleet.standard(), 10, 10);
+    int slot = store.create(1L, 50);
+    BattleshipModel stale = store.open(slot);
+    stale.makeGuess(0, 0);
+    store.release(slot);
+
+    // Act and assert
+    assertThrows(IllegalStateException.class, stale::startGame);
+    assertThrows(IllegalArgumentException.class, () -> store.open(slot));
+    assertEquals(0, store.size());
+    assertEquals(slot, store.create(2L, 50));
+    assertThrows(IllegalStateException.class, () -> stale.makeGuess(1, 1));
+    assertThrows(IllegalStateException.class, stale::forfeitGuess);
+    assertThrows(IllegalStateException.class, stale::getGuessCount);
+    assertThrows(IllegalStateException.class, stale::getCellGrid);
+    BattleshipModel current = store.open(slot);
+    assertEquals(0, current.getGuessCount());
+    assertEquals(CellState.UNKNOWN, current.getCellGrid()[0][0]);
+    assertEquals(80, store.getSlotSize());
+  }
+}
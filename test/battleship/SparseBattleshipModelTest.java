@@ -0,0 +1,137 @@
+package battleship;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link SparseBattleshipModel} class. The sparse model must behave exactly
+ * like {@link BattleshipModelImpl} for the same seed, fleet and board size.
+ */
+public class SparseBattleshipModelTest {
+
+  /**
+   * Tests that both models place the same ships and report the same outcome for every guess of a
+   * full game on the standard board.
+   */
+  @Test
+  public void testMatchesDenseModelForSameSeed() {
+    for (long seed = 0; seed < 50; seed++) {
+      // Arrange
+      BattleshipModelImpl dense = new BattleshipModelImpl(100, seed, Fleet.standard(), 10, 10);
+      SparseBattleshipModel sparse =
+          new SparseBattleshipModel(100, seed, Fleet.standard(), 10, 10);
+      dense.startGame();
+      sparse.startGame();
+      Random shots = new Random(seed);
+
+      // Act and assert
+      while (!dense.isGameOver()) {
+        int row = shots.nextInt(10);
+        int col = shots.nextInt(10);
+        if (dense.getCellGrid()[row][col] != CellState.UNKNOWN) {
+          continue;
+        }
+        assertEquals(dense.makeGuess(row, col), sparse.makeGuess(row, col));
+        assertEquals(dense.getGuessCount(), sparse.getGuessCount());
+        assertEquals(dense.isGameOver(), sparse.isGameOver());
+      }
+      assertTrue(sparse.isGameOver());
+      assertEquals(dense.areAllShipsSunk(), sparse.areAllShipsSunk());
+      assertArrayEquals(dense.getCellGrid(), sparse.getCellGrid());
+      assertArrayEquals(dense.getShipGrid(), sparse.getShipGrid());
+    }
+  }
+
+  /**
+   * Tests that a large board with a small fleet can be played without building dense grids, and
+   * that repeated or out-of-bounds guesses are rejected.
+   */
+  @Test
+  public void testLargeBoardRejectsInvalidGuesses() {
+    // Arrange
+    SparseBattleshipModel model =
+        new SparseBattleshipModel(10, 7L, Fleet.standard(), 100_000, 100_000);
+    model.startGame();
+
+    // Act
+    boolean hit = model.makeGuess(99_999, 99_999);
+
+    // Assert
+    assertFalse(hit);
+    assertEquals(1, model.getGuessCount());
+    assertThrows(IllegalArgumentException.class, () -> model.makeGuess(99_999, 99_999));
+    assertThrows(IllegalArgumentException.class, () -> model.makeGuess(100_000, 0));
+    assertThrows(IllegalArgumentException.class, () -> model.makeGuess(-1, 5));
+    assertEquals(1, model.getGuessCount());
+  }
+
+  /**
+   * Tests that the guess set is not presized from the guess limit, so a huge limit costs nothing
+   * until guesses are made, and that the set grows as they are.
+   */
+  @Test
+  public void testGuessSetGrowsWithGuessesMade() {
+    // Arrange
+    SparseBattleshipModel model =
+        new SparseBattleshipModel(Integer.MAX_VALUE, 7L, Fleet.standard(), 100_000, 100_000);
+    model.startGame();
+
+    // Act
+    for (int col = 0; col < 5000; col++) {
+      assertFalse(model.makeGuess(0, col)); // ships are never placed in the first row
+    }
+
+    // Assert
+    assertEquals(5000, model.getGuessCount());
+    assertThrows(IllegalArgumentException.class, () -> model.makeGuess(0, 4999));
+    assertEquals(1 << 30, PackedCellSet.tableSizeFor(1 << 29));
+    assertThrows(IllegalArgumentException.class,
+        () -> PackedCellSet.tableSizeFor(Integer.MAX_VALUE));
+    assertThrows(IllegalStateException.class, () -> PackedCellSet.grownSize(1 << 30));
+  }
+
+  /**
+   * Tests that undoing a whole game on the sparse model walks back through the same states as the
+   * dense model, that redoing it reaches the same final state, and that a new guess discards the
+   * undone guesses.
+   */
+  @Test
+  public void testUndoRedoMatchesDenseModel() {
+    // Arrange
+    BattleshipModelImpl dense = new BattleshipModelImpl(100, 3L, Fleet.standard(), 10, 10);
+    SparseBattleshipModel sparse = new SparseBattleshipModel(100, 3L, Fleet.standard(), 10, 10);
+    dense.startGame();
+    sparse.startGame();
+    for (int cell = 0; !dense.isGameOver(); cell++) {
+      dense.makeGuess(cell / 10, cell % 10);
+      sparse.makeGuess(cell / 10, cell % 10);
+    }
+    CellState[][] finalGrid = dense.getCellGrid();
+    int guesses = dense.getGuessCount();
+
+    // Act and assert
+    while (dense.undo()) {
+      assertTrue(sparse.undo());
+      assertFalse(sparse.isGameOver());
+      assertArrayEquals(dense.getCellGrid(), sparse.getCellGrid());
+    }
+    assertFalse(sparse.undo());
+    assertEquals(0, sparse.getGuessCount());
+    while (sparse.redo()) {
+      // replay the whole game
+    }
+    assertEquals(guesses, sparse.getGuessCount());
+    assertTrue(sparse.isGameOver());
+    assertArrayEquals(finalGrid, sparse.getCellGrid());
+
+    sparse.undo();
+    sparse.makeGuess(9, 9);
+    assertFalse(sparse.redo());
+  }
+}
@@ -0,0 +1,136 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link TimingWheel} class, on a short tick.
+ */
+public class TimingWheelTest {
+
+  /**
+   * Tests that timeouts on several levels expire in deadline order, and that a cancelled timeout
+   * never expires.
+   */
+  @Test
+  public void testExpiresInOrderAndCancels() throws InterruptedException {
+    // Arrange
+    StringBuffer order = new StringBuffer();
+    CountDownLatch done = new CountDownLatch(3);
+    try (TimingWheel wheel = new TimingWheel(1, TimeUnit.MILLISECONDS)) {
+      Named late = new Named("c", order, done);
+      Named cancelled = new Named("x", order, done);
+      Named early = new Named("a", order, done);
+      Named middle = new Named("b", order, done);
+
+      // Act
+      wheel.schedule(late, 150, TimeUnit.MILLISECONDS); // past the first level
+      wheel.schedule(cancelled, 20, TimeUnit.MILLISECONDS);
+      wheel.schedule(early, 5, TimeUnit.MILLISECONDS);
+      wheel.schedule(middle, 70, TimeUnit.MILLISECONDS);
+      boolean wasCancelled = wheel.cancel(cancelled);
+      boolean expired = done.await(10, TimeUnit.SECONDS);
+
+      // Assert
+      assertTrue(wasCancelled);
+      assertFalse(wheel.cancel(cancelled));
+      assertTrue(expired);
+      assertEquals("abc", order.toString());
+      assertEquals(0, wheel.getPendingCount());
+    }
+  }
+
+  /**
+   * Tests that timeouts re-armed from another thread while their expiry is being run are neither
+   * lost nor run while still scheduled: every timeout ends up expiring after its last arming.
+   */
+  @Test
+  public void testRescheduleDuringExpiry() throws InterruptedException {
+    // Arrange
+    Counted[] timeouts = new Counted[200];
+    try (TimingWheel wheel = new TimingWheel(1, TimeUnit.MILLISECONDS)) {
+      for (int i = 0; i < timeouts.length; i++) {
+        timeouts[i] = new Counted(wheel);
+        timeouts[i].arm(1);
+      }
+      SplittableRandom random = new SplittableRandom(5);
+
+      // Act
+      long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+      while (System.nanoTime() < end) {
+        timeouts[random.nextInt(timeouts.length)].arm(random.nextInt(3));
+      }
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (wheel.getPendingCount() > 0 && System.nanoTime() < deadline) {
+        Thread.sleep(5);
+      }
+      Thread.sleep(20); // let the last batch of callbacks finish
+
+      // Assert
+      assertEquals(0, wheel.getPendingCount());
+      for (Counted timeout : timeouts) {
+        assertEquals(timeout.armings.get(), timeout.expiredArming.get());
+      }
+    }
+  }
+
+  /**
+   * A timeout that appends its name when it expires.
+   */
+  private static final class Named extends TimingWheel.Timeout {
+    private final String name;
+    private final StringBuffer order;
+    private final CountDownLatch done;
+
+    private Named(String name, StringBuffer order, CountDownLatch done) {
+      this.name = name;
+      this.order = order;
+      this.done = done;
+    }
+
+    @Override
+    protected void expire() {
+      order.append(name);
+      done.countDown();
+    }
+  }
+
+  /**
+   * A timeout that records the last of its armings that expired.
+   */
+  private static final class Counted extends TimingWheel.Timeout {
+    private final TimingWheel wheel;
+    private final AtomicLong armings = new AtomicLong();
+    private final AtomicLong expiredArming = new AtomicLong();
+
+    private Counted(TimingWheel wheel) {
+      this.wheel = wheel;
+    }
+
+    private void arm(long delayMillis) {
+      synchronized (this) {
+        armings.incrementAndGet();
+        wheel.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+
+    @Override
+    protected void expire() {
+      synchronized (this) {
+        if (wheel.cancel(this)) {
+          // Re-armed after being taken off; this expiry belongs to an earlier arming
+          wheel.schedule(this, 0, TimeUnit.MILLISECONDS);
+          return;
+        }
+        expiredArming.set(armings.get());
+      }
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package battleship;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link TwoPlayerConsoleController} class, covering pipelined games between
+ * computer players and turn-taking between people sharing a console.
+ */
+public class TwoPlayerConsoleControllerTest {
+
+  /**
+   * Tests that a computer-versus-computer game renders every turn, in order, before the winner
+   * and both fleets.
+   */
+  @Test
+  public void testComputerPlayersRenderEveryTurnInOrder() {
+    // Arrange
+    StringBuilder out = new StringBuilder();
+    TwoPlayerBattleshipModelImpl model = new TwoPlayerBattleshipModelImpl(
+        new BattleshipModelImpl(100, 1L), new BattleshipModelImpl(100, 2L));
+    TwoPlayerConsoleController controller = new TwoPlayerConsoleController(
+        new HeatmapPlayer(Fleet.standard()), new HeatmapPlayer(Fleet.standard()),
+        new TwoPlayerConsoleView(out));
+
+    // Act
+    controller.playGame(model);
+
+    // Assert
+    int winner = model.getWinner();
+    assertTrue(winner >= 0);
+    String[] turns = out.toString().split("Player \\d's turn\\.\n", -1);
+    assertEquals(model.getGuessCount(0) + model.getGuessCount(1), turns.length - 1);
+    for (int i = 1; i < turns.length; i++) {
+      // Players alternate, so each player's guess count shows up on every other turn
+      assertTrue(turns[i].startsWith("Guesses Made: " + ((i + 1) / 2) + "\n"));
+    }
+    assertTrue(turns[turns.length - 1].contains("Player " + (winner + 1) + " wins!"));
+    assertTrue(out.toString().endsWith(
+        "Player 1's fleet:\n" + fleetText(model.getShipGrid(0))
+        + "Player 2's fleet:\n" + fleetText(model.getShipGrid(1))));
+  }
+
+  /**
+   * Tests that two people sharing a console take turns, and that an invalid shot is reported
+   * without passing the turn on.
+   */
+  @Test
+  public void testSharedConsoleAlternatesTurnsAndReportsErrors() {
+    // Arrange
+    StringBuilder out = new StringBuilder();
+    ConsolePlayer console = new ConsolePlayer(new StringReader("""
+        A0
+        A0
+        Z9
+        A1
+        A2
+        """));
+    TwoPlayerBattleshipModelImpl model = new TwoPlayerBattleshipModelImpl(
+        new BattleshipModelImpl(1, 1L), new BattleshipModelImpl(3, 2L));
+    TwoPlayerConsoleController controller =
+        new TwoPlayerConsoleController(console, console, new TwoPlayerConsoleView(out));
+
+    // Act
+    controller.playGame(model);
+
+    // Assert: player 2 may only fire once, then player 1 keeps the turn until out of guesses
+    String text = out.toString();
+    assertEquals(4, text.split("Player 1's turn\\.", -1).length - 1);
+    assertEquals(1, text.split("Player 2's turn\\.", -1).length - 1);
+    assertTrue(text.contains("Error: Row must be a letter between A and J.\n"));
+    assertEquals(3, model.getGuessCount(0));
+    assertEquals(1, model.getGuessCount(1));
+    assertTrue(text.contains("It's a draw!"));
+  }
+
+  private static String fleetText(ShipType[][] grid) {
+    StringBuilder sb = new StringBuilder(RowRenderCache.header(grid[0].length));
+    for (int i = 0; i < grid.length; i++) {
+      sb.append((char) ('A' + i)).append(' ').append(RowRenderCache.shipRow(grid[i]));
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,92 @@
+package battleship;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link VectorPlacementHeatmap} class, which must count exactly the same
+ * placements as {@link PlacementHeatmap#compute}. The Vector API is only exercised when the tests
+ * run with {@code --add-modules jdk.incubator.vector}; otherwise both engines take the scalar path.
+ */
+public class VectorPlacementHeatmapTest {
+  private static final ShipType[] SHAPES = {
+      ShipType.ofShape("T_BOAT", "T", "XXX/.X."),
+      ShipType.ofShape("L_BOAT", "L", "X../XXX"),
+      ShipType.ofShape("DOT", "O", "X"),
+      ShipType.ofShape("LINE", "I", "XXXX"), // given as a shape, but straight
+  };
+
+  /**
+   * Tests that the vectorized engine and the forced scalar fallback match the scalar heatmap on
+   * random non-square boards with straight ships, repeated lengths and shaped ships, reusing each
+   * engine for boards of growing and shrinking sizes.
+   */
+  @Test
+  public void testMatchesScalarHeatmap() {
+    // Arrange
+    SplittableRandom random = new SplittableRandom(41);
+    VectorPlacementHeatmap vector = new VectorPlacementHeatmap();
+    VectorPlacementHeatmap fallback = new VectorPlacementHeatmap(false);
+    int[][] boards = {{7, 13}, {40, 3}, {9, 1}, {1, 9}, {10, 10}, {33, 17}, {2, 64}, {5, 6}};
+
+    for (int round = 0; round < 400; round++) {
+      int[] board = boards[round % boards.length];
+      int rows = board[0];
+      int cols = board[1];
+      byte[] cells = new byte[rows * cols];
+      for (int i = 0; i < cells.length; i++) {
+        int roll = random.nextInt(10);
+        cells[i] = roll < 6 ? PlacementHeatmap.UNKNOWN
+            : roll < 8 ? PlacementHeatmap.MISS : PlacementHeatmap.HIT;
+      }
+      List<ShipType> ships = new ArrayList<>();
+      int longest = Math.min(Math.max(rows, cols) + 2, ShipType.MAX_SIZE + 1); // some never fit
+      for (int i = random.nextInt(1, 7); i > 0; i--) {
+        ships.add(random.nextInt(4) == 0
+            ? SHAPES[random.nextInt(SHAPES.length)]
+            : new ShipType("S" + i, random.nextInt(1, longest), "S"));
+      }
+      int[] expected = new int[rows * cols];
+      int[] vectorCounts = new int[rows * cols];
+      int[] fallbackCounts = new int[rows * cols];
+
+      // Act
+      PlacementHeatmap.compute(rows, cols, cells, ships, expected);
+      vector.compute(rows, cols, cells, ships, vectorCounts);
+      fallback.compute(rows, cols, cells, ships, fallbackCounts);
+
+      // Assert
+      assertArrayEquals(expected, vectorCounts);
+      assertArrayEquals(expected, fallbackCounts);
+    }
+  }
+
+  /**
+   * Tests that a board without misses yields placements for straight ships on a non-square
+   * board, so the comparison above doesn't pass on all-zero counts.
+   */
+  @Test
+  public void testCountsStraightShipsOnNonSquareBoard() {
+    // Arrange
+    int rows = 4;
+    int cols = 9;
+    byte[] cells = new byte[rows * cols];
+    int[] counts = new int[rows * cols];
+    List<ShipType> ships = List.of(ShipType.DESTROYER, ShipType.SUBMARINE);
+
+    // Act
+    new VectorPlacementHeatmap().compute(rows, cols, cells, ships, counts);
+
+    // Assert
+    int[] expected = new int[rows * cols];
+    PlacementHeatmap.compute(rows, cols, cells, ships, expected);
+    assertArrayEquals(expected, counts);
+    // Cell (2, 4) is covered by 3 horizontal placements and, with 3 placeable rows, 1 vertical one
+    assertEquals(2 * (3 + 1), counts[2 * cols + 4]);
+  }
+}